@@ -0,0 +1,42 @@
+package com.meli.inventorymanagement.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Lanza cada benchmark JMH desde JUnit: {@code mvn -Pbenchmark test}. Con
+ * {@code -Dbenchmark=<nombre>} corre sólo los benchmarks cuyo nombre lo contiene.
+ */
+@Tag("benchmark")
+class BenchmarkRunnerTest {
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(classes = {
+            CatalogImportBenchmark.class,
+            CheckoutBenchmark.class,
+            ExportBenchmark.class,
+            JwtValidationBenchmark.class,
+            LedgerAppendBenchmark.class,
+            LoginBurstBenchmark.class,
+            StorePermissionBenchmark.class
+    })
+    void run(Class<?> benchmark) throws RunnerException {
+        String selected = System.getProperty("benchmark");
+        assumeTrue(selected == null || selected.isBlank() || benchmark.getSimpleName().contains(selected),
+                () -> benchmark.getSimpleName() + " not selected by -Dbenchmark=" + selected);
+
+        new Runner(new OptionsBuilder()
+                .include(Pattern.quote(benchmark.getName()) + "\\.")
+                .shouldFailOnError(true)
+                .build())
+                .run();
+    }
+}
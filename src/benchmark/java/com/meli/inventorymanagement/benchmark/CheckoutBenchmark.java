@@ -0,0 +1,167 @@
+package com.meli.inventorymanagement.benchmark;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Statement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia (p50/p99 en modo SampleTime) de descontar una compra de N líneas con un ajuste
+ * por línea, cada uno en su transacción, frente al checkout todo-o-nada: SELECT ... FOR UPDATE,
+ * UPDATE y ledger en lote dentro de una única transacción. H2 en memoria con el esquema de la aplicación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(4)
+public class CheckoutBenchmark {
+
+    private static final int PRODUCTS = 2000;
+
+    private static final String CONDITIONAL_UPDATE =
+            "UPDATE inventory SET available_qty = available_qty + :delta, version = version + 1, " +
+            "updated_at = CURRENT_TIMESTAMP WHERE product_id = :productId AND store_id = :storeId " +
+            "AND available_qty + :delta >= 0";
+
+    private static final String LEDGER_INSERT =
+            "INSERT INTO inventory_ledger (product_id, store_id, event_type, quantity) " +
+            "VALUES ($1, $2, 'DELTA', $3)";
+
+    // Líneas por compra
+    @Param({"5", "20", "40"})
+    public int lines;
+
+    private DatabaseClient databaseClient;
+    private TransactionalOperator transactionalOperator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///checkout-benchmark-" + lines + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+        databaseClient = DatabaseClient.create(connectionFactory);
+        transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+
+        execute("DROP TABLE IF EXISTS inventory_ledger");
+        execute("DROP TABLE IF EXISTS inventory");
+        execute("CREATE TABLE inventory (id BIGINT AUTO_INCREMENT PRIMARY KEY, product_id BIGINT NOT NULL, " +
+                "store_id BIGINT NOT NULL, available_qty INT NOT NULL DEFAULT 0, version INT NOT NULL DEFAULT 0, " +
+                "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, UNIQUE(product_id, store_id))");
+        execute("CREATE TABLE inventory_ledger (seq BIGINT AUTO_INCREMENT PRIMARY KEY, product_id BIGINT NOT NULL, " +
+                "store_id BIGINT NOT NULL, event_type VARCHAR(5) NOT NULL, quantity INT NOT NULL, " +
+                "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        execute("INSERT INTO inventory (product_id, store_id, available_qty) " +
+                "SELECT x, 1, 100000000 FROM SYSTEM_RANGE(1, " + PRODUCTS + ")");
+    }
+
+    @Benchmark
+    public Long sequentialAdjustments() {
+        return Flux.fromIterable(basket())
+                .concatMap(productId -> databaseClient.sql(CONDITIONAL_UPDATE)
+                        .bind("delta", -1)
+                        .bind("productId", productId)
+                        .bind("storeId", 1L)
+                        .fetch()
+                        .rowsUpdated()
+                        .flatMap(updated -> appendLedger(List.of(productId)).thenReturn(updated))
+                        .as(transactionalOperator::transactional))
+                .reduce(0L, Long::sum)
+                .block();
+    }
+
+    @Benchmark
+    public Long allOrNothingCheckout() {
+        List<Long> basket = basket().stream().sorted().toList();
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(
+                            "SELECT id, available_qty FROM inventory WHERE product_id = $1 AND store_id = $2 FOR UPDATE");
+                    for (int i = 0; i < basket.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        statement.bind(0, basket.get(i)).bind(1, 1L);
+                    }
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> result.map((row, metadata) -> new long[]{
+                                    row.get("id", Long.class), row.get("available_qty", Integer.class)}));
+                })
+                .collectList()
+                .flatMap(locked -> locked.stream().allMatch(row -> row[1] >= 1)
+                        ? updateLocked(locked).flatMap(updated -> appendLedger(basket).thenReturn(updated))
+                        : Mono.just(0L))
+                .as(transactionalOperator::transactional)
+                .block();
+    }
+
+    private Mono<Long> updateLocked(List<long[]> locked) {
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(
+                            "UPDATE inventory SET available_qty = $1, version = version + 1, " +
+                            "updated_at = CURRENT_TIMESTAMP WHERE id = $2");
+                    for (int i = 0; i < locked.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        statement.bind(0, (int) locked.get(i)[1] - 1).bind(1, locked.get(i)[0]);
+                    }
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> Mono.from(result.getRowsUpdated()));
+                })
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> appendLedger(List<Long> productIds) {
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(LEDGER_INSERT);
+                    for (int i = 0; i < productIds.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        statement.bind(0, productIds.get(i)).bind(1, 1L).bind(2, -1);
+                    }
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> Mono.from(result.getRowsUpdated()));
+                })
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Productos distintos al azar, en el orden en que llegan las líneas de la compra.
+     */
+    private List<Long> basket() {
+        List<Long> basket = new ArrayList<>(lines);
+        ThreadLocalRandom.current().longs(1, PRODUCTS + 1)
+                .distinct()
+                .limit(lines)
+                .forEach(basket::add);
+        return basket;
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
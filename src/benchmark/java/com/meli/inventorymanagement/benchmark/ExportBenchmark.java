@@ -0,0 +1,78 @@
+package com.meli.inventorymanagement.benchmark;
+
+import com.meli.inventorymanagement.application.mapper.InventoryMapper;
+import com.meli.inventorymanagement.infrastructure.adapter.input.rest.InventoryExportWriter;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.InventoryPersistenceAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filas por segundo del export completo en un solo hilo: lectura en streaming desde H2 en
+ * memoria, mapeo a InventoryResponse y serialización a NDJSON/CSV con las clases de la aplicación.
+ * El objetivo es sostener al menos 200k filas/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgs = {"-XX:ActiveProcessorCount=1"})
+@Threads(1)
+public class ExportBenchmark {
+
+    private static final int STORES = 500;
+    private static final int PRODUCTS = 1000;
+    private static final int ROWS = STORES * PRODUCTS;
+
+    @Param({"ndjson", "csv"})
+    public String format;
+
+    private InventoryPersistenceAdapter adapter;
+    private InventoryMapper mapper;
+    private InventoryExportWriter writer;
+    private InventoryExportWriter.Format exportFormat;
+    private DefaultDataBufferFactory bufferFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryDatabase database = new InMemoryDatabase("export-benchmark");
+        database.execute("INSERT INTO products (id, sku, name) " +
+                "SELECT x, 'SKU-' || x, 'Producto de prueba ' || x FROM SYSTEM_RANGE(1, " + PRODUCTS + ")");
+        database.execute("INSERT INTO stores (id, name) " +
+                "SELECT x, 'Tienda ' || x FROM SYSTEM_RANGE(1, " + STORES + ")");
+        database.execute("INSERT INTO inventory (product_id, store_id, available_qty) " +
+                "SELECT p.x, s.x, MOD(p.x * s.x, 500) FROM SYSTEM_RANGE(1, " + PRODUCTS + ") p, " +
+                "SYSTEM_RANGE(1, " + STORES + ") s");
+
+        adapter = database.inventoryAdapter();
+        mapper = new InventoryMapper();
+        writer = new InventoryExportWriter();
+        exportFormat = InventoryExportWriter.Format.from(format);
+        bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Long exportAllRows() {
+        return writer.write(adapter.streamAll().map(mapper::toResponse), exportFormat, bufferFactory)
+                .map(DataBuffer::readableByteCount)
+                .reduce(0L, Long::sum)
+                .block();
+    }
+}
@@ -0,0 +1,65 @@
+package com.meli.inventorymanagement.benchmark;
+
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.CatalogImportAdapter;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.InventoryChangeWatermark;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.InventoryLedgerAdapter;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.InventoryLedgerRepository;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.InventoryPersistenceAdapter;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.InventoryRepository;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.InventorySnapshotRepository;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.H2Dialect;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.util.Optional;
+
+/**
+ * Base H2 en memoria con el schema.sql de la aplicación y los adaptadores de persistencia
+ * reales, armados sin contexto de Spring: los benchmarks ejercitan los mismos colaboradores
+ * que producción en lugar de instancias a medio construir.
+ */
+final class InMemoryDatabase {
+
+    final ConnectionFactory connectionFactory;
+    final DatabaseClient databaseClient;
+    final TransactionalOperator transactionalOperator;
+    // Compartido por todos los adaptadores que escriben inventario, como el bean de la aplicación
+    final InventoryChangeWatermark changeWatermark;
+
+    private final R2dbcRepositoryFactory repositories;
+
+    InMemoryDatabase(String name) {
+        connectionFactory = ConnectionFactories.get("r2dbc:h2:mem:///" + name + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+        databaseClient = DatabaseClient.create(connectionFactory);
+        transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+        changeWatermark = new InventoryChangeWatermark(databaseClient);
+        repositories = new R2dbcRepositoryFactory(new R2dbcEntityTemplate(databaseClient, H2Dialect.INSTANCE));
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).populate(connectionFactory).block();
+    }
+
+    void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+
+    InventoryLedgerAdapter ledgerAdapter() {
+        return new InventoryLedgerAdapter(repositories.getRepository(InventoryLedgerRepository.class),
+                repositories.getRepository(InventorySnapshotRepository.class), databaseClient, true);
+    }
+
+    InventoryPersistenceAdapter inventoryAdapter() {
+        return new InventoryPersistenceAdapter(repositories.getRepository(InventoryRepository.class),
+                transactionalOperator, databaseClient, ledgerAdapter(), changeWatermark);
+    }
+
+    CatalogImportAdapter catalogImportAdapter() {
+        return new CatalogImportAdapter(databaseClient, transactionalOperator, ledgerAdapter(), changeWatermark,
+                Optional.empty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.meli.inventorymanagement.benchmark;
+
+import com.meli.inventorymanagement.infrastructure.security.GrantRevocationRegistry;
+import com.meli.inventorymanagement.infrastructure.security.JwtClaimsCache;
+import com.meli.inventorymanagement.infrastructure.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por request de autenticar un JWT: el camino anterior (clave y parser nuevos, tres
+ * verificaciones y parseos del mismo token) frente a la caché de claims verificados, con
+ * 1000 usuarios distintos usando sus tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(4)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "mySecretKeyForInventoryManagementSystemThatIsLongEnoughForHS256Algorithm";
+    private static final int USERS = 1000;
+
+    private JwtUtil jwtUtil;
+    private String[] usernames;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 86_400_000L, new JwtClaimsCache(new SimpleMeterRegistry(), 100_000),
+                new GrantRevocationRegistry(Duration.ofMinutes(5), Optional.empty()));
+        usernames = new String[USERS];
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            usernames[i] = "user" + i;
+            tokens[i] = jwtUtil.generateToken(usernames[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean reparsePerRequest() {
+        int user = ThreadLocalRandom.current().nextInt(USERS);
+        String token = tokens[user];
+        // Lo que hacía el filtro: extractUsername, y validateToken con extractUsername + extractExpiration
+        String username = parse(token).getSubject();
+        boolean valid = parse(token).getSubject().equals(username) && !parse(token).getExpiration().before(new Date());
+        return valid && username.equals(usernames[user]);
+    }
+
+    @Benchmark
+    public boolean cachedClaims() {
+        int user = ThreadLocalRandom.current().nextInt(USERS);
+        String token = tokens[user];
+        String username = jwtUtil.extractUsername(token);
+        return jwtUtil.validateToken(token, username) && username.equals(usernames[user]);
+    }
+
+    private static Claims parse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
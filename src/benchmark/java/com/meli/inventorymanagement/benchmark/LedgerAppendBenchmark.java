@@ -0,0 +1,124 @@
+package com.meli.inventorymanagement.benchmark;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de registrar cada ajuste en el ledger frente al UPDATE condicional actual, sobre H2 en
+ * memoria con el mismo esquema que la aplicación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(4)
+public class LedgerAppendBenchmark {
+
+    private static final String CONDITIONAL_UPDATE =
+            "UPDATE inventory SET available_qty = available_qty + :delta, version = version + 1, " +
+            "updated_at = CURRENT_TIMESTAMP WHERE product_id = :productId AND store_id = :storeId " +
+            "AND available_qty + :delta >= 0";
+
+    private static final String LEDGER_INSERT =
+            "INSERT INTO inventory_ledger (product_id, store_id, event_type, quantity) " +
+            "VALUES (:productId, :storeId, 'DELTA', :delta)";
+
+    // Cantidad de productos por tienda: valores bajos concentran la contención en pocas filas
+    @Param({"10", "1000"})
+    public int products;
+
+    private DatabaseClient databaseClient;
+    private TransactionalOperator transactionalOperator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///ledger-benchmark-" + products + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+        databaseClient = DatabaseClient.create(connectionFactory);
+        transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+
+        execute("DROP TABLE IF EXISTS inventory_ledger");
+        execute("DROP TABLE IF EXISTS inventory");
+        execute("CREATE TABLE inventory (id BIGINT AUTO_INCREMENT PRIMARY KEY, product_id BIGINT NOT NULL, " +
+                "store_id BIGINT NOT NULL, available_qty INT NOT NULL DEFAULT 0, version INT NOT NULL DEFAULT 0, " +
+                "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, UNIQUE(product_id, store_id))");
+        execute("CREATE TABLE inventory_ledger (seq BIGINT AUTO_INCREMENT PRIMARY KEY, product_id BIGINT NOT NULL, " +
+                "store_id BIGINT NOT NULL, event_type VARCHAR(5) NOT NULL, quantity INT NOT NULL, " +
+                "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        execute("CREATE INDEX idx_inventory_ledger_key_seq ON inventory_ledger(product_id, store_id, seq)");
+        execute("INSERT INTO inventory (product_id, store_id, available_qty) " +
+                "SELECT x, 1, 1000000 FROM SYSTEM_RANGE(1, " + products + ")");
+    }
+
+    @Benchmark
+    public Long conditionalUpdate() {
+        long productId = randomProduct();
+        return update(productId, 1)
+                .as(transactionalOperator::transactional)
+                .block();
+    }
+
+    @Benchmark
+    public Long conditionalUpdateWithLedger() {
+        long productId = randomProduct();
+        return update(productId, 1)
+                .flatMap(updated -> append(productId, 1).thenReturn(updated))
+                .as(transactionalOperator::transactional)
+                .block();
+    }
+
+    @Benchmark
+    public Long ledgerAppendOnly() {
+        return append(randomProduct(), 1)
+                .as(transactionalOperator::transactional)
+                .block();
+    }
+
+    private Mono<Long> update(long productId, int delta) {
+        return databaseClient.sql(CONDITIONAL_UPDATE)
+                .bind("delta", delta)
+                .bind("productId", productId)
+                .bind("storeId", 1L)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Long> append(long productId, int delta) {
+        return databaseClient.sql(LEDGER_INSERT)
+                .bind("productId", productId)
+                .bind("storeId", 1L)
+                .bind("delta", delta)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private long randomProduct() {
+        return ThreadLocalRandom.current().nextLong(1, products + 1);
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
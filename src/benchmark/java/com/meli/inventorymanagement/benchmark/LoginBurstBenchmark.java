@@ -0,0 +1,153 @@
+package com.meli.inventorymanagement.benchmark;
+
+import com.meli.inventorymanagement.infrastructure.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencia (p50/p99 en modo SampleTime) de un request de inventario servido por un event loop
+ * mientras llegan 500 logins por segundo. Con {@code inline} el BCrypt corre en el mismo loop,
+ * como antes; con {@code pool} el loop sólo despacha el hash a {@link PasswordHashingExecutor}.
+ * El request de inventario es una lectura en memoria, así que toda la latencia extra es espera.
+ * <p>
+ * La variante en modo Throughput reporta además, como contadores auxiliares, los logins
+ * atendidos y los rechazados por el pool saturado en cada iteración.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(4)
+public class LoginBurstBenchmark {
+
+    private static final int LOGINS_PER_SECOND = 500;
+    private static final int EVENT_LOOPS = 4;
+    private static final String PASSWORD = "12345";
+
+    @Param({"inline", "pool"})
+    public String hashing;
+
+    private final ConcurrentHashMap<Long, Integer> inventory = new ConcurrentHashMap<>();
+    private final LongAdder completedLogins = new LongAdder();
+    private final LongAdder rejectedLogins = new LongAdder();
+
+    private BCryptPasswordEncoder encoder;
+    private String passwordHash;
+    private PasswordHashingExecutor hashingExecutor;
+    private ExecutorService[] eventLoops;
+    private ScheduledExecutorService loginGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder();
+        passwordHash = encoder.encode(PASSWORD);
+        hashingExecutor = new PasswordHashingExecutor(encoder, new SimpleMeterRegistry(), 0, 500);
+        for (long sku = 1; sku <= 10_000; sku++) {
+            inventory.put(sku, 100);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startBurst() {
+        eventLoops = new ExecutorService[EVENT_LOOPS];
+        for (int i = 0; i < EVENT_LOOPS; i++) {
+            eventLoops[i] = Executors.newSingleThreadExecutor();
+        }
+        completedLogins.reset();
+        rejectedLogins.reset();
+        loginGenerator = Executors.newSingleThreadScheduledExecutor();
+        long periodMicros = 1_000_000L / LOGINS_PER_SECOND;
+        loginGenerator.scheduleAtFixedRate(() -> eventLoop().execute(this::login), 0, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopBurst() throws InterruptedException {
+        loginGenerator.shutdownNow();
+        for (ExecutorService eventLoop : eventLoops) {
+            // Con inline los loops quedan con miles de logins encolados: se descartan
+            eventLoop.shutdownNow();
+            eventLoop.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hashingExecutor.stop();
+    }
+
+    @Benchmark
+    public Integer inventoryRequestDuringLoginBurst() {
+        long sku = ThreadLocalRandom.current().nextLong(1, 10_001);
+        // Con inline la espera crece sin límite: se corta en 5 s para que la iteración termine
+        return CompletableFuture.supplyAsync(() -> inventory.get(sku), eventLoop())
+                .completeOnTimeout(null, 5, TimeUnit.SECONDS)
+                .join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Integer inventoryThroughputDuringLoginBurst(LoginCounters counters) {
+        // Cada hilo suma lo que encuentra: cada login se cuenta una sola vez entre todos
+        counters.completedLogins += completedLogins.sumThenReset();
+        counters.rejectedLogins += rejectedLogins.sumThenReset();
+        return inventoryRequestDuringLoginBurst();
+    }
+
+    private void login() {
+        if ("inline".equals(hashing)) {
+            encoder.matches(PASSWORD, passwordHash);
+            completedLogins.increment();
+        } else {
+            hashingExecutor.matches(PASSWORD, passwordHash)
+                    .subscribe(matches -> completedLogins.increment(), error -> rejectedLogins.increment());
+        }
+    }
+
+    private ExecutorService eventLoop() {
+        return eventLoops[ThreadLocalRandom.current().nextInt(EVENT_LOOPS)];
+    }
+
+    /**
+     * Logins de la iteración, reportados por JMH junto al resultado.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LoginCounters {
+
+        public long completedLogins;
+        public long rejectedLogins;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            completedLogins = 0;
+            rejectedLogins = 0;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.meli.inventorymanagement.benchmark;
+
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentItem;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentRequest;
+import com.meli.inventorymanagement.application.dto.StoreScopedRequest;
+import com.meli.inventorymanagement.infrastructure.security.RequireStorePermission;
+import com.meli.inventorymanagement.infrastructure.security.StoreAccess;
+import com.meli.inventorymanagement.infrastructure.security.StorePermissionDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Costo por request de resolver qué tiendas autorizar y cómo diferir el handler: la resolución
+ * anterior por reflexión en cada invocación frente al descriptor compilado una vez, con y sin el
+ * chequeo de permisos contra el bitset del usuario.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class StorePermissionBenchmark {
+
+    @Param({"storeId", "batch"})
+    public String handler;
+
+    private Method method;
+    private Object[] args;
+    private RequireStorePermission policy;
+    private StorePermissionDescriptor descriptor;
+    private StoreAccess access;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        if ("storeId".equals(handler)) {
+            method = SampleController.class.getMethod("getStoreInventory", Long.class, String.class, Object.class);
+            args = new Object[]{7L, "cursor", new Object()};
+        } else {
+            method = SampleController.class.getMethod("adjustBatch", InventoryBatchAdjustmentRequest.class, Object.class);
+            List<InventoryBatchAdjustmentItem> items = LongStream.rangeClosed(1, 20)
+                    .mapToObj(i -> InventoryBatchAdjustmentItem.builder()
+                            .productSku("SKU-" + i)
+                            .storeId(1 + i % 4)
+                            .adjustment(1)
+                            .build())
+                    .toList();
+            args = new Object[]{InventoryBatchAdjustmentRequest.builder().items(items).build(), new Object()};
+        }
+        policy = method.getAnnotation(RequireStorePermission.class);
+        descriptor = StorePermissionDescriptor.compile(method, policy);
+        access = StoreAccess.of("STORE_USER", LongStream.rangeClosed(1, 10).boxed().toList());
+    }
+
+    @Benchmark
+    public void reflectivePerCall(Blackhole blackhole) {
+        // Lo que hacía el aspecto en cada invocación
+        blackhole.consume(extractStoreIds(method, args, policy.storeIdParam()));
+        Class<?> returnType = method.getReturnType();
+        blackhole.consume(Mono.class.isAssignableFrom(returnType) ? 0 : Flux.class.isAssignableFrom(returnType) ? 1 : 2);
+    }
+
+    @Benchmark
+    public void precompiledDescriptor(Blackhole blackhole) {
+        blackhole.consume(descriptor.storeIds(args));
+        blackhole.consume(descriptor.returnAdapter());
+    }
+
+    @Benchmark
+    public Long precompiledDescriptorWithGrantCheck() {
+        return access.firstDeniedStore(descriptor.storeIds(args));
+    }
+
+    private static Set<Long> extractStoreIds(Method method, Object[] args, String paramName) {
+        Parameter[] parameters = method.getParameters();
+        Set<Long> storeIds = new LinkedHashSet<>();
+
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
+
+            if (pathVariable != null) {
+                String pathVarName = pathVariable.value().isEmpty() ? pathVariable.name() : pathVariable.value();
+                if (pathVarName.isEmpty()) {
+                    pathVarName = parameter.getName();
+                }
+                if (paramName.equals(pathVarName) && args[i] instanceof Long) {
+                    storeIds.add((Long) args[i]);
+                }
+            } else if (args[i] instanceof StoreScopedRequest scoped) {
+                scoped.storeIds().stream()
+                        .filter(storeId -> storeId != null)
+                        .forEach(storeIds::add);
+            }
+        }
+        return storeIds;
+    }
+
+    public static class SampleController {
+
+        @RequireStorePermission
+        public Mono<Object> getStoreInventory(@PathVariable("storeId") Long storeId, String cursor, Object exchange) {
+            return Mono.empty();
+        }
+
+        @RequireStorePermission
+        public Mono<Object> adjustBatch(@RequestBody InventoryBatchAdjustmentRequest request, Object exchange) {
+            return Mono.empty();
+        }
+    }
+}
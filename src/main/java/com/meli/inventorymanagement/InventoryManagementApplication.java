@@ -1,13 +1,19 @@
 package com.meli.inventorymanagement;
 
+import com.meli.inventorymanagement.infrastructure.adapter.input.cli.CatalogImportRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class InventoryManagementApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(InventoryManagementApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(InventoryManagementApplication.class, args);
+        // La carga por línea de comandos termina el proceso con el código que informa el runner
+        if (context.getBean(CatalogImportRunner.class).imported()) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
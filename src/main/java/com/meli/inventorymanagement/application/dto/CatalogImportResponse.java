@@ -0,0 +1,25 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportResponse {
+
+    // "products" o "inventory"
+    private String type;
+    private long read;
+    private long applied;
+    private long rejected;
+    private long durationMs;
+    private long rowsPerSecond;
+    // Primeras líneas rechazadas con su motivo
+    private List<String> errors;
+}
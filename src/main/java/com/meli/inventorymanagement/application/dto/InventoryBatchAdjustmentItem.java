@@ -0,0 +1,24 @@
+package com.meli.inventorymanagement.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBatchAdjustmentItem {
+
+    @NotBlank(message = "Product SKU cannot be blank")
+    private String productSku;
+
+    @NotNull(message = "Store ID cannot be null")
+    private Long storeId;
+
+    @NotNull(message = "Adjustment quantity cannot be null")
+    private Integer adjustment;
+}
@@ -0,0 +1,35 @@
+package com.meli.inventorymanagement.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBatchAdjustmentRequest implements StoreScopedRequest {
+
+    public static final int MAX_ITEMS = 500;
+
+    @NotEmpty(message = "Adjustment items cannot be empty")
+    @Size(max = MAX_ITEMS, message = "A batch cannot contain more than " + MAX_ITEMS + " adjustments")
+    private List<@Valid InventoryBatchAdjustmentItem> items;
+
+    @Override
+    public Set<Long> storeIds() {
+        Set<Long> storeIds = new LinkedHashSet<>();
+        if (items != null) {
+            items.forEach(item -> storeIds.add(item.getStoreId()));
+        }
+        return storeIds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBatchAdjustmentResponse {
+
+    private Integer applied;
+    private Integer rejected;
+    private List<InventoryBatchAdjustmentResult> results;
+}
@@ -0,0 +1,25 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBatchAdjustmentResult {
+
+    // Posición del ítem en el request
+    private Integer index;
+    private String productSku;
+    private Long storeId;
+    private Integer adjustment;
+    private boolean applied;
+    private Integer previousQty;
+    private InventoryResponse inventory;
+    // Sólo en ítems rechazados
+    private String errorCode;
+    private String message;
+}
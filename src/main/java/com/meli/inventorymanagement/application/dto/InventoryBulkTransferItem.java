@@ -0,0 +1,27 @@
+package com.meli.inventorymanagement.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBulkTransferItem {
+
+    @NotBlank(message = "Product SKU cannot be blank")
+    private String productSku;
+
+    @NotNull(message = "Source store ID cannot be null")
+    private Long fromStoreId;
+
+    @NotNull(message = "Destination store ID cannot be null")
+    private Long toStoreId;
+
+    @NotNull(message = "Quantity cannot be null")
+    private Integer quantity;
+}
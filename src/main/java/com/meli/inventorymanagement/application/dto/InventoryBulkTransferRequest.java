@@ -0,0 +1,38 @@
+package com.meli.inventorymanagement.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBulkTransferRequest implements StoreScopedRequest {
+
+    public static final int MAX_ITEMS = 20000;
+
+    @NotEmpty(message = "Transfer items cannot be empty")
+    @Size(max = MAX_ITEMS, message = "A bulk transfer cannot contain more than " + MAX_ITEMS + " items")
+    private List<@Valid InventoryBulkTransferItem> items;
+
+    @Override
+    public Set<Long> storeIds() {
+        Set<Long> storeIds = new LinkedHashSet<>();
+        if (items != null) {
+            items.forEach(item -> {
+                storeIds.add(item.getFromStoreId());
+                storeIds.add(item.getToStoreId());
+            });
+        }
+        return storeIds;
+    }
+}
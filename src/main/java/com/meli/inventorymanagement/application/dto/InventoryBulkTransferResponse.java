@@ -0,0 +1,21 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBulkTransferResponse {
+
+    private Integer applied;
+    private Integer rejected;
+    // Transacciones usadas para aplicar el lote
+    private Integer transactions;
+    private List<InventoryBulkTransferResult> results;
+}
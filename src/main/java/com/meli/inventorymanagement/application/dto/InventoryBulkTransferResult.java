@@ -0,0 +1,23 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBulkTransferResult {
+
+    // Posición del ítem en el request
+    private Integer index;
+    private String productSku;
+    private Long fromStoreId;
+    private Long toStoreId;
+    private Integer quantity;
+    private boolean applied;
+    private String errorCode;
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.meli.inventorymanagement.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCheckoutRequest {
+
+    public static final int MAX_LINES = 200;
+
+    @NotEmpty(message = "Checkout lines cannot be empty")
+    @Size(max = MAX_LINES, message = "A checkout cannot contain more than " + MAX_LINES + " lines")
+    private List<@Valid InventoryCheckoutLine> lines;
+}
@@ -0,0 +1,21 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCheckoutResponse {
+
+    private Long storeId;
+    private Integer lines;
+    private Integer units;
+    // Estado final de cada SKU distinto de la compra
+    private List<InventoryResponse> inventories;
+}
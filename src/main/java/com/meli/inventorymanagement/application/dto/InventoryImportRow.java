@@ -0,0 +1,23 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Línea de un archivo de importación de inventario ya separada en campos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryImportRow {
+
+    private long line;
+    private String productSku;
+    private Long storeId;
+    private Integer availableQty;
+    // Motivo por el que la línea no se pudo leer; null si se leyó bien
+    private String error;
+}
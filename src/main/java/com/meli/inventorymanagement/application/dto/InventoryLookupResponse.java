@@ -0,0 +1,19 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLookupResponse {
+
+    private String productSku;
+    // Vacío si el SKU no existe o no tiene stock en las tiendas pedidas
+    private List<InventoryResponse> inventories;
+}
@@ -0,0 +1,20 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryPageResponse {
+
+    private Long storeId;
+    private List<InventoryResponse> items;
+    // Se envía como cursor para pedir la página siguiente; null en la última página
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.meli.inventorymanagement.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReservationRequest {
+
+    @NotNull(message = "Quantity cannot be null")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    // Opcional: si falta se usa la duración por defecto
+    @Positive(message = "TTL must be positive")
+    private Long ttlSeconds;
+}
@@ -0,0 +1,22 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReservationResponse {
+
+    private String reservationId;
+    private String productSku;
+    private Long storeId;
+    private Integer quantity;
+    private String status;
+    private LocalDateTime expiresAt;
+}
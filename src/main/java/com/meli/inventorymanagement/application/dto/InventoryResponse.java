@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class InventoryResponse {
@@ -19,6 +19,11 @@ public class InventoryResponse {
     private Long storeId;
     private String storeName;
     private Integer availableQty;
+    private Integer reservedQty;
+    // Unidades vendibles: disponibles menos reservadas
+    private Integer sellableQty;
     private Integer version;
     private LocalDateTime updatedAt;
+    // Sólo en consultas históricas: instante al que corresponde availableQty
+    private LocalDateTime asOf;
 }
\ No newline at end of file
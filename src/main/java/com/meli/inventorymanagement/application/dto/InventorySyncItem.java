@@ -0,0 +1,22 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estado actual de un producto en la tienda dentro de un lote de sincronización: sólo lo que
+ * el cliente necesita para reemplazar su copia local.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySyncItem {
+
+    private String productSku;
+    private Integer availableQty;
+    private Integer reservedQty;
+    private Integer version;
+}
@@ -0,0 +1,22 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySyncResponse {
+
+    private Long storeId;
+    private List<InventorySyncItem> changes;
+    // Se guarda y se envía como cursor en la próxima sincronización; null si la tienda no tiene cambios aún
+    private String nextCursor;
+    // Hay más cambios disponibles: se puede pedir el lote siguiente sin esperar
+    private boolean hasMore;
+}
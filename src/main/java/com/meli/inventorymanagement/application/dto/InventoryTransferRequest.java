@@ -0,0 +1,36 @@
+package com.meli.inventorymanagement.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTransferRequest implements StoreScopedRequest {
+
+    @NotNull(message = "Source store ID cannot be null")
+    private Long fromStoreId;
+
+    @NotNull(message = "Destination store ID cannot be null")
+    private Long toStoreId;
+
+    @NotNull(message = "Quantity cannot be null")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    @Override
+    public Set<Long> storeIds() {
+        Set<Long> storeIds = new LinkedHashSet<>();
+        storeIds.add(fromStoreId);
+        storeIds.add(toStoreId);
+        return storeIds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTransferResponse {
+
+    private String productSku;
+    private Integer quantity;
+    private InventoryResponse source;
+    private InventoryResponse destination;
+}
@@ -0,0 +1,23 @@
+package com.meli.inventorymanagement.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Línea de un archivo de importación de productos ya separada en campos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRow {
+
+    private long line;
+    private String sku;
+    private String name;
+    private String description;
+    // Motivo por el que la línea no se pudo leer; null si se leyó bien
+    private String error;
+}
@@ -0,0 +1,12 @@
+package com.meli.inventorymanagement.application.dto;
+
+import java.util.Set;
+
+/**
+ * Request cuyo cuerpo afecta a una o más tiendas. El control de permisos por tienda valida
+ * cada tienda distinta una sola vez.
+ */
+public interface StoreScopedRequest {
+
+    Set<Long> storeIds();
+}
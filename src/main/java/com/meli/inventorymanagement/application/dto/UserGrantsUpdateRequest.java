@@ -0,0 +1,24 @@
+package com.meli.inventorymanagement.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Rol y tiendas que reemplazan a los actuales del usuario.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserGrantsUpdateRequest {
+
+    @NotBlank(message = "Role is required")
+    private String role;
+
+    private Set<Long> storeIds;
+}
@@ -0,0 +1,17 @@
+package com.meli.inventorymanagement.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatusUpdateRequest {
+
+    @NotNull(message = "Active flag cannot be null")
+    private Boolean active;
+}
@@ -1,6 +1,7 @@
 package com.meli.inventorymanagement.application.mapper;
 
 import com.meli.inventorymanagement.application.dto.InventoryResponse;
+import com.meli.inventorymanagement.application.dto.InventorySyncItem;
 import com.meli.inventorymanagement.domain.model.Inventory;
 import org.springframework.stereotype.Component;
 
@@ -19,8 +20,25 @@ public class InventoryMapper {
                 .storeId(inventory.getStore() != null ? inventory.getStore().getId() : null)
                 .storeName(inventory.getStore() != null ? inventory.getStore().getName() : null)
                 .availableQty(inventory.getAvailableQty())
+                .reservedQty(inventory.getReservedQty())
+                .sellableQty(inventory.getAvailableQty() != null && inventory.getReservedQty() != null
+                        ? inventory.getAvailableQty() - inventory.getReservedQty()
+                        : inventory.getAvailableQty())
                 .version(inventory.getVersion())
                 .updatedAt(inventory.getUpdatedAt())
                 .build();
     }
+
+    public InventorySyncItem toSyncItem(Inventory inventory) {
+        if (inventory == null) {
+            return null;
+        }
+
+        return InventorySyncItem.builder()
+                .productSku(inventory.getProduct() != null ? inventory.getProduct().getSku() : null)
+                .availableQty(inventory.getAvailableQty())
+                .reservedQty(inventory.getReservedQty())
+                .version(inventory.getVersion())
+                .build();
+    }
 }
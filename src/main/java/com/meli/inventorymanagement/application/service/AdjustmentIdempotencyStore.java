@@ -0,0 +1,238 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.inventorymanagement.application.dto.InventoryResponse;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.port.IdempotencyKeyPort;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicación de ajustes por (usuario, Idempotency-Key).
+ * <p>
+ * La clave se persiste mediante {@link IdempotencyKeyPort} antes de aplicar el ajuste y la
+ * respuesta se guarda al terminar, así que la deduplicación cubre todo el TTL aunque la memoria
+ * descarte la clave o el proceso se reinicie. Si el proceso cae entre el ajuste y el registro de
+ * la respuesta, la clave queda en curso y sus reintentos se rechazan hasta que venza: nunca se
+ * aplica dos veces.
+ * <p>
+ * Delante de la base hay una caché en memoria repartida en segmentos con su propio lock. Cada
+ * segmento mantiene orden de inserción: con un TTL fijo las entradas vencidas siempre están al
+ * principio, así que la expiración no recorre el mapa, y al superar {@code max-entries} se
+ * descarta la más antigua, que se sigue resolviendo contra la base.
+ * <p>
+ * Un reintento que llega mientras el original está en curso en la misma instancia espera su
+ * resultado en lugar de ejecutarlo de nuevo. Los fallos no se recuerdan: no aplicaron la delta y
+ * el reintento vuelve a ejecutarse.
+ */
+@Slf4j
+@Component
+public class AdjustmentIdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final int SEGMENTS = 64;
+
+    private final IdempotencyKeyPort idempotencyKeyPort;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final long ttlNanos;
+    private final Segment[] segments;
+
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AdjustmentIdempotencyStore(IdempotencyKeyPort idempotencyKeyPort,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${inventory.idempotency.ttl:24h}") Duration ttl,
+                                      @Value("${inventory.idempotency.max-entries:500000}") int maxEntries) {
+        this.idempotencyKeyPort = idempotencyKeyPort;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.ttlNanos = ttl.toNanos();
+        this.segments = new Segment[SEGMENTS];
+        int segmentCapacity = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+
+        FunctionCounter.builder("inventory.idempotency.replays", replays, LongAdder::doubleValue)
+                .register(meterRegistry);
+        // Claves descartadas de la memoria por capacidad antes de vencer su TTL; siguen en la base
+        FunctionCounter.builder("inventory.idempotency.evictions", evictions, LongAdder::doubleValue)
+                .register(meterRegistry);
+        Gauge.builder("inventory.idempotency.keys", this, AdjustmentIdempotencyStore::size)
+                .register(meterRegistry);
+
+        log.info("Adjustment idempotency store enabled - TTL: {} - Max entries: {}", ttl, maxEntries);
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por (owner, key). Un reintento con la misma clave recibe
+     * la respuesta original; con la misma clave y otro pedido se rechaza con IDEMPOTENCY_KEY_REUSED.
+     *
+     * @param fingerprint identifica el contenido del pedido original
+     */
+    public Mono<InventoryResponse> execute(String owner, String key, String fingerprint,
+                                           Supplier<Mono<InventoryResponse>> operation) {
+        return Mono.defer(() -> {
+            // Un header no puede contener saltos de línea: el separador no genera ambigüedad
+            String scopedKey = owner + '\n' + key;
+            Segment segment = segmentFor(scopedKey);
+            Entry created = new Entry(fingerprint, System.nanoTime() + ttlNanos, new CompletableFuture<>());
+
+            Entry existing = segment.putIfAbsent(scopedKey, created);
+            if (existing != null) {
+                if (!existing.fingerprint().equals(fingerprint)) {
+                    return Mono.error(new BusinessException(ErrorCode.IDEMPOTENCY_KEY_REUSED,
+                            "Idempotency key " + key + " was already used with a different request"));
+                }
+                replays.increment();
+                log.info("Replaying adjustment for idempotency key {} of user {}", key, owner);
+                return Mono.fromFuture(existing.result(), true).map(this::copy);
+            }
+
+            // La operación no depende del suscriptor: si el cliente corta, el resultado queda para su reintento
+            idempotencyKeyPort.claim(owner, key, fingerprint, LocalDateTime.now().plus(ttl))
+                    .flatMap(claimed -> claimed
+                            ? run(owner, key, operation)
+                            : replayPersisted(owner, key, fingerprint))
+                    .subscribe(
+                            response -> created.result().complete(copy(response)),
+                            error -> {
+                                segment.remove(scopedKey, created);
+                                created.result().completeExceptionally(error);
+                            },
+                            () -> {
+                                // Sin respuesta no se aplicó nada: la clave no se recuerda
+                                if (!created.result().isDone()) {
+                                    segment.remove(scopedKey, created);
+                                    created.result().complete(null);
+                                }
+                            });
+            return Mono.fromFuture(created.result(), true).map(this::copy);
+        });
+    }
+
+    /**
+     * Ejecuta la operación sobre una clave recién reclamada. Sólo un fallo de la operación libera
+     * la clave; si falla el registro de la respuesta el ajuste ya se aplicó y la clave sigue en curso.
+     */
+    private Mono<InventoryResponse> run(String owner, String key, Supplier<Mono<InventoryResponse>> operation) {
+        return operation.get()
+                .onErrorResume(error -> idempotencyKeyPort.release(owner, key)
+                        .onErrorResume(releaseError -> Mono.empty())
+                        .then(Mono.error(error)))
+                .switchIfEmpty(Mono.defer(() -> idempotencyKeyPort.release(owner, key).then(Mono.empty())))
+                .flatMap(response -> Mono.fromCallable(() -> objectMapper.writeValueAsString(response))
+                        .flatMap(serialized -> idempotencyKeyPort.complete(owner, key, serialized))
+                        .onErrorResume(error -> {
+                            log.error("Could not store the response of idempotency key {} of user {}: {}",
+                                    key, owner, error.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(response));
+    }
+
+    /**
+     * La clave ya estaba en la base: la registró otra instancia o la memoria la descartó.
+     */
+    private Mono<InventoryResponse> replayPersisted(String owner, String key, String fingerprint) {
+        return idempotencyKeyPort.find(owner, key)
+                .switchIfEmpty(Mono.error(() -> new BusinessException(ErrorCode.OPTIMISTIC_LOCK_FAILURE,
+                        "Adjustment with idempotency key " + key + " changed state concurrently, retry")))
+                .flatMap(record -> {
+                    if (!record.getFingerprint().equals(fingerprint)) {
+                        return Mono.error(new BusinessException(ErrorCode.IDEMPOTENCY_KEY_REUSED,
+                                "Idempotency key " + key + " was already used with a different request"));
+                    }
+                    if (record.getResponse() == null) {
+                        return Mono.error(new BusinessException(ErrorCode.OPTIMISTIC_LOCK_FAILURE,
+                                "Adjustment with idempotency key " + key + " is still in progress or its outcome is unknown"));
+                    }
+                    replays.increment();
+                    log.info("Replaying persisted adjustment for idempotency key {} of user {}", key, owner);
+                    return Mono.fromCallable(() -> objectMapper.readValue(record.getResponse(), InventoryResponse.class));
+                });
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(String scopedKey) {
+        int hash = scopedKey.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    // Las respuestas son mutables: nunca se comparte la instancia guardada
+    private InventoryResponse copy(InventoryResponse response) {
+        return response.toBuilder().build();
+    }
+
+    private record Entry(String fingerprint, long expiresAt, CompletableFuture<InventoryResponse> result) {
+    }
+
+    private final class Segment {
+
+        private final LinkedHashMap<String, Entry> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Entry putIfAbsent(String key, Entry entry) {
+            purgeExpired(System.nanoTime());
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            entries.put(key, entry);
+            return null;
+        }
+
+        synchronized void remove(String key, Entry entry) {
+            entries.remove(key, entry);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        private void purgeExpired(long now) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext() && now - iterator.next().expiresAt() > 0) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.meli.inventorymanagement.application.dto.AuthRequest;
 import com.meli.inventorymanagement.application.dto.AuthResponse;
 import com.meli.inventorymanagement.common.constant.ErrorCode;
 import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.UserGrants;
 import com.meli.inventorymanagement.domain.port.AuthenticationPort;
 import com.meli.inventorymanagement.domain.port.TokenGeneratorPort;
 import lombok.RequiredArgsConstructor;
@@ -31,7 +32,10 @@ public class AuthService {
                                 "Invalid username or password"));
                     }
 
-                    return generateTokenResponse(request.getUsername().trim());
+                    return authenticationPort.findGrants(request.getUsername().trim())
+                            .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.INVALID_CREDENTIALS,
+                                    "Invalid username or password")))
+                            .flatMap(this::generateTokenResponse);
                 })
                 .onErrorResume(ex -> {
                     if (ex instanceof BusinessException) {
@@ -44,6 +48,23 @@ public class AuthService {
                 });
     }
 
+    /**
+     * Emite un token nuevo a partir de uno vigente, con el rol y las tiendas actuales del usuario.
+     * Los clientes lo llaman antes de que venza {@code jwt.grants.max-age} para seguir autorizándose
+     * sin consultar la base; un usuario desactivado o inexistente no puede renovar.
+     */
+    public Mono<AuthResponse> refresh(String token) {
+        return Mono.fromCallable(() -> tokenGeneratorPort.extractUsername(token))
+                .onErrorMap(e -> {
+                    log.warn("Token refresh rejected: {}", e.getMessage());
+                    return new BusinessException(ErrorCode.INVALID_TOKEN, "Invalid or expired token");
+                })
+                .flatMap(username -> authenticationPort.findGrants(username)
+                        .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.USER_ACCOUNT_INACTIVE,
+                                "User account is inactive or no longer exists: " + username))))
+                .flatMap(this::generateTokenResponse);
+    }
+
     private Mono<Void> validateRequest(AuthRequest request) {
         if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
             return Mono.error(new BusinessException(ErrorCode.INVALID_CREDENTIALS, "Username cannot be empty"));
@@ -56,8 +77,9 @@ public class AuthService {
         return Mono.empty();
     }
 
-    private Mono<AuthResponse> generateTokenResponse(String username) {
-        return Mono.fromCallable(() -> tokenGeneratorPort.generateToken(username))
+    private Mono<AuthResponse> generateTokenResponse(UserGrants grants) {
+        String username = grants.getUsername();
+        return Mono.fromCallable(() -> tokenGeneratorPort.generateToken(grants))
                 .onErrorMap(e -> {
                     log.error("Error generating JWT token for user {}: {}", username, e.getMessage(), e);
                     return new BusinessException(ErrorCode.TOKEN_EXTRACTION_ERROR,
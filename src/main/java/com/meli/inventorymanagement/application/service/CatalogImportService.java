@@ -0,0 +1,323 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.meli.inventorymanagement.application.dto.CatalogImportResponse;
+import com.meli.inventorymanagement.application.dto.InventoryImportRow;
+import com.meli.inventorymanagement.application.dto.ProductImportRow;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.model.Product;
+import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.domain.port.CatalogImportPort;
+import com.meli.inventorymanagement.domain.port.InventoryChangePort;
+import com.meli.inventorymanagement.domain.port.InventoryPort;
+import com.meli.inventorymanagement.domain.port.ProductPort;
+import com.meli.inventorymanagement.domain.port.StorePort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Carga masiva de productos e inventario desde filas leídas en streaming.
+ * <p>
+ * Las filas se reparten en {@code parallelism} particiones (por tienda en el inventario, por SKU
+ * en los productos) y cada partición escribe sus lotes en orden, de a uno por vez: dos
+ * particiones nunca tocan la misma fila, así que escriben en paralelo sin competir por locks, y
+ * una misma clave siempre se escribe en el orden del archivo. La lectura avanza al ritmo de las
+ * escrituras, por lo que la memoria queda acotada a los lotes en curso sin importar el tamaño del archivo.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final CatalogImportPort catalogImportPort;
+    private final ProductPort productPort;
+    private final StorePort storePort;
+    private final InventoryPort inventoryPort;
+    private final InventoryChangePort inventoryChangePort;
+    private final int batchSize;
+    private final int parallelism;
+    private final Duration progressInterval;
+    private final boolean writeBehindEnabled;
+
+    public CatalogImportService(CatalogImportPort catalogImportPort,
+                                ProductPort productPort,
+                                StorePort storePort,
+                                InventoryPort inventoryPort,
+                                InventoryChangePort inventoryChangePort,
+                                @Value("${inventory.import.batch-size:1000}") int batchSize,
+                                @Value("${inventory.import.parallelism:4}") int parallelism,
+                                @Value("${inventory.import.progress-interval:5s}") Duration progressInterval,
+                                @Value("${inventory.write-behind.enabled:false}") boolean writeBehindEnabled) {
+        this.catalogImportPort = catalogImportPort;
+        this.productPort = productPort;
+        this.storePort = storePort;
+        this.inventoryPort = inventoryPort;
+        this.inventoryChangePort = inventoryChangePort;
+        this.batchSize = batchSize;
+        this.parallelism = Math.max(1, parallelism);
+        this.progressInterval = progressInterval;
+        this.writeBehindEnabled = writeBehindEnabled;
+    }
+
+    public Mono<CatalogImportResponse> importProducts(Flux<ProductImportRow> rows) {
+        Progress progress = new Progress("products");
+        log.info("Importing products - Batch size: {} - Parallelism: {}", batchSize, parallelism);
+
+        return rows
+                .doOnNext(row -> progress.read.increment())
+                .filter(row -> accept(progress, row.getLine(), validate(row)))
+                .groupBy(row -> Math.floorMod(row.getSku().hashCode(), parallelism))
+                .flatMap(partition -> partition
+                        .buffer(batchSize)
+                        .concatMap(batch -> {
+                            List<Product> products = lastPerKey(batch, ProductImportRow::getSku).stream()
+                                    .map(row -> Product.builder()
+                                            .sku(row.getSku())
+                                            .name(row.getName())
+                                            .description(row.getDescription())
+                                            .build())
+                                    .toList();
+                            return catalogImportPort.upsertProducts(products)
+                                    .doOnNext(written -> progress.applied(batch.size()));
+                        }), parallelism)
+                .then(Mono.fromSupplier(progress::finish))
+                .doOnError(error -> log.error("Product import failed after {} rows: {}",
+                        progress.read.sum(), error.getMessage(), error))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.INVENTORY_OPERATION_FAILED,
+                                "Product import failed due to database error after " + progress.applied.sum() + " rows"));
+    }
+
+    /**
+     * Los SKUs de cada lote se resuelven con una sola consulta; las líneas con SKU o tienda
+     * inexistente se rechazan sin detener la carga. Fija la cantidad disponible: las unidades
+     * reservadas de las filas existentes se conservan, y una cantidad que no las cubre se rechaza.
+     */
+    public Mono<CatalogImportResponse> importInventory(Flux<InventoryImportRow> rows) {
+        if (writeBehindEnabled) {
+            return Mono.error(new BusinessException(ErrorCode.SERVICE_UNAVAILABLE,
+                    "Inventory import is not available while write-behind mode is enabled"));
+        }
+
+        Progress progress = new Progress("inventory");
+        log.info("Importing inventory - Batch size: {} - Parallelism: {}", batchSize, parallelism);
+
+        return storePort.findAll()
+                .map(Store::getId)
+                .collect(Collectors.toSet())
+                .flatMap(storeIds -> rows
+                        .doOnNext(row -> progress.read.increment())
+                        .filter(row -> accept(progress, row.getLine(), validate(row, storeIds)))
+                        // Una tienda siempre cae en la misma partición: sus filas no compiten con otras escrituras de la carga
+                        .groupBy(row -> Math.floorMod(row.getStoreId(), parallelism))
+                        .flatMap(partition -> partition
+                                .buffer(batchSize)
+                                .concatMap(batch -> writeInventoryBatch(progress, batch)), parallelism)
+                        .then(Mono.fromSupplier(progress::finish)))
+                .doOnError(error -> log.error("Inventory import failed after {} rows: {}",
+                        progress.read.sum(), error.getMessage(), error))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.INVENTORY_OPERATION_FAILED,
+                                "Inventory import failed due to database error after " + progress.applied.sum() + " rows"));
+    }
+
+    private Mono<Integer> writeInventoryBatch(Progress progress, List<InventoryImportRow> batch) {
+        List<InventoryImportRow> latest = lastPerKey(batch, row -> row.getProductSku() + '\n' + row.getStoreId());
+        Set<String> skus = latest.stream().map(InventoryImportRow::getProductSku).collect(Collectors.toSet());
+
+        return productPort.findBySkus(skus)
+                .collectMap(Product::getSku, Product::getId)
+                .flatMap(productIds -> {
+                    List<Inventory> inventories = new ArrayList<>(latest.size());
+                    for (InventoryImportRow row : latest) {
+                        Long productId = productIds.get(row.getProductSku());
+                        if (productId != null) {
+                            inventories.add(Inventory.builder()
+                                    .productId(productId)
+                                    .storeId(row.getStoreId())
+                                    .availableQty(row.getAvailableQty())
+                                    .build());
+                        }
+                    }
+                    int unknown = 0;
+                    for (InventoryImportRow row : batch) {
+                        if (!productIds.containsKey(row.getProductSku())) {
+                            progress.reject(row.getLine(), "Product with SKU " + row.getProductSku() + " not found");
+                            unknown++;
+                        }
+                    }
+                    int known = batch.size() - unknown;
+                    return catalogImportPort.upsertInventory(inventories)
+                            .flatMap(skipped -> {
+                                // Las repeticiones de una clave dentro del lote corren la suerte de la última
+                                Map<String, Integer> reserved = skipped.stream()
+                                        .collect(Collectors.toMap(row -> row.getProductId() + ":" + row.getStoreId(),
+                                                Inventory::getReservedQty, (first, second) -> first));
+                                int notApplied = 0;
+                                for (InventoryImportRow row : batch) {
+                                    Long productId = productIds.get(row.getProductSku());
+                                    Integer reservedQty = productId == null ? null : reserved.get(productId + ":" + row.getStoreId());
+                                    if (reservedQty != null) {
+                                        progress.reject(row.getLine(), String.format(
+                                                "Available quantity %d is below the %d reserved units of product %s in store %d",
+                                                row.getAvailableQty(), reservedQty, row.getProductSku(), row.getStoreId()));
+                                        notApplied++;
+                                    }
+                                }
+                                int applied = known - notApplied;
+                                progress.applied(applied);
+                                List<Inventory> written = inventories.stream()
+                                        .filter(row -> !reserved.containsKey(row.getProductId() + ":" + row.getStoreId()))
+                                        .toList();
+                                return publishChanges(written, skus).thenReturn(applied);
+                            });
+                });
+    }
+
+    /**
+     * Difunde las filas escritas con el estado que quedó en la base, releídas con una sola
+     * consulta por lote. Sin suscriptores no se relee nada y la carga no paga la lectura extra;
+     * un fallo al releer no deshace el lote, que ya se confirmó.
+     */
+    private Mono<Void> publishChanges(List<Inventory> written, Set<String> skus) {
+        if (written.isEmpty() || !inventoryChangePort.hasSubscribers()) {
+            return Mono.empty();
+        }
+        Set<String> keys = written.stream()
+                .map(row -> row.getProductId() + ":" + row.getStoreId())
+                .collect(Collectors.toSet());
+        Set<Long> storeIds = written.stream().map(Inventory::getStoreId).collect(Collectors.toSet());
+
+        return inventoryPort.findByProductSkus(skus, storeIds)
+                .filter(inventory -> keys.contains(inventory.getProductId() + ":" + inventory.getStoreId()))
+                .doOnNext(inventoryChangePort::publish)
+                .then()
+                .onErrorResume(error -> {
+                    log.warn("Could not publish {} imported inventory changes: {}", written.size(), error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private String validate(ProductImportRow row) {
+        if (row.getError() != null) {
+            return row.getError();
+        }
+        if (row.getSku() == null || row.getSku().isBlank() || row.getSku().length() > 50) {
+            return "SKU must have between 1 and 50 characters";
+        }
+        if (row.getName() == null || row.getName().isBlank() || row.getName().length() > 200) {
+            return "Name must have between 1 and 200 characters";
+        }
+        if (row.getDescription() != null && row.getDescription().length() > 500) {
+            return "Description cannot exceed 500 characters";
+        }
+        return null;
+    }
+
+    private String validate(InventoryImportRow row, Set<Long> storeIds) {
+        if (row.getError() != null) {
+            return row.getError();
+        }
+        if (row.getProductSku() == null || row.getProductSku().isBlank()) {
+            return "Product SKU cannot be empty";
+        }
+        if (row.getStoreId() == null || !storeIds.contains(row.getStoreId())) {
+            return "Store with ID " + row.getStoreId() + " not found";
+        }
+        if (row.getAvailableQty() == null || row.getAvailableQty() < 0) {
+            return "Quantity cannot be negative: " + row.getAvailableQty();
+        }
+        return null;
+    }
+
+    private boolean accept(Progress progress, long line, String error) {
+        if (error != null) {
+            progress.reject(line, error);
+            return false;
+        }
+        return true;
+    }
+
+    // Un MERGE no admite dos filas de origen para la misma fila destino: gana la última del archivo
+    private static <T> List<T> lastPerKey(List<T> batch, Function<T, String> key) {
+        Map<String, T> latest = new LinkedHashMap<>(batch.size() * 2);
+        for (T row : batch) {
+            latest.put(key.apply(row), row);
+        }
+        return latest.size() == batch.size() ? batch : new ArrayList<>(latest.values());
+    }
+
+    private final class Progress {
+
+        private final String type;
+        private final long started = System.nanoTime();
+        private final AtomicLong lastReport = new AtomicLong(started);
+        private final LongAdder read = new LongAdder();
+        private final LongAdder applied = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final AtomicInteger reportedErrors = new AtomicInteger();
+        private final ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+
+        private Progress(String type) {
+            this.type = type;
+        }
+
+        void reject(long line, String reason) {
+            rejected.increment();
+            if (reportedErrors.getAndIncrement() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + line + ": " + reason);
+            }
+        }
+
+        void applied(long rows) {
+            applied.add(rows);
+            long now = System.nanoTime();
+            long last = lastReport.get();
+            if (now - last >= progressInterval.toNanos() && lastReport.compareAndSet(last, now)) {
+                log.info("Importing {} - Read: {} - Applied: {} - Rejected: {} - {} rows/s",
+                        type, read.sum(), applied.sum(), rejected.sum(), rowsPerSecond(now));
+            }
+        }
+
+        CatalogImportResponse finish() {
+            long now = System.nanoTime();
+            CatalogImportResponse response = CatalogImportResponse.builder()
+                    .type(type)
+                    .read(read.sum())
+                    .applied(applied.sum())
+                    .rejected(rejected.sum())
+                    .durationMs(Duration.ofNanos(now - started).toMillis())
+                    .rowsPerSecond(rowsPerSecond(now))
+                    .errors(List.copyOf(errors))
+                    .build();
+            log.info("Imported {} - Read: {} - Applied: {} - Rejected: {} - {} ms - {} rows/s", type,
+                    response.getRead(), response.getApplied(), response.getRejected(),
+                    response.getDurationMs(), response.getRowsPerSecond());
+            return response;
+        }
+
+        // Filas escritas por segundo: las rechazadas no cuentan, aunque se hayan leído
+        private long rowsPerSecond(long now) {
+            long elapsed = Math.max(1, now - started);
+            return applied.sum() * 1_000_000_000L / elapsed;
+        }
+    }
+}
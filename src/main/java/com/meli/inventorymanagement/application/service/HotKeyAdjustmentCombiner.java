@@ -0,0 +1,259 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.AdjustmentOutcome;
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.port.InventoryPort;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Etapa de combinación de ajustes para claves (SKU, tienda) calientes.
+ * <p>
+ * Por defecto cada ajuste va directo al UPDATE condicional. Cuando la tasa de conflictos de una
+ * clave (llegadas con otro ajuste de la misma clave en curso) supera el umbral dentro de la
+ * ventana, la clave pasa a modo combinación: las deltas se encolan sin locks y un único drenador
+ * por clave las aplica en lote con una sola escritura, resolviendo a cada llamador su propio
+ * resultado en orden de llegada.
+ */
+@Slf4j
+@Component
+public class HotKeyAdjustmentCombiner {
+
+    private final InventoryPort inventoryPort;
+    private final boolean enabled;
+    private final double conflictRateThreshold;
+    private final int minSamples;
+    private final long windowNanos;
+    private final long holdNanos;
+    private final int maxBatchSize;
+
+    private final Map<HotKey, KeyState> states = new ConcurrentHashMap<>();
+    private Disposable cleanupTask;
+
+    public HotKeyAdjustmentCombiner(InventoryPort inventoryPort,
+                                    @Value("${inventory.combiner.enabled:true}") boolean enabled,
+                                    @Value("${inventory.combiner.conflict-rate-threshold:0.5}") double conflictRateThreshold,
+                                    @Value("${inventory.combiner.min-samples:20}") int minSamples,
+                                    @Value("${inventory.combiner.window:1s}") Duration window,
+                                    @Value("${inventory.combiner.hold:10s}") Duration hold,
+                                    @Value("${inventory.combiner.max-batch-size:256}") int maxBatchSize) {
+        this.inventoryPort = inventoryPort;
+        this.enabled = enabled;
+        this.conflictRateThreshold = conflictRateThreshold;
+        this.minSamples = minSamples;
+        this.windowNanos = window.toNanos();
+        this.holdNanos = hold.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            cleanupTask = Flux.interval(Duration.ofMinutes(1))
+                    .subscribe(tick -> evictIdleKeys());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (cleanupTask != null) {
+            cleanupTask.dispose();
+        }
+    }
+
+    /**
+     * Mismo contrato que {@link InventoryPort#adjustAvailableQty}: emite el inventario actualizado
+     * o vacío si no se aplicó. En modo combinación el rechazo por stock insuficiente se emite
+     * directamente como INSUFFICIENT_STOCK calculado en orden de llegada.
+     */
+    public Mono<Inventory> adjust(String sku, Long storeId, int adjustment) {
+        if (!enabled) {
+            return inventoryPort.adjustAvailableQty(sku, storeId, adjustment);
+        }
+
+        HotKey key = new HotKey(sku, storeId);
+        return Mono.defer(() -> {
+            KeyState state = acquire(key);
+            long now = System.nanoTime();
+            state.lastUsed = now;
+
+            if (state.isCombining(now)) {
+                state.recordArrival(now, state.draining.get() || !state.pending.isEmpty());
+                return Mono.<Inventory>create(sink -> {
+                    state.pending.offer(new PendingAdjustment(adjustment, sink));
+                    drain(key, state);
+                }).doFinally(signal -> state.users.decrementAndGet());
+            }
+
+            boolean contended = state.inFlight.incrementAndGet() > 1;
+            state.recordArrival(now, contended);
+            return inventoryPort.adjustAvailableQty(sku, storeId, adjustment)
+                    .doFinally(signal -> {
+                        state.inFlight.decrementAndGet();
+                        state.users.decrementAndGet();
+                    });
+        });
+    }
+
+    /**
+     * Registra al llamador en el estado de la clave. Un estado que el barrido ya retiró no se
+     * reutiliza: se crea otro, así nunca hay dos drenadores para la misma clave.
+     */
+    private KeyState acquire(HotKey key) {
+        while (true) {
+            KeyState state = states.computeIfAbsent(key, k -> new KeyState());
+            int users = state.users.get();
+            if (users >= 0 && state.users.compareAndSet(users, users + 1)) {
+                return state;
+            }
+            if (users < 0) {
+                states.remove(key, state);
+            }
+        }
+    }
+
+    /**
+     * Drenaje con contador de trabajo pendiente: si el lote se completa en el mismo hilo, la
+     * siguiente vuelta la hace este bucle en lugar de una llamada anidada, así la pila no crece
+     * con la cantidad de lotes.
+     */
+    private void drain(HotKey key, KeyState state) {
+        if (state.wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            if (!state.pending.isEmpty() && state.draining.compareAndSet(false, true)) {
+                flush(key, state);
+            }
+            missed = state.wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void flush(HotKey key, KeyState state) {
+        List<PendingAdjustment> batch = new ArrayList<>();
+        PendingAdjustment next;
+        while (batch.size() < maxBatchSize && (next = state.pending.poll()) != null) {
+            batch.add(next);
+        }
+
+        if (batch.isEmpty()) {
+            state.draining.set(false);
+            return;
+        }
+
+        List<Integer> adjustments = batch.stream().map(PendingAdjustment::adjustment).toList();
+        log.debug("Flushing {} combined adjustments for SKU {} in store {}", batch.size(), key.sku(), key.storeId());
+
+        inventoryPort.adjustAvailableQtyInSequence(key.sku(), key.storeId(), adjustments)
+                .defaultIfEmpty(List.of())
+                .doFinally(signal -> {
+                    state.draining.set(false);
+                    drain(key, state);
+                })
+                .subscribe(outcomes -> complete(batch, outcomes),
+                        error -> batch.forEach(pending -> pending.sink().error(error)));
+    }
+
+    private void complete(List<PendingAdjustment> batch, List<AdjustmentOutcome> outcomes) {
+        if (outcomes.isEmpty()) {
+            batch.forEach(pending -> pending.sink().success());
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            AdjustmentOutcome outcome = outcomes.get(i);
+            MonoSink<Inventory> sink = batch.get(i).sink();
+            if (outcome.isApplied()) {
+                sink.success(outcome.getInventory());
+            } else {
+                sink.error(new BusinessException(ErrorCode.INSUFFICIENT_STOCK,
+                        InventoryService.insufficientStockMessage(outcome.getPreviousQty(),
+                                InventoryService.reservedQty(outcome.getInventory()), outcome.getAdjustment())));
+            }
+        }
+    }
+
+    /**
+     * Retira las claves sin uso. El estado sólo se retira si no tiene llamadores registrados
+     * (users pasa de 0 a -1 de forma atómica); un llamador que llega después crea uno nuevo.
+     */
+    void evictIdleKeys() {
+        long now = System.nanoTime();
+        states.forEach((key, state) -> {
+            if (now - state.lastUsed > holdNanos && !state.isCombining(now) && state.isIdle()
+                    && state.users.compareAndSet(0, -1)) {
+                states.remove(key, state);
+            }
+        });
+    }
+
+    int trackedKeys() {
+        return states.size();
+    }
+
+    private record HotKey(String sku, Long storeId) {
+    }
+
+    private record PendingAdjustment(int adjustment, MonoSink<Inventory> sink) {
+    }
+
+    private final class KeyState {
+
+        private final ConcurrentLinkedQueue<PendingAdjustment> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicInteger wip = new AtomicInteger();
+        // Llamadores en curso; -1 cuando el barrido retiró el estado
+        private final AtomicInteger users = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger arrivals = new AtomicInteger();
+        private final AtomicInteger conflicts = new AtomicInteger();
+        private volatile long windowStart = System.nanoTime();
+        private volatile long combiningUntil;
+        private volatile long lastUsed;
+
+        boolean isCombining(long now) {
+            return now - combiningUntil < 0;
+        }
+
+        boolean isIdle() {
+            return inFlight.get() == 0 && pending.isEmpty() && !draining.get();
+        }
+
+        void recordArrival(long now, boolean contended) {
+            if (now - windowStart > windowNanos) {
+                windowStart = now;
+                arrivals.set(0);
+                conflicts.set(0);
+            }
+
+            int total = arrivals.incrementAndGet();
+            int conflicted = contended ? conflicts.incrementAndGet() : conflicts.get();
+            if (total >= minSamples && conflicted >= conflictRateThreshold * total) {
+                if (!isCombining(now)) {
+                    log.info("Promoting inventory key to combining mode - Conflict rate: {}/{}", conflicted, total);
+                }
+                combiningUntil = now + holdNanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.meli.inventorymanagement.application.dto.InventoryReservationRequest;
+import com.meli.inventorymanagement.application.dto.InventoryReservationResponse;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.Reservation;
+import com.meli.inventorymanagement.domain.port.InventoryChangePort;
+import com.meli.inventorymanagement.domain.port.InventoryPort;
+import com.meli.inventorymanagement.domain.port.InventoryReservationPort;
+import com.meli.inventorymanagement.domain.port.ProductPort;
+import com.meli.inventorymanagement.domain.port.StorePort;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservas de stock con vencimiento. Cada reserva vigente tiene un timeout en una rueda de
+ * tiempo (hashed timing wheel): programar y cancelar cuestan O(1) y el vencimiento no recorre
+ * ninguna tabla. Al arrancar se reprograman las reservas vigentes que quedaron en la base.
+ */
+@Slf4j
+@Service
+public class InventoryReservationService {
+
+    // Reintento del vencimiento si la base no respondió
+    private static final Duration EXPIRY_RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final InventoryReservationPort reservationPort;
+    private final InventoryPort inventoryPort;
+    private final ProductPort productPort;
+    private final StorePort storePort;
+    private final InventoryChangePort inventoryChangePort;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final long maxPending;
+    private final boolean writeBehindEnabled;
+
+    private final HashedWheelTimer wheel;
+    private final Map<String, Timeout> expirations = new ConcurrentHashMap<>();
+
+    public InventoryReservationService(InventoryReservationPort reservationPort,
+                                       InventoryPort inventoryPort,
+                                       ProductPort productPort,
+                                       StorePort storePort,
+                                       InventoryChangePort inventoryChangePort,
+                                       @Value("${inventory.reservations.default-ttl:15m}") Duration defaultTtl,
+                                       @Value("${inventory.reservations.max-ttl:2h}") Duration maxTtl,
+                                       @Value("${inventory.reservations.wheel.tick:100ms}") Duration tick,
+                                       @Value("${inventory.reservations.wheel.ticks-per-wheel:1024}") int ticksPerWheel,
+                                       @Value("${inventory.reservations.wheel.max-pending:5000000}") long maxPending,
+                                       @Value("${inventory.write-behind.enabled:false}") boolean writeBehindEnabled) {
+        this.reservationPort = reservationPort;
+        this.inventoryPort = inventoryPort;
+        this.productPort = productPort;
+        this.storePort = storePort;
+        this.inventoryChangePort = inventoryChangePort;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.maxPending = maxPending;
+        this.writeBehindEnabled = writeBehindEnabled;
+        this.wheel = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        }, tick.toMillis(), TimeUnit.MILLISECONDS, ticksPerWheel, false, maxPending);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleHeldReservations() {
+        if (writeBehindEnabled) {
+            return;
+        }
+        reservationPort.findHeld()
+                .doOnNext(this::schedule)
+                .count()
+                .subscribe(count -> log.info("Scheduled expiry of {} held reservations", count),
+                        error -> log.error("Could not schedule held reservations: {}", error.getMessage(), error));
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Las reservas pendientes siguen en la base y se reprograman al arrancar
+        wheel.stop();
+    }
+
+    public Mono<InventoryReservationResponse> reserve(String productSku, Long storeId, InventoryReservationRequest request) {
+        log.info("Reserving {} units of product SKU: {} in store: {}", request.getQuantity(), productSku, storeId);
+
+        if (productSku == null || productSku.trim().isEmpty()) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_SKU_FORMAT, "Product SKU cannot be null or empty"));
+        }
+        if (storeId == null || storeId <= 0) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "Store ID must be a positive number"));
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_ADJUSTMENT, "Reserved quantity must be positive"));
+        }
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : defaultTtl;
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT,
+                    "Reservation TTL must be between 1 second and " + maxTtl.toSeconds() + " seconds"));
+        }
+        if (writeBehindEnabled) {
+            return Mono.error(new BusinessException(ErrorCode.SERVICE_UNAVAILABLE,
+                    "Reservations are not available while write-behind mode is enabled"));
+        }
+        if (wheel.pendingTimeouts() >= maxPending) {
+            return Mono.error(new BusinessException(ErrorCode.SERVICE_UNAVAILABLE,
+                    "Too many outstanding reservations, retry later"));
+        }
+
+        return Mono.zip(
+                productPort.findBySku(productSku)
+                        .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.PRODUCT_NOT_FOUND,
+                                "Product with SKU " + productSku + " not found"))),
+                storePort.findById(storeId)
+                        .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.STORE_NOT_FOUND,
+                                "Store with ID " + storeId + " not found")))
+        )
+        .flatMap(tuple -> reservationPort.reserve(tuple.getT1().getId(), storeId, request.getQuantity(),
+                        LocalDateTime.now().plus(ttl))
+                .switchIfEmpty(Mono.defer(() -> rejectReservation(productSku, storeId, request.getQuantity()))))
+        .doOnNext(this::schedule)
+        .flatMap(reservation -> publishChange(productSku, storeId).thenReturn(reservation))
+        .map(reservation -> toResponse(reservation, productSku))
+        .doOnNext(response -> log.info("Reservation {} holds {} units of product {} in store {} until {}",
+                response.getReservationId(), response.getQuantity(), productSku, storeId, response.getExpiresAt()))
+        .doOnError(error -> log.error("Error reserving product SKU {} in store {}: {}",
+                productSku, storeId, error.getMessage(), error))
+        .onErrorMap(ex -> !(ex instanceof BusinessException),
+                ex -> new BusinessException(ErrorCode.INVENTORY_OPERATION_FAILED,
+                        "Failed to reserve inventory due to database error"));
+    }
+
+    /**
+     * Descuenta del disponible las unidades reservadas y cancela el vencimiento.
+     */
+    public Mono<InventoryReservationResponse> confirm(Long storeId, String reservationId) {
+        log.info("Confirming reservation {} in store: {}", reservationId, storeId);
+        return close(storeId, reservationId, reservationPort.confirm(reservationId));
+    }
+
+    /**
+     * Devuelve las unidades reservadas al stock vendible y cancela el vencimiento.
+     */
+    public Mono<InventoryReservationResponse> release(Long storeId, String reservationId) {
+        log.info("Releasing reservation {} in store: {}", reservationId, storeId);
+        return close(storeId, reservationId, reservationPort.release(reservationId, Reservation.Status.RELEASED));
+    }
+
+    private Mono<InventoryReservationResponse> close(Long storeId, String reservationId, Mono<Reservation> transition) {
+        return reservationPort.findById(reservationId)
+                .filter(reservation -> reservation.getStoreId().equals(storeId))
+                .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.RESERVATION_NOT_FOUND,
+                        String.format("Reservation %s not found in store %d", reservationId, storeId))))
+                .flatMap(found -> transition
+                        .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.RESERVATION_NOT_ACTIVE,
+                                String.format("Reservation %s is already %s", reservationId, found.getStatus())))))
+                .doOnNext(closed -> cancel(closed.getId()))
+                .flatMap(closed -> productPort.findById(closed.getProductId())
+                        .flatMap(product -> publishChange(product.getSku(), closed.getStoreId())
+                                .thenReturn(toResponse(closed, product.getSku())))
+                        .defaultIfEmpty(toResponse(closed, null)))
+                .doOnError(error -> log.error("Error closing reservation {} in store {}: {}",
+                        reservationId, storeId, error.getMessage(), error))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.INVENTORY_OPERATION_FAILED,
+                                "Failed to update reservation due to database error"));
+    }
+
+    /**
+     * La reserva no se creó: se distingue entre inventario inexistente y stock vendible insuficiente.
+     */
+    private Mono<Reservation> rejectReservation(String productSku, Long storeId, int quantity) {
+        return inventoryPort.findByProductSkuAndStoreId(productSku, storeId)
+                .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.INVENTORY_NOT_FOUND,
+                        String.format("Inventory not found for product %s in store %d", productSku, storeId))))
+                .flatMap(current -> Mono.error(new BusinessException(ErrorCode.INSUFFICIENT_STOCK,
+                        String.format("Insufficient sellable stock. Available: %d, Reserved: %d, Requested: %d",
+                                current.getAvailableQty(), current.getReservedQty(), quantity))));
+    }
+
+    /**
+     * Difunde la fila ya confirmada con sus nuevas unidades reservadas. Un fallo al releerla no
+     * revierte la reserva, que ya se escribió: sólo se pierde el aviso en vivo.
+     */
+    private Mono<Void> publishChange(String productSku, Long storeId) {
+        return inventoryPort.findByProductSkuAndStoreId(productSku, storeId)
+                .doOnNext(inventoryChangePort::publish)
+                .then()
+                .onErrorResume(error -> {
+                    log.warn("Could not publish inventory change for product {} in store {}: {}",
+                            productSku, storeId, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void schedule(Reservation reservation) {
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), reservation.getExpiresAt()).toMillis());
+        schedule(reservation.getId(), delayMillis);
+    }
+
+    private void schedule(String reservationId, long delayMillis) {
+        Timeout timeout = wheel.newTimeout(t -> expire(reservationId), delayMillis, TimeUnit.MILLISECONDS);
+        Timeout previous = expirations.put(reservationId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void cancel(String reservationId) {
+        Timeout timeout = expirations.remove(reservationId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Se ejecuta en el hilo de la rueda: sólo suscribe la liberación, sin bloquear el tick.
+     * Si una confirmación ganó la carrera, la liberación no encuentra la reserva vigente y no hace nada.
+     */
+    private void expire(String reservationId) {
+        expirations.remove(reservationId);
+        reservationPort.release(reservationId, Reservation.Status.EXPIRED)
+                .flatMap(expired -> productPort.findById(expired.getProductId())
+                        .flatMap(product -> publishChange(product.getSku(), expired.getStoreId()))
+                        .thenReturn(expired))
+                .subscribe(expired -> log.info("Reservation {} expired, {} units of product {} released in store {}",
+                                reservationId, expired.getQuantity(), expired.getProductId(), expired.getStoreId()),
+                        error -> {
+                            log.error("Could not expire reservation {}, retrying in {}: {}",
+                                    reservationId, EXPIRY_RETRY_DELAY, error.getMessage());
+                            schedule(reservationId, EXPIRY_RETRY_DELAY.toMillis());
+                        });
+    }
+
+    private InventoryReservationResponse toResponse(Reservation reservation, String productSku) {
+        return InventoryReservationResponse.builder()
+                .reservationId(reservation.getId())
+                .productSku(productSku)
+                .storeId(reservation.getStoreId())
+                .quantity(reservation.getQuantity())
+                .status(reservation.getStatus().name())
+                .expiresAt(reservation.getExpiresAt())
+                .build();
+    }
+}
@@ -1,14 +1,36 @@
 package com.meli.inventorymanagement.application.service;
 
 import com.meli.inventorymanagement.application.dto.InventoryAdjustmentRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentItem;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentResponse;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentResult;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferItem;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferResponse;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferResult;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutLine;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutRequest;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutResponse;
+import com.meli.inventorymanagement.application.dto.InventoryLookupResponse;
+import com.meli.inventorymanagement.application.dto.InventoryPageResponse;
 import com.meli.inventorymanagement.application.dto.InventoryResponse;
+import com.meli.inventorymanagement.application.dto.InventorySyncResponse;
+import com.meli.inventorymanagement.application.dto.InventoryTransferRequest;
+import com.meli.inventorymanagement.application.dto.InventoryTransferResponse;
 import com.meli.inventorymanagement.application.dto.InventoryUpdateRequest;
 import com.meli.inventorymanagement.application.mapper.InventoryMapper;
 import com.meli.inventorymanagement.common.constant.ErrorCode;
 import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.AdjustmentOutcome;
 import com.meli.inventorymanagement.domain.model.Inventory;
 import com.meli.inventorymanagement.domain.model.Product;
+import com.meli.inventorymanagement.domain.model.StockAdjustment;
+import com.meli.inventorymanagement.domain.model.StockTransfer;
 import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.domain.model.TransferOutcome;
+import com.meli.inventorymanagement.domain.port.InventoryChangePort;
+import com.meli.inventorymanagement.domain.port.InventoryLedgerPort;
 import com.meli.inventorymanagement.domain.port.InventoryPort;
 import com.meli.inventorymanagement.domain.port.ProductPort;
 import com.meli.inventorymanagement.domain.port.StorePort;
@@ -20,18 +42,39 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryService {
 
+    public static final int MAX_LOOKUP_SKUS = 200;
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Traspasos por transacción en el modo masivo: más grande reduce transacciones pero retiene más locks a la vez
+    private static final int BULK_TRANSFER_TRANSACTION_SIZE = 1000;
+
     private final InventoryPort inventoryPort;
     private final ProductPort productPort;
     private final StorePort storePort;
     private final InventoryMapper inventoryMapper;
+    private final HotKeyAdjustmentCombiner adjustmentCombiner;
+    private final InventoryLedgerPort inventoryLedgerPort;
+    private final AdjustmentIdempotencyStore idempotencyStore;
+    private final InventoryChangePort inventoryChangePort;
 
     public Flux<InventoryResponse> getInventoryByProductSku(String productSku) {
         log.info("Fetching inventory for product SKU: {}", productSku);
@@ -45,7 +88,6 @@ public class InventoryService {
                 .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.PRODUCT_NOT_FOUND,
                         "Product with SKU " + productSku + " not found")))
                 .flatMapMany(product -> inventoryPort.findByProductSku(productSku))
-                .flatMap(this::enrichInventoryWithRelations)
                 .map(inventoryMapper::toResponse)
                 .doOnError(error -> log.error("Database error while fetching inventory for SKU {}: {}",
                         productSku, error.getMessage(), error))
@@ -53,6 +95,199 @@ public class InventoryService {
                         ex -> new BusinessException(ErrorCode.DATABASE_ERROR, "Error accessing inventory data"));
     }
 
+    /**
+     * Consulta el stock de varios SKUs con una sola consulta por lote y emite un elemento por SKU,
+     * en el orden en que llegan de la base. Los SKUs sin stock (o inexistentes) se emiten al final
+     * con la lista vacía.
+     */
+    public Flux<InventoryLookupResponse> lookupInventory(List<String> productSkus, List<Long> storeIds) {
+        log.info("Looking up inventory for {} SKUs in stores: {}",
+                productSkus == null ? 0 : productSkus.size(), storeIds == null || storeIds.isEmpty() ? "all" : storeIds);
+
+        if (productSkus == null || productSkus.isEmpty()) {
+            return Flux.error(new BusinessException(ErrorCode.VALIDATION_ERROR, "At least one SKU is required"));
+        }
+        if (productSkus.size() > MAX_LOOKUP_SKUS) {
+            return Flux.error(new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "A lookup cannot contain more than " + MAX_LOOKUP_SKUS + " SKUs"));
+        }
+        if (productSkus.stream().anyMatch(sku -> sku == null || sku.trim().isEmpty())) {
+            return Flux.error(new BusinessException(ErrorCode.INVALID_SKU_FORMAT, "Product SKU cannot be null or empty"));
+        }
+        Set<Long> stores = storeIds == null ? Set.of() : new LinkedHashSet<>(storeIds);
+        if (stores.stream().anyMatch(storeId -> storeId == null || storeId <= 0)) {
+            return Flux.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "Store ID must be a positive number"));
+        }
+
+        Set<String> skus = new LinkedHashSet<>(productSkus);
+        return Flux.defer(() -> {
+            Set<String> found = new HashSet<>();
+            return inventoryPort.findByProductSkus(skus, stores)
+                    .bufferUntilChanged(inventory -> inventory.getProduct().getSku())
+                    .map(group -> InventoryLookupResponse.builder()
+                            .productSku(group.get(0).getProduct().getSku())
+                            .inventories(group.stream().map(inventoryMapper::toResponse).toList())
+                            .build())
+                    .doOnNext(response -> found.add(response.getProductSku()))
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(skus)
+                            .filter(sku -> !found.contains(sku))
+                            .map(sku -> InventoryLookupResponse.builder()
+                                    .productSku(sku)
+                                    .inventories(List.of())
+                                    .build())));
+        })
+        .doOnError(error -> log.error("Database error while looking up inventory for {} SKUs: {}",
+                skus.size(), error.getMessage(), error))
+        .onErrorMap(ex -> !(ex instanceof BusinessException),
+                ex -> new BusinessException(ErrorCode.DATABASE_ERROR, "Error accessing inventory data"));
+    }
+
+    /**
+     * Lista el inventario de una tienda por páginas ordenadas por producto. El cursor codifica la
+     * última clave (tienda, producto) entregada y la página siguiente se busca desde ahí por índice,
+     * sin OFFSET, así que cada página cuesta lo mismo sin importar su posición.
+     */
+    public Mono<InventoryPageResponse> getInventoryByStore(Long storeId, String cursor, Integer limit) {
+        log.info("Listing inventory of store: {} - Cursor: {} - Limit: {}", storeId, cursor, limit);
+
+        if (storeId == null || storeId <= 0) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "Store ID must be a positive number"));
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT,
+                    "Limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        Long afterProductId;
+        try {
+            afterProductId = decodeCursor(storeId, cursor);
+        } catch (BusinessException ex) {
+            return Mono.error(ex);
+        }
+
+        // Se pide una fila de más para saber si hay página siguiente sin otra consulta
+        return validateStoreExists(storeId)
+                .then(Mono.defer(() -> inventoryPort.findByStoreId(storeId, afterProductId, pageSize + 1).collectList()))
+                .map(rows -> {
+                    boolean hasMore = rows.size() > pageSize;
+                    List<Inventory> page = hasMore ? rows.subList(0, pageSize) : rows;
+                    return InventoryPageResponse.builder()
+                            .storeId(storeId)
+                            .items(page.stream().map(inventoryMapper::toResponse).toList())
+                            .nextCursor(hasMore ? encodeCursor(storeId, page.get(page.size() - 1).getProductId()) : null)
+                            .build();
+                })
+                .doOnError(error -> log.error("Database error while listing inventory of store {}: {}",
+                        storeId, error.getMessage(), error))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.DATABASE_ERROR, "Error accessing inventory data"));
+    }
+
+    /**
+     * Sincronización incremental de una tienda: devuelve el estado actual de los productos que
+     * cambiaron después del cursor, en orden de la secuencia global de cambios, y el cursor
+     * siguiente. Sin cursor devuelve todo el inventario de la tienda (resincronización completa).
+     * Como cada fila guarda sólo su última secuencia, un producto aparece una vez por lote aunque
+     * haya cambiado muchas veces, y la consulta es un rango sobre el índice (store_id, change_seq).
+     * El puerto sólo entrega cambios ya confirmados por debajo del low-watermark de transacciones en
+     * curso, así que el cursor nunca pasa por encima de una escritura pendiente. Las bajas no se
+     * informan: el inventario no elimina filas, un producto sin stock queda con cantidad cero.
+     */
+    public Mono<InventorySyncResponse> getInventoryChanges(Long storeId, String cursor, Integer limit) {
+        log.info("Syncing inventory of store: {} - Cursor: {} - Limit: {}", storeId, cursor, limit);
+
+        if (storeId == null || storeId <= 0) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "Store ID must be a positive number"));
+        }
+        int batchSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (batchSize <= 0 || batchSize > MAX_PAGE_SIZE) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT,
+                    "Limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        Long afterChangeSeq;
+        try {
+            afterChangeSeq = decodeCursor(storeId, cursor);
+        } catch (BusinessException ex) {
+            return Mono.error(ex);
+        }
+        long since = afterChangeSeq == null ? 0L : afterChangeSeq;
+
+        return validateStoreExists(storeId)
+                .then(Mono.defer(() -> inventoryPort.findChangedSince(storeId, since, batchSize + 1).collectList()))
+                .flatMap(rows -> {
+                    if (rows.isEmpty() && afterChangeSeq != null) {
+                        return inventoryPort.findLastChangeSeq(storeId)
+                                .flatMap(last -> afterChangeSeq > last
+                                        ? Mono.error(new BusinessException(ErrorCode.SYNC_CURSOR_EXPIRED,
+                                                "Cursor is ahead of the changes of store " + storeId + ", resync from scratch"))
+                                        : Mono.just(rows));
+                    }
+                    return Mono.just(rows);
+                })
+                .map(rows -> {
+                    boolean hasMore = rows.size() > batchSize;
+                    List<Inventory> batch = hasMore ? rows.subList(0, batchSize) : rows;
+                    String nextCursor = batch.isEmpty() ? cursor
+                            : encodeCursor(storeId, batch.get(batch.size() - 1).getChangeSeq());
+                    return InventorySyncResponse.builder()
+                            .storeId(storeId)
+                            .changes(batch.stream().map(inventoryMapper::toSyncItem).toList())
+                            .nextCursor(nextCursor)
+                            .hasMore(hasMore)
+                            .build();
+                })
+                .doOnError(error -> log.error("Error syncing inventory of store {}: {}",
+                        storeId, error.getMessage(), error))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.DATABASE_ERROR, "Error accessing inventory data"));
+    }
+
+    /**
+     * Recorre todo el inventario para el export nocturno. No acumula filas: cada una se mapea y se
+     * entrega a medida que la pide quien consume el flujo.
+     */
+    public Flux<InventoryResponse> exportInventory() {
+        log.info("Exporting full inventory snapshot");
+        return inventoryPort.streamAll()
+                .map(inventoryMapper::toResponse)
+                .doOnError(error -> log.error("Database error while exporting inventory: {}", error.getMessage(), error))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.DATABASE_ERROR, "Error accessing inventory data"));
+    }
+
+    /**
+     * Cambios guardados desde la suscripción en adelante, filtrados por tienda y SKU (null = todos).
+     * No emite el estado actual: el cliente lo consulta una vez y luego aplica los cambios.
+     */
+    public Flux<InventoryResponse> streamInventoryChanges(Long storeId, String productSku) {
+        log.info("Streaming inventory changes for store: {} and product SKU: {}", storeId, productSku);
+
+        if (storeId != null && storeId <= 0) {
+            return Flux.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "Store ID must be a positive number"));
+        }
+        if (productSku != null && productSku.trim().isEmpty()) {
+            return Flux.error(new BusinessException(ErrorCode.INVALID_SKU_FORMAT, "Product SKU cannot be empty"));
+        }
+
+        Mono<Void> store = storeId == null ? Mono.empty() : storePort.findById(storeId)
+                .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.STORE_NOT_FOUND,
+                        "Store with ID " + storeId + " not found")))
+                .then();
+        Flux<Inventory> changes = productSku == null
+                ? Flux.defer(() -> inventoryChangePort.subscribe(storeId, null))
+                : productPort.findBySku(productSku)
+                        .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.PRODUCT_NOT_FOUND,
+                                "Product with SKU " + productSku + " not found")))
+                        .flatMapMany(product -> inventoryChangePort.subscribe(storeId, product.getId()));
+
+        return store.thenMany(changes)
+                .map(inventoryMapper::toResponse)
+                .doOnCancel(() -> log.info("Inventory change stream closed for store: {} and product SKU: {}",
+                        storeId, productSku))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.DATABASE_ERROR, "Error accessing inventory data"));
+    }
+
     public Mono<InventoryResponse> getInventoryByProductSkuAndStore(String productSku, Long storeId) {
         log.info("Fetching inventory for product SKU: {} in store: {}", productSku, storeId);
 
@@ -68,7 +303,6 @@ public class InventoryService {
                 .then(Mono.defer(() -> inventoryPort.findByProductSkuAndStoreId(productSku, storeId)))
                 .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.INVENTORY_NOT_FOUND,
                         String.format("Inventory not found for product %s in store %d", productSku, storeId))))
-                .flatMap(this::enrichInventoryWithRelations)
                 .map(inventoryMapper::toResponse)
                 .doOnError(error -> log.error("Database error while fetching inventory for SKU {} and store {}: {}",
                         productSku, storeId, error.getMessage(), error))
@@ -76,6 +310,55 @@ public class InventoryService {
                         ex -> new BusinessException(ErrorCode.DATABASE_ERROR, "Error accessing inventory data"));
     }
 
+    public Flux<InventoryResponse> getInventoryByProductSkuAsOf(String productSku, LocalDateTime asOf) {
+        log.info("Fetching inventory for product SKU: {} as of: {}", productSku, asOf);
+
+        if (productSku == null || productSku.trim().isEmpty()) {
+            return Flux.error(new BusinessException(ErrorCode.INVALID_SKU_FORMAT, "Product SKU cannot be null or empty"));
+        }
+        if (asOf == null || asOf.isAfter(LocalDateTime.now())) {
+            return Flux.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "asOf must be a past date-time"));
+        }
+
+        return productPort.findBySku(productSku)
+                .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.PRODUCT_NOT_FOUND,
+                        "Product with SKU " + productSku + " not found")))
+                .flatMapMany(product -> inventoryLedgerPort.materializeAsOfByStore(product.getId(), asOf)
+                        .flatMapMany(stockByStore -> inventoryPort.findByProductSku(productSku)
+                                .filter(inventory -> stockByStore.containsKey(inventory.getStoreId()))
+                                .map(inventory -> withHistoricStock(inventory, stockByStore.get(inventory.getStoreId())))))
+                .map(inventory -> toHistoricResponse(inventory, asOf))
+                .doOnError(error -> log.error("Database error while fetching inventory for SKU {} as of {}: {}",
+                        productSku, asOf, error.getMessage(), error))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.DATABASE_ERROR, "Error accessing inventory history"));
+    }
+
+    public Mono<InventoryResponse> getInventoryByProductSkuAndStoreAsOf(String productSku, Long storeId, LocalDateTime asOf) {
+        log.info("Fetching inventory for product SKU: {} in store: {} as of: {}", productSku, storeId, asOf);
+
+        if (productSku == null || productSku.trim().isEmpty()) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_SKU_FORMAT, "Product SKU cannot be null or empty"));
+        }
+        if (storeId == null || storeId <= 0) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "Store ID must be a positive number"));
+        }
+        if (asOf == null || asOf.isAfter(LocalDateTime.now())) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "asOf must be a past date-time"));
+        }
+
+        return validateStoreExists(storeId)
+                .then(Mono.defer(() -> inventoryPort.findByProductSkuAndStoreId(productSku, storeId)))
+                .flatMap(inventory -> atPointInTime(inventory, asOf))
+                .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.INVENTORY_NOT_FOUND,
+                        String.format("No inventory history for product %s in store %d at %s", productSku, storeId, asOf))))
+                .map(inventory -> toHistoricResponse(inventory, asOf))
+                .doOnError(error -> log.error("Database error while fetching inventory for SKU {} and store {} as of {}: {}",
+                        productSku, storeId, asOf, error.getMessage(), error))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.DATABASE_ERROR, "Error accessing inventory history"));
+    }
+
     public Mono<InventoryResponse> updateInventory(String productSku, Long storeId, InventoryUpdateRequest request) {
         log.info("Updating inventory for product SKU: {} in store: {} with quantity: {}",
                 productSku, storeId, request.getAvailableQty());
@@ -106,6 +389,12 @@ public class InventoryService {
 
             return inventoryPort.findByProductIdAndStoreId(product.getId(), store.getId())
                     .flatMap(existingInventory -> {
+                        // Las unidades reservadas tienen que seguir cubiertas; la versión detecta una reserva concurrente
+                        if (request.getAvailableQty() < reservedQty(existingInventory)) {
+                            return Mono.error(new BusinessException(ErrorCode.INVALID_ADJUSTMENT,
+                                    String.format("Available quantity %d is below the %d reserved units",
+                                            request.getAvailableQty(), reservedQty(existingInventory))));
+                        }
                         existingInventory.setAvailableQty(request.getAvailableQty());
                         existingInventory.setUpdatedAt(LocalDateTime.now());
                         log.info("Updating existing inventory ID: {}", existingInventory.getId());
@@ -120,9 +409,10 @@ public class InventoryService {
                                 .build();
                         log.info("Creating new inventory entry");
                         return inventoryPort.save(newInventory);
-                    }));
+                    }))
+                    .map(saved -> withRelations(saved, product, store));
         })
-        .flatMap(this::enrichInventoryWithRelations)
+        .doOnNext(inventoryChangePort::publish)
         .map(inventoryMapper::toResponse)
         .retryWhen(Retry.backoff(3, Duration.ofMillis(100))
                 .filter(throwable -> throwable instanceof OptimisticLockingFailureException)
@@ -150,30 +440,12 @@ public class InventoryService {
             return Mono.error(new BusinessException(ErrorCode.INVALID_ADJUSTMENT, "Adjustment value cannot be zero"));
         }
 
-        return inventoryPort.findByProductSkuAndStoreId(productSku, storeId)
-                .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.INVENTORY_NOT_FOUND,
-                        String.format("Inventory not found for product %s in store %d", productSku, storeId))))
-                .flatMap(inventory -> {
-                    int newQuantity = inventory.getAvailableQty() + request.getAdjustment();
-
-                    if (newQuantity < 0) {
-                        return Mono.error(new BusinessException(ErrorCode.INSUFFICIENT_STOCK,
-                                String.format("Insufficient stock. Current: %d, Adjustment: %d, Result would be: %d",
-                                        inventory.getAvailableQty(), request.getAdjustment(), newQuantity)));
-                    }
-
-                    inventory.setAvailableQty(newQuantity);
-                    inventory.setUpdatedAt(LocalDateTime.now());
-                    return inventoryPort.save(inventory)
-                            .doOnSuccess(saved -> log.info("Inventory adjusted successfully. New quantity: {}, Version: {}",
-                                    saved.getAvailableQty(), saved.getVersion()));
-                })
-                .flatMap(this::enrichInventoryWithRelations)
+        return adjustmentCombiner.adjust(productSku, storeId, request.getAdjustment())
+                .doOnNext(saved -> log.info("Inventory adjusted successfully. New quantity: {}, Version: {}",
+                        saved.getAvailableQty(), saved.getVersion()))
+                .doOnNext(inventoryChangePort::publish)
+                .switchIfEmpty(Mono.defer(() -> rejectAdjustment(productSku, storeId, request.getAdjustment())))
                 .map(inventoryMapper::toResponse)
-                .retryWhen(Retry.backoff(3, Duration.ofMillis(100))
-                        .filter(throwable -> throwable instanceof OptimisticLockingFailureException)
-                        .doBeforeRetry(signal -> log.warn("Optimistic lock failure on adjustment, retrying... attempt: {}",
-                                signal.totalRetries() + 1)))
                 .doOnError(error -> log.error("Error adjusting inventory for SKU {} and store {}: {}",
                         productSku, storeId, error.getMessage(), error))
                 .onErrorMap(ex -> !(ex instanceof BusinessException),
@@ -181,6 +453,563 @@ public class InventoryService {
                                 "Failed to adjust inventory due to database error"));
     }
 
+    /**
+     * Igual que {@link #adjustInventory} pero deduplicado por (usuario, Idempotency-Key): un reintento
+     * con la misma clave devuelve la respuesta original sin volver a aplicar la delta ni consultar la base.
+     */
+    public Mono<InventoryResponse> adjustInventoryIdempotent(String productSku, Long storeId,
+                                                             InventoryAdjustmentRequest request,
+                                                             String username, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return adjustInventory(productSku, storeId, request);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > AdjustmentIdempotencyStore.MAX_KEY_LENGTH) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT,
+                    "Idempotency-Key must have between 1 and " + AdjustmentIdempotencyStore.MAX_KEY_LENGTH + " characters"));
+        }
+
+        String fingerprint = productSku + '|' + storeId + '|' + request.getAdjustment();
+        return idempotencyStore.execute(username, idempotencyKey, fingerprint,
+                () -> adjustInventory(productSku, storeId, request));
+    }
+
+    /**
+     * Aplica un lote de ajustes sobre varios productos y tiendas. Los SKUs se resuelven en una
+     * sola consulta, cada tienda distinta se valida una vez y las deltas válidas se escriben en
+     * una única transacción. Un ítem inválido no impide aplicar el resto: cada uno informa su resultado.
+     */
+    public Mono<InventoryBatchAdjustmentResponse> adjustInventoryBatch(InventoryBatchAdjustmentRequest request) {
+        List<InventoryBatchAdjustmentItem> items = request.getItems();
+        log.info("Adjusting inventory batch with {} items", items.size());
+
+        InventoryBatchAdjustmentResult[] results = new InventoryBatchAdjustmentResult[items.size()];
+        Set<String> skus = new LinkedHashSet<>();
+        Set<Long> storeIds = new LinkedHashSet<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            InventoryBatchAdjustmentItem item = items.get(i);
+            if (item.getProductSku() == null || item.getProductSku().trim().isEmpty()) {
+                results[i] = rejected(i, item, ErrorCode.INVALID_SKU_FORMAT, "Product SKU cannot be null or empty");
+            } else if (item.getStoreId() == null || item.getStoreId() <= 0) {
+                results[i] = rejected(i, item, ErrorCode.INVALID_PARAMETER_FORMAT, "Store ID must be a positive number");
+            } else if (item.getAdjustment() == null || item.getAdjustment() == 0) {
+                results[i] = rejected(i, item, ErrorCode.INVALID_ADJUSTMENT, "Adjustment value cannot be zero");
+            } else {
+                skus.add(item.getProductSku());
+                storeIds.add(item.getStoreId());
+            }
+        }
+
+        Mono<Map<String, Product>> products = productPort.findBySkus(skus)
+                .collectMap(Product::getSku);
+        Mono<Map<Long, Store>> stores = Flux.fromIterable(storeIds)
+                .flatMap(storePort::findById)
+                .collectMap(Store::getId);
+
+        return Mono.zip(products, stores)
+                .flatMap(resolved -> {
+                    Map<String, Product> productsBySku = resolved.getT1();
+                    Map<Long, Store> storesById = resolved.getT2();
+                    List<Integer> pending = new ArrayList<>();
+                    List<StockAdjustment> adjustments = new ArrayList<>();
+
+                    for (int i = 0; i < items.size(); i++) {
+                        if (results[i] != null) {
+                            continue;
+                        }
+                        InventoryBatchAdjustmentItem item = items.get(i);
+                        Product product = productsBySku.get(item.getProductSku());
+                        if (product == null) {
+                            results[i] = rejected(i, item, ErrorCode.PRODUCT_NOT_FOUND,
+                                    "Product with SKU " + item.getProductSku() + " not found");
+                        } else if (!storesById.containsKey(item.getStoreId())) {
+                            results[i] = rejected(i, item, ErrorCode.STORE_NOT_FOUND,
+                                    "Store with ID " + item.getStoreId() + " not found");
+                        } else {
+                            pending.add(i);
+                            adjustments.add(StockAdjustment.builder()
+                                    .productId(product.getId())
+                                    .storeId(item.getStoreId())
+                                    .delta(item.getAdjustment())
+                                    .build());
+                        }
+                    }
+
+                    return inventoryPort.adjustAvailableQtyBatch(adjustments)
+                            .doOnNext(outcomes -> {
+                                for (int n = 0; n < outcomes.size(); n++) {
+                                    int i = pending.get(n);
+                                    InventoryBatchAdjustmentItem item = items.get(i);
+                                    AdjustmentOutcome outcome = outcomes.get(n);
+                                    Product product = productsBySku.get(item.getProductSku());
+                                    Store store = storesById.get(item.getStoreId());
+                                    results[i] = toBatchResult(i, item, outcome, product, store);
+                                    if (outcome.isApplied()) {
+                                        inventoryChangePort.publish(withRelations(outcome.getInventory(), product, store));
+                                    }
+                                }
+                            });
+                })
+                .then(Mono.fromSupplier(() -> {
+                    List<InventoryBatchAdjustmentResult> ordered = Arrays.asList(results);
+                    int applied = (int) ordered.stream().filter(InventoryBatchAdjustmentResult::isApplied).count();
+                    log.info("Inventory batch adjusted - Applied: {} - Rejected: {}", applied, ordered.size() - applied);
+                    return InventoryBatchAdjustmentResponse.builder()
+                            .applied(applied)
+                            .rejected(ordered.size() - applied)
+                            .results(ordered)
+                            .build();
+                }))
+                .doOnError(error -> log.error("Error adjusting inventory batch of {} items: {}",
+                        items.size(), error.getMessage(), error))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.INVENTORY_OPERATION_FAILED,
+                                "Failed to adjust inventory batch due to database error"));
+    }
+
+    /**
+     * Descuenta todas las líneas de una compra en una tienda o ninguna. Las líneas del mismo SKU
+     * se suman y todo se escribe en una única transacción; si alguna línea no tiene stock
+     * suficiente no se descuenta nada y el error enumera las líneas cortas.
+     */
+    public Mono<InventoryCheckoutResponse> checkout(Long storeId, InventoryCheckoutRequest request) {
+        List<InventoryCheckoutLine> lines = request.getLines() != null ? request.getLines() : List.of();
+        log.info("Checking out {} lines in store: {}", lines.size(), storeId);
+
+        if (storeId == null || storeId <= 0) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "Store ID must be a positive number"));
+        }
+        if (lines.isEmpty()) {
+            return Mono.error(new BusinessException(ErrorCode.VALIDATION_ERROR, "Checkout lines cannot be empty"));
+        }
+
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (InventoryCheckoutLine line : lines) {
+            if (line.getProductSku() == null || line.getProductSku().trim().isEmpty()) {
+                return Mono.error(new BusinessException(ErrorCode.INVALID_SKU_FORMAT, "Product SKU cannot be null or empty"));
+            }
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                return Mono.error(new BusinessException(ErrorCode.INVALID_ADJUSTMENT,
+                        "Quantity must be positive for product " + line.getProductSku()));
+            }
+            quantities.merge(line.getProductSku(), line.getQuantity(), Integer::sum);
+        }
+
+        return Mono.zip(
+                storePort.findById(storeId)
+                        .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.STORE_NOT_FOUND,
+                                "Store with ID " + storeId + " not found"))),
+                productPort.findBySkus(quantities.keySet()).collectMap(Product::getSku)
+        )
+        .flatMap(resolved -> {
+            Store store = resolved.getT1();
+            Map<String, Product> productsBySku = resolved.getT2();
+
+            List<String> unknown = quantities.keySet().stream()
+                    .filter(sku -> !productsBySku.containsKey(sku))
+                    .toList();
+            if (!unknown.isEmpty()) {
+                return Mono.error(new BusinessException(ErrorCode.PRODUCT_NOT_FOUND,
+                        "Products not found: " + String.join(", ", unknown)));
+            }
+
+            List<String> skus = new ArrayList<>(quantities.keySet());
+            List<StockAdjustment> adjustments = skus.stream()
+                    .map(sku -> StockAdjustment.builder()
+                            .productId(productsBySku.get(sku).getId())
+                            .storeId(storeId)
+                            .delta(-quantities.get(sku))
+                            .build())
+                    .toList();
+
+            return inventoryPort.adjustAvailableQtyAllOrNothing(adjustments)
+                    .flatMap(outcomes -> {
+                        if (!outcomes.get(0).isApplied()) {
+                            return Mono.error(rejectedCheckout(skus, storeId, quantities, outcomes));
+                        }
+
+                        List<InventoryResponse> inventories = new ArrayList<>(outcomes.size());
+                        for (int i = 0; i < outcomes.size(); i++) {
+                            Inventory inventory = withRelations(outcomes.get(i).getInventory(),
+                                    productsBySku.get(skus.get(i)), store);
+                            inventoryChangePort.publish(inventory);
+                            inventories.add(inventoryMapper.toResponse(inventory));
+                        }
+                        return Mono.just(InventoryCheckoutResponse.builder()
+                                .storeId(storeId)
+                                .lines(lines.size())
+                                .units(quantities.values().stream().mapToInt(Integer::intValue).sum())
+                                .inventories(inventories)
+                                .build());
+                    });
+        })
+        .doOnSuccess(response -> log.info("Checkout applied in store {} - SKUs: {} - Units: {}",
+                storeId, response.getInventories().size(), response.getUnits()))
+        .doOnError(error -> log.error("Error checking out {} lines in store {}: {}",
+                lines.size(), storeId, error.getMessage(), error))
+        .onErrorMap(ex -> !(ex instanceof BusinessException),
+                ex -> new BusinessException(ErrorCode.INVENTORY_OPERATION_FAILED,
+                        "Failed to check out inventory due to database error"));
+    }
+
+    /**
+     * Las filas inexistentes se informan como INVENTORY_NOT_FOUND antes que cualquier línea corta.
+     */
+    private BusinessException rejectedCheckout(List<String> skus, Long storeId, Map<String, Integer> quantities,
+                                               List<AdjustmentOutcome> outcomes) {
+        List<String> missing = new ArrayList<>();
+        List<String> shortLines = new ArrayList<>();
+        for (int i = 0; i < outcomes.size(); i++) {
+            AdjustmentOutcome outcome = outcomes.get(i);
+            if (outcome.getInventory() == null) {
+                missing.add(skus.get(i));
+                continue;
+            }
+            // Las unidades reservadas no se pueden vender
+            int available = outcome.getPreviousQty() - reservedQty(outcome.getInventory());
+            int requested = quantities.get(skus.get(i));
+            if (available < requested) {
+                shortLines.add(String.format("%s (available: %d, requested: %d)", skus.get(i), available, requested));
+            }
+        }
+        if (!missing.isEmpty()) {
+            return new BusinessException(ErrorCode.INVENTORY_NOT_FOUND,
+                    String.format("Inventory not found in store %d for products: %s", storeId, String.join(", ", missing)));
+        }
+        return new BusinessException(ErrorCode.INSUFFICIENT_STOCK,
+                "Insufficient stock for " + shortLines.size() + " of " + skus.size() + " products: "
+                        + String.join(", ", shortLines));
+    }
+
+    /**
+     * Traspasa unidades de un producto entre dos tiendas en una sola transacción: se descuenta
+     * del origen y se suma al destino, o no se modifica ninguna de las dos filas.
+     */
+    public Mono<InventoryTransferResponse> transferInventory(String productSku, InventoryTransferRequest request) {
+        log.info("Transferring {} units of product SKU: {} from store: {} to store: {}",
+                request.getQuantity(), productSku, request.getFromStoreId(), request.getToStoreId());
+
+        if (productSku == null || productSku.trim().isEmpty()) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_SKU_FORMAT, "Product SKU cannot be null or empty"));
+        }
+        String invalid = validateTransfer(request.getFromStoreId(), request.getToStoreId(), request.getQuantity());
+        if (invalid != null) {
+            return Mono.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, invalid));
+        }
+
+        return Mono.zip(
+                productPort.findBySku(productSku)
+                        .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.PRODUCT_NOT_FOUND,
+                                "Product with SKU " + productSku + " not found"))),
+                storePort.findById(request.getFromStoreId())
+                        .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.STORE_NOT_FOUND,
+                                "Store with ID " + request.getFromStoreId() + " not found"))),
+                storePort.findById(request.getToStoreId())
+                        .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.STORE_NOT_FOUND,
+                                "Store with ID " + request.getToStoreId() + " not found")))
+        )
+        .flatMap(tuple -> {
+            Product product = tuple.getT1();
+            StockTransfer transfer = StockTransfer.builder()
+                    .productId(product.getId())
+                    .fromStoreId(request.getFromStoreId())
+                    .toStoreId(request.getToStoreId())
+                    .quantity(request.getQuantity())
+                    .build();
+
+            return inventoryPort.transfer(List.of(transfer))
+                    .flatMap(outcomes -> {
+                        TransferOutcome outcome = outcomes.get(0);
+                        BusinessException rejection = transferRejection(productSku, request.getFromStoreId(),
+                                request.getToStoreId(), request.getQuantity(), outcome);
+                        if (rejection != null) {
+                            return Mono.error(rejection);
+                        }
+                        Inventory source = withRelations(outcome.getSource(), product, tuple.getT2());
+                        Inventory destination = withRelations(outcome.getDestination(), product, tuple.getT3());
+                        inventoryChangePort.publish(source);
+                        inventoryChangePort.publish(destination);
+                        return Mono.just(InventoryTransferResponse.builder()
+                                .productSku(productSku)
+                                .quantity(request.getQuantity())
+                                .source(inventoryMapper.toResponse(source))
+                                .destination(inventoryMapper.toResponse(destination))
+                                .build());
+                    });
+        })
+        .doOnError(error -> log.error("Error transferring product SKU {} from store {} to store {}: {}",
+                productSku, request.getFromStoreId(), request.getToStoreId(), error.getMessage(), error))
+        .onErrorMap(ex -> !(ex instanceof BusinessException),
+                ex -> new BusinessException(ErrorCode.INVENTORY_OPERATION_FAILED,
+                        "Failed to transfer inventory due to database error"));
+    }
+
+    /**
+     * Modo masivo para el rebalanceo nocturno: resuelve SKUs y tiendas una vez y aplica los
+     * traspasos en transacciones de {@value #BULK_TRANSFER_TRANSACTION_SIZE}. Cada traspaso es
+     * atómico por sí mismo; uno rechazado no impide aplicar el resto.
+     */
+    public Mono<InventoryBulkTransferResponse> transferInventoryBulk(InventoryBulkTransferRequest request) {
+        List<InventoryBulkTransferItem> items = request.getItems();
+        log.info("Transferring inventory in bulk with {} items", items.size());
+
+        InventoryBulkTransferResult[] results = new InventoryBulkTransferResult[items.size()];
+        Set<String> skus = new LinkedHashSet<>();
+        Set<Long> storeIds = new LinkedHashSet<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            InventoryBulkTransferItem item = items.get(i);
+            String invalid = validateTransfer(item.getFromStoreId(), item.getToStoreId(), item.getQuantity());
+            if (item.getProductSku() == null || item.getProductSku().trim().isEmpty()) {
+                results[i] = rejected(i, item, ErrorCode.INVALID_SKU_FORMAT, "Product SKU cannot be null or empty");
+            } else if (invalid != null) {
+                results[i] = rejected(i, item, ErrorCode.INVALID_PARAMETER_FORMAT, invalid);
+            } else {
+                skus.add(item.getProductSku());
+                storeIds.add(item.getFromStoreId());
+                storeIds.add(item.getToStoreId());
+            }
+        }
+
+        Mono<Map<String, Product>> products = productPort.findBySkus(skus)
+                .collectMap(Product::getSku);
+        Mono<Map<Long, Store>> stores = Flux.fromIterable(storeIds)
+                .flatMap(storePort::findById)
+                .collectMap(Store::getId);
+
+        return Mono.zip(products, stores)
+                .flatMapMany(resolved -> {
+                    Map<String, Product> productsBySku = resolved.getT1();
+                    Map<Long, Store> storesById = resolved.getT2();
+                    List<Integer> pending = new ArrayList<>();
+                    List<StockTransfer> transfers = new ArrayList<>();
+
+                    for (int i = 0; i < items.size(); i++) {
+                        if (results[i] != null) {
+                            continue;
+                        }
+                        InventoryBulkTransferItem item = items.get(i);
+                        Product product = productsBySku.get(item.getProductSku());
+                        Long missingStore = !storesById.containsKey(item.getFromStoreId()) ? item.getFromStoreId()
+                                : !storesById.containsKey(item.getToStoreId()) ? item.getToStoreId() : null;
+                        if (product == null) {
+                            results[i] = rejected(i, item, ErrorCode.PRODUCT_NOT_FOUND,
+                                    "Product with SKU " + item.getProductSku() + " not found");
+                        } else if (missingStore != null) {
+                            results[i] = rejected(i, item, ErrorCode.STORE_NOT_FOUND,
+                                    "Store with ID " + missingStore + " not found");
+                        } else {
+                            pending.add(i);
+                            transfers.add(StockTransfer.builder()
+                                    .productId(product.getId())
+                                    .fromStoreId(item.getFromStoreId())
+                                    .toStoreId(item.getToStoreId())
+                                    .quantity(item.getQuantity())
+                                    .build());
+                        }
+                    }
+
+                    return Flux.range(0, (transfers.size() + BULK_TRANSFER_TRANSACTION_SIZE - 1) / BULK_TRANSFER_TRANSACTION_SIZE)
+                            .concatMap(chunk -> {
+                                int from = chunk * BULK_TRANSFER_TRANSACTION_SIZE;
+                                int to = Math.min(from + BULK_TRANSFER_TRANSACTION_SIZE, transfers.size());
+                                return inventoryPort.transfer(transfers.subList(from, to))
+                                        .doOnNext(outcomes -> {
+                                            for (int n = 0; n < outcomes.size(); n++) {
+                                                int i = pending.get(from + n);
+                                                InventoryBulkTransferItem item = items.get(i);
+                                                TransferOutcome outcome = outcomes.get(n);
+                                                BusinessException rejection = transferRejection(item.getProductSku(),
+                                                        item.getFromStoreId(), item.getToStoreId(), item.getQuantity(),
+                                                        outcome);
+                                                if (rejection != null) {
+                                                    results[i] = rejected(i, item, rejection.getErrorCode(), rejection.getDetails());
+                                                    continue;
+                                                }
+                                                Product product = productsBySku.get(item.getProductSku());
+                                                inventoryChangePort.publish(withRelations(outcome.getSource(), product,
+                                                        storesById.get(item.getFromStoreId())));
+                                                inventoryChangePort.publish(withRelations(outcome.getDestination(), product,
+                                                        storesById.get(item.getToStoreId())));
+                                                results[i] = InventoryBulkTransferResult.builder()
+                                                        .index(i)
+                                                        .productSku(item.getProductSku())
+                                                        .fromStoreId(item.getFromStoreId())
+                                                        .toStoreId(item.getToStoreId())
+                                                        .quantity(item.getQuantity())
+                                                        .applied(true)
+                                                        .build();
+                                            }
+                                        });
+                            });
+                })
+                .count()
+                .map(transactions -> {
+                    List<InventoryBulkTransferResult> ordered = Arrays.asList(results);
+                    int applied = (int) ordered.stream().filter(InventoryBulkTransferResult::isApplied).count();
+                    log.info("Inventory bulk transfer - Applied: {} - Rejected: {} - Transactions: {}",
+                            applied, ordered.size() - applied, transactions);
+                    return InventoryBulkTransferResponse.builder()
+                            .applied(applied)
+                            .rejected(ordered.size() - applied)
+                            .transactions(transactions.intValue())
+                            .results(ordered)
+                            .build();
+                })
+                .doOnError(error -> log.error("Error transferring inventory in bulk with {} items: {}",
+                        items.size(), error.getMessage(), error))
+                .onErrorMap(ex -> !(ex instanceof BusinessException),
+                        ex -> new BusinessException(ErrorCode.INVENTORY_OPERATION_FAILED,
+                                "Failed to transfer inventory in bulk due to database error"));
+    }
+
+    private String validateTransfer(Long fromStoreId, Long toStoreId, Integer quantity) {
+        if (fromStoreId == null || fromStoreId <= 0 || toStoreId == null || toStoreId <= 0) {
+            return "Store IDs must be positive numbers";
+        }
+        if (fromStoreId.equals(toStoreId)) {
+            return "Source and destination stores must be different";
+        }
+        if (quantity == null || quantity <= 0) {
+            return "Transfer quantity must be positive";
+        }
+        return null;
+    }
+
+    /**
+     * Error que corresponde a un traspaso no aplicado, o null si se aplicó.
+     */
+    private BusinessException transferRejection(String productSku, Long fromStoreId, Long toStoreId, int quantity,
+                                                TransferOutcome outcome) {
+        if (outcome.isApplied()) {
+            return null;
+        }
+        if (outcome.getSource() == null || outcome.getDestination() == null) {
+            return new BusinessException(ErrorCode.INVENTORY_NOT_FOUND,
+                    String.format("Inventory not found for product %s in store %d", productSku,
+                            outcome.getSource() == null ? fromStoreId : toStoreId));
+        }
+        return new BusinessException(ErrorCode.INSUFFICIENT_STOCK,
+                String.format("Insufficient stock in store %d. Current: %d, Transfer: %d",
+                        fromStoreId, outcome.getPreviousSourceQty(), quantity));
+    }
+
+    private InventoryBulkTransferResult rejected(int index, InventoryBulkTransferItem item,
+                                                 ErrorCode errorCode, String message) {
+        return InventoryBulkTransferResult.builder()
+                .index(index)
+                .productSku(item.getProductSku())
+                .fromStoreId(item.getFromStoreId())
+                .toStoreId(item.getToStoreId())
+                .quantity(item.getQuantity())
+                .applied(false)
+                .errorCode(errorCode.getCode())
+                .message(message)
+                .build();
+    }
+
+    private InventoryBatchAdjustmentResult toBatchResult(int index, InventoryBatchAdjustmentItem item,
+                                                         AdjustmentOutcome outcome, Product product, Store store) {
+        if (outcome.getInventory() == null) {
+            return rejected(index, item, ErrorCode.INVENTORY_NOT_FOUND,
+                    String.format("Inventory not found for product %s in store %d", item.getProductSku(), item.getStoreId()));
+        }
+
+        InventoryResponse inventory = inventoryMapper.toResponse(withRelations(outcome.getInventory(), product, store));
+        if (!outcome.isApplied()) {
+            InventoryBatchAdjustmentResult result = rejected(index, item, ErrorCode.INSUFFICIENT_STOCK,
+                    insufficientStockMessage(outcome.getPreviousQty(), reservedQty(outcome.getInventory()),
+                            item.getAdjustment()));
+            result.setPreviousQty(outcome.getPreviousQty());
+            result.setInventory(inventory);
+            return result;
+        }
+
+        return InventoryBatchAdjustmentResult.builder()
+                .index(index)
+                .productSku(item.getProductSku())
+                .storeId(item.getStoreId())
+                .adjustment(item.getAdjustment())
+                .applied(true)
+                .previousQty(outcome.getPreviousQty())
+                .inventory(inventory)
+                .build();
+    }
+
+    private InventoryBatchAdjustmentResult rejected(int index, InventoryBatchAdjustmentItem item,
+                                                    ErrorCode errorCode, String message) {
+        return InventoryBatchAdjustmentResult.builder()
+                .index(index)
+                .productSku(item.getProductSku())
+                .storeId(item.getStoreId())
+                .adjustment(item.getAdjustment())
+                .applied(false)
+                .errorCode(errorCode.getCode())
+                .message(message)
+                .build();
+    }
+
+    /**
+     * El UPDATE condicional no devuelve la fila que rechazó: los valores del mensaje se leen
+     * después y otra escritura pudo cambiarlos en el medio. Si con la relectura el ajuste
+     * entraría, el rechazo se informa como modificación concurrente para que el cliente reintente.
+     */
+    private Mono<Inventory> rejectAdjustment(String productSku, Long storeId, int adjustment) {
+        return inventoryPort.findByProductSkuAndStoreId(productSku, storeId)
+                .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.INVENTORY_NOT_FOUND,
+                        String.format("Inventory not found for product %s in store %d", productSku, storeId))))
+                .flatMap(current -> {
+                    int result = current.getAvailableQty() - reservedQty(current) + adjustment;
+                    if (result >= 0) {
+                        return Mono.error(new BusinessException(ErrorCode.OPTIMISTIC_LOCK_FAILURE,
+                                String.format("Stock changed while applying adjustment %d, retry", adjustment)));
+                    }
+                    return Mono.error(new BusinessException(ErrorCode.INSUFFICIENT_STOCK,
+                            insufficientStockMessage(current.getAvailableQty(), reservedQty(current), adjustment)
+                                    + " (values read after the rejection, they may have changed since)"));
+                });
+    }
+
+    /**
+     * Detalle de un ajuste rechazado por stock: el resultado descuenta las unidades reservadas,
+     * igual que la condición con la que se rechazó.
+     */
+    static String insufficientStockMessage(int availableQty, int reservedQty, int adjustment) {
+        return String.format("Insufficient stock. Current: %d, Reserved: %d, Adjustment: %d, Result would be: %d",
+                availableQty, reservedQty, adjustment, availableQty - reservedQty + adjustment);
+    }
+
+    static int reservedQty(Inventory inventory) {
+        return inventory.getReservedQty() == null ? 0 : inventory.getReservedQty();
+    }
+
+    // La clave es el último producto entregado en el listado o la última secuencia en la sincronización
+    private String encodeCursor(Long storeId, Long key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((storeId + ":" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Devuelve la última clave entregada, o null sin cursor. Un cursor de otra tienda se rechaza.
+     */
+    private Long decodeCursor(Long storeId, String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length == 2 && Long.parseLong(parts[0]) == storeId) {
+                long key = Long.parseLong(parts[1]);
+                if (key > 0) {
+                    return key;
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            // Base64 o número inválido: se informa como cursor inválido
+        }
+        throw new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT, "Invalid cursor for store " + storeId);
+    }
+
     private Mono<Void> validateStoreExists(Long storeId) {
         return storePort.existsById(storeId)
                 .flatMap(exists -> {
@@ -199,15 +1028,33 @@ public class InventoryService {
                 });
     }
 
-    private Mono<Inventory> enrichInventoryWithRelations(Inventory inventory) {
-        return Mono.zip(
-                productPort.findById(inventory.getProductId()).defaultIfEmpty(new Product()),
-                storePort.findById(inventory.getStoreId()).defaultIfEmpty(new Store())
-        )
-        .map(tuple -> {
-            inventory.setProduct(tuple.getT1());
-            inventory.setStore(tuple.getT2());
-            return inventory;
-        });
+    /**
+     * Reemplaza el stock actual por el reconstruido desde el ledger; vacío si la combinación
+     * todavía no existía en ese instante.
+     */
+    private Mono<Inventory> atPointInTime(Inventory inventory, LocalDateTime asOf) {
+        return inventoryLedgerPort.materializeAsOf(inventory.getProductId(), inventory.getStoreId(), asOf)
+                .map(availableQty -> withHistoricStock(inventory, availableQty));
+    }
+
+    private Inventory withHistoricStock(Inventory inventory, int availableQty) {
+        inventory.setAvailableQty(availableQty);
+        // Versión, fecha y reservas describen el estado actual, no el histórico
+        inventory.setReservedQty(null);
+        inventory.setVersion(null);
+        inventory.setUpdatedAt(null);
+        return inventory;
+    }
+
+    private InventoryResponse toHistoricResponse(Inventory inventory, LocalDateTime asOf) {
+        InventoryResponse response = inventoryMapper.toResponse(inventory);
+        response.setAsOf(asOf);
+        return response;
+    }
+
+    private Inventory withRelations(Inventory inventory, Product product, Store store) {
+        inventory.setProduct(product);
+        inventory.setStore(store);
+        return inventory;
     }
 }
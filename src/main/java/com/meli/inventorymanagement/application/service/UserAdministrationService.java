@@ -0,0 +1,102 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.meli.inventorymanagement.application.dto.UserGrantsUpdateRequest;
+import com.meli.inventorymanagement.application.dto.UserStatusUpdateRequest;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.domain.model.UserGrants;
+import com.meli.inventorymanagement.domain.port.GrantRevocationPort;
+import com.meli.inventorymanagement.domain.port.StorePort;
+import com.meli.inventorymanagement.domain.port.UserPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Cambios de rol, tiendas y estado de los usuarios. Cada cambio confirmado revoca los permisos
+ * firmados en los tokens ya emitidos del usuario, que desde ahí se autoriza contra la base.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserAdministrationService {
+
+    static final Set<String> ROLES = Set.of("ADMIN", "STORE_USER", "WEB_USER");
+
+    private final UserPort userPort;
+    private final StorePort storePort;
+    private final GrantRevocationPort grantRevocationPort;
+
+    public Mono<Void> updateGrants(String username, UserGrantsUpdateRequest request) {
+        if (!ROLES.contains(request.getRole())) {
+            return Mono.error(new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "Unknown role: " + request.getRole()));
+        }
+        Set<Long> storeIds = new TreeSet<>();
+        if (request.getStoreIds() != null) {
+            if (request.getStoreIds().stream().anyMatch(Objects::isNull)) {
+                return Mono.error(new BusinessException(ErrorCode.VALIDATION_ERROR, "Store IDs cannot be null"));
+            }
+            storeIds.addAll(request.getStoreIds());
+        }
+
+        UserGrants grants = UserGrants.builder()
+                .username(username)
+                .role(request.getRole())
+                .storeIds(storeIds)
+                .build();
+
+        return validateStores(storeIds)
+                .then(Mono.defer(() -> userPort.updateGrants(grants)))
+                .flatMap(updated -> revokeIfUpdated(username, updated))
+                .doOnSuccess(ignored -> log.info("Grants of user {} updated - Role: {} - Stores: {}",
+                        username, grants.getRole(), storeIds));
+    }
+
+    public Mono<Void> updateStatus(String username, UserStatusUpdateRequest request) {
+        return userPort.updateActive(username, request.getActive())
+                .flatMap(updated -> revokeIfUpdated(username, updated))
+                .doOnSuccess(ignored -> log.info("User {} is now {}", username,
+                        request.getActive() ? "active" : "inactive"));
+    }
+
+    /**
+     * Para cambios hechos fuera de la aplicación (por ejemplo, directo en la base): ningún token
+     * emitido hasta ahora se autoriza con sus permisos firmados.
+     */
+    public Mono<Void> revokeAllGrants() {
+        return Mono.fromRunnable(grantRevocationPort::revokeAll);
+    }
+
+    private Mono<Void> validateStores(Set<Long> storeIds) {
+        if (storeIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return storePort.findAll()
+                .map(Store::getId)
+                .collect(Collectors.toSet())
+                .flatMap(existing -> storeIds.stream()
+                        .filter(storeId -> !existing.contains(storeId))
+                        .findFirst()
+                        .map(storeId -> Mono.<Void>error(new BusinessException(ErrorCode.STORE_NOT_FOUND,
+                                "Store with ID " + storeId + " not found")))
+                        .orElse(Mono.empty()));
+    }
+
+    // Se revoca después de confirmar: los tokens emitidos hasta ese segundo dejan de usar sus
+    // permisos firmados y los logins siguientes ya leen los nuevos
+    private Mono<Void> revokeIfUpdated(String username, boolean updated) {
+        if (!updated) {
+            return Mono.error(new BusinessException(ErrorCode.USER_NOT_FOUND, "User not found: " + username));
+        }
+        grantRevocationPort.revoke(username);
+        return Mono.empty();
+    }
+}
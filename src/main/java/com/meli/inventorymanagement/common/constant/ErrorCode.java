@@ -16,6 +16,10 @@ public enum ErrorCode {
     INVALID_ADJUSTMENT("INV-009", "Invalid inventory adjustment"),
     INVALID_SKU_FORMAT("INV-010", "Invalid SKU format provided"),
     INVENTORY_OPERATION_FAILED("INV-011", "Inventory operation could not be completed"),
+    RESERVATION_NOT_FOUND("INV-012", "Reservation not found"),
+    RESERVATION_NOT_ACTIVE("INV-013", "Reservation is no longer active"),
+    IDEMPOTENCY_KEY_REUSED("INV-014", "Idempotency key already used with a different request"),
+    SYNC_CURSOR_EXPIRED("INV-015", "Sync cursor is no longer valid, a full resync is required"),
 
     AUTHENTICATION_FAILED("AUTH-001", "Authentication failed"),
     INVALID_TOKEN("AUTH-002", "Invalid or expired token"),
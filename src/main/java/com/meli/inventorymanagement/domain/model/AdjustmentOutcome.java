@@ -0,0 +1,23 @@
+package com.meli.inventorymanagement.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una delta dentro de una secuencia de ajustes aplicada en una sola escritura.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdjustmentOutcome {
+
+    private Integer adjustment;
+    private boolean applied;
+    // Stock inmediatamente antes de esta delta, en orden de llegada
+    private Integer previousQty;
+    // Estado tras esta delta (o el estado vigente si fue rechazada)
+    private Inventory inventory;
+}
@@ -0,0 +1,27 @@
+package com.meli.inventorymanagement.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave de idempotencia persistida. {@code response} es nulo mientras la operación original
+ * está en curso o si el proceso se cayó antes de registrar su resultado.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    private String owner;
+    private String key;
+    // Identifica el contenido del pedido original
+    private String fingerprint;
+    // Respuesta serializada de la operación original
+    private String response;
+    private LocalDateTime expiresAt;
+}
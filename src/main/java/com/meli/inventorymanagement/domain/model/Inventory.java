@@ -18,9 +18,14 @@ public class Inventory {
     private Long storeId;
     @Builder.Default
     private Integer availableQty = 0;
+    // Unidades retenidas por reservas vigentes: se pueden vender availableQty - reservedQty
+    @Builder.Default
+    private Integer reservedQty = 0;
     @Builder.Default
     private Integer version = 0;
     private LocalDateTime updatedAt;
+    // Posición de la última escritura de la fila en la secuencia global de cambios
+    private Long changeSeq;
 
     // Relaciones
     private Product product;
@@ -0,0 +1,38 @@
+package com.meli.inventorymanagement.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento inmutable del ledger de inventario. {@code seq} es monótono y define el orden de aplicación.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEvent {
+
+    private Long seq;
+    private Long productId;
+    private Long storeId;
+    private Type type;
+    // Delta a sumar (DELTA) o stock absoluto (SET)
+    private Integer quantity;
+    private LocalDateTime createdAt;
+
+    public enum Type {
+        DELTA,
+        SET
+    }
+
+    /**
+     * Aplica el evento sobre el stock previo.
+     */
+    public int applyTo(int availableQty) {
+        return type == Type.SET ? quantity : availableQty + quantity;
+    }
+}
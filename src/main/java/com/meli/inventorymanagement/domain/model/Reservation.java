@@ -0,0 +1,33 @@
+package com.meli.inventorymanagement.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Retención temporal de unidades de un producto en una tienda mientras se completa un pago.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Reservation {
+
+    public enum Status {
+        HELD,
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+
+    private String id;
+    private Long productId;
+    private Long storeId;
+    private Integer quantity;
+    private Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
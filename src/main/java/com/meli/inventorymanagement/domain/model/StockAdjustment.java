@@ -0,0 +1,20 @@
+package com.meli.inventorymanagement.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Delta a aplicar sobre el inventario de un producto en una tienda, ya resueltos sus ids.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustment {
+
+    private Long productId;
+    private Long storeId;
+    private Integer delta;
+}
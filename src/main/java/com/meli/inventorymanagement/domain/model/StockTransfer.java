@@ -0,0 +1,21 @@
+package com.meli.inventorymanagement.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Traspaso de unidades de un producto entre dos tiendas, ya resueltos sus ids.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransfer {
+
+    private Long productId;
+    private Long fromStoreId;
+    private Long toStoreId;
+    private Integer quantity;
+}
@@ -0,0 +1,23 @@
+package com.meli.inventorymanagement.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un traspaso: se aplican ambos movimientos o ninguno.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferOutcome {
+
+    private boolean applied;
+    // Stock de origen inmediatamente antes del traspaso
+    private Integer previousSourceQty;
+    // Estado de cada fila tras el traspaso (o el vigente si fue rechazado); nulo si no existe
+    private Inventory source;
+    private Inventory destination;
+}
@@ -0,0 +1,22 @@
+package com.meli.inventorymanagement.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Rol de un usuario y tiendas sobre las que tiene permiso.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserGrants {
+
+    private String username;
+    private String role;
+    private Set<Long> storeIds;
+}
@@ -1,5 +1,6 @@
 package com.meli.inventorymanagement.domain.port;
 
+import com.meli.inventorymanagement.domain.model.UserGrants;
 import reactor.core.publisher.Mono;
 
 /**
@@ -10,5 +11,10 @@ public interface AuthenticationPort {
     Mono<Boolean> authenticate(String username, String password);
 
     Mono<Boolean> hasStorePermission(String username, Long storeId);
+
+    /**
+     * Rol y tiendas permitidas del usuario, vacío si no existe o está inactivo.
+     */
+    Mono<UserGrants> findGrants(String username);
 }
 
@@ -0,0 +1,27 @@
+package com.meli.inventorymanagement.domain.port;
+
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.model.Product;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Puerto de salida para cargas masivas de catálogo e inventario.
+ */
+public interface CatalogImportPort {
+
+    /**
+     * Inserta los productos nuevos y actualiza nombre y descripción de los existentes (por SKU)
+     * en un único statement. Los SKUs del lote no se repiten. Devuelve las filas escritas.
+     */
+    Mono<Integer> upsertProducts(List<Product> products);
+
+    /**
+     * Fija la cantidad disponible de cada producto-tienda, creando las filas que no existen, en
+     * una única transacción. Las claves del lote no se repiten. Las filas existentes cuya nueva
+     * cantidad quedaría por debajo de sus unidades reservadas no se modifican: se devuelven con
+     * su reservedQty actual para informarlas.
+     */
+    Mono<List<Inventory>> upsertInventory(List<Inventory> rows);
+}
@@ -0,0 +1,12 @@
+package com.meli.inventorymanagement.domain.port;
+
+/**
+ * Puerto para avisar que cambiaron el rol, las tiendas o el estado de un usuario: los permisos
+ * que viajan en los tokens ya emitidos dejan de usarse y se vuelven a consultar en la base.
+ */
+public interface GrantRevocationPort {
+
+    void revoke(String username);
+
+    void revokeAll();
+}
@@ -0,0 +1,33 @@
+package com.meli.inventorymanagement.domain.port;
+
+import com.meli.inventorymanagement.domain.model.IdempotencyRecord;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Puerto de salida para las claves de idempotencia, que deben sobrevivir a reinicios y a la
+ * capacidad de la memoria durante toda la ventana de retención.
+ */
+public interface IdempotencyKeyPort {
+
+    /**
+     * Registra la clave como en curso. {@code false} si ya existe una vigente para el mismo owner.
+     */
+    Mono<Boolean> claim(String owner, String key, String fingerprint, LocalDateTime expiresAt);
+
+    /**
+     * Guarda la respuesta serializada de la operación que reclamó la clave.
+     */
+    Mono<Void> complete(String owner, String key, String response);
+
+    /**
+     * Libera una clave cuya operación falló sin aplicar cambios.
+     */
+    Mono<Void> release(String owner, String key);
+
+    /**
+     * Clave vigente; vacío si no existe o ya venció.
+     */
+    Mono<IdempotencyRecord> find(String owner, String key);
+}
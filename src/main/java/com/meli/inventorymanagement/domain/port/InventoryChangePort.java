@@ -0,0 +1,26 @@
+package com.meli.inventorymanagement.domain.port;
+
+import com.meli.inventorymanagement.domain.model.Inventory;
+import reactor.core.publisher.Flux;
+
+/**
+ * Puerto de salida para difundir los cambios de inventario a suscriptores en vivo.
+ */
+public interface InventoryChangePort {
+
+    /**
+     * Notifica un inventario recién guardado. No espera a ningún suscriptor.
+     */
+    void publish(Inventory inventory);
+
+    /**
+     * Cambios posteriores a la suscripción, filtrados por tienda y producto (null = todos).
+     * Un suscriptor lento recibe el último estado de cada producto-tienda, no todos los intermedios.
+     */
+    Flux<Inventory> subscribe(Long storeId, Long productId);
+
+    /**
+     * Indica si hay algún suscriptor: permite omitir la relectura de filas que nadie recibiría.
+     */
+    boolean hasSubscribers();
+}
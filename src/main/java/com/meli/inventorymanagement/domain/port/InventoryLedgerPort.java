@@ -0,0 +1,30 @@
+package com.meli.inventorymanagement.domain.port;
+
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Puerto de salida para el ledger append-only de inventario
+ */
+public interface InventoryLedgerPort {
+
+    /**
+     * Stock reconstruido desde el último snapshot más la cola del ledger. Vacío si la
+     * combinación producto-tienda no tiene eventos.
+     */
+    Mono<Integer> materialize(Long productId, Long storeId);
+
+    /**
+     * Stock vigente en {@code asOf}: parte del último snapshot anterior a ese instante y aplica
+     * sólo los eventos hasta el snapshot siguiente. Vacío si no hay historia hasta ese momento.
+     */
+    Mono<Integer> materializeAsOf(Long productId, Long storeId, LocalDateTime asOf);
+
+    /**
+     * Stock vigente en {@code asOf} del producto en todas sus tiendas, indexado por tienda, resuelto
+     * con una única consulta. Las tiendas sin historia hasta ese momento no aparecen en el mapa.
+     */
+    Mono<Map<Long, Integer>> materializeAsOfByStore(Long productId, LocalDateTime asOf);
+}
@@ -1,20 +1,105 @@
 package com.meli.inventorymanagement.domain.port;
 
+import com.meli.inventorymanagement.domain.model.AdjustmentOutcome;
 import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.model.StockAdjustment;
+import com.meli.inventorymanagement.domain.model.StockTransfer;
+import com.meli.inventorymanagement.domain.model.TransferOutcome;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Puerto de salida para operaciones de inventario
  */
 public interface InventoryPort {
 
+    /**
+     * Devuelve el inventario del SKU en todas las tiendas, con producto y tienda
+     * ya resueltos en la misma consulta.
+     */
     Flux<Inventory> findByProductSku(String sku);
 
+    /**
+     * Devuelve el inventario del SKU en la tienda, con producto y tienda ya resueltos
+     * en la misma consulta.
+     */
     Mono<Inventory> findByProductSkuAndStoreId(String sku, Long storeId);
 
+    /**
+     * Devuelve el inventario de varios SKUs en una sola consulta, ordenado por SKU y tienda para
+     * que las filas de un mismo SKU lleguen contiguas. Sin tiendas se incluyen todas.
+     */
+    Flux<Inventory> findByProductSkus(Collection<String> skus, Collection<Long> storeIds);
+
+    /**
+     * Devuelve hasta {@code limit} filas de la tienda ordenadas por producto, a partir del producto
+     * siguiente a {@code afterProductId} (null = desde el principio). Paginación keyset: el costo
+     * de una página no depende de cuántas se leyeron antes.
+     */
+    Flux<Inventory> findByStoreId(Long storeId, Long afterProductId, int limit);
+
+    /**
+     * Filas de la tienda escritas después de {@code afterChangeSeq}, en orden de la secuencia global
+     * de cambios. Cada fila aparece una sola vez, con su estado y su secuencia más recientes. Sólo
+     * devuelve secuencias que ninguna transacción en curso puede adelantar al confirmar.
+     */
+    Flux<Inventory> findChangedSince(Long storeId, long afterChangeSeq, int limit);
+
+    /**
+     * Secuencia de la última escritura en la tienda, o 0 si no tiene inventario.
+     */
+    Mono<Long> findLastChangeSeq(Long storeId);
+
+    /**
+     * Recorre todo el inventario con producto y tienda resueltos, ordenado por tienda y producto.
+     * Las filas se emiten a medida que la base las entrega y según la demanda del suscriptor.
+     */
+    Flux<Inventory> streamAll();
+
     Mono<Inventory> findByProductIdAndStoreId(Long productId, Long storeId);
 
     Mono<Inventory> save(Inventory inventory);
-}
 
+    /**
+     * Aplica la delta en una única sentencia UPDATE condicionada a que el stock resultante
+     * no sea negativo, incrementando la versión. Un descuento tampoco puede consumir unidades
+     * reservadas; esta regla aplica a todas las operaciones que descuentan stock. Devuelve el
+     * registro actualizado, o vacío si no existe inventario para el SKU en la tienda o si el
+     * ajuste dejaría stock negativo.
+     */
+    Mono<Inventory> adjustAvailableQty(String sku, Long storeId, int delta);
+
+    /**
+     * Aplica en orden de llegada una secuencia de deltas sobre el mismo inventario con una
+     * única escritura: cada delta se acepta sólo si el stock acumulado no queda negativo.
+     * Devuelve un resultado por delta, o vacío si no existe inventario para el SKU en la tienda.
+     */
+    Mono<List<AdjustmentOutcome>> adjustAvailableQtyInSequence(String sku, Long storeId, List<Integer> adjustments);
+
+    /**
+     * Aplica un lote de deltas sobre distintos inventarios en una sola transacción, con las
+     * mismas reglas que {@link #adjustAvailableQty}. Devuelve un resultado por delta en el orden
+     * recibido; el inventario del resultado es nulo si no existe para ese producto y tienda.
+     */
+    Mono<List<AdjustmentOutcome>> adjustAvailableQtyBatch(List<StockAdjustment> adjustments);
+
+    /**
+     * Aplica todas las deltas en una sola transacción o ninguna: si alguna fila no existe o
+     * quedaría con stock negativo no se escribe nada. Las filas se bloquean siempre en orden
+     * (producto, tienda) para evitar deadlocks entre operaciones concurrentes. Devuelve un
+     * resultado por delta en el orden recibido, todos aplicados o todos rechazados; el stock
+     * previo de cada delta acumula las anteriores sobre la misma fila.
+     */
+    Mono<List<AdjustmentOutcome>> adjustAvailableQtyAllOrNothing(List<StockAdjustment> adjustments);
+
+    /**
+     * Aplica una lista de traspasos en una sola transacción. Cada traspaso descuenta del origen y
+     * suma al destino, o no hace nada si alguna fila no existe o el origen no tiene stock suficiente.
+     * Las filas se bloquean en orden (producto, tienda), de modo que traspasos concurrentes en
+     * sentidos opuestos no pueden bloquearse entre sí. Devuelve un resultado por traspaso en el orden recibido.
+     */
+    Mono<List<TransferOutcome>> transfer(List<StockTransfer> transfers);
+}
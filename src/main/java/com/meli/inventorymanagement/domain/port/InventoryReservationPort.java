@@ -0,0 +1,39 @@
+package com.meli.inventorymanagement.domain.port;
+
+import com.meli.inventorymanagement.domain.model.Reservation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Puerto de salida para reservas de stock. Una reserva vigente suma su cantidad a las unidades
+ * reservadas del inventario sin descontar las disponibles hasta que se confirma.
+ */
+public interface InventoryReservationPort {
+
+    /**
+     * Retiene la cantidad si las unidades vendibles alcanzan. Devuelve la reserva creada, o vacío
+     * si no existe inventario para el producto en la tienda o no hay stock vendible suficiente.
+     */
+    Mono<Reservation> reserve(Long productId, Long storeId, int quantity, LocalDateTime expiresAt);
+
+    /**
+     * Descuenta del disponible las unidades de una reserva vigente y la marca confirmada.
+     * Devuelve vacío si la reserva ya no está vigente.
+     */
+    Mono<Reservation> confirm(String reservationId);
+
+    /**
+     * Libera las unidades de una reserva vigente dejándola en el estado final indicado
+     * (liberada o expirada). Devuelve vacío si la reserva ya no está vigente.
+     */
+    Mono<Reservation> release(String reservationId, Reservation.Status status);
+
+    Mono<Reservation> findById(String reservationId);
+
+    /**
+     * Reservas vigentes, para reprogramar su vencimiento al arrancar.
+     */
+    Flux<Reservation> findHeld();
+}
@@ -1,8 +1,11 @@
 package com.meli.inventorymanagement.domain.port;
 
 import com.meli.inventorymanagement.domain.model.Product;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 /**
  * Puerto de salida para operaciones de productos
  */
@@ -11,5 +14,10 @@ public interface ProductPort {
     Mono<Product> findById(Long id);
 
     Mono<Product> findBySku(String sku);
+
+    /**
+     * Resuelve varios SKUs con una única consulta. Los SKUs inexistentes se omiten.
+     */
+    Flux<Product> findBySkus(Collection<String> skus);
 }
 
@@ -1,6 +1,7 @@
 package com.meli.inventorymanagement.domain.port;
 
 import com.meli.inventorymanagement.domain.model.Store;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -11,5 +12,7 @@ public interface StorePort {
     Mono<Store> findById(Long id);
 
     Mono<Boolean> existsById(Long id);
+
+    Flux<Store> findAll();
 }
 
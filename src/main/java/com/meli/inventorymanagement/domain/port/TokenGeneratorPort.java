@@ -1,5 +1,7 @@
 package com.meli.inventorymanagement.domain.port;
 
+import com.meli.inventorymanagement.domain.model.UserGrants;
+
 /**
  * Puerto de salida para operaciones de generación de tokens
  */
@@ -7,6 +9,11 @@ public interface TokenGeneratorPort {
 
     String generateToken(String username);
 
+    /**
+     * Token que además lleva firmados el rol y las tiendas del usuario, para autorizar sin consultar la base.
+     */
+    String generateToken(UserGrants grants);
+
     String extractUsername(String token);
 
     boolean validateToken(String token, String username);
@@ -1,6 +1,7 @@
 package com.meli.inventorymanagement.domain.port;
 
 import com.meli.inventorymanagement.domain.model.User;
+import com.meli.inventorymanagement.domain.model.UserGrants;
 import reactor.core.publisher.Mono;
 
 /**
@@ -9,4 +10,16 @@ import reactor.core.publisher.Mono;
 public interface UserPort {
 
     Mono<User> findByUsername(String username);
+
+    /**
+     * Reemplaza el rol y las tiendas del usuario en una transacción.
+     *
+     * @return false si el usuario no existe
+     */
+    Mono<Boolean> updateGrants(UserGrants grants);
+
+    /**
+     * @return false si el usuario no existe
+     */
+    Mono<Boolean> updateActive(String username, boolean active);
 }
@@ -0,0 +1,103 @@
+package com.meli.inventorymanagement.infrastructure.adapter.input.cli;
+
+import com.meli.inventorymanagement.application.dto.CatalogImportResponse;
+import com.meli.inventorymanagement.application.service.CatalogImportService;
+import com.meli.inventorymanagement.infrastructure.adapter.input.csv.CatalogCsvReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Modo de línea de comandos de la carga masiva. Con {@code --import.products=<archivo>} y/o
+ * {@code --import.inventory=<archivo>} importa los archivos (primero productos, así el inventario
+ * encuentra sus SKUs). El código de salida (0 si no hubo errores de escritura) se publica como
+ * {@link ExitCodeGenerator}: terminar el proceso queda a cargo de quien arrancó la aplicación.
+ * Pensado para ejecutarse junto con {@code --spring.main.web-application-type=none}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogImportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    static final String PRODUCTS_OPTION = "import.products";
+    static final String INVENTORY_OPTION = "import.inventory";
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final CatalogImportService catalogImportService;
+    private final CatalogCsvReader catalogCsvReader;
+
+    // null mientras no se haya pedido ninguna carga
+    private volatile Integer exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Path products = path(args, PRODUCTS_OPTION);
+        Path inventory = path(args, INVENTORY_OPTION);
+        if (products == null && inventory == null) {
+            return;
+        }
+
+        int code = 0;
+        try {
+            if (products != null) {
+                log.info("Importing products from {}", products);
+                report(catalogImportService.importProducts(catalogCsvReader.readProducts(read(products))).block());
+            }
+            if (inventory != null) {
+                log.info("Importing inventory from {}", inventory);
+                report(catalogImportService.importInventory(catalogCsvReader.readInventory(read(inventory))).block());
+            }
+        } catch (RuntimeException e) {
+            log.error("Catalog import failed: {}", e.getMessage(), e);
+            code = 1;
+        }
+        exitCode = code;
+    }
+
+    /**
+     * true si la aplicación se arrancó para importar archivos por línea de comandos.
+     */
+    public boolean imported() {
+        return exitCode != null;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode == null ? 0 : exitCode;
+    }
+
+    private Path path(ApplicationArguments args, String option) {
+        List<String> values = args.getOptionValues(option);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        Path path = Path.of(values.get(0));
+        if (!Files.isReadable(path)) {
+            throw new IllegalArgumentException("Cannot read import file " + path);
+        }
+        return path;
+    }
+
+    private Flux<DataBuffer> read(Path path) {
+        return DataBufferUtils.read(path, DefaultDataBufferFactory.sharedInstance, READ_BUFFER_SIZE);
+    }
+
+    private void report(CatalogImportResponse response) {
+        if (response == null) {
+            return;
+        }
+        response.getErrors().forEach(error -> log.warn("Rejected {} row - {}", response.getType(), error));
+    }
+}
@@ -0,0 +1,197 @@
+package com.meli.inventorymanagement.infrastructure.adapter.input.csv;
+
+import com.meli.inventorymanagement.application.dto.InventoryImportRow;
+import com.meli.inventorymanagement.application.dto.ProductImportRow;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+
+/**
+ * Lee archivos CSV de carga masiva a medida que llegan los buffers: las líneas se separan sin
+ * juntar el archivo en memoria y cada una se convierte en una fila de importación. La primera
+ * línea es el encabezado y define el orden de las columnas. Los campos siguen RFC 4180: un
+ * campo entre comillas puede seguir en las líneas siguientes, hasta {@value #MAX_RECORD_LENGTH}
+ * caracteres por registro para que una comilla sin cerrar no retenga el resto del archivo.
+ * <p>
+ * Productos: {@code sku,name,description} (description opcional).
+ * Inventario: {@code sku,storeId,availableQty}.
+ */
+@Component
+public class CatalogCsvReader {
+
+    private static final List<String> PRODUCT_COLUMNS = List.of("sku", "name", "description");
+    private static final List<String> INVENTORY_COLUMNS = List.of("sku", "storeid", "availableqty");
+
+    static final int MAX_RECORD_LENGTH = 8 * 1024;
+
+    // Resultado de parse para un registro que termina dentro de un campo entre comillas
+    static final List<String> INCOMPLETE = Collections.unmodifiableList(new ArrayList<>());
+
+    private final StringDecoder lineDecoder = StringDecoder.textPlainOnly();
+
+    public Flux<ProductImportRow> readProducts(Flux<DataBuffer> content) {
+        return read(content, PRODUCT_COLUMNS, 2, (line, fields) -> {
+            if (fields == null) {
+                return ProductImportRow.builder().line(line).error("Malformed CSV line").build();
+            }
+            return ProductImportRow.builder()
+                    .line(line)
+                    .sku(fields[0])
+                    .name(fields[1])
+                    .description(fields[2])
+                    .build();
+        });
+    }
+
+    public Flux<InventoryImportRow> readInventory(Flux<DataBuffer> content) {
+        return read(content, INVENTORY_COLUMNS, 3, (line, fields) -> {
+            if (fields == null) {
+                return InventoryImportRow.builder().line(line).error("Malformed CSV line").build();
+            }
+            try {
+                return InventoryImportRow.builder()
+                        .line(line)
+                        .productSku(fields[0])
+                        .storeId(fields[1] == null ? null : Long.parseLong(fields[1]))
+                        .availableQty(fields[2] == null ? null : Integer.parseInt(fields[2]))
+                        .build();
+            } catch (NumberFormatException ex) {
+                return InventoryImportRow.builder()
+                        .line(line)
+                        .productSku(fields[0])
+                        .error("storeId and availableQty must be integers")
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Convierte cada registro de datos con {@code mapper(primera línea del registro, campos en el
+     * orden de columns)}; los campos vacíos llegan como null y un registro mal formado llega con
+     * campos null.
+     *
+     * @param required cantidad de columnas iniciales de {@code columns} que el encabezado debe incluir
+     */
+    private <T> Flux<T> read(Flux<DataBuffer> content, List<String> columns, int required,
+                             BiFunction<Long, String[], T> mapper) {
+        return Flux.defer(() -> {
+            int[] positions = new int[columns.size()];
+            // Registro con un campo entre comillas que sigue en la línea siguiente
+            StringBuilder pending = new StringBuilder();
+            long[] pendingLine = new long[1];
+            return lineDecoder.decode(content, ResolvableType.forClass(String.class), null, null)
+                    .index()
+                    .<T>handle((indexed, sink) -> {
+                        long line = indexed.getT1() + 1;
+                        String text = indexed.getT2();
+                        if (line == 1) {
+                            List<String> header = parse(text.startsWith("\uFEFF") ? text.substring(1) : text);
+                            if (header == null || header == INCOMPLETE || !resolvePositions(header, columns, required, positions)) {
+                                sink.error(new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT,
+                                        "CSV header must include columns: " + String.join(",", columns.subList(0, required))));
+                            }
+                            return;
+                        }
+                        String record = text;
+                        long first = line;
+                        if (!pending.isEmpty()) {
+                            record = pending.append('\n').append(text).toString();
+                            first = pendingLine[0];
+                        } else if (text.isBlank()) {
+                            return;
+                        }
+                        List<String> fields = parse(record);
+                        if (fields == INCOMPLETE && record.length() < MAX_RECORD_LENGTH) {
+                            if (pending.isEmpty()) {
+                                pending.append(text);
+                                pendingLine[0] = line;
+                            }
+                            return;
+                        }
+                        pending.setLength(0);
+                        sink.next(mapper.apply(first, fields == null || fields == INCOMPLETE ? null : select(fields, positions)));
+                    })
+                    .concatWith(Mono.fromSupplier(() -> pending.isEmpty() ? null : mapper.apply(pendingLine[0], null)));
+        });
+    }
+
+    private boolean resolvePositions(List<String> header, List<String> columns, int required, int[] positions) {
+        List<String> names = header.stream()
+                .map(name -> name == null ? "" : name.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        for (int i = 0; i < columns.size(); i++) {
+            positions[i] = names.indexOf(columns.get(i));
+            if (positions[i] < 0 && i < required) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String[] select(List<String> fields, int[] positions) {
+        String[] selected = new String[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            selected[i] = positions[i] >= 0 && positions[i] < fields.size() ? fields.get(positions[i]) : null;
+        }
+        return selected;
+    }
+
+    /**
+     * Separa un registro en campos. Los campos sin comillas se recortan; vacío equivale a null.
+     * Devuelve {@link #INCOMPLETE} si el registro termina dentro de un campo entre comillas y null
+     * si hay texto después de un campo entre comillas.
+     */
+    static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        int length = line.length();
+        while (true) {
+            field.setLength(0);
+            boolean quoted = i < length && line.charAt(i) == '"';
+            if (quoted) {
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        return INCOMPLETE;
+                    }
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < length && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (i < length && line.charAt(i) != ',') {
+                    return null;
+                }
+                fields.add(field.toString());
+            } else {
+                int end = line.indexOf(',', i);
+                String value = (end < 0 ? line.substring(i) : line.substring(i, end)).trim();
+                fields.add(value.isEmpty() ? null : value);
+                i = end < 0 ? length : end;
+            }
+            if (i >= length) {
+                return fields;
+            }
+            i++; // separador
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.meli.inventorymanagement.infrastructure.adapter.input.rest;
 import com.meli.inventorymanagement.application.dto.AuthRequest;
 import com.meli.inventorymanagement.application.dto.AuthResponse;
 import com.meli.inventorymanagement.application.service.AuthService;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
@@ -39,6 +42,25 @@ public class AuthController {
                         request.getUsername(), clientIp, userAgent, e.getMessage()));
     }
 
+    @Operation(summary = "Refresh token",
+            description = "Issues a new JWT token with the current role and stores of the user of a valid token. " +
+                    "Refresh before jwt.grants.max-age to keep requests authorized without database lookups")
+    @PostMapping("/refresh")
+    public Mono<AuthResponse> refresh(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                      ServerWebExchange exchange) {
+
+        String clientIp = getClientIpAddress(exchange);
+        log.info("POST /api/auth/refresh - IP: {} - Token refresh attempt", clientIp);
+
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return Mono.error(new BusinessException(ErrorCode.USER_NOT_AUTHENTICATED, "No authentication token provided"));
+        }
+
+        return authService.refresh(authorization.substring(7))
+                .doOnSuccess(response -> log.info("Token refreshed - Username: {} - IP: {}", response.getUsername(), clientIp))
+                .doOnError(e -> log.warn("Token refresh failed - IP: {} - Error: {}", clientIp, e.getMessage()));
+    }
+
     private String getClientIpAddress(ServerWebExchange exchange) {
         String xForwardedFor = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
@@ -1,9 +1,26 @@
 package com.meli.inventorymanagement.infrastructure.adapter.input.rest;
 
+import com.meli.inventorymanagement.application.dto.CatalogImportResponse;
 import com.meli.inventorymanagement.application.dto.InventoryAdjustmentRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentResponse;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferResponse;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutRequest;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutResponse;
+import com.meli.inventorymanagement.application.dto.InventoryLookupResponse;
+import com.meli.inventorymanagement.application.dto.InventoryPageResponse;
+import com.meli.inventorymanagement.application.dto.InventoryReservationRequest;
+import com.meli.inventorymanagement.application.dto.InventoryReservationResponse;
 import com.meli.inventorymanagement.application.dto.InventoryResponse;
+import com.meli.inventorymanagement.application.dto.InventorySyncResponse;
+import com.meli.inventorymanagement.application.dto.InventoryTransferRequest;
+import com.meli.inventorymanagement.application.dto.InventoryTransferResponse;
 import com.meli.inventorymanagement.application.dto.InventoryUpdateRequest;
+import com.meli.inventorymanagement.application.service.CatalogImportService;
+import com.meli.inventorymanagement.application.service.InventoryReservationService;
 import com.meli.inventorymanagement.application.service.InventoryService;
+import com.meli.inventorymanagement.infrastructure.adapter.input.csv.CatalogCsvReader;
 import com.meli.inventorymanagement.infrastructure.security.RequireStorePermission;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -11,11 +28,22 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
 @Tag(name = "Inventory", description = "Inventory Management API")
 @RestController
 @RequestMapping("/api/inventory")
@@ -24,14 +52,130 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class InventoryController {
 
+    // Comentario SSE periódico: mantiene abiertas las conexiones ociosas en proxies y detecta clientes caídos
+    private static final Duration CHANGE_STREAM_HEARTBEAT = Duration.ofSeconds(15);
+
     private final InventoryService inventoryService;
+    private final InventoryReservationService inventoryReservationService;
+    private final InventoryExportWriter inventoryExportWriter;
+    private final CatalogImportService catalogImportService;
+    private final CatalogCsvReader catalogCsvReader;
+
+    @Operation(summary = "Look up inventory for several products",
+            description = "Returns the stock of up to " + InventoryService.MAX_LOOKUP_SKUS + " SKUs, optionally " +
+                    "restricted to some stores, resolved with a single query and grouped by SKU - Admin and Web users. " +
+                    "With Accept: application/x-ndjson each SKU is streamed as soon as it is read")
+    @GetMapping(value = "/lookup", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @RequireStorePermission(adminOnly = true, webUserAllowed = true)
+    public Flux<InventoryLookupResponse> lookupInventory(
+            @RequestParam List<String> skus,
+            @RequestParam(required = false) List<Long> storeIds,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMapMany(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("GET /api/inventory/lookup - User: {} - IP: {} - SKUs: {} - Stores: {}",
+                            username, clientIp, skus.size(), storeIds);
+
+                    return inventoryService.lookupInventory(skus, storeIds)
+                            .doOnComplete(() -> log.info("Successfully looked up inventory for {} SKUs - User: {} - IP: {}",
+                                    skus.size(), username, clientIp))
+                            .doOnError(e -> log.error("Failed to look up inventory for {} SKUs - User: {} - IP: {} - Error: {}",
+                                    skus.size(), username, clientIp, e.getMessage()));
+                });
+    }
+
+    @Operation(summary = "Export the full inventory",
+            description = "Streams every inventory row with SKU and store name as NDJSON (default) or CSV - Admin only. " +
+                    "Rows are written as they are read, so memory use does not depend on the table size")
+    @GetMapping("/export")
+    @RequireStorePermission(adminOnly = true)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportInventory(
+            @RequestParam(defaultValue = "ndjson") String format,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .map(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+                    InventoryExportWriter.Format exportFormat = InventoryExportWriter.Format.from(format);
+
+                    log.info("GET /api/inventory/export - User: {} - IP: {} - Format: {}", username, clientIp, exportFormat);
+
+                    long started = System.nanoTime();
+                    Flux<DataBuffer> body = inventoryExportWriter.write(inventoryService.exportInventory(), exportFormat,
+                                    exchange.getResponse().bufferFactory())
+                            .doOnComplete(() -> log.info("Successfully exported inventory as {} in {} ms - User: {} - IP: {}",
+                                    exportFormat, (System.nanoTime() - started) / 1_000_000, username, clientIp))
+                            .doOnError(e -> log.error("Failed to export inventory - User: {} - IP: {} - Error: {}",
+                                    username, clientIp, e.getMessage()));
+
+                    return ResponseEntity.ok()
+                            .contentType(exportFormat.getMediaType())
+                            .header(HttpHeaders.CONTENT_DISPOSITION,
+                                    "attachment; filename=\"inventory." + exportFormat.getExtension() + "\"")
+                            .body(body);
+                });
+    }
+
+    @Operation(summary = "Import products from CSV",
+            description = "Creates or updates products from a CSV with header sku,name,description - Admin only. " +
+                    "The file is read as it arrives and written in batches; invalid lines are reported and skipped")
+    @PostMapping(value = "/import/products", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @RequireStorePermission(adminOnly = true)
+    public Mono<CatalogImportResponse> importProducts(
+            @RequestBody Flux<DataBuffer> body,
+            ServerWebExchange exchange) {
+
+        return importCsv("products", exchange,
+                () -> catalogImportService.importProducts(catalogCsvReader.readProducts(body)));
+    }
+
+    @Operation(summary = "Import inventory from CSV",
+            description = "Sets the available quantity of each product and store from a CSV with header " +
+                    "sku,storeId,availableQty - Admin only. Reserved units are kept. Stores are written in parallel " +
+                    "partitions; invalid lines and unknown SKUs or stores are reported and skipped")
+    @PostMapping(value = "/import/inventory", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @RequireStorePermission(adminOnly = true)
+    public Mono<CatalogImportResponse> importInventory(
+            @RequestBody Flux<DataBuffer> body,
+            ServerWebExchange exchange) {
+
+        return importCsv("inventory", exchange,
+                () -> catalogImportService.importInventory(catalogCsvReader.readInventory(body)));
+    }
+
+    private Mono<CatalogImportResponse> importCsv(String type, ServerWebExchange exchange,
+                                                  Supplier<Mono<CatalogImportResponse>> importer) {
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMap(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("POST /api/inventory/import/{} - User: {} - IP: {}", type, username, clientIp);
+
+                    return importer.get()
+                            .doOnSuccess(response -> log.info("Successfully imported {} - Applied: {} - Rejected: {} - {} rows/s - User: {} - IP: {}",
+                                    type, response.getApplied(), response.getRejected(), response.getRowsPerSecond(), username, clientIp))
+                            .doOnError(e -> log.error("Failed to import {} - User: {} - IP: {} - Error: {}",
+                                    type, username, clientIp, e.getMessage()));
+                });
+    }
 
     @Operation(summary = "Get product inventory in all stores",
-            description = "Returns the stock of a product across all stores - Admin and Web users")
+            description = "Returns the stock of a product across all stores - Admin and Web users. " +
+                    "With asOf (ISO date-time) returns the stock at that point in time")
     @GetMapping("/{productSku}/stores")
     @RequireStorePermission(adminOnly = true, webUserAllowed = true)
     public Flux<InventoryResponse> getInventoryByProduct(
             @PathVariable String productSku,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
             ServerWebExchange exchange) {
 
         return exchange.getPrincipal()
@@ -40,10 +184,14 @@ public class InventoryController {
                 .flatMapMany(username -> {
                     String clientIp = getClientIpAddress(exchange);
 
-                    log.info("GET /api/inventory/{}/stores - User: {} - IP: {} - Inventory query for all stores",
-                            productSku, username, clientIp);
+                    log.info("GET /api/inventory/{}/stores - User: {} - IP: {} - Inventory query for all stores{}",
+                            productSku, username, clientIp, asOf != null ? " as of " + asOf : "");
+
+                    Flux<InventoryResponse> inventory = asOf == null
+                            ? inventoryService.getInventoryByProductSku(productSku)
+                            : inventoryService.getInventoryByProductSkuAsOf(productSku, asOf);
 
-                    return inventoryService.getInventoryByProductSku(productSku)
+                    return inventory
                             .doOnComplete(() -> log.info("Successfully retrieved inventory for product {} - User: {} - IP: {}",
                                     productSku, username, clientIp))
                             .doOnError(e -> log.error("Failed to retrieve inventory for product {} - User: {} - IP: {} - Error: {}",
@@ -52,12 +200,14 @@ public class InventoryController {
     }
 
     @Operation(summary = "Get product inventory in specific store",
-            description = "Returns the stock of a product in a specific store")
+            description = "Returns the stock of a product in a specific store. " +
+                    "With asOf (ISO date-time) returns the stock at that point in time")
     @GetMapping("/{productSku}/stores/{storeId}")
     @RequireStorePermission
     public Mono<InventoryResponse> getInventoryByProductAndStore(
             @PathVariable String productSku,
             @PathVariable Long storeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
             ServerWebExchange exchange) {
 
         return exchange.getPrincipal()
@@ -66,10 +216,14 @@ public class InventoryController {
                 .flatMap(username -> {
                     String clientIp = getClientIpAddress(exchange);
 
-                    log.info("GET /api/inventory/{}/stores/{} - User: {} - IP: {} - Store-specific inventory query",
-                            productSku, storeId, username, clientIp);
+                    log.info("GET /api/inventory/{}/stores/{} - User: {} - IP: {} - Store-specific inventory query{}",
+                            productSku, storeId, username, clientIp, asOf != null ? " as of " + asOf : "");
 
-                    return inventoryService.getInventoryByProductSkuAndStore(productSku, storeId)
+                    Mono<InventoryResponse> inventory = asOf == null
+                            ? inventoryService.getInventoryByProductSkuAndStore(productSku, storeId)
+                            : inventoryService.getInventoryByProductSkuAndStoreAsOf(productSku, storeId, asOf);
+
+                    return inventory
                             .doOnSuccess(response -> log.info("Successfully retrieved inventory for product {} in store {} - Quantity: {} - User: {} - IP: {}",
                                     productSku, storeId, response.getAvailableQty(), username, clientIp))
                             .doOnError(e -> log.error("Failed to retrieve inventory for product {} in store {} - User: {} - IP: {} - Error: {}",
@@ -105,13 +259,16 @@ public class InventoryController {
     }
 
     @Operation(summary = "Adjust inventory quantity",
-            description = "Adjusts the inventory quantity (positive for additions, negative for sales)")
+            description = "Adjusts the inventory quantity (positive for additions, negative for sales). " +
+                    "With an Idempotency-Key header, retries with the same key return the original response " +
+                    "without applying the adjustment again")
     @PostMapping("/{productSku}/stores/{storeId}/adjustments")
     @RequireStorePermission
     public Mono<InventoryResponse> adjustInventory(
             @PathVariable String productSku,
             @PathVariable Long storeId,
             @Valid @RequestBody InventoryAdjustmentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             ServerWebExchange exchange) {
 
         return exchange.getPrincipal()
@@ -120,10 +277,14 @@ public class InventoryController {
                 .flatMap(username -> {
                     String clientIp = getClientIpAddress(exchange);
 
-                    log.info("POST /api/inventory/{}/stores/{}/adjustments - User: {} - IP: {} - Adjusting by: {}",
-                            productSku, storeId, username, clientIp, request.getAdjustment());
+                    log.info("POST /api/inventory/{}/stores/{}/adjustments - User: {} - IP: {} - Adjusting by: {} - Idempotency-Key: {}",
+                            productSku, storeId, username, clientIp, request.getAdjustment(), idempotencyKey);
+
+                    Mono<InventoryResponse> adjusted = idempotencyKey == null
+                            ? inventoryService.adjustInventory(productSku, storeId, request)
+                            : inventoryService.adjustInventoryIdempotent(productSku, storeId, request, username, idempotencyKey);
 
-                    return inventoryService.adjustInventory(productSku, storeId, request)
+                    return adjusted
                             .doOnSuccess(response -> log.info("Successfully adjusted inventory for product {} in store {} by {} - Final quantity: {} - User: {} - IP: {}",
                                     productSku, storeId, request.getAdjustment(), response.getAvailableQty(), username, clientIp))
                             .doOnError(e -> log.error("Failed to adjust inventory for product {} in store {} by {} - User: {} - IP: {} - Error: {}",
@@ -131,6 +292,299 @@ public class InventoryController {
                 });
     }
 
+    @Operation(summary = "Adjust inventory quantities in batch",
+            description = "Applies up to " + InventoryBatchAdjustmentRequest.MAX_ITEMS + " adjustments across products " +
+                    "and stores in a single transaction and reports a result for each item")
+    @PostMapping("/adjustments/batch")
+    @RequireStorePermission
+    public Mono<InventoryBatchAdjustmentResponse> adjustInventoryBatch(
+            @Valid @RequestBody InventoryBatchAdjustmentRequest request,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMap(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("POST /api/inventory/adjustments/batch - User: {} - IP: {} - Items: {} - Stores: {}",
+                            username, clientIp, request.getItems().size(), request.storeIds());
+
+                    return inventoryService.adjustInventoryBatch(request)
+                            .doOnSuccess(response -> log.info("Successfully processed inventory batch - Applied: {} - Rejected: {} - User: {} - IP: {}",
+                                    response.getApplied(), response.getRejected(), username, clientIp))
+                            .doOnError(e -> log.error("Failed to process inventory batch of {} items - User: {} - IP: {} - Error: {}",
+                                    request.getItems().size(), username, clientIp, e.getMessage()));
+                });
+    }
+
+    @Operation(summary = "Transfer stock between stores",
+            description = "Moves units of a product from one store to another in a single transaction. " +
+                    "Both rows are updated or neither is")
+    @PostMapping("/{productSku}/transfers")
+    @RequireStorePermission
+    public Mono<InventoryTransferResponse> transferInventory(
+            @PathVariable String productSku,
+            @Valid @RequestBody InventoryTransferRequest request,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMap(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("POST /api/inventory/{}/transfers - User: {} - IP: {} - Moving {} units from store {} to store {}",
+                            productSku, username, clientIp, request.getQuantity(), request.getFromStoreId(), request.getToStoreId());
+
+                    return inventoryService.transferInventory(productSku, request)
+                            .doOnSuccess(response -> log.info("Successfully transferred {} units of product {} from store {} to store {} - User: {} - IP: {}",
+                                    request.getQuantity(), productSku, request.getFromStoreId(), request.getToStoreId(), username, clientIp))
+                            .doOnError(e -> log.error("Failed to transfer product {} from store {} to store {} - User: {} - IP: {} - Error: {}",
+                                    productSku, request.getFromStoreId(), request.getToStoreId(), username, clientIp, e.getMessage()));
+                });
+    }
+
+    @Operation(summary = "Transfer stock between stores in bulk",
+            description = "Rebalancing mode: applies up to " + InventoryBulkTransferRequest.MAX_ITEMS + " transfers in a few " +
+                    "batched transactions. Each transfer is atomic and reports its own result - Admin only")
+    @PostMapping("/transfers/batch")
+    @RequireStorePermission(adminOnly = true)
+    public Mono<InventoryBulkTransferResponse> transferInventoryBulk(
+            @Valid @RequestBody InventoryBulkTransferRequest request,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMap(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("POST /api/inventory/transfers/batch - User: {} - IP: {} - Items: {}",
+                            username, clientIp, request.getItems().size());
+
+                    return inventoryService.transferInventoryBulk(request)
+                            .doOnSuccess(response -> log.info("Successfully processed bulk transfer - Applied: {} - Rejected: {} - Transactions: {} - User: {} - IP: {}",
+                                    response.getApplied(), response.getRejected(), response.getTransactions(), username, clientIp))
+                            .doOnError(e -> log.error("Failed to process bulk transfer of {} items - User: {} - IP: {} - Error: {}",
+                                    request.getItems().size(), username, clientIp, e.getMessage()));
+                });
+    }
+
+    @Operation(summary = "List inventory of a store",
+            description = "Returns the stock of every product in the store, ordered by product, in pages of up to " +
+                    InventoryService.MAX_PAGE_SIZE + " items. Send nextCursor as cursor to get the following page")
+    @GetMapping("/stores/{storeId}")
+    @RequireStorePermission
+    public Mono<InventoryPageResponse> getInventoryByStore(
+            @PathVariable Long storeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMap(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("GET /api/inventory/stores/{} - User: {} - IP: {} - Cursor: {} - Limit: {}",
+                            storeId, username, clientIp, cursor, limit);
+
+                    return inventoryService.getInventoryByStore(storeId, cursor, limit)
+                            .doOnSuccess(response -> log.info("Successfully listed {} items of store {} - More: {} - User: {} - IP: {}",
+                                    response.getItems().size(), storeId, response.getNextCursor() != null, username, clientIp))
+                            .doOnError(e -> log.error("Failed to list inventory of store {} - User: {} - IP: {} - Error: {}",
+                                    storeId, username, clientIp, e.getMessage()));
+                });
+    }
+
+    @Operation(summary = "Sync inventory changes of a store",
+            description = "Returns the current stock of every product changed after the cursor, in change order, " +
+                    "plus the cursor for the next call. Without cursor returns the whole store (full resync). " +
+                    "Responds 410 when the cursor is no longer valid and a full resync is required")
+    @GetMapping("/stores/{storeId}/sync")
+    @RequireStorePermission
+    public Mono<InventorySyncResponse> syncInventory(
+            @PathVariable Long storeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMap(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("GET /api/inventory/stores/{}/sync - User: {} - IP: {} - Cursor: {} - Limit: {}",
+                            storeId, username, clientIp, cursor, limit);
+
+                    return inventoryService.getInventoryChanges(storeId, cursor, limit)
+                            .doOnSuccess(response -> log.info("Successfully synced {} changes of store {} - More: {} - User: {} - IP: {}",
+                                    response.getChanges().size(), storeId, response.isHasMore(), username, clientIp))
+                            .doOnError(e -> log.error("Failed to sync inventory of store {} - User: {} - IP: {} - Error: {}",
+                                    storeId, username, clientIp, e.getMessage()));
+                });
+    }
+
+    @Operation(summary = "Stream inventory changes of a store",
+            description = "Server-sent events with the new stock after every update or adjustment in the store, " +
+                    "optionally only for one SKU. A slow client receives the latest state of each product")
+    @GetMapping(value = "/stores/{storeId}/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequireStorePermission
+    public Flux<ServerSentEvent<InventoryResponse>> streamStoreChanges(
+            @PathVariable Long storeId,
+            @RequestParam(required = false) String sku,
+            ServerWebExchange exchange) {
+
+        return streamChanges(storeId, sku, exchange);
+    }
+
+    @Operation(summary = "Stream inventory changes of all stores",
+            description = "Server-sent events with the new stock after every update or adjustment in any store, " +
+                    "optionally only for one SKU - Admin only")
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequireStorePermission(adminOnly = true)
+    public Flux<ServerSentEvent<InventoryResponse>> streamAllChanges(
+            @RequestParam(required = false) String sku,
+            ServerWebExchange exchange) {
+
+        return streamChanges(null, sku, exchange);
+    }
+
+    @Operation(summary = "Check out a basket in a store",
+            description = "Decrements up to " + InventoryCheckoutRequest.MAX_LINES + " lines in a single transaction. " +
+                    "Either every line is applied or none is; on insufficient stock the short lines are reported")
+    @PostMapping("/stores/{storeId}/checkout")
+    @RequireStorePermission
+    public Mono<InventoryCheckoutResponse> checkout(
+            @PathVariable Long storeId,
+            @Valid @RequestBody InventoryCheckoutRequest request,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMap(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("POST /api/inventory/stores/{}/checkout - User: {} - IP: {} - Lines: {}",
+                            storeId, username, clientIp, request.getLines().size());
+
+                    return inventoryService.checkout(storeId, request)
+                            .doOnSuccess(response -> log.info("Successfully checked out {} lines in store {} - Units: {} - User: {} - IP: {}",
+                                    response.getLines(), storeId, response.getUnits(), username, clientIp))
+                            .doOnError(e -> log.error("Failed to check out {} lines in store {} - User: {} - IP: {} - Error: {}",
+                                    request.getLines().size(), storeId, username, clientIp, e.getMessage()));
+                });
+    }
+
+    @Operation(summary = "Reserve stock of a product in a store",
+            description = "Holds units so they cannot be sold until the reservation is confirmed, released or expires. " +
+                    "ttlSeconds defaults to the configured reservation TTL")
+    @PostMapping("/{productSku}/stores/{storeId}/reservations")
+    @RequireStorePermission
+    public Mono<InventoryReservationResponse> reserveInventory(
+            @PathVariable String productSku,
+            @PathVariable Long storeId,
+            @Valid @RequestBody InventoryReservationRequest request,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMap(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("POST /api/inventory/{}/stores/{}/reservations - User: {} - IP: {} - Quantity: {} - TTL: {}",
+                            productSku, storeId, username, clientIp, request.getQuantity(), request.getTtlSeconds());
+
+                    return inventoryReservationService.reserve(productSku, storeId, request)
+                            .doOnSuccess(response -> log.info("Successfully reserved {} units of product {} in store {} - Reservation: {} - User: {} - IP: {}",
+                                    response.getQuantity(), productSku, storeId, response.getReservationId(), username, clientIp))
+                            .doOnError(e -> log.error("Failed to reserve product {} in store {} - User: {} - IP: {} - Error: {}",
+                                    productSku, storeId, username, clientIp, e.getMessage()));
+                });
+    }
+
+    @Operation(summary = "Confirm a stock reservation",
+            description = "Decrements the reserved units from the available stock")
+    @PostMapping("/stores/{storeId}/reservations/{reservationId}/confirm")
+    @RequireStorePermission
+    public Mono<InventoryReservationResponse> confirmReservation(
+            @PathVariable Long storeId,
+            @PathVariable String reservationId,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMap(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("POST /api/inventory/stores/{}/reservations/{}/confirm - User: {} - IP: {}",
+                            storeId, reservationId, username, clientIp);
+
+                    return inventoryReservationService.confirm(storeId, reservationId)
+                            .doOnSuccess(response -> log.info("Successfully confirmed reservation {} in store {} - User: {} - IP: {}",
+                                    reservationId, storeId, username, clientIp))
+                            .doOnError(e -> log.error("Failed to confirm reservation {} in store {} - User: {} - IP: {} - Error: {}",
+                                    reservationId, storeId, username, clientIp, e.getMessage()));
+                });
+    }
+
+    @Operation(summary = "Release a stock reservation",
+            description = "Returns the reserved units to the sellable stock")
+    @PostMapping("/stores/{storeId}/reservations/{reservationId}/release")
+    @RequireStorePermission
+    public Mono<InventoryReservationResponse> releaseReservation(
+            @PathVariable Long storeId,
+            @PathVariable String reservationId,
+            ServerWebExchange exchange) {
+
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMap(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("POST /api/inventory/stores/{}/reservations/{}/release - User: {} - IP: {}",
+                            storeId, reservationId, username, clientIp);
+
+                    return inventoryReservationService.release(storeId, reservationId)
+                            .doOnSuccess(response -> log.info("Successfully released reservation {} in store {} - User: {} - IP: {}",
+                                    reservationId, storeId, username, clientIp))
+                            .doOnError(e -> log.error("Failed to release reservation {} in store {} - User: {} - IP: {} - Error: {}",
+                                    reservationId, storeId, username, clientIp, e.getMessage()));
+                });
+    }
+
+    private Flux<ServerSentEvent<InventoryResponse>> streamChanges(Long storeId, String sku, ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(principal -> principal.getName())
+                .defaultIfEmpty("anonymous")
+                .flatMapMany(username -> {
+                    String clientIp = getClientIpAddress(exchange);
+
+                    log.info("GET {} - User: {} - IP: {} - SKU: {}",
+                            exchange.getRequest().getPath(), username, clientIp, sku);
+
+                    Flux<ServerSentEvent<InventoryResponse>> changes = inventoryService.streamInventoryChanges(storeId, sku)
+                            .map(change -> ServerSentEvent.builder(change)
+                                    .id(change.getStoreId() + ":" + change.getProductSku() + ":" + change.getVersion())
+                                    .event("inventory-changed")
+                                    .build());
+                    Flux<ServerSentEvent<InventoryResponse>> heartbeat = Flux.interval(CHANGE_STREAM_HEARTBEAT)
+                            .map(tick -> ServerSentEvent.<InventoryResponse>builder().comment("heartbeat").build());
+
+                    // Los cambios no terminan: el stream se cierra cuando el cliente corta o ante un error
+                    return Flux.merge(changes, heartbeat)
+                            .doOnError(e -> log.error("Inventory change stream failed - User: {} - IP: {} - Error: {}",
+                                    username, clientIp, e.getMessage()));
+                });
+    }
+
     private String getClientIpAddress(ServerWebExchange exchange) {
         String xForwardedFor = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
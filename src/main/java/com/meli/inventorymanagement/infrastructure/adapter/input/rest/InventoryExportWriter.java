@@ -0,0 +1,176 @@
+package com.meli.inventorymanagement.infrastructure.adapter.input.rest;
+
+import com.meli.inventorymanagement.application.dto.InventoryResponse;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Serializa el export de inventario a NDJSON o CSV sin pasar por Jackson: cada bloque de filas
+ * se escribe en un único buffer, así la cantidad de escrituras no crece con las filas y la
+ * memoria queda acotada a los bloques en vuelo, que se piden según la demanda de la respuesta.
+ */
+@Component
+public class InventoryExportWriter {
+
+    // Filas por buffer: bloques más grandes reducen escrituras pero retienen más memoria por bloque
+    static final int ROWS_PER_BUFFER = 512;
+
+    private static final String CSV_HEADER =
+            "id,productSku,productName,storeId,storeName,availableQty,reservedQty,sellableQty,version,updatedAt\n";
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new BusinessException(ErrorCode.INVALID_PARAMETER_FORMAT,
+                    "Export format must be 'ndjson' or 'csv'");
+        }
+    }
+
+    public Flux<DataBuffer> write(Flux<InventoryResponse> rows, Format format, DataBufferFactory bufferFactory) {
+        Flux<DataBuffer> body = rows
+                .buffer(ROWS_PER_BUFFER)
+                .map(chunk -> bufferFactory.wrap(encode(chunk, format)));
+        return format == Format.CSV
+                ? Flux.concat(Mono.fromSupplier(() -> bufferFactory.wrap(CSV_HEADER.getBytes(StandardCharsets.UTF_8))), body)
+                : body;
+    }
+
+    byte[] encode(List<InventoryResponse> chunk, Format format) {
+        StringBuilder out = new StringBuilder(chunk.size() * 192);
+        for (InventoryResponse row : chunk) {
+            if (format == Format.CSV) {
+                appendCsv(out, row);
+            } else {
+                appendJson(out, row);
+            }
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendJson(StringBuilder out, InventoryResponse row) {
+        out.append("{\"id\":").append(row.getId());
+        out.append(",\"productSku\":");
+        appendJsonString(out, row.getProductSku());
+        out.append(",\"productName\":");
+        appendJsonString(out, row.getProductName());
+        out.append(",\"storeId\":").append(row.getStoreId());
+        out.append(",\"storeName\":");
+        appendJsonString(out, row.getStoreName());
+        out.append(",\"availableQty\":").append(row.getAvailableQty());
+        out.append(",\"reservedQty\":").append(row.getReservedQty());
+        out.append(",\"sellableQty\":").append(row.getSellableQty());
+        out.append(",\"version\":").append(row.getVersion());
+        out.append(",\"updatedAt\":");
+        appendJsonString(out, format(row.getUpdatedAt()));
+        out.append("}\n");
+    }
+
+    private void appendCsv(StringBuilder out, InventoryResponse row) {
+        out.append(nullToEmpty(row.getId())).append(',');
+        appendCsvField(out, row.getProductSku());
+        out.append(',');
+        appendCsvField(out, row.getProductName());
+        out.append(',').append(nullToEmpty(row.getStoreId())).append(',');
+        appendCsvField(out, row.getStoreName());
+        out.append(',').append(nullToEmpty(row.getAvailableQty()))
+                .append(',').append(nullToEmpty(row.getReservedQty()))
+                .append(',').append(nullToEmpty(row.getSellableQty()))
+                .append(',').append(nullToEmpty(row.getVersion()))
+                .append(',');
+        appendCsvField(out, format(row.getUpdatedAt()));
+        out.append('\n');
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    // RFC 4180: se encomilla sólo si el valor contiene separador, comillas o saltos de línea
+    private static void appendCsvField(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static String format(LocalDateTime value) {
+        return value == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+    }
+
+    private static Object nullToEmpty(Object value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,68 @@
+package com.meli.inventorymanagement.infrastructure.adapter.input.rest;
+
+import com.meli.inventorymanagement.application.dto.UserGrantsUpdateRequest;
+import com.meli.inventorymanagement.application.dto.UserStatusUpdateRequest;
+import com.meli.inventorymanagement.application.service.UserAdministrationService;
+import com.meli.inventorymanagement.infrastructure.security.RequireStorePermission;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@Tag(name = "User administration", description = "User grants and status API")
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@Slf4j
+public class UserAdminController {
+
+    private final UserAdministrationService userAdministrationService;
+
+    @Operation(summary = "Replace user grants",
+            description = "Replaces the role and stores of a user - Admin only. Grants embedded in the user's " +
+                    "tokens stop being used and the next requests are authorized against the database")
+    @PutMapping("/{username}/grants")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @RequireStorePermission(adminOnly = true)
+    public Mono<Void> updateGrants(@PathVariable String username,
+                                   @Valid @RequestBody UserGrantsUpdateRequest request) {
+
+        log.info("PUT /api/admin/users/{}/grants - Role: {} - Stores: {}", username, request.getRole(),
+                request.getStoreIds());
+
+        return userAdministrationService.updateGrants(username, request);
+    }
+
+    @Operation(summary = "Activate or deactivate user",
+            description = "Activates or deactivates a user - Admin only. A deactivated user is rejected on the " +
+                    "next request even with an unexpired token; other instances reject it within jwt.grants.max-age")
+    @PutMapping("/{username}/status")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @RequireStorePermission(adminOnly = true)
+    public Mono<Void> updateStatus(@PathVariable String username,
+                                   @Valid @RequestBody UserStatusUpdateRequest request) {
+
+        log.info("PUT /api/admin/users/{}/status - Active: {}", username, request.getActive());
+
+        return userAdministrationService.updateStatus(username, request);
+    }
+
+    @Operation(summary = "Revoke grants of every token",
+            description = "Stops using the grants embedded in every token issued so far - Admin only. " +
+                    "Use it after changing users or permissions directly in the database")
+    @PostMapping("/grants/revoke")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @RequireStorePermission(adminOnly = true)
+    public Mono<Void> revokeAllGrants() {
+
+        log.info("POST /api/admin/users/grants/revoke");
+
+        return userAdministrationService.revokeAllGrants();
+    }
+}
@@ -0,0 +1,277 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.cache;
+
+import com.meli.inventorymanagement.domain.model.Product;
+import com.meli.inventorymanagement.domain.port.ProductPort;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.ProductPersistenceAdapter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché en memoria del catálogo de productos, indexada por id y por SKU.
+ * Acotada por tamaño (LRU por segmento) y con expiración por TTL.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "inventory.cache.product.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductCacheAdapter implements ProductPort {
+
+    private static final int SEGMENTS = 16;
+
+    private final ProductPersistenceAdapter productPersistenceAdapter;
+    private final long ttlNanos;
+    private final Segment[] segments;
+    private final Map<String, Long> idBySku = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ProductCacheAdapter(ProductPersistenceAdapter productPersistenceAdapter,
+                               MeterRegistry meterRegistry,
+                               @Value("${inventory.cache.product.ttl:10m}") Duration ttl,
+                               @Value("${inventory.cache.product.max-size:500000}") int maxSize) {
+        this.productPersistenceAdapter = productPersistenceAdapter;
+        this.ttlNanos = ttl.toNanos();
+        this.segments = new Segment[SEGMENTS];
+        int segmentCapacity = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", "products").tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", "products").tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tag("cache", "products")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, ProductCacheAdapter::size)
+                .tag("cache", "products")
+                .register(meterRegistry);
+
+        log.info("Product cache enabled - TTL: {} - Max size: {}", ttl, maxSize);
+    }
+
+    @Override
+    public Mono<Product> findById(Long id) {
+        if (id == null) {
+            return Mono.empty();
+        }
+
+        Product cached = lookup(id);
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(cached);
+        }
+
+        misses.increment();
+        return productPersistenceAdapter.findById(id)
+                .doOnNext(this::put)
+                .map(this::copy);
+    }
+
+    @Override
+    public Mono<Product> findBySku(String sku) {
+        if (sku == null || sku.trim().isEmpty()) {
+            return Mono.empty();
+        }
+
+        Product cached = lookupBySku(sku);
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(cached);
+        }
+
+        misses.increment();
+        return productPersistenceAdapter.findBySku(sku)
+                .doOnNext(this::put)
+                .map(this::copy);
+    }
+
+    @Override
+    public Flux<Product> findBySkus(Collection<String> skus) {
+        if (skus == null || skus.isEmpty()) {
+            return Flux.empty();
+        }
+
+        List<Product> cached = new ArrayList<>(skus.size());
+        List<String> missing = new ArrayList<>();
+        for (String sku : skus) {
+            Product product = lookupBySku(sku);
+            if (product != null) {
+                cached.add(product);
+            } else {
+                missing.add(sku);
+            }
+        }
+        hits.add(cached.size());
+        misses.add(missing.size());
+
+        // Los SKUs que no están en caché se resuelven juntos en una sola consulta
+        return Flux.fromIterable(cached)
+                .concatWith(missing.isEmpty()
+                        ? Flux.empty()
+                        : productPersistenceAdapter.findBySkus(missing)
+                                .doOnNext(this::put)
+                                .map(this::copy));
+    }
+
+    public void invalidateById(Long id) {
+        if (id == null) {
+            return;
+        }
+        CachedProduct removed = segmentFor(id).remove(id);
+        if (removed != null) {
+            idBySku.remove(removed.product().getSku(), id);
+            log.debug("Product {} invalidated from cache", id);
+        }
+    }
+
+    public void invalidateBySku(String sku) {
+        if (sku == null) {
+            return;
+        }
+        Long id = idBySku.remove(sku);
+        if (id != null) {
+            segmentFor(id).remove(id);
+            log.debug("Product SKU {} invalidated from cache", sku);
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        idBySku.clear();
+        log.info("Product cache invalidated");
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Product lookup(Long id) {
+        CachedProduct entry = segmentFor(id).get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() > 0) {
+            invalidateById(id);
+            return null;
+        }
+        return copy(entry.product());
+    }
+
+    /**
+     * El índice por SKU puede quedar atrás de un cambio de SKU: sólo vale si el producto
+     * cacheado todavía tiene ese SKU.
+     */
+    private Product lookupBySku(String sku) {
+        Long id = idBySku.get(sku);
+        if (id == null) {
+            return null;
+        }
+        Product product = lookup(id);
+        if (product != null && !sku.equals(product.getSku())) {
+            idBySku.remove(sku, id);
+            return null;
+        }
+        return product;
+    }
+
+    private void put(Product product) {
+        if (product.getId() == null || product.getSku() == null) {
+            return;
+        }
+        CachedProduct previous = segmentFor(product.getId()).put(product.getId(),
+                new CachedProduct(copy(product), System.nanoTime() + ttlNanos));
+        // Si el SKU cambió, el SKU anterior deja de apuntar a este producto
+        if (previous != null && !previous.product().getSku().equals(product.getSku())) {
+            idBySku.remove(previous.product().getSku(), product.getId());
+        }
+        idBySku.put(product.getSku(), product.getId());
+    }
+
+    private Segment segmentFor(Long id) {
+        return segments[Long.hashCode(id) & (SEGMENTS - 1)];
+    }
+
+    // Los Product del dominio son mutables: nunca se comparte la instancia cacheada
+    private Product copy(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .sku(product.getSku())
+                .name(product.getName())
+                .description(product.getDescription())
+                .isActive(product.getIsActive())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    private record CachedProduct(Product product, long expiresAt) {
+    }
+
+    private final class Segment {
+
+        private final LinkedHashMap<Long, CachedProduct> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CachedProduct> eldest) {
+                    if (size() > capacity) {
+                        idBySku.remove(eldest.getValue().product().getSku(), eldest.getKey());
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized CachedProduct get(Long id) {
+            return entries.get(id);
+        }
+
+        synchronized CachedProduct put(Long id, CachedProduct entry) {
+            return entries.put(id, entry);
+        }
+
+        synchronized CachedProduct remove(Long id) {
+            return entries.remove(id);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
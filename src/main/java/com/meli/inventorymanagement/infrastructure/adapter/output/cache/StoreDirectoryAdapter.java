@@ -0,0 +1,164 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.cache;
+
+import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.domain.port.StorePort;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.StorePersistenceAdapter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Directorio de tiendas en memoria. Se carga completo al iniciar y se reemplaza de forma
+ * atómica por un snapshot nuevo cuando cambia stores.updated_at (o la cantidad de tiendas).
+ * Mientras no haya snapshot cargado las consultas se delegan a la base de datos.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "inventory.cache.store.enabled", havingValue = "true", matchIfMissing = true)
+public class StoreDirectoryAdapter implements StorePort {
+
+    private final StorePersistenceAdapter storePersistenceAdapter;
+    private final Duration refreshInterval;
+    private final AtomicReference<StoreSnapshot> snapshot = new AtomicReference<>();
+
+    private Disposable refreshTask;
+
+    public StoreDirectoryAdapter(StorePersistenceAdapter storePersistenceAdapter,
+                                 @Value("${inventory.cache.store.refresh-interval:30s}") Duration refreshInterval) {
+        this.storePersistenceAdapter = storePersistenceAdapter;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshTask = Flux.interval(Duration.ZERO, refreshInterval)
+                .concatMap(tick -> refreshIfChanged()
+                        .onErrorResume(e -> {
+                            log.error("Error refreshing store directory: {}", e.getMessage(), e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Store> findById(Long id) {
+        if (id == null) {
+            return Mono.empty();
+        }
+
+        StoreSnapshot current = snapshot.get();
+        if (current == null) {
+            return storePersistenceAdapter.findById(id);
+        }
+
+        Store store = current.byId().get(id);
+        return store != null ? Mono.just(copy(store)) : Mono.empty();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        if (id == null) {
+            return Mono.just(false);
+        }
+
+        StoreSnapshot current = snapshot.get();
+        if (current == null) {
+            return storePersistenceAdapter.existsById(id);
+        }
+
+        return Mono.just(current.contains(id));
+    }
+
+    @Override
+    public Flux<Store> findAll() {
+        StoreSnapshot current = snapshot.get();
+        if (current == null) {
+            return storePersistenceAdapter.findAll();
+        }
+
+        return Flux.fromIterable(current.byId().values()).map(this::copy);
+    }
+
+    /**
+     * La aplicación no escribe tiendas: altas, bajas y cambios hechos en la base se detectan
+     * acá por stores.updated_at y la cantidad de filas, a más tardar en {@code refresh-interval}.
+     */
+    Mono<Void> refreshIfChanged() {
+        return Mono.zip(storePersistenceAdapter.findLatestUpdatedAt(), storePersistenceAdapter.count())
+                .flatMap(version -> {
+                    StoreSnapshot current = snapshot.get();
+                    if (current != null
+                            && current.latestUpdate().equals(version.getT1())
+                            && current.count() == version.getT2()) {
+                        return Mono.empty();
+                    }
+                    return storePersistenceAdapter.findAll()
+                            .collectList()
+                            .doOnNext(stores -> {
+                                snapshot.set(StoreSnapshot.of(stores, version.getT1()));
+                                log.info("Store directory loaded - {} stores - Last update: {}",
+                                        stores.size(), version.getT1());
+                            })
+                            .then();
+                });
+    }
+
+    private Store copy(Store store) {
+        return Store.builder()
+                .id(store.getId())
+                .name(store.getName())
+                .isActive(store.getIsActive())
+                .createdAt(store.getCreatedAt())
+                .updatedAt(store.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Snapshot inmutable: el BitSet nunca se modifica una vez publicado.
+     */
+    private record StoreSnapshot(Map<Long, Store> byId, BitSet ids, LocalDateTime latestUpdate, long count) {
+
+        static StoreSnapshot of(List<Store> stores, LocalDateTime latestUpdate) {
+            Map<Long, Store> byId = new HashMap<>();
+            BitSet ids = new BitSet();
+            for (Store store : stores) {
+                byId.put(store.getId(), store);
+                if (store.getId() >= 0 && store.getId() <= Integer.MAX_VALUE) {
+                    ids.set(store.getId().intValue());
+                }
+            }
+            return new StoreSnapshot(Map.copyOf(byId), ids, latestUpdate, stores.size());
+        }
+
+        boolean contains(long id) {
+            if (id >= 0 && id <= Integer.MAX_VALUE) {
+                return ids.get((int) id);
+            }
+            return byId.containsKey(id);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.feed;
+
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.port.InventoryChangePort;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Difusión en memoria de cambios de inventario.
+ * <p>
+ * Cada suscriptor tiene su propio buffer indexado por producto-tienda: un cambio nuevo de una
+ * clave pendiente reemplaza al anterior (conflación), así que un consumidor lento recibe el
+ * último estado de cada clave sin que el buffer crezca con la tasa de escrituras. Si aun así se
+ * supera {@code max-pending} claves distintas se descarta la más antigua. Publicar sólo deja el
+ * cambio en los buffers de los suscriptores que lo filtran y agenda su entrega: cada suscriptor
+ * se vacía en un worker propio de un scheduler acotado, así que el hilo que escribió nunca
+ * ejecuta el código de un consumidor ni espera a uno.
+ * <p>
+ * Los suscriptores se indexan por tienda para que un cambio no recorra los de otras tiendas.
+ */
+@Slf4j
+@Component
+public class InventoryChangeFeedAdapter implements InventoryChangePort {
+
+    private final int maxPending;
+    private final Scheduler deliveryScheduler;
+    private final Map<Long, Set<Subscriber>> byStore = new ConcurrentHashMap<>();
+    private final Set<Subscriber> allStores = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public InventoryChangeFeedAdapter(MeterRegistry meterRegistry,
+                                      @Value("${inventory.feed.max-pending:1024}") int maxPending,
+                                      @Value("${inventory.feed.delivery-threads:2}") int deliveryThreads) {
+        this.maxPending = maxPending;
+        this.deliveryScheduler = Schedulers.newParallel("inventory-feed", deliveryThreads, true);
+
+        FunctionCounter.builder("inventory.feed.published", published, LongAdder::doubleValue)
+                .register(meterRegistry);
+        // Cambios reemplazados por uno más nuevo de la misma clave antes de entregarse
+        FunctionCounter.builder("inventory.feed.conflated", conflated, LongAdder::doubleValue)
+                .register(meterRegistry);
+        // Claves descartadas por superar max-pending en un suscriptor
+        FunctionCounter.builder("inventory.feed.dropped", dropped, LongAdder::doubleValue)
+                .register(meterRegistry);
+        Gauge.builder("inventory.feed.subscribers", this, InventoryChangeFeedAdapter::subscribers)
+                .register(meterRegistry);
+
+        log.info("Inventory change feed enabled - Max pending per subscriber: {} - Delivery threads: {}",
+                maxPending, deliveryThreads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        deliveryScheduler.dispose();
+    }
+
+    @Override
+    public void publish(Inventory inventory) {
+        published.increment();
+        Set<Subscriber> storeSubscribers = byStore.get(inventory.getStoreId());
+        if (storeSubscribers != null) {
+            storeSubscribers.forEach(subscriber -> subscriber.offer(inventory));
+        }
+        allStores.forEach(subscriber -> subscriber.offer(inventory));
+    }
+
+    @Override
+    public Flux<Inventory> subscribe(Long storeId, Long productId) {
+        return Flux.create(sink -> {
+            Subscriber subscriber = new Subscriber(productId, sink, deliveryScheduler.createWorker());
+            Set<Subscriber> index = storeId == null
+                    ? allStores
+                    : byStore.computeIfAbsent(storeId, id -> ConcurrentHashMap.newKeySet());
+            index.add(subscriber);
+
+            sink.onRequest(n -> subscriber.scheduleDrain());
+            // El conjunto de la tienda queda aunque se vacíe: son pocas tiendas y quitarlo competiría con altas concurrentes
+            sink.onDispose(() -> {
+                index.remove(subscriber);
+                subscriber.worker.dispose();
+            });
+        }, FluxSink.OverflowStrategy.ERROR);
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return subscribers() > 0;
+    }
+
+    public long subscribers() {
+        long count = allStores.size();
+        for (Set<Subscriber> subscribers : byStore.values()) {
+            count += subscribers.size();
+        }
+        return count;
+    }
+
+    private final class Subscriber {
+
+        private final Long productId;
+        private final FluxSink<Inventory> sink;
+        private final Scheduler.Worker worker;
+        // Orden de llegada de cada clave; reemplazar el valor no la mueve al final
+        private final LinkedHashMap<String, Inventory> pending = new LinkedHashMap<>();
+        // Pedidos de vaciado sin atender: sólo quien lo lleva de 0 a 1 agenda el vaciado
+        private final AtomicInteger drainRequests = new AtomicInteger();
+
+        private Subscriber(Long productId, FluxSink<Inventory> sink, Scheduler.Worker worker) {
+            this.productId = productId;
+            this.sink = sink;
+            this.worker = worker;
+        }
+
+        void offer(Inventory inventory) {
+            if (productId != null && !productId.equals(inventory.getProductId())) {
+                return;
+            }
+            synchronized (this) {
+                if (pending.put(inventory.getProductId() + ":" + inventory.getStoreId(), inventory) != null) {
+                    conflated.increment();
+                } else if (pending.size() > maxPending) {
+                    Iterator<Inventory> eldest = pending.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    dropped.increment();
+                }
+            }
+            scheduleDrain();
+        }
+
+        void scheduleDrain() {
+            if (drainRequests.getAndIncrement() == 0) {
+                try {
+                    worker.schedule(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // El suscriptor se canceló mientras se publicaba: ya no hay a quién entregar
+                }
+            }
+        }
+
+        /**
+         * Corre sólo en el worker y nunca en dos hilos a la vez. El lock cubre sacar el elemento,
+         * no la entrega: un consumidor lento no bloquea a quien publica. Un pedido que llega
+         * mientras se vacía (también desde onRequest dentro de sink.next) repite la vuelta.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    Inventory inventory;
+                    synchronized (this) {
+                        if (pending.isEmpty()) {
+                            break;
+                        }
+                        Iterator<Inventory> next = pending.values().iterator();
+                        inventory = next.next();
+                        next.remove();
+                    }
+                    sink.next(inventory);
+                }
+                missed = drainRequests.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
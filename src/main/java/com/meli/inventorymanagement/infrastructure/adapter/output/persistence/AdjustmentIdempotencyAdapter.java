@@ -0,0 +1,140 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.domain.model.IdempotencyRecord;
+import com.meli.inventorymanagement.domain.port.IdempotencyKeyPort;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Claves de idempotencia en la tabla adjustment_idempotency_keys. La clave primaria
+ * (owner, idempotency_key) resuelve la carrera entre instancias: sólo un INSERT gana.
+ * Las claves vencidas se borran en segundo plano y, mientras tanto, se ignoran al leer.
+ */
+@Slf4j
+@Component
+public class AdjustmentIdempotencyAdapter implements IdempotencyKeyPort {
+
+    private final DatabaseClient databaseClient;
+    private final Duration purgeInterval;
+
+    private Disposable purgeTask;
+
+    public AdjustmentIdempotencyAdapter(DatabaseClient databaseClient,
+                                        @Value("${inventory.idempotency.purge-interval:10m}") Duration purgeInterval) {
+        this.databaseClient = databaseClient;
+        this.purgeInterval = purgeInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        purgeTask = Flux.interval(purgeInterval, purgeInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> deleteExpired(LocalDateTime.now())
+                        .onErrorResume(e -> {
+                            log.error("Error purging idempotency keys: {}", e.getMessage(), e);
+                            return Mono.empty();
+                        }))
+                .subscribe(deleted -> {
+                    if (deleted > 0) {
+                        log.info("Purged {} expired idempotency keys", deleted);
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purgeTask != null) {
+            purgeTask.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Boolean> claim(String owner, String key, String fingerprint, LocalDateTime expiresAt) {
+        // Una clave vencida pero todavía no purgada no debe bloquear su reutilización
+        return databaseClient.sql("DELETE FROM adjustment_idempotency_keys " +
+                        "WHERE owner = :owner AND idempotency_key = :key AND expires_at < :now")
+                .bind("owner", owner)
+                .bind("key", key)
+                .bind("now", LocalDateTime.now())
+                .fetch()
+                .rowsUpdated()
+                .then(databaseClient.sql("INSERT INTO adjustment_idempotency_keys " +
+                                "(owner, idempotency_key, fingerprint, expires_at) VALUES (:owner, :key, :fingerprint, :expiresAt)")
+                        .bind("owner", owner)
+                        .bind("key", key)
+                        .bind("fingerprint", fingerprint)
+                        .bind("expiresAt", expiresAt)
+                        .fetch()
+                        .rowsUpdated())
+                .map(inserted -> inserted > 0)
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.just(false))
+                .doOnError(error -> log.error("Error claiming idempotency key {} of user {}: {}",
+                        key, owner, error.getMessage()));
+    }
+
+    @Override
+    public Mono<Void> complete(String owner, String key, String response) {
+        return databaseClient.sql("UPDATE adjustment_idempotency_keys SET response = :response " +
+                        "WHERE owner = :owner AND idempotency_key = :key")
+                .bind("response", response)
+                .bind("owner", owner)
+                .bind("key", key)
+                .fetch()
+                .rowsUpdated()
+                .then()
+                .doOnError(error -> log.error("Error storing response of idempotency key {} of user {}: {}",
+                        key, owner, error.getMessage()));
+    }
+
+    @Override
+    public Mono<Void> release(String owner, String key) {
+        return databaseClient.sql("DELETE FROM adjustment_idempotency_keys " +
+                        "WHERE owner = :owner AND idempotency_key = :key AND response IS NULL")
+                .bind("owner", owner)
+                .bind("key", key)
+                .fetch()
+                .rowsUpdated()
+                .then()
+                .doOnError(error -> log.error("Error releasing idempotency key {} of user {}: {}",
+                        key, owner, error.getMessage()));
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(String owner, String key) {
+        return databaseClient.sql("SELECT owner, idempotency_key, fingerprint, response, expires_at " +
+                        "FROM adjustment_idempotency_keys " +
+                        "WHERE owner = :owner AND idempotency_key = :key AND expires_at >= :now")
+                .bind("owner", owner)
+                .bind("key", key)
+                .bind("now", LocalDateTime.now())
+                .map((row, metadata) -> IdempotencyRecord.builder()
+                        .owner(row.get("owner", String.class))
+                        .key(row.get("idempotency_key", String.class))
+                        .fingerprint(row.get("fingerprint", String.class))
+                        .response(row.get("response", String.class))
+                        .expiresAt(row.get("expires_at", LocalDateTime.class))
+                        .build())
+                .one()
+                .doOnError(error -> log.error("Error reading idempotency key {} of user {}: {}",
+                        key, owner, error.getMessage()));
+    }
+
+    public Mono<Long> deleteExpired(LocalDateTime now) {
+        return databaseClient.sql("DELETE FROM adjustment_idempotency_keys WHERE expires_at < :now")
+                .bind("now", now)
+                .fetch()
+                .rowsUpdated();
+    }
+}
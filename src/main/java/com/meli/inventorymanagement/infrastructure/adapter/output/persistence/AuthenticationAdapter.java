@@ -1,19 +1,24 @@
 package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
 
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.UserGrants;
 import com.meli.inventorymanagement.domain.port.AuthenticationPort;
+import com.meli.inventorymanagement.infrastructure.security.PasswordHashingExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class AuthenticationAdapter implements AuthenticationPort {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @Override
     public Mono<Boolean> authenticate(String username, String password) {
@@ -23,15 +28,20 @@ public class AuthenticationAdapter implements AuthenticationPort {
                         log.warn("Authentication failed: User is inactive: {}", username);
                         return Mono.just(false);
                     }
-                    boolean matches = passwordEncoder.matches(password, user.getPasswordHash());
-                    if (!matches) {
-                        log.warn("Authentication failed: Invalid password for user: {}", username);
-                    }
-                    return Mono.just(matches);
+                    // BCrypt corre en su propio pool: nunca en el hilo de R2DBC/Netty
+                    return passwordHashingExecutor.matches(password, user.getPasswordHash())
+                            .doOnNext(matches -> {
+                                if (!matches) {
+                                    log.warn("Authentication failed: Invalid password for user: {}", username);
+                                }
+                            });
                 })
                 .defaultIfEmpty(false)
-                .doOnError(e -> log.error("Authentication error for user {}: {}", username, e.getMessage(), e))
-                .onErrorReturn(false);
+                // El rechazo por saturación llega al cliente como 503, no como credenciales inválidas
+                .onErrorResume(e -> !(e instanceof BusinessException), e -> {
+                    log.error("Authentication error for user {}: {}", username, e.getMessage(), e);
+                    return Mono.just(false);
+                });
     }
 
     @Override
@@ -41,4 +51,18 @@ public class AuthenticationAdapter implements AuthenticationPort {
                         username, storeId, e.getMessage(), e))
                 .onErrorReturn(false);
     }
+
+    @Override
+    public Mono<UserGrants> findGrants(String username) {
+        return userRepository.findByUsername(username)
+                .filter(user -> Boolean.TRUE.equals(user.getIsActive()))
+                .flatMap(user -> userRepository.findStoreIdsByUsername(username)
+                        .collect(Collectors.toCollection(TreeSet::new))
+                        .map(storeIds -> UserGrants.builder()
+                                .username(user.getUsername())
+                                .role(user.getRole())
+                                .storeIds(storeIds)
+                                .build()))
+                .doOnError(e -> log.error("Error loading grants for user {}: {}", username, e.getMessage(), e));
+    }
 }
@@ -0,0 +1,154 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.model.LedgerEvent;
+import com.meli.inventorymanagement.domain.model.Product;
+import com.meli.inventorymanagement.domain.port.CatalogImportPort;
+import com.meli.inventorymanagement.infrastructure.adapter.output.cache.ProductCacheAdapter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Upserts masivos con un MERGE de varias filas por lote: una sola ida y vuelta a la base por
+ * lote, en lugar de una consulta y una escritura por fila.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogImportAdapter implements CatalogImportPort {
+
+    private static final String INVENTORY_VALUE = "CAST($%d AS BIGINT), CAST($%d AS BIGINT), CAST($%d AS INT)";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final InventoryLedgerAdapter inventoryLedgerAdapter;
+    private final InventoryChangeWatermark inventoryChangeWatermark;
+    // Ausente si la caché de productos está deshabilitada
+    private final Optional<ProductCacheAdapter> productCache;
+
+    // SQL por tamaño de lote: salvo el último, todos los lotes tienen el mismo tamaño
+    private final Map<Integer, String> productSql = new ConcurrentHashMap<>();
+    private final Map<Integer, String> inventorySql = new ConcurrentHashMap<>();
+    private final Map<Integer, String> skippedInventorySql = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Integer> upsertProducts(List<Product> products) {
+        if (products.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        String sql = productSql.computeIfAbsent(products.size(), size -> "MERGE INTO products t USING (VALUES " +
+                values(size, "CAST($%d AS VARCHAR(50)), CAST($%d AS VARCHAR(200)), CAST($%d AS VARCHAR(500))") +
+                ") AS s(sku, name, description) ON t.sku = s.sku " +
+                "WHEN MATCHED THEN UPDATE SET name = s.name, description = s.description, updated_at = CURRENT_TIMESTAMP " +
+                "WHEN NOT MATCHED THEN INSERT (sku, name, description) VALUES (s.sku, s.name, s.description)");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        int index = 0;
+        for (Product product : products) {
+            spec = spec.bind(index++, product.getSku())
+                    .bind(index++, product.getName());
+            spec = product.getDescription() != null
+                    ? spec.bind(index++, product.getDescription())
+                    : spec.bindNull(index++, String.class);
+        }
+
+        return spec.fetch().rowsUpdated()
+                .map(Long::intValue)
+                .doOnNext(written -> productCache.ifPresent(cache ->
+                        products.forEach(product -> cache.invalidateBySku(product.getSku()))))
+                .doOnError(error -> log.error("Error upserting {} products: {}", products.size(), error.getMessage()));
+    }
+
+    /**
+     * Las filas existentes incrementan su versión, así un guardado concurrente con la versión
+     * anterior falla por optimistic locking en lugar de pisar la carga. Una fila cuya nueva
+     * cantidad no cubre sus unidades reservadas queda como estaba: después del MERGE, en la misma
+     * transacción, se leen las filas del lote que no quedaron con la cantidad del archivo (las
+     * actualizadas siguen bloqueadas, así que sólo pueden ser las salteadas). Cada fila aplicada
+     * registra un SET en el ledger.
+     */
+    @Override
+    public Mono<List<Inventory>> upsertInventory(List<Inventory> rows) {
+        if (rows.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        String sql = inventorySql.computeIfAbsent(rows.size(), size -> "MERGE INTO inventory t USING (VALUES " +
+                values(size, INVENTORY_VALUE) +
+                ") AS s(product_id, store_id, available_qty) " +
+                "ON t.product_id = s.product_id AND t.store_id = s.store_id " +
+                "WHEN MATCHED AND s.available_qty >= t.reserved_qty THEN UPDATE SET available_qty = s.available_qty, " +
+                "version = t.version + 1, updated_at = CURRENT_TIMESTAMP " +
+                "WHEN NOT MATCHED THEN INSERT (product_id, store_id, available_qty) " +
+                "VALUES (s.product_id, s.store_id, s.available_qty)");
+        String skippedSql = skippedInventorySql.computeIfAbsent(rows.size(), size ->
+                "SELECT t.product_id, t.store_id, t.reserved_qty FROM inventory t JOIN (VALUES " +
+                values(size, INVENTORY_VALUE) +
+                ") AS s(product_id, store_id, available_qty) " +
+                "ON t.product_id = s.product_id AND t.store_id = s.store_id " +
+                "WHERE t.available_qty <> s.available_qty");
+
+        return bindInventory(databaseClient.sql(sql), rows).fetch().rowsUpdated()
+                .then(bindInventory(databaseClient.sql(skippedSql), rows)
+                        .map(row -> Inventory.builder()
+                                .productId(row.get("product_id", Long.class))
+                                .storeId(row.get("store_id", Long.class))
+                                .reservedQty(row.get("reserved_qty", Integer.class))
+                                .build())
+                        .all()
+                        .collectList())
+                .flatMap(skipped -> {
+                    Set<String> skippedKeys = skipped.stream()
+                            .map(row -> row.getProductId() + ":" + row.getStoreId())
+                            .collect(Collectors.toSet());
+                    List<LedgerEvent> events = rows.stream()
+                            .filter(row -> !skippedKeys.contains(row.getProductId() + ":" + row.getStoreId()))
+                            .map(row -> InventoryLedgerAdapter.event(row.getProductId(), row.getStoreId(),
+                                    LedgerEvent.Type.SET, row.getAvailableQty()))
+                            .toList();
+                    return inventoryLedgerAdapter.append(events).thenReturn(skipped);
+                })
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
+                .doOnError(error -> log.error("Error upserting {} inventory rows: {}", rows.size(), error.getMessage()));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindInventory(DatabaseClient.GenericExecuteSpec spec, List<Inventory> rows) {
+        int index = 0;
+        for (Inventory row : rows) {
+            spec = spec.bind(index++, row.getProductId())
+                    .bind(index++, row.getStoreId())
+                    .bind(index++, row.getAvailableQty());
+        }
+        return spec;
+    }
+
+    // "(fila 1), (fila 2), ..." con parámetros $1..$n numerados en orden
+    private static String values(int rows, String rowTemplate) {
+        int columns = rowTemplate.split("%d", -1).length - 1;
+        StringBuilder sql = new StringBuilder(rows * rowTemplate.length() + rows * 4);
+        Object[] positions = new Object[columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                positions[column] = row * columns + column + 1;
+            }
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append('(').append(String.format(rowTemplate, positions)).append(')');
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Low-watermark de inventory.change_seq: el valor más alto hasta el cual todas las secuencias
+ * asignadas pertenecen a transacciones ya terminadas. change_seq se asigna al escribir la fila y
+ * no al confirmar, así que una transacción lenta puede confirmar una secuencia menor que otra ya
+ * visible; leyendo sólo hasta el watermark el cursor de sincronización nunca la deja atrás.
+ * <p>
+ * Cada transacción que escribe inventory se registra con un piso: la última secuencia que el
+ * watermark leyó de la base antes de que empezara, por lo que todo lo que asigne es mayor. El
+ * registro es local al proceso: supone, como el write-behind y su journal, una única instancia
+ * escribiendo sobre la base.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryChangeWatermark {
+
+    private final DatabaseClient databaseClient;
+
+    // piso -> transacciones abiertas con ese piso
+    private final TreeMap<Long, Integer> inFlight = new TreeMap<>();
+    private long observed;
+
+    /**
+     * Registra la escritura mientras dura, incluida la confirmación: debe envolver a la transacción.
+     */
+    public <T> Mono<T> track(Mono<T> write) {
+        return Mono.defer(() -> {
+            long floor = open();
+            return write.doFinally(signal -> close(floor));
+        });
+    }
+
+    /**
+     * Secuencia más alta que ya no puede aparecer por detrás de otra visible. Pide un valor nuevo a
+     * la secuencia: todo lo asignado antes es menor, y los huecos que deja no afectan al cursor.
+     */
+    public Mono<Long> lowWatermark() {
+        return databaseClient.sql("SELECT NEXT VALUE FOR inventory_change_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(this::publish);
+    }
+
+    private synchronized long open() {
+        inFlight.merge(observed, 1, Integer::sum);
+        return observed;
+    }
+
+    private synchronized void close(long floor) {
+        inFlight.computeIfPresent(floor, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    private synchronized long publish(long current) {
+        observed = Math.max(observed, current);
+        Map.Entry<Long, Integer> oldest = inFlight.firstEntry();
+        return oldest == null ? current : Math.min(current, oldest.getKey());
+    }
+}
@@ -0,0 +1,206 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.domain.model.LedgerEvent;
+import com.meli.inventorymanagement.domain.port.InventoryLedgerPort;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventoryLedgerEntity;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventorySnapshotEntity;
+import io.r2dbc.spi.Statement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ledger append-only de inventario. Los eventos se escriben con la conexión de la transacción
+ * en curso, de modo que quedan confirmados junto con la escritura sobre la tabla inventory.
+ */
+@Slf4j
+@Component
+public class InventoryLedgerAdapter implements InventoryLedgerPort {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO inventory_ledger (product_id, store_id, event_type, quantity) VALUES ($1, $2, $3, $4)";
+    private static final String INSERT_EVENT_AT =
+            "INSERT INTO inventory_ledger (product_id, store_id, event_type, quantity, created_at) " +
+            "VALUES ($1, $2, $3, $4, $5)";
+
+    // Por tienda: el último snapshot hasta asOf como SET base y los eventos entre ese snapshot y el siguiente
+    private static final String MATERIALIZE_AS_OF_BY_STORE =
+            "SELECT s.store_id, s.last_seq AS seq, 'SET' AS event_type, s.available_qty AS quantity " +
+            "FROM inventory_snapshots s " +
+            "WHERE s.product_id = :productId AND s.snapshot_at <= :asOf AND s.last_seq = (" +
+            "SELECT MAX(b.last_seq) FROM inventory_snapshots b " +
+            "WHERE b.product_id = s.product_id AND b.store_id = s.store_id AND b.snapshot_at <= :asOf) " +
+            "UNION ALL " +
+            "SELECT l.store_id, l.seq, l.event_type, l.quantity " +
+            "FROM inventory_ledger l " +
+            "WHERE l.product_id = :productId AND l.created_at <= :asOf " +
+            "AND l.seq > COALESCE((SELECT MAX(b.last_seq) FROM inventory_snapshots b " +
+            "WHERE b.product_id = l.product_id AND b.store_id = l.store_id AND b.snapshot_at <= :asOf), 0) " +
+            "AND l.seq <= COALESCE((SELECT MIN(n.last_seq) FROM inventory_snapshots n " +
+            "WHERE n.product_id = l.product_id AND n.store_id = l.store_id AND n.snapshot_at > :asOf), " +
+            Long.MAX_VALUE + ") " +
+            "ORDER BY store_id, seq";
+
+    private final InventoryLedgerRepository inventoryLedgerRepository;
+    private final InventorySnapshotRepository inventorySnapshotRepository;
+    private final DatabaseClient databaseClient;
+    private final boolean enabled;
+
+    public InventoryLedgerAdapter(InventoryLedgerRepository inventoryLedgerRepository,
+                                  InventorySnapshotRepository inventorySnapshotRepository,
+                                  DatabaseClient databaseClient,
+                                  @Value("${inventory.ledger.enabled:true}") boolean enabled) {
+        this.inventoryLedgerRepository = inventoryLedgerRepository;
+        this.inventorySnapshotRepository = inventorySnapshotRepository;
+        this.databaseClient = databaseClient;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Mono<Integer> materialize(Long productId, Long storeId) {
+        return materializeAt(productId, storeId, Long.MAX_VALUE);
+    }
+
+    @Override
+    public Mono<Integer> materializeAsOf(Long productId, Long storeId, LocalDateTime asOf) {
+        // El snapshot siguiente acota la cola: como mucho se leen los eventos de un intervalo de compactación
+        Mono<Long> upToSeq = inventorySnapshotRepository.findFirstAfter(productId, storeId, asOf)
+                .map(snapshot -> snapshot.getLastSeq())
+                .defaultIfEmpty(Long.MAX_VALUE);
+
+        return Mono.zip(base(inventorySnapshotRepository.findLatestAt(productId, storeId, asOf)), upToSeq)
+                .flatMap(range -> fold(range.getT1(), inventoryLedgerRepository.findTailAsOf(
+                        productId, storeId, range.getT1().lastSeq(), range.getT2(), asOf)))
+                .doOnError(error -> log.error("Error materializing stock for product {} and store {} as of {}: {}",
+                        productId, storeId, asOf, error.getMessage()));
+    }
+
+    @Override
+    public Mono<Map<Long, Integer>> materializeAsOfByStore(Long productId, LocalDateTime asOf) {
+        // El snapshot base tiene seq = last_seq y ordena antes que los eventos de su cola
+        return databaseClient.sql(MATERIALIZE_AS_OF_BY_STORE)
+                .bind("productId", productId)
+                .bind("asOf", asOf)
+                .map((row, metadata) -> LedgerEvent.builder()
+                        .seq(row.get("seq", Long.class))
+                        .storeId(row.get("store_id", Long.class))
+                        .type(LedgerEvent.Type.valueOf(row.get("event_type", String.class)))
+                        .quantity(row.get("quantity", Integer.class))
+                        .build())
+                .all()
+                .collect(LinkedHashMap<Long, Integer>::new, (stockByStore, event) ->
+                        stockByStore.put(event.getStoreId(),
+                                event.applyTo(stockByStore.getOrDefault(event.getStoreId(), 0))))
+                .<Map<Long, Integer>>map(stockByStore -> stockByStore)
+                .doOnError(error -> log.error("Error materializing stock for product {} as of {}: {}",
+                        productId, asOf, error.getMessage()));
+    }
+
+    /**
+     * Stock de la combinación tras aplicar todos los eventos con secuencia hasta {@code upToSeq}.
+     */
+    public Mono<Integer> materializeAt(Long productId, Long storeId, long upToSeq) {
+        return base(inventorySnapshotRepository.findLatest(productId, storeId, upToSeq))
+                .flatMap(base -> fold(base, inventoryLedgerRepository.findTail(productId, storeId, base.lastSeq(), upToSeq)))
+                .doOnError(error -> log.error("Error materializing stock for product {} and store {}: {}",
+                        productId, storeId, error.getMessage()));
+    }
+
+    public Mono<Void> recordDelta(Long productId, Long storeId, int delta) {
+        return append(List.of(event(productId, storeId, LedgerEvent.Type.DELTA, delta)));
+    }
+
+    public Mono<Void> recordSet(Long productId, Long storeId, int availableQty) {
+        return append(List.of(event(productId, storeId, LedgerEvent.Type.SET, availableQty)));
+    }
+
+    /**
+     * Agrega los eventos en un único statement por lotes sobre la conexión de la transacción actual.
+     * Los eventos con {@code createdAt} conservan esa fecha; el resto toma la actual.
+     */
+    public Mono<Void> append(List<LedgerEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return Mono.empty();
+        }
+
+        boolean timestamped = events.stream().anyMatch(event -> event.getCreatedAt() != null);
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(timestamped ? INSERT_EVENT_AT : INSERT_EVENT);
+                    for (int i = 0; i < events.size(); i++) {
+                        LedgerEvent event = events.get(i);
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        statement.bind(0, event.getProductId())
+                                .bind(1, event.getStoreId())
+                                .bind(2, event.getType().name())
+                                .bind(3, event.getQuantity());
+                        if (timestamped) {
+                            statement.bind(4, event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now());
+                        }
+                    }
+                    return Flux.from(statement.execute())
+                            .flatMap(result -> Mono.from(result.getRowsUpdated()));
+                })
+                .then()
+                .doOnError(error -> log.error("Error appending {} ledger events: {}", events.size(), error.getMessage()));
+    }
+
+    public static LedgerEvent event(Long productId, Long storeId, LedgerEvent.Type type, int quantity) {
+        return event(productId, storeId, type, quantity, null);
+    }
+
+    public static LedgerEvent event(Long productId, Long storeId, LedgerEvent.Type type, int quantity,
+                                    LocalDateTime createdAt) {
+        return LedgerEvent.builder()
+                .productId(productId)
+                .storeId(storeId)
+                .type(type)
+                .quantity(quantity)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private Mono<Base> base(Mono<InventorySnapshotEntity> snapshot) {
+        return snapshot
+                .map(found -> new Base(found.getAvailableQty(), found.getLastSeq(), true))
+                .defaultIfEmpty(new Base(0, 0L, false));
+    }
+
+    private Mono<Integer> fold(Base base, Flux<InventoryLedgerEntity> tail) {
+        return tail.map(this::toDomain)
+                .collectList()
+                .flatMap(events -> {
+                    if (events.isEmpty() && !base.found()) {
+                        return Mono.empty();
+                    }
+                    int availableQty = base.availableQty();
+                    for (LedgerEvent event : events) {
+                        availableQty = event.applyTo(availableQty);
+                    }
+                    return Mono.just(availableQty);
+                });
+    }
+
+    private LedgerEvent toDomain(InventoryLedgerEntity entity) {
+        return LedgerEvent.builder()
+                .seq(entity.getSeq())
+                .productId(entity.getProductId())
+                .storeId(entity.getStoreId())
+                .type(LedgerEvent.Type.valueOf(entity.getEventType()))
+                .quantity(entity.getQuantity())
+                .createdAt(entity.getCreatedAt())
+                .build();
+    }
+
+    private record Base(int availableQty, long lastSeq, boolean found) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventorySnapshotEntity;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compacta el ledger en segundo plano: genera un snapshot por cada combinación con eventos nuevos
+ * y aplica la retención sobre eventos y snapshots ya cubiertos.
+ * <p>
+ * Sólo se compactan eventos creados antes de {@code settle-time}, para no dejar atrás secuencias
+ * asignadas por transacciones que todavía no confirmaron.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.ledger.enabled", havingValue = "true", matchIfMissing = true)
+public class InventoryLedgerCompactor {
+
+    private static final int CONCURRENCY = 4;
+
+    private final InventoryLedgerAdapter inventoryLedgerAdapter;
+    private final InventoryLedgerRepository inventoryLedgerRepository;
+    private final InventorySnapshotRepository inventorySnapshotRepository;
+    private final DatabaseClient databaseClient;
+    private final Duration interval;
+    private final Duration settleTime;
+    private final Duration retention;
+    private final AtomicLong compactedSeq = new AtomicLong(-1);
+
+    private Disposable compactionTask;
+
+    public InventoryLedgerCompactor(InventoryLedgerAdapter inventoryLedgerAdapter,
+                                    InventoryLedgerRepository inventoryLedgerRepository,
+                                    InventorySnapshotRepository inventorySnapshotRepository,
+                                    DatabaseClient databaseClient,
+                                    @Value("${inventory.ledger.compaction.interval:1m}") Duration interval,
+                                    @Value("${inventory.ledger.compaction.settle-time:5s}") Duration settleTime,
+                                    @Value("${inventory.ledger.retention:400d}") Duration retention) {
+        this.inventoryLedgerAdapter = inventoryLedgerAdapter;
+        this.inventoryLedgerRepository = inventoryLedgerRepository;
+        this.inventorySnapshotRepository = inventorySnapshotRepository;
+        this.databaseClient = databaseClient;
+        this.interval = interval;
+        this.settleTime = settleTime;
+        this.retention = retention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        compactionTask = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> compact()
+                        .then(applyRetention())
+                        .onErrorResume(e -> {
+                            log.error("Error compacting inventory ledger: {}", e.getMessage(), e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (compactionTask != null) {
+            compactionTask.dispose();
+        }
+    }
+
+    /**
+     * Genera snapshots hasta el último evento asentado. Devuelve la cantidad de snapshots creados.
+     */
+    public Mono<Long> compact() {
+        LocalDateTime settledAt = LocalDateTime.now().minus(settleTime);
+
+        return lastCompactedSeq()
+                .zipWith(inventoryLedgerRepository.findMaxSeqCreatedBefore(settledAt))
+                .flatMap(range -> {
+                    long fromSeq = range.getT1();
+                    long toSeq = range.getT2();
+                    if (toSeq <= fromSeq) {
+                        return Mono.just(0L);
+                    }
+                    return databaseClient.sql("SELECT DISTINCT product_id, store_id FROM inventory_ledger " +
+                                    "WHERE seq > :fromSeq AND seq <= :toSeq")
+                            .bind("fromSeq", fromSeq)
+                            .bind("toSeq", toSeq)
+                            .map((row, metadata) -> new long[]{
+                                    row.get("product_id", Long.class), row.get("store_id", Long.class)})
+                            .all()
+                            .flatMap(key -> snapshot(key[0], key[1], toSeq, settledAt), CONCURRENCY)
+                            .count()
+                            .doOnNext(created -> {
+                                compactedSeq.set(toSeq);
+                                log.info("Inventory ledger compacted up to seq {} - {} snapshots", toSeq, created);
+                            });
+                });
+    }
+
+    /**
+     * Borra los eventos y snapshots anteriores a la ventana de retención que ya no se necesitan
+     * para materializar el stock.
+     */
+    public Mono<Void> applyRetention() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+
+        return inventoryLedgerRepository.deleteCompactedBefore(cutoff)
+                .zipWith(inventorySnapshotRepository.deleteSupersededBefore(cutoff))
+                .doOnNext(deleted -> {
+                    if (deleted.getT1() > 0 || deleted.getT2() > 0) {
+                        log.info("Inventory ledger retention - {} events and {} snapshots deleted",
+                                deleted.getT1(), deleted.getT2());
+                    }
+                })
+                .then();
+    }
+
+    private Mono<InventorySnapshotEntity> snapshot(Long productId, Long storeId, long toSeq, LocalDateTime settledAt) {
+        return inventoryLedgerAdapter.materializeAt(productId, storeId, toSeq)
+                .flatMap(availableQty -> inventorySnapshotRepository.save(InventorySnapshotEntity.builder()
+                        .productId(productId)
+                        .storeId(storeId)
+                        .availableQty(availableQty)
+                        .lastSeq(toSeq)
+                        .snapshotAt(settledAt)
+                        .build()));
+    }
+
+    private Mono<Long> lastCompactedSeq() {
+        long known = compactedSeq.get();
+        return known >= 0
+                ? Mono.just(known)
+                : inventorySnapshotRepository.findMaxLastSeq().doOnNext(compactedSeq::set);
+    }
+}
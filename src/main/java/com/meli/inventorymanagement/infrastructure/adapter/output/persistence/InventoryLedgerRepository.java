@@ -0,0 +1,46 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventoryLedgerEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface InventoryLedgerRepository extends R2dbcRepository<InventoryLedgerEntity, Long> {
+
+    @Query("SELECT * FROM inventory_ledger " +
+           "WHERE product_id = :productId AND store_id = :storeId AND seq > :afterSeq AND seq <= :upToSeq " +
+           "ORDER BY seq")
+    Flux<InventoryLedgerEntity> findTail(@Param("productId") Long productId,
+                                         @Param("storeId") Long storeId,
+                                         @Param("afterSeq") long afterSeq,
+                                         @Param("upToSeq") long upToSeq);
+
+    @Query("SELECT * FROM inventory_ledger " +
+           "WHERE product_id = :productId AND store_id = :storeId AND seq > :afterSeq AND seq <= :upToSeq " +
+           "AND created_at <= :asOf ORDER BY seq")
+    Flux<InventoryLedgerEntity> findTailAsOf(@Param("productId") Long productId,
+                                             @Param("storeId") Long storeId,
+                                             @Param("afterSeq") long afterSeq,
+                                             @Param("upToSeq") long upToSeq,
+                                             @Param("asOf") LocalDateTime asOf);
+
+    @Query("SELECT COALESCE(MAX(seq), 0) FROM inventory_ledger WHERE created_at < :before")
+    Mono<Long> findMaxSeqCreatedBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Borra los eventos ya incluidos en un snapshot anterior a {@code cutoff} de la misma combinación.
+     */
+    @Modifying
+    @Query("DELETE FROM inventory_ledger l " +
+           "WHERE l.created_at < :cutoff AND l.seq <= (" +
+           "SELECT MAX(s.last_seq) FROM inventory_snapshots s " +
+           "WHERE s.product_id = l.product_id AND s.store_id = l.store_id AND s.snapshot_at < :cutoff)")
+    Mono<Integer> deleteCompactedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
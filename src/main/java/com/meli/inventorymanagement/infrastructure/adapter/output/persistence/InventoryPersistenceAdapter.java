@@ -1,36 +1,130 @@
 package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
 
+import com.meli.inventorymanagement.domain.model.AdjustmentOutcome;
 import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.model.LedgerEvent;
+import com.meli.inventorymanagement.domain.model.Product;
+import com.meli.inventorymanagement.domain.model.StockAdjustment;
+import com.meli.inventorymanagement.domain.model.StockTransfer;
+import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.domain.model.TransferOutcome;
 import com.meli.inventorymanagement.domain.port.InventoryPort;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventoryDetailsEntity;
 import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventoryEntity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class InventoryPersistenceAdapter implements InventoryPort {
 
     private final InventoryRepository inventoryRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final DatabaseClient databaseClient;
+    private final InventoryLedgerAdapter inventoryLedgerAdapter;
+    private final InventoryChangeWatermark inventoryChangeWatermark;
 
     @Override
     public Flux<Inventory> findByProductSku(String sku) {
         return inventoryRepository.findByProductSku(sku)
-                .map(this::toDomain)
+                .map(this::detailsToDomain)
                 .doOnError(error -> log.error("Error finding inventory by SKU {}: {}", sku, error.getMessage()));
     }
 
     @Override
     public Mono<Inventory> findByProductSkuAndStoreId(String sku, Long storeId) {
         return inventoryRepository.findByProductSkuAndStoreId(sku, storeId)
-                .map(this::toDomain)
+                .map(this::detailsToDomain)
                 .doOnError(error -> log.error("Error finding inventory by SKU {} and store {}: {}",
                         sku, storeId, error.getMessage()));
     }
 
+    @Override
+    public Flux<Inventory> findByProductSkus(Collection<String> skus, Collection<Long> storeIds) {
+        if (skus == null || skus.isEmpty()) {
+            return Flux.empty();
+        }
+        Flux<InventoryDetailsEntity> rows = storeIds == null || storeIds.isEmpty()
+                ? inventoryRepository.findByProductSkuIn(skus)
+                : inventoryRepository.findByProductSkuInAndStoreIdIn(skus, storeIds);
+        return rows
+                .map(this::detailsToDomain)
+                .doOnError(error -> log.error("Error finding inventory for {} SKUs: {}", skus.size(), error.getMessage()));
+    }
+
+    @Override
+    public Flux<Inventory> findByStoreId(Long storeId, Long afterProductId, int limit) {
+        // Los ids son positivos: 0 equivale a empezar desde el primer producto
+        return inventoryRepository.findByStoreIdAfterProductId(storeId, afterProductId == null ? 0L : afterProductId, limit)
+                .map(this::detailsToDomain)
+                .doOnError(error -> log.error("Error listing inventory of store {} after product {}: {}",
+                        storeId, afterProductId, error.getMessage()));
+    }
+
+    @Override
+    public Flux<Inventory> findChangedSince(Long storeId, long afterChangeSeq, int limit) {
+        return inventoryChangeWatermark.lowWatermark()
+                .flatMapMany(upTo -> inventoryRepository.findByStoreIdAfterChangeSeq(storeId, afterChangeSeq, upTo, limit))
+                .map(this::detailsToDomain)
+                .doOnError(error -> log.error("Error reading changes of store {} after sequence {}: {}",
+                        storeId, afterChangeSeq, error.getMessage()));
+    }
+
+    @Override
+    public Mono<Long> findLastChangeSeq(Long storeId) {
+        return inventoryRepository.findLastChangeSeqByStoreId(storeId)
+                .defaultIfEmpty(0L);
+    }
+
+    /**
+     * Lee las filas con DatabaseClient y las arma directamente desde el Row, sin el mapeo por
+     * reflexión de la entidad: con decenas de millones de filas es la parte dominante del costo.
+     */
+    @Override
+    public Flux<Inventory> streamAll() {
+        return databaseClient.sql(InventoryRepository.SELECT_DETAILS + "ORDER BY i.store_id, i.product_id")
+                .map((row, metadata) -> Inventory.builder()
+                        .id(row.get("id", Long.class))
+                        .productId(row.get("product_id", Long.class))
+                        .storeId(row.get("store_id", Long.class))
+                        .availableQty(row.get("available_qty", Integer.class))
+                        .reservedQty(row.get("reserved_qty", Integer.class))
+                        .version(row.get("version", Integer.class))
+                        .updatedAt(row.get("updated_at", LocalDateTime.class))
+                        .changeSeq(row.get("change_seq", Long.class))
+                        .product(Product.builder()
+                                .id(row.get("product_id", Long.class))
+                                .sku(row.get("product_sku", String.class))
+                                .name(row.get("product_name", String.class))
+                                .build())
+                        .store(Store.builder()
+                                .id(row.get("store_id", Long.class))
+                                .name(row.get("store_name", String.class))
+                                .build())
+                        .build())
+                .all()
+                .doOnError(error -> log.error("Error streaming inventory: {}", error.getMessage()));
+    }
+
     @Override
     public Mono<Inventory> findByProductIdAndStoreId(Long productId, Long storeId) {
         return inventoryRepository.findByProductIdAndStoreId(productId, storeId)
@@ -47,10 +141,505 @@ public class InventoryPersistenceAdapter implements InventoryPort {
 
         return inventoryRepository.save(toEntity(inventory))
                 .map(this::toDomain)
+                .flatMap(saved -> inventoryLedgerAdapter
+                        .recordSet(saved.getProductId(), saved.getStoreId(), saved.getAvailableQty())
+                        .thenReturn(saved))
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
                 .doOnSuccess(saved -> log.debug("Saved inventory with ID: {}", saved.getId()))
                 .doOnError(error -> log.error("Error saving inventory: {}", error.getMessage()));
     }
 
+    @Override
+    public Mono<Inventory> adjustAvailableQty(String sku, Long storeId, int delta) {
+        // El UPDATE condicional y la relectura comparten transacción: el lock de fila
+        // garantiza que se devuelve exactamente el estado que dejó esta sentencia
+        return inventoryRepository.adjustAvailableQty(sku, storeId, delta)
+                .flatMap(updatedRows -> updatedRows > 0
+                        ? inventoryRepository.findByProductSkuAndStoreId(sku, storeId).map(this::detailsToDomain)
+                        : Mono.empty())
+                .flatMap(adjusted -> inventoryLedgerAdapter.recordDelta(adjusted.getProductId(), storeId, delta)
+                        .thenReturn(adjusted))
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
+                .doOnError(error -> log.error("Error adjusting inventory for SKU {} and store {} by {}: {}",
+                        sku, storeId, delta, error.getMessage()));
+    }
+
+    @Override
+    public Mono<List<AdjustmentOutcome>> adjustAvailableQtyInSequence(String sku, Long storeId, List<Integer> adjustments) {
+        return inventoryRepository.findByProductSkuAndStoreIdForUpdate(sku, storeId)
+                .flatMap(locked -> {
+                    int quantity = locked.getAvailableQty();
+                    int[] previous = new int[adjustments.size()];
+                    boolean[] applied = new boolean[adjustments.size()];
+                    boolean anyApplied = false;
+
+                    for (int i = 0; i < adjustments.size(); i++) {
+                        previous[i] = quantity;
+                        if (withinSellable(quantity, locked.getReservedQty(), adjustments.get(i))) {
+                            quantity += adjustments.get(i);
+                            applied[i] = true;
+                            anyApplied = true;
+                        }
+                    }
+
+                    List<LedgerEvent> events = new ArrayList<>();
+                    for (int i = 0; i < adjustments.size(); i++) {
+                        if (applied[i]) {
+                            events.add(InventoryLedgerAdapter.event(locked.getProductId(), storeId,
+                                    LedgerEvent.Type.DELTA, adjustments.get(i)));
+                        }
+                    }
+
+                    Mono<Integer> write = anyApplied
+                            ? inventoryRepository.updateAvailableQty(locked.getId(), quantity)
+                                    .flatMap(updated -> inventoryLedgerAdapter.append(events).thenReturn(updated))
+                            : Mono.just(0);
+
+                    return write
+                            .then(inventoryRepository.findByProductSkuAndStoreId(sku, storeId))
+                            .map(this::detailsToDomain)
+                            .map(current -> toOutcomes(adjustments, previous, applied, current));
+                })
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
+                .doOnError(error -> log.error("Error applying {} combined adjustments for SKU {} and store {}: {}",
+                        adjustments.size(), sku, storeId, error.getMessage()));
+    }
+
+    @Override
+    public Mono<List<AdjustmentOutcome>> adjustAvailableQtyBatch(List<StockAdjustment> adjustments) {
+        if (adjustments.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        // Orden estable por (producto, tienda): los locks de fila se toman siempre en el mismo
+        // orden entre lotes concurrentes y las deltas de una misma fila conservan su orden
+        List<Integer> order = IntStream.range(0, adjustments.size()).boxed()
+                .sorted(Comparator.comparing((Integer i) -> adjustments.get(i).getProductId())
+                        .thenComparing(i -> adjustments.get(i).getStoreId()))
+                .toList();
+
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(
+                            "UPDATE inventory SET available_qty = available_qty + $1, version = version + 1, " +
+                            "updated_at = CURRENT_TIMESTAMP " +
+                            "WHERE product_id = $2 AND store_id = $3 AND ($4 >= 0 OR available_qty - reserved_qty + $4 >= 0)");
+                    for (int position = 0; position < order.size(); position++) {
+                        StockAdjustment adjustment = adjustments.get(order.get(position));
+                        if (position > 0) {
+                            statement.add();
+                        }
+                        statement.bind(0, adjustment.getDelta())
+                                .bind(1, adjustment.getProductId())
+                                .bind(2, adjustment.getStoreId())
+                                .bind(3, adjustment.getDelta());
+                    }
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> Mono.from(result.getRowsUpdated()));
+                })
+                .collectList()
+                .flatMap(updatedRows -> {
+                    Set<Long> productIds = new LinkedHashSet<>();
+                    Set<Long> storeIds = new LinkedHashSet<>();
+                    adjustments.forEach(adjustment -> {
+                        productIds.add(adjustment.getProductId());
+                        storeIds.add(adjustment.getStoreId());
+                    });
+
+                    return inventoryRepository.findByProductIdInAndStoreIdIn(productIds, storeIds)
+                            .map(this::toDomain)
+                            .collectMap(inventory -> batchKey(inventory.getProductId(), inventory.getStoreId()))
+                            .flatMap(current -> {
+                                List<AdjustmentOutcome> outcomes = toBatchOutcomes(adjustments, order, updatedRows, current);
+                                List<LedgerEvent> events = new ArrayList<>();
+                                for (int position = 0; position < order.size(); position++) {
+                                    if (updatedRows.get(position) > 0) {
+                                        StockAdjustment applied = adjustments.get(order.get(position));
+                                        events.add(InventoryLedgerAdapter.event(applied.getProductId(),
+                                                applied.getStoreId(), LedgerEvent.Type.DELTA, applied.getDelta()));
+                                    }
+                                }
+                                return inventoryLedgerAdapter.append(events).thenReturn(outcomes);
+                            });
+                })
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
+                .doOnError(error -> log.error("Error applying batch of {} adjustments: {}",
+                        adjustments.size(), error.getMessage()));
+    }
+
+    @Override
+    public Mono<List<AdjustmentOutcome>> adjustAvailableQtyAllOrNothing(List<StockAdjustment> adjustments) {
+        if (adjustments.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        return lockRows(adjustments)
+                .flatMap(locked -> {
+                    int[] previous = new int[adjustments.size()];
+                    Map<String, Integer> running = new HashMap<>();
+                    boolean sufficient = true;
+
+                    for (int i = 0; i < adjustments.size(); i++) {
+                        StockAdjustment adjustment = adjustments.get(i);
+                        String key = batchKey(adjustment.getProductId(), adjustment.getStoreId());
+                        Inventory row = locked.get(key);
+                        if (row == null) {
+                            sufficient = false;
+                            continue;
+                        }
+                        previous[i] = running.getOrDefault(key, row.getAvailableQty());
+                        sufficient &= withinSellable(previous[i], row.getReservedQty(), adjustment.getDelta());
+                        running.put(key, previous[i] + adjustment.getDelta());
+                    }
+
+                    if (!sufficient) {
+                        return Mono.just(toAllOrNothingOutcomes(adjustments, previous, false, locked));
+                    }
+
+                    LocalDateTime now = LocalDateTime.now();
+                    List<Inventory> updated = new ArrayList<>(locked.size());
+                    locked.forEach((key, row) -> {
+                        row.setAvailableQty(running.get(key));
+                        row.setVersion(row.getVersion() + 1);
+                        row.setUpdatedAt(now);
+                        updated.add(row);
+                    });
+                    List<LedgerEvent> events = adjustments.stream()
+                            .map(adjustment -> InventoryLedgerAdapter.event(adjustment.getProductId(),
+                                    adjustment.getStoreId(), LedgerEvent.Type.DELTA, adjustment.getDelta()))
+                            .toList();
+
+                    return updateRows(updated)
+                            .then(inventoryLedgerAdapter.append(events))
+                            .thenReturn(toAllOrNothingOutcomes(adjustments, previous, true, locked));
+                })
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
+                .doOnError(error -> log.error("Error applying all-or-nothing batch of {} adjustments: {}",
+                        adjustments.size(), error.getMessage()));
+    }
+
+    @Override
+    public Mono<List<TransferOutcome>> transfer(List<StockTransfer> transfers) {
+        if (transfers.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        List<StockAdjustment> legs = new ArrayList<>(transfers.size() * 2);
+        transfers.forEach(transfer -> {
+            legs.add(StockAdjustment.builder()
+                    .productId(transfer.getProductId())
+                    .storeId(transfer.getFromStoreId())
+                    .delta(-transfer.getQuantity())
+                    .build());
+            legs.add(StockAdjustment.builder()
+                    .productId(transfer.getProductId())
+                    .storeId(transfer.getToStoreId())
+                    .delta(transfer.getQuantity())
+                    .build());
+        });
+
+        return lockRows(legs)
+                .flatMap(locked -> {
+                    Map<String, Inventory> current = new HashMap<>();
+                    locked.forEach((key, row) -> current.put(key, withQuantity(row, row.getAvailableQty())));
+                    Set<String> touched = new LinkedHashSet<>();
+                    List<LedgerEvent> events = new ArrayList<>();
+                    List<TransferOutcome> outcomes = new ArrayList<>(transfers.size());
+
+                    for (StockTransfer transfer : transfers) {
+                        String sourceKey = batchKey(transfer.getProductId(), transfer.getFromStoreId());
+                        String destinationKey = batchKey(transfer.getProductId(), transfer.getToStoreId());
+                        Inventory source = current.get(sourceKey);
+                        Inventory destination = current.get(destinationKey);
+                        Integer previousSourceQty = source == null ? null : source.getAvailableQty();
+                        boolean applied = source != null && destination != null
+                                && !sourceKey.equals(destinationKey)
+                                && withinSellable(source.getAvailableQty(), source.getReservedQty(), -transfer.getQuantity());
+
+                        if (applied) {
+                            source.setAvailableQty(source.getAvailableQty() - transfer.getQuantity());
+                            destination.setAvailableQty(destination.getAvailableQty() + transfer.getQuantity());
+                            touched.add(sourceKey);
+                            touched.add(destinationKey);
+                            events.add(InventoryLedgerAdapter.event(transfer.getProductId(), transfer.getFromStoreId(),
+                                    LedgerEvent.Type.DELTA, -transfer.getQuantity()));
+                            events.add(InventoryLedgerAdapter.event(transfer.getProductId(), transfer.getToStoreId(),
+                                    LedgerEvent.Type.DELTA, transfer.getQuantity()));
+                        }
+                        outcomes.add(TransferOutcome.builder()
+                                .applied(applied)
+                                .previousSourceQty(previousSourceQty)
+                                .source(source == null ? null : withQuantity(source, source.getAvailableQty()))
+                                .destination(destination == null ? null
+                                        : withQuantity(destination, destination.getAvailableQty()))
+                                .build());
+                    }
+
+                    if (touched.isEmpty()) {
+                        return Mono.just(outcomes);
+                    }
+
+                    // Una sola escritura por fila con su estado final; cada resultado refleja la versión escrita
+                    LocalDateTime now = LocalDateTime.now();
+                    List<Inventory> updated = new ArrayList<>(touched.size());
+                    for (String key : touched) {
+                        Inventory row = current.get(key);
+                        row.setVersion(row.getVersion() + 1);
+                        row.setUpdatedAt(now);
+                        updated.add(row);
+                    }
+                    outcomes.forEach(outcome -> {
+                        if (outcome.isApplied()) {
+                            stamp(outcome.getSource(), current);
+                            stamp(outcome.getDestination(), current);
+                        }
+                    });
+
+                    return updateRows(updated)
+                            .then(inventoryLedgerAdapter.append(events))
+                            .thenReturn(outcomes);
+                })
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
+                .doOnError(error -> log.error("Error applying {} stock transfers: {}",
+                        transfers.size(), error.getMessage()));
+    }
+
+    public Flux<Inventory> findAll() {
+        return inventoryRepository.findAll()
+                .map(this::toDomain)
+                .doOnError(error -> log.error("Error loading all inventory: {}", error.getMessage()));
+    }
+
+    /**
+     * Persiste cantidad, versión y fecha de varias filas existentes con un UPDATE ejecutado en
+     * lote dentro de una transacción. Cada fila sólo se escribe si la base sigue en la versión
+     * esperada de su posición; las demás no se tocan y se devuelven releídas de la base. Cada
+     * fila escrita que informe producto y tienda registra un SET en el ledger con su fecha de
+     * actualización, que es cuando se aceptó la escritura.
+     */
+    public Mono<List<Inventory>> writeQuantities(List<Inventory> rows, int[] expectedVersions) {
+        if (rows.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(
+                            "UPDATE inventory SET available_qty = $1, version = $2, updated_at = $3 " +
+                            "WHERE id = $4 AND version = $5");
+                    for (int i = 0; i < rows.size(); i++) {
+                        Inventory row = rows.get(i);
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        statement.bind(0, row.getAvailableQty())
+                                .bind(1, row.getVersion())
+                                .bind(2, row.getUpdatedAt())
+                                .bind(3, row.getId())
+                                .bind(4, expectedVersions[i]);
+                    }
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> Mono.from(result.getRowsUpdated()));
+                })
+                .collectList()
+                .flatMap(updatedRows -> {
+                    List<LedgerEvent> events = new ArrayList<>();
+                    List<Long> conflicts = new ArrayList<>();
+                    for (int i = 0; i < rows.size(); i++) {
+                        Inventory row = rows.get(i);
+                        if (updatedRows.get(i) == 0) {
+                            conflicts.add(row.getId());
+                        } else if (row.getProductId() != null && row.getStoreId() != null) {
+                            events.add(InventoryLedgerAdapter.event(row.getProductId(), row.getStoreId(),
+                                    LedgerEvent.Type.SET, row.getAvailableQty(), row.getUpdatedAt()));
+                        }
+                    }
+
+                    Mono<List<Inventory>> current = conflicts.isEmpty()
+                            ? Mono.just(List.of())
+                            : inventoryRepository.findAllById(conflicts).map(this::toDomain).collectList();
+                    return inventoryLedgerAdapter.append(events).then(current);
+                })
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
+                .doOnError(error -> log.error("Error writing {} inventory rows: {}", rows.size(), error.getMessage()));
+    }
+
+    /**
+     * Bloquea las filas de las deltas con un SELECT ... FOR UPDATE por fila distinta, ejecutados
+     * en lote en orden (producto, tienda): el mismo orden que usa adjustAvailableQtyBatch, de modo
+     * que ninguna pareja de operaciones puede esperar locks en sentido inverso. Las filas
+     * inexistentes no figuran en el resultado.
+     */
+    private Mono<Map<String, Inventory>> lockRows(List<StockAdjustment> adjustments) {
+        List<StockAdjustment> rowsToLock = adjustments.stream()
+                .collect(Collectors.toMap(adjustment -> batchKey(adjustment.getProductId(), adjustment.getStoreId()),
+                        adjustment -> adjustment, (first, second) -> first))
+                .values().stream()
+                .sorted(Comparator.comparing(StockAdjustment::getProductId).thenComparing(StockAdjustment::getStoreId))
+                .toList();
+
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(
+                            "SELECT id, product_id, store_id, available_qty, reserved_qty, version, updated_at FROM inventory " +
+                            "WHERE product_id = $1 AND store_id = $2 FOR UPDATE");
+                    for (int i = 0; i < rowsToLock.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        statement.bind(0, rowsToLock.get(i).getProductId())
+                                .bind(1, rowsToLock.get(i).getStoreId());
+                    }
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> result.map((row, metadata) -> Inventory.builder()
+                                    .id(row.get("id", Long.class))
+                                    .productId(row.get("product_id", Long.class))
+                                    .storeId(row.get("store_id", Long.class))
+                                    .availableQty(row.get("available_qty", Integer.class))
+                                    .reservedQty(row.get("reserved_qty", Integer.class))
+                                    .version(row.get("version", Integer.class))
+                                    .updatedAt(row.get("updated_at", LocalDateTime.class))
+                                    .build()));
+                })
+                .collectMap(inventory -> batchKey(inventory.getProductId(), inventory.getStoreId()));
+    }
+
+    /**
+     * UPDATE en lote de cantidad, versión y fecha absolutas por id. Devuelve las filas actualizadas.
+     */
+    private Mono<Long> updateRows(List<Inventory> rows) {
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(
+                            "UPDATE inventory SET available_qty = $1, version = $2, updated_at = $3 WHERE id = $4");
+                    for (int i = 0; i < rows.size(); i++) {
+                        Inventory row = rows.get(i);
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        statement.bind(0, row.getAvailableQty())
+                                .bind(1, row.getVersion())
+                                .bind(2, row.getUpdatedAt())
+                                .bind(3, row.getId());
+                    }
+                    return Flux.from(statement.execute())
+                            .flatMap(result -> Mono.from(result.getRowsUpdated()));
+                })
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Con las filas bloqueadas ya en su estado final (o intactas si se rechazó), cada delta
+     * informa el stock previo acumulado y el resultante; el inventario es nulo si la fila no existe.
+     */
+    private List<AdjustmentOutcome> toAllOrNothingOutcomes(List<StockAdjustment> adjustments, int[] previous,
+                                                           boolean applied, Map<String, Inventory> locked) {
+        List<AdjustmentOutcome> outcomes = new ArrayList<>(adjustments.size());
+        for (int i = 0; i < adjustments.size(); i++) {
+            StockAdjustment adjustment = adjustments.get(i);
+            Inventory row = locked.get(batchKey(adjustment.getProductId(), adjustment.getStoreId()));
+            outcomes.add(AdjustmentOutcome.builder()
+                    .adjustment(adjustment.getDelta())
+                    .applied(applied)
+                    .previousQty(row == null ? null : previous[i])
+                    .inventory(row == null ? null
+                            : withQuantity(row, applied ? previous[i] + adjustment.getDelta() : row.getAvailableQty()))
+                    .build());
+        }
+        return outcomes;
+    }
+
+    private List<AdjustmentOutcome> toOutcomes(List<Integer> adjustments, int[] previous, boolean[] applied,
+                                               Inventory current) {
+        List<AdjustmentOutcome> outcomes = new ArrayList<>(adjustments.size());
+        for (int i = 0; i < adjustments.size(); i++) {
+            int quantity = applied[i] ? previous[i] + adjustments.get(i) : previous[i];
+            outcomes.add(AdjustmentOutcome.builder()
+                    .adjustment(adjustments.get(i))
+                    .applied(applied[i])
+                    .previousQty(previous[i])
+                    .inventory(withQuantity(current, quantity))
+                    .build());
+        }
+        return outcomes;
+    }
+
+    /**
+     * Reconstruye el estado tras cada delta a partir del estado final de cada fila, recorriendo
+     * las deltas aplicadas de atrás hacia adelante. Es exacto porque las filas siguen bloqueadas
+     * por la transacción del lote.
+     */
+    private List<AdjustmentOutcome> toBatchOutcomes(List<StockAdjustment> adjustments, List<Integer> order,
+                                                    List<Long> updatedRows, Map<String, Inventory> current) {
+        AdjustmentOutcome[] outcomes = new AdjustmentOutcome[adjustments.size()];
+        Map<String, int[]> running = new HashMap<>();
+
+        for (int position = order.size() - 1; position >= 0; position--) {
+            int index = order.get(position);
+            StockAdjustment adjustment = adjustments.get(index);
+            String key = batchKey(adjustment.getProductId(), adjustment.getStoreId());
+            Inventory row = current.get(key);
+            if (row == null) {
+                outcomes[index] = AdjustmentOutcome.builder()
+                        .adjustment(adjustment.getDelta())
+                        .applied(false)
+                        .build();
+                continue;
+            }
+
+            // [cantidad, versión] vigentes justo después de la delta en curso
+            int[] state = running.computeIfAbsent(key, k -> new int[]{row.getAvailableQty(), row.getVersion()});
+            boolean applied = updatedRows.get(position) > 0;
+            Inventory after = withQuantity(row, state[0]);
+            after.setVersion(state[1]);
+            if (applied) {
+                state[0] -= adjustment.getDelta();
+                state[1]--;
+            }
+            outcomes[index] = AdjustmentOutcome.builder()
+                    .adjustment(adjustment.getDelta())
+                    .applied(applied)
+                    .previousQty(state[0])
+                    .inventory(after)
+                    .build();
+        }
+        return List.of(outcomes);
+    }
+
+    private static void stamp(Inventory inventory, Map<String, Inventory> current) {
+        Inventory written = current.get(batchKey(inventory.getProductId(), inventory.getStoreId()));
+        inventory.setVersion(written.getVersion());
+        inventory.setUpdatedAt(written.getUpdatedAt());
+    }
+
+    /**
+     * Los incrementos siempre se aceptan; un descuento no puede consumir unidades reservadas.
+     */
+    private static boolean withinSellable(int availableQty, int reservedQty, int delta) {
+        return delta >= 0 || availableQty - reservedQty + delta >= 0;
+    }
+
+    private static String batchKey(Long productId, Long storeId) {
+        return productId + ":" + storeId;
+    }
+
+    private Inventory withQuantity(Inventory inventory, int availableQty) {
+        return Inventory.builder()
+                .id(inventory.getId())
+                .productId(inventory.getProductId())
+                .storeId(inventory.getStoreId())
+                .availableQty(availableQty)
+                .reservedQty(inventory.getReservedQty())
+                .version(inventory.getVersion())
+                .updatedAt(inventory.getUpdatedAt())
+                .product(inventory.getProduct())
+                .store(inventory.getStore())
+                .build();
+    }
+
     private Inventory toDomain(InventoryEntity entity) {
         if (entity == null) {
             return null;
@@ -61,11 +650,38 @@ public class InventoryPersistenceAdapter implements InventoryPort {
                 .productId(entity.getProductId())
                 .storeId(entity.getStoreId())
                 .availableQty(entity.getAvailableQty())
+                .reservedQty(entity.getReservedQty())
                 .version(entity.getVersion())
                 .updatedAt(entity.getUpdatedAt())
                 .build();
     }
 
+    private Inventory detailsToDomain(InventoryDetailsEntity details) {
+        if (details == null) {
+            return null;
+        }
+
+        return Inventory.builder()
+                .id(details.getId())
+                .productId(details.getProductId())
+                .storeId(details.getStoreId())
+                .availableQty(details.getAvailableQty())
+                .reservedQty(details.getReservedQty())
+                .version(details.getVersion())
+                .updatedAt(details.getUpdatedAt())
+                .changeSeq(details.getChangeSeq())
+                .product(Product.builder()
+                        .id(details.getProductId())
+                        .sku(details.getProductSku())
+                        .name(details.getProductName())
+                        .build())
+                .store(Store.builder()
+                        .id(details.getStoreId())
+                        .name(details.getStoreName())
+                        .build())
+                .build();
+    }
+
     private InventoryEntity toEntity(Inventory domain) {
         if (domain == null) {
             return null;
@@ -76,6 +692,7 @@ public class InventoryPersistenceAdapter implements InventoryPort {
                 .productId(domain.getProductId())
                 .storeId(domain.getStoreId())
                 .availableQty(domain.getAvailableQty())
+                .reservedQty(domain.getReservedQty())
                 .version(domain.getVersion())
                 .updatedAt(domain.getUpdatedAt())
                 .build();
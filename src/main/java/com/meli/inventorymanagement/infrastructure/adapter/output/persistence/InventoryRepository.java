@@ -1,6 +1,8 @@
 package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
 
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventoryDetailsEntity;
 import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventoryEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.data.repository.query.Param;
@@ -8,20 +10,96 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
 public interface InventoryRepository extends R2dbcRepository<InventoryEntity, Long> {
 
-    @Query("SELECT i.* FROM inventory i " +
+    String SELECT_DETAILS = "SELECT i.id, i.product_id, p.sku AS product_sku, p.name AS product_name, " +
+           "i.store_id, s.name AS store_name, i.available_qty, i.reserved_qty, i.version, i.updated_at, i.change_seq " +
+           "FROM inventory i " +
            "JOIN products p ON i.product_id = p.id " +
+           "JOIN stores s ON i.store_id = s.id ";
+
+    @Query(SELECT_DETAILS +
            "WHERE p.sku = :sku")
-    Flux<InventoryEntity> findByProductSku(@Param("sku") String sku);
+    Flux<InventoryDetailsEntity> findByProductSku(@Param("sku") String sku);
 
-    @Query("SELECT i.* FROM inventory i " +
-           "JOIN products p ON i.product_id = p.id " +
+    @Query(SELECT_DETAILS +
            "WHERE p.sku = :sku AND i.store_id = :storeId")
-    Mono<InventoryEntity> findByProductSkuAndStoreId(@Param("sku") String sku, @Param("storeId") Long storeId);
+    Mono<InventoryDetailsEntity> findByProductSkuAndStoreId(@Param("sku") String sku, @Param("storeId") Long storeId);
+
+    @Query(SELECT_DETAILS +
+           "WHERE p.sku IN (:skus) " +
+           "ORDER BY p.sku, i.store_id")
+    Flux<InventoryDetailsEntity> findByProductSkuIn(@Param("skus") Collection<String> skus);
+
+    @Query(SELECT_DETAILS +
+           "WHERE p.sku IN (:skus) AND i.store_id IN (:storeIds) " +
+           "ORDER BY p.sku, i.store_id")
+    Flux<InventoryDetailsEntity> findByProductSkuInAndStoreIdIn(@Param("skus") Collection<String> skus,
+                                                                @Param("storeIds") Collection<Long> storeIds);
+
+    @Query(SELECT_DETAILS +
+           "WHERE i.store_id = :storeId AND i.product_id > :afterProductId " +
+           "ORDER BY i.product_id " +
+           "LIMIT :limit")
+    Flux<InventoryDetailsEntity> findByStoreIdAfterProductId(@Param("storeId") Long storeId,
+                                                             @Param("afterProductId") Long afterProductId,
+                                                             @Param("limit") int limit);
+
+    @Query(SELECT_DETAILS +
+           "WHERE i.store_id = :storeId AND i.change_seq > :afterChangeSeq AND i.change_seq <= :upToChangeSeq " +
+           "ORDER BY i.change_seq " +
+           "LIMIT :limit")
+    Flux<InventoryDetailsEntity> findByStoreIdAfterChangeSeq(@Param("storeId") Long storeId,
+                                                             @Param("afterChangeSeq") Long afterChangeSeq,
+                                                             @Param("upToChangeSeq") Long upToChangeSeq,
+                                                             @Param("limit") int limit);
+
+    @Query("SELECT MAX(i.change_seq) FROM inventory i WHERE i.store_id = :storeId")
+    Mono<Long> findLastChangeSeqByStoreId(@Param("storeId") Long storeId);
 
     @Query("SELECT i.* FROM inventory i " +
            "WHERE i.product_id = :productId AND i.store_id = :storeId")
     Mono<InventoryEntity> findByProductIdAndStoreId(@Param("productId") Long productId, @Param("storeId") Long storeId);
+
+    Flux<InventoryEntity> findByProductIdInAndStoreIdIn(Collection<Long> productIds, Collection<Long> storeIds);
+
+    @Modifying
+    @Query("UPDATE inventory SET available_qty = available_qty + :delta, version = version + 1, " +
+           "updated_at = CURRENT_TIMESTAMP " +
+           "WHERE product_id = (SELECT p.id FROM products p WHERE p.sku = :sku) AND store_id = :storeId " +
+           "AND (:delta >= 0 OR available_qty - reserved_qty + :delta >= 0)")
+    Mono<Integer> adjustAvailableQty(@Param("sku") String sku, @Param("storeId") Long storeId, @Param("delta") int delta);
+
+    @Query("SELECT i.* FROM inventory i " +
+           "WHERE i.product_id = (SELECT p.id FROM products p WHERE p.sku = :sku) AND i.store_id = :storeId " +
+           "FOR UPDATE")
+    Mono<InventoryEntity> findByProductSkuAndStoreIdForUpdate(@Param("sku") String sku, @Param("storeId") Long storeId);
+
+    @Modifying
+    @Query("UPDATE inventory SET available_qty = :availableQty, version = version + 1, " +
+           "updated_at = CURRENT_TIMESTAMP WHERE id = :id")
+    Mono<Integer> updateAvailableQty(@Param("id") Long id, @Param("availableQty") int availableQty);
+
+    @Modifying
+    @Query("UPDATE inventory SET reserved_qty = reserved_qty + :quantity, version = version + 1, " +
+           "updated_at = CURRENT_TIMESTAMP " +
+           "WHERE product_id = :productId AND store_id = :storeId AND available_qty - reserved_qty >= :quantity")
+    Mono<Integer> reserve(@Param("productId") Long productId, @Param("storeId") Long storeId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE inventory SET reserved_qty = reserved_qty - :quantity, version = version + 1, " +
+           "updated_at = CURRENT_TIMESTAMP WHERE product_id = :productId AND store_id = :storeId")
+    Mono<Integer> releaseReserved(@Param("productId") Long productId, @Param("storeId") Long storeId, @Param("quantity") int quantity);
+
+    /**
+     * Descuenta del disponible y de lo reservado; 0 filas si la fila ya no cubre la reserva.
+     */
+    @Modifying
+    @Query("UPDATE inventory SET available_qty = available_qty - :quantity, reserved_qty = reserved_qty - :quantity, " +
+           "version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE product_id = :productId AND store_id = :storeId " +
+           "AND available_qty >= :quantity AND reserved_qty >= :quantity")
+    Mono<Integer> commitReserved(@Param("productId") Long productId, @Param("storeId") Long storeId, @Param("quantity") int quantity);
 }
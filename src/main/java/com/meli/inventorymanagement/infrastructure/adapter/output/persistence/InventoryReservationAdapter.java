@@ -0,0 +1,129 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.Reservation;
+import com.meli.inventorymanagement.domain.port.InventoryReservationPort;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventoryReservationEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reservas sobre la tabla inventory: la fila de la reserva y el contador reserved_qty cambian
+ * siempre en la misma transacción. Al confirmar se registra el descuento en el ledger.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryReservationAdapter implements InventoryReservationPort {
+
+    private final InventoryReservationRepository inventoryReservationRepository;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryLedgerAdapter inventoryLedgerAdapter;
+    private final TransactionalOperator transactionalOperator;
+    private final InventoryChangeWatermark inventoryChangeWatermark;
+
+    @Override
+    public Mono<Reservation> reserve(Long productId, Long storeId, int quantity, LocalDateTime expiresAt) {
+        Reservation reservation = Reservation.builder()
+                .id(UUID.randomUUID().toString())
+                .productId(productId)
+                .storeId(storeId)
+                .quantity(quantity)
+                .status(Reservation.Status.HELD)
+                .createdAt(LocalDateTime.now())
+                .expiresAt(expiresAt)
+                .build();
+
+        return inventoryRepository.reserve(productId, storeId, quantity)
+                .flatMap(updatedRows -> updatedRows > 0
+                        ? inventoryReservationRepository.insertHeld(reservation.getId(), productId, storeId, quantity,
+                                reservation.getCreatedAt(), expiresAt).thenReturn(reservation)
+                        : Mono.<Reservation>empty())
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
+                .doOnError(error -> log.error("Error reserving {} units of product {} in store {}: {}",
+                        quantity, productId, storeId, error.getMessage()));
+    }
+
+    @Override
+    public Mono<Reservation> confirm(String reservationId) {
+        return close(reservationId, Reservation.Status.CONFIRMED);
+    }
+
+    @Override
+    public Mono<Reservation> release(String reservationId, Reservation.Status status) {
+        if (status != Reservation.Status.RELEASED && status != Reservation.Status.EXPIRED) {
+            return Mono.error(new IllegalArgumentException("Release status must be RELEASED or EXPIRED"));
+        }
+        return close(reservationId, status);
+    }
+
+    @Override
+    public Mono<Reservation> findById(String reservationId) {
+        return inventoryReservationRepository.findById(reservationId)
+                .map(this::toDomain);
+    }
+
+    @Override
+    public Flux<Reservation> findHeld() {
+        return inventoryReservationRepository.findByStatus(Reservation.Status.HELD.name())
+                .map(this::toDomain);
+    }
+
+    private Mono<Reservation> close(String reservationId, Reservation.Status status) {
+        return inventoryReservationRepository.findById(reservationId)
+                .map(this::toDomain)
+                .flatMap(reservation -> inventoryReservationRepository.closeHeld(reservationId, status.name())
+                        .flatMap(closedRows -> {
+                            if (closedRows == 0) {
+                                return Mono.<Reservation>empty();
+                            }
+                            reservation.setStatus(status);
+                            Mono<Void> write = status == Reservation.Status.CONFIRMED
+                                    ? inventoryRepository.commitReserved(reservation.getProductId(),
+                                                    reservation.getStoreId(), reservation.getQuantity())
+                                            .flatMap(updatedRows -> updatedRows > 0
+                                                    ? inventoryLedgerAdapter.recordDelta(reservation.getProductId(),
+                                                            reservation.getStoreId(), -reservation.getQuantity())
+                                                    : Mono.error(notCovered(reservation)))
+                                    : inventoryRepository.releaseReserved(reservation.getProductId(),
+                                                    reservation.getStoreId(), reservation.getQuantity())
+                                            .then();
+                            return write.thenReturn(reservation);
+                        }))
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
+                .doOnError(error -> log.error("Error closing reservation {} as {}: {}",
+                        reservationId, status, error.getMessage()));
+    }
+
+    /**
+     * El error revierte también el cierre de la reserva, que sigue HELD hasta vencer o liberarse.
+     */
+    private BusinessException notCovered(Reservation reservation) {
+        return new BusinessException(ErrorCode.RESERVATION_NOT_ACTIVE,
+                String.format("Reservation %s can no longer be confirmed: inventory of product %d in store %d " +
+                        "does not cover %d reserved units", reservation.getId(), reservation.getProductId(),
+                        reservation.getStoreId(), reservation.getQuantity()));
+    }
+
+    private Reservation toDomain(InventoryReservationEntity entity) {
+        return Reservation.builder()
+                .id(entity.getId())
+                .productId(entity.getProductId())
+                .storeId(entity.getStoreId())
+                .quantity(entity.getQuantity())
+                .status(Reservation.Status.valueOf(entity.getStatus()))
+                .createdAt(entity.getCreatedAt())
+                .expiresAt(entity.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventoryReservationEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface InventoryReservationRepository extends R2dbcRepository<InventoryReservationEntity, String> {
+
+    // El id lo asigna la aplicación: save() lo trataría como UPDATE de una fila existente
+    @Modifying
+    @Query("INSERT INTO inventory_reservations (id, product_id, store_id, quantity, status, created_at, expires_at) " +
+           "VALUES (:id, :productId, :storeId, :quantity, 'HELD', :createdAt, :expiresAt)")
+    Mono<Integer> insertHeld(@Param("id") String id,
+                             @Param("productId") Long productId,
+                             @Param("storeId") Long storeId,
+                             @Param("quantity") int quantity,
+                             @Param("createdAt") LocalDateTime createdAt,
+                             @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Cierra la reserva sólo si sigue vigente: confirmación, liberación y vencimiento compiten
+     * por esta misma transición y sólo una la gana.
+     */
+    @Modifying
+    @Query("UPDATE inventory_reservations SET status = :status WHERE id = :id AND status = 'HELD'")
+    Mono<Integer> closeHeld(@Param("id") String id, @Param("status") String status);
+
+    Flux<InventoryReservationEntity> findByStatus(String status);
+}
@@ -0,0 +1,51 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventorySnapshotEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface InventorySnapshotRepository extends R2dbcRepository<InventorySnapshotEntity, Long> {
+
+    @Query("SELECT * FROM inventory_snapshots " +
+           "WHERE product_id = :productId AND store_id = :storeId AND last_seq <= :upToSeq " +
+           "ORDER BY last_seq DESC LIMIT 1")
+    Mono<InventorySnapshotEntity> findLatest(@Param("productId") Long productId,
+                                             @Param("storeId") Long storeId,
+                                             @Param("upToSeq") long upToSeq);
+
+    @Query("SELECT * FROM inventory_snapshots " +
+           "WHERE product_id = :productId AND store_id = :storeId AND snapshot_at <= :asOf " +
+           "ORDER BY snapshot_at DESC LIMIT 1")
+    Mono<InventorySnapshotEntity> findLatestAt(@Param("productId") Long productId,
+                                               @Param("storeId") Long storeId,
+                                               @Param("asOf") LocalDateTime asOf);
+
+    @Query("SELECT * FROM inventory_snapshots " +
+           "WHERE product_id = :productId AND store_id = :storeId AND snapshot_at > :asOf " +
+           "ORDER BY snapshot_at LIMIT 1")
+    Mono<InventorySnapshotEntity> findFirstAfter(@Param("productId") Long productId,
+                                                 @Param("storeId") Long storeId,
+                                                 @Param("asOf") LocalDateTime asOf);
+
+    @Query("SELECT COALESCE(MAX(last_seq), 0) FROM inventory_snapshots")
+    Mono<Long> findMaxLastSeq();
+
+    /**
+     * Borra los snapshots anteriores a {@code cutoff} salvo el más reciente de cada combinación,
+     * que sigue siendo la base para materializar el stock.
+     */
+    @Modifying
+    @Query("DELETE FROM inventory_snapshots s " +
+           "WHERE s.snapshot_at < :cutoff AND EXISTS (" +
+           "SELECT 1 FROM inventory_snapshots n " +
+           "WHERE n.product_id = s.product_id AND n.store_id = s.store_id " +
+           "AND n.snapshot_at < :cutoff AND n.last_seq > s.last_seq)")
+    Mono<Integer> deleteSupersededBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -6,8 +6,11 @@ import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.en
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -37,6 +40,17 @@ public class ProductPersistenceAdapter implements ProductPort {
                 .doOnError(error -> log.error("Error finding product by SKU {}: {}", sku, error.getMessage()));
     }
 
+    @Override
+    public Flux<Product> findBySkus(Collection<String> skus) {
+        if (skus == null || skus.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return productRepository.findBySkuIn(skus)
+                .map(this::toDomain)
+                .doOnError(error -> log.error("Error finding {} products by SKU: {}", skus.size(), error.getMessage()));
+    }
+
     private Product toDomain(ProductEntity entity) {
         if (entity == null) {
             return null;
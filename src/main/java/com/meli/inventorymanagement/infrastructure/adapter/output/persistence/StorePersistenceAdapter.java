@@ -6,8 +6,11 @@ import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.en
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -37,6 +40,21 @@ public class StorePersistenceAdapter implements StorePort {
                 .onErrorReturn(false);
     }
 
+    @Override
+    public Flux<Store> findAll() {
+        return storeRepository.findAll()
+                .map(this::toDomain)
+                .doOnError(error -> log.error("Error finding all stores: {}", error.getMessage()));
+    }
+
+    public Mono<Long> count() {
+        return storeRepository.count();
+    }
+
+    public Mono<LocalDateTime> findLatestUpdatedAt() {
+        return storeRepository.findLatestUpdatedAt();
+    }
+
     private Store toDomain(StoreEntity entity) {
         if (entity == null) {
             return null;
@@ -1,15 +1,21 @@
 package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
 
 import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.StoreEntity;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface StoreRepository extends R2dbcRepository<StoreEntity, Long> {
 
     Mono<StoreEntity> findByName(String name);
 
     Flux<StoreEntity> findByIsActiveTrue();
+
+    @Query("SELECT COALESCE(MAX(updated_at), TIMESTAMP '1970-01-01 00:00:00') FROM stores")
+    Mono<LocalDateTime> findLatestUpdatedAt();
 }
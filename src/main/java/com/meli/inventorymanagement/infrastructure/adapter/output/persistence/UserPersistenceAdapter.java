@@ -1,19 +1,25 @@
 package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
 
 import com.meli.inventorymanagement.domain.model.User;
+import com.meli.inventorymanagement.domain.model.UserGrants;
 import com.meli.inventorymanagement.domain.port.UserPort;
 import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.UserEntity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Set;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class UserPersistenceAdapter implements UserPort {
 
     private final UserRepository userRepository;
+    private final TransactionalOperator transactionalOperator;
 
     @Override
     public Mono<User> findByUsername(String username) {
@@ -26,6 +32,29 @@ public class UserPersistenceAdapter implements UserPort {
                 .doOnError(error -> log.error("Error finding user by username {}: {}", username, error.getMessage()));
     }
 
+    @Override
+    public Mono<Boolean> updateGrants(UserGrants grants) {
+        String username = grants.getUsername();
+        Set<Long> storeIds = grants.getStoreIds() != null ? grants.getStoreIds() : Set.of();
+
+        return userRepository.updateRole(username, grants.getRole())
+                .flatMap(updatedRows -> updatedRows == 0
+                        ? Mono.just(false)
+                        : userRepository.deleteStorePermissions(username)
+                                .thenMany(Flux.fromIterable(storeIds)
+                                        .concatMap(storeId -> userRepository.insertStorePermission(username, storeId)))
+                                .then(Mono.just(true)))
+                .as(transactionalOperator::transactional)
+                .doOnError(error -> log.error("Error updating grants of user {}: {}", username, error.getMessage()));
+    }
+
+    @Override
+    public Mono<Boolean> updateActive(String username, boolean active) {
+        return userRepository.updateActive(username, active)
+                .map(updatedRows -> updatedRows > 0)
+                .doOnError(error -> log.error("Error updating status of user {}: {}", username, error.getMessage()));
+    }
+
     private User toDomain(UserEntity entity) {
         if (entity == null) {
             return null;
@@ -1,10 +1,12 @@
 package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
 
 import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.UserEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
@@ -20,4 +22,27 @@ public interface UserRepository extends R2dbcRepository<UserEntity, Long> {
            "    WHERE sp.user_id = u.id AND sp.store_id = :storeId" +
            "))")
     Mono<Boolean> hasStorePermission(@Param("username") String username, @Param("storeId") Long storeId);
+
+    @Query("SELECT sp.store_id FROM user_store_permissions sp " +
+           "JOIN users u ON u.id = sp.user_id " +
+           "WHERE u.username = :username")
+    Flux<Long> findStoreIdsByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("UPDATE users SET role = :role, updated_at = CURRENT_TIMESTAMP WHERE username = :username")
+    Mono<Integer> updateRole(@Param("username") String username, @Param("role") String role);
+
+    @Modifying
+    @Query("UPDATE users SET is_active = :active, updated_at = CURRENT_TIMESTAMP WHERE username = :username")
+    Mono<Integer> updateActive(@Param("username") String username, @Param("active") boolean active);
+
+    @Modifying
+    @Query("DELETE FROM user_store_permissions " +
+           "WHERE user_id = (SELECT id FROM users WHERE username = :username)")
+    Mono<Integer> deleteStorePermissions(@Param("username") String username);
+
+    @Modifying
+    @Query("INSERT INTO user_store_permissions (user_id, store_id) " +
+           "SELECT id, :storeId FROM users WHERE username = :username")
+    Mono<Integer> insertStorePermission(@Param("username") String username, @Param("storeId") Long storeId);
 }
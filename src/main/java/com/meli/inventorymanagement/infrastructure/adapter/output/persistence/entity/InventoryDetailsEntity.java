@@ -0,0 +1,53 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de lectura de inventario con SKU, nombre de producto y nombre de tienda
+ * resueltos en la misma consulta (JOIN products/stores).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryDetailsEntity {
+
+    @Column("id")
+    private Long id;
+
+    @Column("product_id")
+    private Long productId;
+
+    @Column("product_sku")
+    private String productSku;
+
+    @Column("product_name")
+    private String productName;
+
+    @Column("store_id")
+    private Long storeId;
+
+    @Column("store_name")
+    private String storeName;
+
+    @Column("available_qty")
+    private Integer availableQty;
+
+    @Column("reserved_qty")
+    private Integer reservedQty;
+
+    @Column("version")
+    private Integer version;
+
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column("change_seq")
+    private Long changeSeq;
+}
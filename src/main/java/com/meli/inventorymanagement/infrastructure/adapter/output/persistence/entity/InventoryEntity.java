@@ -31,6 +31,10 @@ public class InventoryEntity {
     @Builder.Default
     private Integer availableQty = 0;
 
+    @Column("reserved_qty")
+    @Builder.Default
+    private Integer reservedQty = 0;
+
     @Version
     @Builder.Default
     private Integer version = 0;
@@ -0,0 +1,36 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Table("inventory_ledger")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLedgerEntity {
+
+    @Id
+    private Long seq;
+
+    @Column("product_id")
+    private Long productId;
+
+    @Column("store_id")
+    private Long storeId;
+
+    @Column("event_type")
+    private String eventType;
+
+    private Integer quantity;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,38 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Table("inventory_reservations")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReservationEntity {
+
+    @Id
+    private String id;
+
+    @Column("product_id")
+    private Long productId;
+
+    @Column("store_id")
+    private Long storeId;
+
+    private Integer quantity;
+
+    private String status;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    @Column("expires_at")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,37 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Table("inventory_snapshots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySnapshotEntity {
+
+    @Id
+    private Long id;
+
+    @Column("product_id")
+    private Long productId;
+
+    @Column("store_id")
+    private Long storeId;
+
+    @Column("available_qty")
+    private Integer availableQty;
+
+    @Column("last_seq")
+    private Long lastSeq;
+
+    @Column("snapshot_at")
+    private LocalDateTime snapshotAt;
+}
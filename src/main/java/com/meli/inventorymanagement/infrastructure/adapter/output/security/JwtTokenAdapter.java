@@ -1,5 +1,6 @@
 package com.meli.inventorymanagement.infrastructure.adapter.output.security;
 
+import com.meli.inventorymanagement.domain.model.UserGrants;
 import com.meli.inventorymanagement.domain.port.TokenGeneratorPort;
 import com.meli.inventorymanagement.infrastructure.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,11 @@ public class JwtTokenAdapter implements TokenGeneratorPort {
         return jwtUtil.generateToken(username);
     }
 
+    @Override
+    public String generateToken(UserGrants grants) {
+        return jwtUtil.generateToken(grants);
+    }
+
     @Override
     public String extractUsername(String token) {
         return jwtUtil.extractUsername(token);
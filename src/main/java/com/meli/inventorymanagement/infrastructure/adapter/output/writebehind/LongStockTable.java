@@ -0,0 +1,543 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.writebehind;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabla hash de direccionamiento abierto con claves long primitivas
+ * ({@code productId << 32 | storeId}) y columnas en arrays paralelos, sin objetos por fila.
+ * Está dividida en segmentos con su propio lock para repartir la contención.
+ * <p>
+ * Las filas nunca se borran (el inventario no tiene bajas), así que no hay tombstones: una
+ * cadena de sondeo sólo termina en un slot vacío. Cada segmento lleva sus slots pendientes en
+ * una cola FIFO ordenada por antigüedad, así el flush y el lag no recorren la capacidad.
+ */
+final class LongStockTable {
+
+    private static final int SEGMENTS = 64;
+    private static final long EMPTY = -1L;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    LongStockTable() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Empaqueta el par (producto, tienda) en una clave; devuelve -1 si algún id no entra en 32 bits.
+     */
+    static long key(Long productId, Long storeId) {
+        if (productId == null || storeId == null
+                || productId < 0 || productId > 0xFFFFFFFFL || storeId < 0 || storeId > 0xFFFFFFFFL) {
+            return EMPTY;
+        }
+        return (productId << 32) | storeId;
+    }
+
+    static long productId(long key) {
+        return key >>> 32;
+    }
+
+    static long storeId(long key) {
+        return key & 0xFFFFFFFFL;
+    }
+
+    StockRow get(long key) {
+        return key == EMPTY ? null : segmentFor(key).get(key);
+    }
+
+    void load(long key, long rowId, int availableQty, int reservedQty, int version, long updatedAt) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Inventory ids must fit in 32 bits to be kept in memory");
+        }
+        segmentFor(key).load(key, rowId, availableQty, reservedQty, version, updatedAt);
+    }
+
+    /**
+     * Aplica la delta si no consume unidades reservadas. Devuelve la fila actualizada, o null si
+     * la clave no existe o si el ajuste no se aplicó.
+     */
+    StockRow adjust(long key, int delta, long now) {
+        return key == EMPTY ? null : segmentFor(key).adjust(key, delta, now);
+    }
+
+    /**
+     * Aplica las deltas en orden aceptando sólo las que no consumen unidades reservadas.
+     * Completa {@code previous} y {@code applied} por posición y devuelve la fila final,
+     * o null si la clave no existe.
+     */
+    StockRow adjustInSequence(long key, int[] deltas, int[] previous, boolean[] applied, long now) {
+        return key == EMPTY ? null : segmentFor(key).adjustInSequence(key, deltas, previous, applied, now);
+    }
+
+    /**
+     * Aplica todas las deltas o ninguna: con los segmentos implicados bloqueados en orden
+     * ascendente, comprueba que ninguna delta consuma unidades reservadas y sólo entonces escribe.
+     * Completa por posición el stock previo a cada delta y la fila resultante (la vigente si no
+     * se aplicó, null si la clave no existe). Devuelve true si se aplicaron.
+     */
+    boolean adjustAll(long[] keys, int[] deltas, int[] previous, StockRow[] rows, long now) {
+        int[] order = Arrays.stream(keys)
+                .filter(key -> key != EMPTY)
+                .mapToInt(key -> (int) (mix(key) >>> 58))
+                .distinct()
+                .sorted()
+                .toArray();
+        return adjustAllLocked(order, 0, keys, deltas, previous, rows, now);
+    }
+
+    private boolean adjustAllLocked(int[] order, int depth, long[] keys, int[] deltas, int[] previous,
+                                    StockRow[] rows, long now) {
+        if (depth < order.length) {
+            synchronized (segments[order[depth]]) {
+                return adjustAllLocked(order, depth + 1, keys, deltas, previous, rows, now);
+            }
+        }
+
+        Map<Long, Integer> running = new HashMap<>();
+        boolean sufficient = true;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = keys[i] == EMPTY ? -1 : segmentFor(keys[i]).find(keys[i]);
+            if (slot < 0) {
+                sufficient = false;
+                continue;
+            }
+            Segment segment = segmentFor(keys[i]);
+            int quantity = running.getOrDefault(keys[i], segment.quantities[slot]);
+            previous[i] = quantity;
+            sufficient &= withinSellable(quantity, segment.reserved[slot], deltas[i]);
+            running.put(keys[i], quantity + deltas[i]);
+        }
+
+        if (sufficient) {
+            running.forEach((key, quantity) -> {
+                Segment segment = segmentFor(key);
+                int slot = segment.find(key);
+                segment.quantities[slot] = quantity;
+                segment.touch(slot, now);
+            });
+        }
+        for (int i = 0; i < keys.length; i++) {
+            StockRow current = get(keys[i]);
+            rows[i] = current == null || !sufficient ? current
+                    : new StockRow(current.rowId(), previous[i] + deltas[i], current.reservedQty(), current.version(),
+                            current.updatedAt());
+        }
+        return sufficient;
+    }
+
+    /**
+     * Aplica un estado recuperado del journal si su versión es posterior a la vigente y deja la
+     * fila pendiente de persistir. Devuelve false si la clave no existe o el estado es anterior.
+     */
+    boolean replay(long key, int availableQty, int version, long updatedAt) {
+        return key != EMPTY && segmentFor(key).replay(key, availableQty, version, updatedAt);
+    }
+
+    /**
+     * Fija el stock absoluto. Si {@code expectedVersion} no es null debe coincidir con la versión
+     * vigente. Devuelve null si la clave no existe.
+     */
+    StockRow set(long key, Integer expectedVersion, int availableQty, long now) {
+        return key == EMPTY ? null : segmentFor(key).set(key, expectedVersion, availableQty, now);
+    }
+
+    /**
+     * Extrae hasta {@code max} filas pendientes de persistir y las marca como limpias.
+     */
+    List<DirtyRow> drainDirty(int max) {
+        List<DirtyRow> drained = new ArrayList<>(Math.min(max, 1024));
+        for (Segment segment : segments) {
+            if (drained.size() >= max) {
+                break;
+            }
+            segment.drainDirty(drained, max);
+        }
+        return drained;
+    }
+
+    /**
+     * Registra como persistida la versión escrita por un flush: el próximo flush de la fila
+     * exigirá que la base siga en esa versión.
+     */
+    void markPersisted(List<DirtyRow> rows) {
+        for (DirtyRow row : rows) {
+            segmentFor(row.key()).markPersisted(row);
+        }
+    }
+
+    /**
+     * Reemplaza la fila con el estado leído de la base tras un conflicto de versión. Si volvió a
+     * quedar pendiente, sigue en la cola y el próximo flush escribe ya sobre la versión recargada.
+     */
+    void reload(long key, long rowId, int availableQty, int reservedQty, int version, long updatedAt) {
+        if (key != EMPTY) {
+            segmentFor(key).reload(key, rowId, availableQty, reservedQty, version, updatedAt);
+        }
+    }
+
+    /**
+     * Vuelve a marcar como pendientes las filas de un flush fallido, salvo las que ya
+     * cambiaron desde entonces (siguen pendientes con su nuevo valor). Son las más antiguas:
+     * vuelven al frente de la cola en su orden original.
+     */
+    void restoreDirty(List<DirtyRow> rows) {
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            segmentFor(rows.get(i).key()).restoreDirty(rows.get(i));
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    int dirtyCount() {
+        int dirty = 0;
+        for (Segment segment : segments) {
+            dirty += segment.dirtyCount();
+        }
+        return dirty;
+    }
+
+    /**
+     * Antigüedad en nanosegundos de la escritura pendiente más vieja, o 0 si no hay pendientes.
+     */
+    long oldestDirtyAgeNanos(long nowNanos) {
+        long oldest = oldestDirtySince();
+        return oldest == 0 ? 0 : nowNanos - oldest;
+    }
+
+    /**
+     * {@link System#nanoTime()} de la escritura pendiente más vieja, o 0 si no hay pendientes.
+     */
+    long oldestDirtySince() {
+        long oldest = 0;
+        for (Segment segment : segments) {
+            long since = segment.oldestDirtySince();
+            if (since != 0 && (oldest == 0 || since - oldest < 0)) {
+                oldest = since;
+            }
+        }
+        return oldest;
+    }
+
+    // Misma regla que la base: los aumentos siempre entran y un descuento no toca lo reservado
+    private static boolean withinSellable(int availableQty, int reservedQty, int delta) {
+        return delta >= 0 || availableQty - reservedQty + delta >= 0;
+    }
+
+    private Segment segmentFor(long key) {
+        return segments[(int) (mix(key) >>> 58)];
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    record StockRow(long rowId, int availableQty, int reservedQty, int version, long updatedAt) {
+    }
+
+    record DirtyRow(long key, long rowId, int availableQty, int version, int persistedVersion, long updatedAt,
+                    long dirtySince) {
+    }
+
+    private static final class Segment {
+
+        private long[] keys = newKeys(16);
+        private long[] rowIds = new long[16];
+        private int[] quantities = new int[16];
+        // Unidades reservadas leídas de la base: las reservas no cambian en modo write-behind
+        private int[] reserved = new int[16];
+        private int[] versions = new int[16];
+        // Versión confirmada en la base: el flush sólo escribe si la fila sigue en ella
+        private int[] persistedVersions = new int[16];
+        private long[] updatedAt = new long[16];
+        // System.nanoTime() de la primera escritura no persistida; 0 = limpia
+        private long[] dirtySince = new long[16];
+        // Slots pendientes en orden de dirtySince: cada slot pendiente aparece exactamente una vez
+        private final SlotQueue dirtySlots = new SlotQueue();
+        private int size;
+
+        synchronized StockRow get(long key) {
+            int slot = find(key);
+            return slot < 0 ? null : row(slot);
+        }
+
+        synchronized void load(long key, long rowId, int availableQty, int reservedQty, int version, long updated) {
+            int slot = find(key);
+            if (slot < 0) {
+                if (size + 1 > keys.length * 3 / 4) {
+                    resize();
+                }
+                slot = insertionSlot(key);
+                keys[slot] = key;
+                size++;
+            } else if (dirtySince[slot] != 0) {
+                // Una escritura en memoria es más reciente que lo que hay en la base
+                return;
+            }
+            rowIds[slot] = rowId;
+            quantities[slot] = availableQty;
+            reserved[slot] = reservedQty;
+            versions[slot] = version;
+            persistedVersions[slot] = version;
+            updatedAt[slot] = updated;
+        }
+
+        synchronized StockRow adjust(long key, int delta, long now) {
+            int slot = find(key);
+            if (slot < 0 || !withinSellable(quantities[slot], reserved[slot], delta)) {
+                return null;
+            }
+            quantities[slot] += delta;
+            touch(slot, now);
+            return row(slot);
+        }
+
+        synchronized StockRow adjustInSequence(long key, int[] deltas, int[] previous, boolean[] applied, long now) {
+            int slot = find(key);
+            if (slot < 0) {
+                return null;
+            }
+            boolean anyApplied = false;
+            for (int i = 0; i < deltas.length; i++) {
+                previous[i] = quantities[slot];
+                if (withinSellable(quantities[slot], reserved[slot], deltas[i])) {
+                    quantities[slot] += deltas[i];
+                    applied[i] = true;
+                    anyApplied = true;
+                }
+            }
+            if (anyApplied) {
+                touch(slot, now);
+            }
+            return row(slot);
+        }
+
+        synchronized boolean replay(long key, int availableQty, int version, long now) {
+            int slot = find(key);
+            if (slot < 0 || version <= versions[slot]) {
+                return false;
+            }
+            quantities[slot] = availableQty;
+            touch(slot, now);
+            versions[slot] = version;
+            return true;
+        }
+
+        synchronized StockRow set(long key, Integer expectedVersion, int availableQty, long now) {
+            int slot = find(key);
+            if (slot < 0) {
+                return null;
+            }
+            if (expectedVersion != null && expectedVersion != versions[slot]) {
+                throw new OptimisticLockingFailureException(String.format(
+                        "Inventory version changed: expected %d, current %d", expectedVersion, versions[slot]));
+            }
+            quantities[slot] = availableQty;
+            touch(slot, now);
+            return row(slot);
+        }
+
+        synchronized void drainDirty(List<DirtyRow> drained, int max) {
+            while (drained.size() < max && !dirtySlots.isEmpty()) {
+                int slot = dirtySlots.pollFirst();
+                drained.add(new DirtyRow(keys[slot], rowIds[slot], quantities[slot], versions[slot],
+                        persistedVersions[slot], updatedAt[slot], dirtySince[slot]));
+                dirtySince[slot] = 0;
+            }
+        }
+
+        synchronized void markPersisted(DirtyRow row) {
+            int slot = find(row.key());
+            if (slot >= 0 && row.version() - persistedVersions[slot] > 0) {
+                persistedVersions[slot] = row.version();
+            }
+        }
+
+        synchronized void reload(long key, long rowId, int availableQty, int reservedQty, int version, long updated) {
+            int slot = find(key);
+            if (slot < 0) {
+                return;
+            }
+            rowIds[slot] = rowId;
+            quantities[slot] = availableQty;
+            reserved[slot] = reservedQty;
+            versions[slot] = version;
+            persistedVersions[slot] = version;
+            updatedAt[slot] = updated;
+        }
+
+        synchronized void restoreDirty(DirtyRow row) {
+            int slot = find(row.key());
+            if (slot >= 0 && dirtySince[slot] == 0 && versions[slot] == row.version()) {
+                dirtySince[slot] = row.dirtySince();
+                dirtySlots.addFirst(slot);
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized int dirtyCount() {
+            return dirtySlots.size();
+        }
+
+        synchronized long oldestDirtySince() {
+            return dirtySlots.isEmpty() ? 0 : dirtySince[dirtySlots.peekFirst()];
+        }
+
+        private void touch(int slot, long now) {
+            versions[slot]++;
+            updatedAt[slot] = now;
+            if (dirtySince[slot] == 0) {
+                dirtySince[slot] = System.nanoTime();
+                dirtySlots.addLast(slot);
+            }
+        }
+
+        private StockRow row(int slot) {
+            return new StockRow(rowIds[slot], quantities[slot], reserved[slot], versions[slot], updatedAt[slot]);
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int insertionSlot(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldRowIds = rowIds;
+            int[] oldQuantities = quantities;
+            int[] oldReserved = reserved;
+            int[] oldVersions = versions;
+            int[] oldPersistedVersions = persistedVersions;
+            long[] oldUpdatedAt = updatedAt;
+            long[] oldDirtySince = dirtySince;
+
+            int capacity = oldKeys.length * 2;
+            keys = newKeys(capacity);
+            rowIds = new long[capacity];
+            quantities = new int[capacity];
+            reserved = new int[capacity];
+            versions = new int[capacity];
+            persistedVersions = new int[capacity];
+            updatedAt = new long[capacity];
+            dirtySince = new long[capacity];
+
+            int[] movedTo = new int[oldKeys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = insertionSlot(oldKeys[i]);
+                    movedTo[i] = slot;
+                    keys[slot] = oldKeys[i];
+                    rowIds[slot] = oldRowIds[i];
+                    quantities[slot] = oldQuantities[i];
+                    reserved[slot] = oldReserved[i];
+                    versions[slot] = oldVersions[i];
+                    persistedVersions[slot] = oldPersistedVersions[i];
+                    updatedAt[slot] = oldUpdatedAt[i];
+                    dirtySince[slot] = oldDirtySince[i];
+                }
+            }
+            dirtySlots.remap(movedTo);
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+
+    /**
+     * Cola FIFO de slots sobre un array circular de int, sin boxing.
+     */
+    private static final class SlotQueue {
+
+        private int[] slots = new int[16];
+        private int head;
+        private int count;
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        int size() {
+            return count;
+        }
+
+        void addLast(int slot) {
+            grow();
+            slots[(head + count) & (slots.length - 1)] = slot;
+            count++;
+        }
+
+        void addFirst(int slot) {
+            grow();
+            head = (head - 1) & (slots.length - 1);
+            slots[head] = slot;
+            count++;
+        }
+
+        int peekFirst() {
+            return slots[head];
+        }
+
+        int pollFirst() {
+            int slot = slots[head];
+            head = (head + 1) & (slots.length - 1);
+            count--;
+            return slot;
+        }
+
+        // Tras un resize los slots cambian de posición; el orden de la cola se conserva
+        void remap(int[] movedTo) {
+            for (int i = 0; i < count; i++) {
+                int index = (head + i) & (slots.length - 1);
+                slots[index] = movedTo[slots[index]];
+            }
+        }
+
+        private void grow() {
+            if (count < slots.length) {
+                return;
+            }
+            int[] grown = new int[slots.length * 2];
+            for (int i = 0; i < count; i++) {
+                grown[i] = slots[(head + i) & (slots.length - 1)];
+            }
+            slots = grown;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.writebehind;
+
+import com.meli.inventorymanagement.infrastructure.adapter.output.writebehind.LongStockTable.StockRow;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal append-only del estado de cada fila modificada en memoria, sobre segmentos de tamaño
+ * fijo mapeados en memoria. Cada registro guarda el estado absoluto de la fila (cantidad y
+ * versión), por lo que el replay es idempotente y se queda con la versión más alta.
+ * <p>
+ * Un registro se considera confirmado cuando {@link #sync(long)} devuelve: los hilos que esperan
+ * a la vez comparten un único {@code force} sobre el rango pendiente.
+ * <p>
+ * {@link #append} puede correr en un event loop, así que no hace I/O: el segmento siguiente se
+ * crea, se mapea y se pre-toca en un hilo propio, y al rotar el segmento saliente queda para
+ * que lo fuerce el próximo {@link #sync}.
+ */
+@Slf4j
+final class MappedStockJournal implements AutoCloseable {
+
+    static final int RECORD_SIZE = 40;
+    private static final int MARKER = 0x494E564A;
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".seg";
+    private static final int PAGE_SIZE = 4096;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Object syncLock = new Object();
+    private final Deque<SealedSegment> sealed = new ArrayDeque<>();
+    // Segmentos rotados con registros todavía sin forzar a disco
+    private final Deque<Segment> unforced = new ArrayDeque<>();
+    private final ExecutorService preallocator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inventory-journal-preallocate");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Segment current;
+    private CompletableFuture<Segment> next;
+    private boolean closed;
+    // Bytes escritos / forzados a disco desde la apertura del journal
+    private long appendedPosition;
+    private final AtomicLong syncedPosition = new AtomicLong();
+
+    MappedStockJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+    }
+
+    /**
+     * Recorre los segmentos existentes en orden, entrega cada registro válido al consumidor y
+     * abre un segmento nuevo para las escrituras. Los segmentos leídos quedan sellados hasta que
+     * se liberen tras persistir su contenido.
+     */
+    synchronized int open(RecordConsumer consumer) {
+        try {
+            Files.createDirectories(directory);
+            long nextId = 0;
+            int replayed = 0;
+            for (Path file : existingSegments()) {
+                long id = segmentId(file);
+                replayed += replay(file, consumer);
+                sealed.addLast(new SealedSegment(id, file, System.nanoTime()));
+                nextId = id + 1;
+            }
+            current = Segment.create(directory.resolve(fileName(nextId)), nextId, segmentSize);
+            preallocate(nextId + 1);
+            return replayed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open inventory journal at " + directory, e);
+        }
+    }
+
+    /**
+     * Escribe el estado de la fila y devuelve la posición que debe sincronizarse para confirmarlo.
+     */
+    synchronized long append(long key, StockRow row) {
+        if (current.offset + RECORD_SIZE > segmentSize) {
+            rollover();
+        }
+        MappedByteBuffer buffer = current.buffer;
+        int offset = current.offset;
+        buffer.putLong(offset + 8, key);
+        buffer.putLong(offset + 16, row.rowId());
+        buffer.putLong(offset + 24, row.updatedAt());
+        buffer.putInt(offset + 32, row.availableQty());
+        buffer.putInt(offset + 36, row.version());
+        buffer.putInt(offset + 4, checksum(buffer, offset));
+        buffer.putInt(offset, MARKER);
+        current.offset += RECORD_SIZE;
+        appendedPosition += RECORD_SIZE;
+        return appendedPosition;
+    }
+
+    /**
+     * Bloquea hasta que los registros escritos hasta {@code position} estén en disco.
+     */
+    void sync(long position) {
+        if (syncedPosition.get() >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedPosition.get() >= position) {
+                return;
+            }
+            List<Segment> rotated;
+            Segment segment;
+            int to;
+            long target;
+            synchronized (this) {
+                rotated = new ArrayList<>(unforced);
+                unforced.clear();
+                segment = current;
+                to = segment.offset;
+                target = appendedPosition;
+            }
+            // Los segmentos rotados tienen registros anteriores a los del actual
+            for (Segment previous : rotated) {
+                previous.force(previous.offset);
+                previous.closeChannel();
+            }
+            segment.force(to);
+            syncedPosition.accumulateAndGet(target, Math::max);
+        }
+    }
+
+    /**
+     * Elimina los segmentos sellados antes de {@code persistedBeforeNanos}: todas las filas que
+     * se modificaron antes de ese instante ya están persistidas en la base.
+     */
+    synchronized void release(long persistedBeforeNanos) {
+        while (!sealed.isEmpty() && sealed.peekFirst().sealedAt() - persistedBeforeNanos < 0) {
+            SealedSegment segment = sealed.pollFirst();
+            delete(segment.file());
+        }
+    }
+
+    /**
+     * Cierra el journal y borra todos sus segmentos. Sólo es seguro cuando no quedan escrituras
+     * pendientes de persistir.
+     */
+    void discard() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                close();
+                release(System.nanoTime());
+                delete(current.file);
+            }
+        }
+    }
+
+    synchronized int sealedSegments() {
+        return sealed.size();
+    }
+
+    /**
+     * Fuerza lo pendiente y cierra los segmentos. Toma los locks en el mismo orden que {@link #sync}.
+     */
+    @Override
+    public void close() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                preallocator.shutdown();
+                for (Segment previous : unforced) {
+                    previous.force(previous.offset);
+                    previous.closeChannel();
+                }
+                unforced.clear();
+                current.force(current.offset);
+                current.closeChannel();
+                // El segmento pre-asignado está vacío: no se deja para el próximo arranque
+                if (next != null) {
+                    try {
+                        Segment spare = next.join();
+                        spare.closeChannel();
+                        delete(spare.file);
+                    } catch (CompletionException e) {
+                        log.warn("Inventory journal preallocation failed: {}", e.getCause().getMessage());
+                    }
+                    next = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cambia al segmento pre-asignado sin hacer I/O en el hilo que escribe. Sólo espera si
+     * la pre-asignación todavía no terminó.
+     */
+    private void rollover() {
+        unforced.addLast(current);
+        sealed.addLast(new SealedSegment(current.id, current.file, System.nanoTime()));
+        try {
+            current = next.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof UncheckedIOException io
+                    ? io : new UncheckedIOException("Cannot roll inventory journal segment", new IOException(e.getCause()));
+        }
+        preallocate(current.id + 1);
+    }
+
+    private void preallocate(long id) {
+        Path file = directory.resolve(fileName(id));
+        next = CompletableFuture.supplyAsync(() -> {
+            try {
+                Segment segment = Segment.create(file, id, segmentSize);
+                // Escribir una vez cada página evita los page faults en el camino de append
+                for (int offset = 0; offset < segmentSize; offset += PAGE_SIZE) {
+                    segment.buffer.put(offset, (byte) 0);
+                }
+                return segment;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot preallocate inventory journal segment " + file, e);
+            }
+        }, preallocator);
+    }
+
+    private int replay(Path file, RecordConsumer consumer) throws IOException {
+        int replayed = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            for (int offset = 0; offset + RECORD_SIZE <= buffer.limit(); offset += RECORD_SIZE) {
+                // Un marcador ausente o un checksum inválido indican el final de lo escrito
+                if (buffer.getInt(offset) != MARKER || buffer.getInt(offset + 4) != checksum(buffer, offset)) {
+                    break;
+                }
+                consumer.accept(buffer.getLong(offset + 8),
+                        buffer.getLong(offset + 16),
+                        buffer.getInt(offset + 32),
+                        buffer.getInt(offset + 36),
+                        buffer.getLong(offset + 24));
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private List<Path> existingSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .toList());
+            segments.sort((a, b) -> Long.compare(segmentId(a), segmentId(b)));
+            return segments;
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete inventory journal segment {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + 8, RECORD_SIZE - 8));
+        return (int) crc.getValue();
+    }
+
+    private static String fileName(long id) {
+        return String.format("%s%020d%s", PREFIX, id, SUFFIX);
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long key, long rowId, int availableQty, int version, long updatedAt);
+    }
+
+    private record SealedSegment(long id, Path file, long sealedAt) {
+    }
+
+    private static final class Segment {
+
+        private final long id;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int offset;
+        // Sólo lo modifica sync(), bajo su propio lock
+        private int syncedOffset;
+
+        private Segment(long id, Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        void force(int to) {
+            if (to > syncedOffset) {
+                buffer.force(syncedOffset, to - syncedOffset);
+                syncedOffset = to;
+            }
+        }
+
+        void closeChannel() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Error closing inventory journal segment {}: {}", file, e.getMessage());
+            }
+        }
+
+        static Segment create(Path file, long id, int size) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(id, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+}
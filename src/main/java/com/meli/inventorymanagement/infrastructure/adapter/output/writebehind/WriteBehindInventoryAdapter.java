@@ -0,0 +1,589 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.writebehind;
+
+import com.meli.inventorymanagement.domain.model.AdjustmentOutcome;
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.model.Product;
+import com.meli.inventorymanagement.domain.model.StockAdjustment;
+import com.meli.inventorymanagement.domain.model.StockTransfer;
+import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.domain.model.TransferOutcome;
+import com.meli.inventorymanagement.domain.port.InventoryPort;
+import com.meli.inventorymanagement.domain.port.ProductPort;
+import com.meli.inventorymanagement.domain.port.StorePort;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.InventoryPersistenceAdapter;
+import com.meli.inventorymanagement.infrastructure.adapter.output.writebehind.LongStockTable.DirtyRow;
+import com.meli.inventorymanagement.infrastructure.adapter.output.writebehind.LongStockTable.StockRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modo write-behind: el stock de todas las combinaciones (producto, tienda) vive en una tabla
+ * en memoria que es la fuente de verdad. Las escrituras se aplican primero en memoria y se
+ * persisten en la tabla inventory por lotes cada {@code flush-interval}.
+ * <p>
+ * Con el journal habilitado cada escritura se confirma recién cuando su estado está en disco en
+ * {@link MappedStockJournal}, que se reproduce al arrancar; sin journal, la pérdida máxima ante
+ * una caída está acotada por el intervalo de flush y por {@code max-dirty-entries}. Al alcanzar
+ * ese límite las escrituras esperan un flush síncrono.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "inventory.write-behind.enabled", havingValue = "true")
+public class WriteBehindInventoryAdapter implements InventoryPort, SmartInitializingSingleton {
+
+    private final InventoryPersistenceAdapter inventoryPersistenceAdapter;
+    private final ProductPort productPort;
+    private final StorePort storePort;
+    private final Duration flushInterval;
+    private final int maxDirtyEntries;
+    private final int flushBatchSize;
+
+    private final LongStockTable table = new LongStockTable();
+    private final MappedStockJournal journal;
+    private final Timer flushTimer;
+    private final Timer journalSyncTimer;
+    private final Counter flushedRows;
+    private final Counter flushFailures;
+    private final Counter flushConflicts;
+
+    private Mono<Void> runningFlush;
+    private Disposable flushTask;
+
+    public WriteBehindInventoryAdapter(InventoryPersistenceAdapter inventoryPersistenceAdapter,
+                                       ProductPort productPort,
+                                       StorePort storePort,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${inventory.write-behind.flush-interval:1s}") Duration flushInterval,
+                                       @Value("${inventory.write-behind.max-dirty-entries:100000}") int maxDirtyEntries,
+                                       @Value("${inventory.write-behind.flush-batch-size:1000}") int flushBatchSize,
+                                       @Value("${inventory.write-behind.journal.enabled:true}") boolean journalEnabled,
+                                       @Value("${inventory.write-behind.journal.dir:data/journal}") String journalDir,
+                                       @Value("${inventory.write-behind.journal.segment-size:64MB}") DataSize segmentSize) {
+        this.inventoryPersistenceAdapter = inventoryPersistenceAdapter;
+        this.productPort = productPort;
+        this.storePort = storePort;
+        this.flushInterval = flushInterval;
+        this.maxDirtyEntries = maxDirtyEntries;
+        this.flushBatchSize = flushBatchSize;
+        this.journal = journalEnabled
+                ? new MappedStockJournal(Path.of(journalDir), (int) segmentSize.toBytes())
+                : null;
+
+        this.flushTimer = Timer.builder("inventory.writebehind.flush")
+                .description("Duration of each write-behind batch written to the inventory table")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("inventory.writebehind.flushed.rows")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("inventory.writebehind.flush.failures")
+                .register(meterRegistry);
+        this.flushConflicts = Counter.builder("inventory.writebehind.flush.conflicts")
+                .description("Rows whose version changed in the database and were reloaded instead of written")
+                .register(meterRegistry);
+        this.journalSyncTimer = Timer.builder("inventory.writebehind.journal.sync")
+                .description("Time waited for journal records to be forced to disk")
+                .register(meterRegistry);
+        Gauge.builder("inventory.writebehind.dirty.entries", table, LongStockTable::dirtyCount)
+                .description("Writes applied in memory and not yet persisted")
+                .register(meterRegistry);
+        Gauge.builder("inventory.writebehind.entries", table, LongStockTable::size)
+                .register(meterRegistry);
+        TimeGauge.builder("inventory.writebehind.flush.lag", table, TimeUnit.NANOSECONDS,
+                        t -> t.oldestDirtyAgeNanos(System.nanoTime()))
+                .description("Age of the oldest write not yet persisted")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // La tabla en memoria es la fuente de verdad: se carga completa antes de atender tráfico
+        Long loaded = inventoryPersistenceAdapter.findAll()
+                .doOnNext(this::load)
+                .count()
+                .block();
+        log.info("Write-behind inventory table loaded - {} entries - Flush interval: {} - Max dirty entries: {}",
+                loaded, flushInterval, maxDirtyEntries);
+
+        if (journal != null) {
+            AtomicInteger recovered = new AtomicInteger();
+            int replayed = journal.open((key, rowId, availableQty, version, updatedAt) -> {
+                if (table.replay(key, availableQty, version, updatedAt)) {
+                    recovered.incrementAndGet();
+                }
+            });
+            log.info("Inventory journal replayed - {} records - {} rows newer than the database",
+                    replayed, recovered.get());
+            // Lo recuperado se persiste antes de atender tráfico y libera los segmentos leídos
+            flush().block();
+        }
+
+        flushTask = Flux.interval(flushInterval, flushInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush()
+                        .onErrorResume(e -> Mono.empty()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.dispose();
+        }
+        log.info("Flushing {} pending inventory writes before shutdown", table.dirtyCount());
+        flush().onErrorResume(e -> Mono.empty()).block(Duration.ofSeconds(30));
+        if (journal != null) {
+            if (table.dirtyCount() == 0) {
+                journal.discard();
+            } else {
+                // Lo pendiente se recupera desde el journal en el próximo arranque
+                journal.close();
+            }
+        }
+    }
+
+    @Override
+    public Flux<Inventory> findByProductSku(String sku) {
+        return productPort.findBySku(sku)
+                .flatMapMany(product -> storePort.findAll()
+                        .sort(Comparator.comparing(Store::getId))
+                        .mapNotNull(store -> {
+                            StockRow row = table.get(LongStockTable.key(product.getId(), store.getId()));
+                            return row != null ? toDomain(product.getId(), store.getId(), row, product, store) : null;
+                        }));
+    }
+
+    @Override
+    public Mono<Inventory> findByProductSkuAndStoreId(String sku, Long storeId) {
+        return productPort.findBySku(sku)
+                .flatMap(product -> withStore(product, storeId,
+                        table.get(LongStockTable.key(product.getId(), storeId))));
+    }
+
+    @Override
+    public Flux<Inventory> findByProductSkus(Collection<String> skus, Collection<Long> storeIds) {
+        if (skus == null || skus.isEmpty()) {
+            return Flux.empty();
+        }
+        Flux<Store> stores = storeIds == null || storeIds.isEmpty()
+                ? storePort.findAll()
+                : storePort.findAll().filter(store -> storeIds.contains(store.getId()));
+        return Mono.zip(
+                        productPort.findBySkus(skus).collectSortedList(Comparator.comparing(Product::getSku)),
+                        stores.collectSortedList(Comparator.comparing(Store::getId)))
+                .flatMapMany(tuple -> Flux.fromIterable(tuple.getT1())
+                        .concatMap(product -> Flux.fromIterable(tuple.getT2())
+                                .mapNotNull(store -> {
+                                    StockRow row = table.get(LongStockTable.key(product.getId(), store.getId()));
+                                    return row != null ? toDomain(product.getId(), store.getId(), row, product, store) : null;
+                                })));
+    }
+
+    /**
+     * La tabla en memoria no tiene orden: el orden y los ids salen de la base y las cantidades,
+     * de memoria, que es la fuente de verdad.
+     */
+    @Override
+    public Flux<Inventory> findByStoreId(Long storeId, Long afterProductId, int limit) {
+        return inventoryPersistenceAdapter.findByStoreId(storeId, afterProductId, limit)
+                .map(persisted -> {
+                    StockRow row = table.get(LongStockTable.key(persisted.getProductId(), storeId));
+                    return row != null
+                            ? toDomain(persisted.getProductId(), storeId, row, persisted.getProduct(), persisted.getStore())
+                            : persisted;
+                });
+    }
+
+    /**
+     * La secuencia de cambios se asigna al persistir: la sincronización ve el estado del último flush.
+     */
+    @Override
+    public Flux<Inventory> findChangedSince(Long storeId, long afterChangeSeq, int limit) {
+        return inventoryPersistenceAdapter.findChangedSince(storeId, afterChangeSeq, limit);
+    }
+
+    @Override
+    public Mono<Long> findLastChangeSeq(Long storeId) {
+        return inventoryPersistenceAdapter.findLastChangeSeq(storeId);
+    }
+
+    @Override
+    public Flux<Inventory> streamAll() {
+        return inventoryPersistenceAdapter.streamAll()
+                .map(persisted -> {
+                    StockRow row = table.get(LongStockTable.key(persisted.getProductId(), persisted.getStoreId()));
+                    return row != null
+                            ? toDomain(persisted.getProductId(), persisted.getStoreId(), row,
+                                    persisted.getProduct(), persisted.getStore())
+                            : persisted;
+                });
+    }
+
+    @Override
+    public Mono<Inventory> findByProductIdAndStoreId(Long productId, Long storeId) {
+        StockRow row = table.get(LongStockTable.key(productId, storeId));
+        return row != null ? Mono.just(toDomain(productId, storeId, row, null, null)) : Mono.empty();
+    }
+
+    @Override
+    public Mono<Inventory> save(Inventory inventory) {
+        if (inventory == null) {
+            return Mono.error(new IllegalArgumentException("Inventory cannot be null"));
+        }
+
+        long key = LongStockTable.key(inventory.getProductId(), inventory.getStoreId());
+        return ensureCapacity().then(Mono.defer(() -> {
+            StockRow row = table.set(key, inventory.getVersion(), inventory.getAvailableQty(), System.currentTimeMillis());
+            if (row != null) {
+                return durable(key, row).map(persisted -> toDomain(inventory.getProductId(), inventory.getStoreId(),
+                        persisted, inventory.getProduct(), inventory.getStore()));
+            }
+            // Fila nueva: se inserta de forma síncrona para obtener su id y pasa a la tabla
+            return inventoryPersistenceAdapter.save(inventory).doOnNext(this::load);
+        }));
+    }
+
+    @Override
+    public Mono<Inventory> adjustAvailableQty(String sku, Long storeId, int delta) {
+        return ensureCapacity()
+                .then(productPort.findBySku(sku))
+                .flatMap(product -> {
+                    long key = LongStockTable.key(product.getId(), storeId);
+                    return durable(key, table.adjust(key, delta, System.currentTimeMillis()))
+                            .flatMap(row -> withStore(product, storeId, row));
+                });
+    }
+
+    @Override
+    public Mono<List<AdjustmentOutcome>> adjustAvailableQtyInSequence(String sku, Long storeId, List<Integer> adjustments) {
+        int[] deltas = adjustments.stream().mapToInt(Integer::intValue).toArray();
+        int[] previous = new int[deltas.length];
+        boolean[] applied = new boolean[deltas.length];
+
+        return ensureCapacity()
+                .then(productPort.findBySku(sku))
+                .flatMap(product -> {
+                    long key = LongStockTable.key(product.getId(), storeId);
+                    return durable(key, table.adjustInSequence(key, deltas, previous, applied, System.currentTimeMillis()))
+                            .flatMap(row -> withStore(product, storeId, row));
+                })
+                .map(current -> {
+                    List<AdjustmentOutcome> outcomes = new ArrayList<>(deltas.length);
+                    for (int i = 0; i < deltas.length; i++) {
+                        Inventory snapshot = toDomain(current);
+                        snapshot.setAvailableQty(applied[i] ? previous[i] + deltas[i] : previous[i]);
+                        outcomes.add(AdjustmentOutcome.builder()
+                                .adjustment(deltas[i])
+                                .applied(applied[i])
+                                .previousQty(previous[i])
+                                .inventory(snapshot)
+                                .build());
+                    }
+                    return outcomes;
+                });
+    }
+
+    @Override
+    public Mono<List<AdjustmentOutcome>> adjustAvailableQtyBatch(List<StockAdjustment> adjustments) {
+        return ensureCapacity().then(Mono.defer(() -> {
+            List<AdjustmentOutcome> outcomes = new ArrayList<>(adjustments.size());
+            long position = 0;
+            long now = System.currentTimeMillis();
+
+            for (StockAdjustment adjustment : adjustments) {
+                long key = LongStockTable.key(adjustment.getProductId(), adjustment.getStoreId());
+                StockRow row = table.adjust(key, adjustment.getDelta(), now);
+                boolean applied = row != null;
+                if (applied && journal != null) {
+                    position = journal.append(key, row);
+                }
+                if (!applied) {
+                    row = table.get(key);
+                }
+                outcomes.add(AdjustmentOutcome.builder()
+                        .adjustment(adjustment.getDelta())
+                        .applied(applied)
+                        .previousQty(row == null ? null
+                                : applied ? row.availableQty() - adjustment.getDelta() : row.availableQty())
+                        .inventory(row == null ? null
+                                : toDomain(adjustment.getProductId(), adjustment.getStoreId(), row, null, null))
+                        .build());
+            }
+
+            // Un único force confirma todas las deltas del lote
+            return position > 0 ? awaitJournal(position).thenReturn(outcomes) : Mono.just(outcomes);
+        }));
+    }
+
+    @Override
+    public Mono<List<AdjustmentOutcome>> adjustAvailableQtyAllOrNothing(List<StockAdjustment> adjustments) {
+        return ensureCapacity().then(Mono.defer(() -> {
+            long[] keys = new long[adjustments.size()];
+            int[] deltas = new int[adjustments.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = LongStockTable.key(adjustments.get(i).getProductId(), adjustments.get(i).getStoreId());
+                deltas[i] = adjustments.get(i).getDelta();
+            }
+            int[] previous = new int[keys.length];
+            StockRow[] rows = new StockRow[keys.length];
+            boolean applied = table.adjustAll(keys, deltas, previous, rows, System.currentTimeMillis());
+
+            long position = 0;
+            if (applied && journal != null) {
+                // Sólo el estado final de cada fila: la última delta de cada clave lo refleja. El journal
+                // es por fila, así que tras una caída se recupera cada fila escrita, no el lote como unidad
+                Set<Long> journaled = new HashSet<>();
+                for (int i = keys.length - 1; i >= 0; i--) {
+                    if (journaled.add(keys[i])) {
+                        position = Math.max(position, journal.append(keys[i], rows[i]));
+                    }
+                }
+            }
+
+            List<AdjustmentOutcome> outcomes = new ArrayList<>(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                StockAdjustment adjustment = adjustments.get(i);
+                outcomes.add(AdjustmentOutcome.builder()
+                        .adjustment(deltas[i])
+                        .applied(applied)
+                        .previousQty(rows[i] == null ? null : previous[i])
+                        .inventory(rows[i] == null ? null
+                                : toDomain(adjustment.getProductId(), adjustment.getStoreId(), rows[i], null, null))
+                        .build());
+            }
+
+            return position > 0 ? awaitJournal(position).thenReturn(outcomes) : Mono.just(outcomes);
+        }));
+    }
+
+    @Override
+    public Mono<List<TransferOutcome>> transfer(List<StockTransfer> transfers) {
+        return ensureCapacity().then(Mono.defer(() -> {
+            List<TransferOutcome> outcomes = new ArrayList<>(transfers.size());
+            long position = 0;
+            long now = System.currentTimeMillis();
+
+            for (StockTransfer transfer : transfers) {
+                long[] keys = {
+                        LongStockTable.key(transfer.getProductId(), transfer.getFromStoreId()),
+                        LongStockTable.key(transfer.getProductId(), transfer.getToStoreId())
+                };
+                int[] previous = new int[2];
+                StockRow[] rows = new StockRow[2];
+                // adjustAll bloquea los segmentos de ambas filas en orden ascendente
+                boolean applied = keys[0] != keys[1] && table.adjustAll(keys,
+                        new int[]{-transfer.getQuantity(), transfer.getQuantity()}, previous, rows, now);
+                if (keys[0] == keys[1]) {
+                    rows[0] = table.get(keys[0]);
+                    rows[1] = rows[0];
+                }
+                if (applied && journal != null) {
+                    journal.append(keys[0], rows[0]);
+                    position = journal.append(keys[1], rows[1]);
+                }
+                outcomes.add(TransferOutcome.builder()
+                        .applied(applied)
+                        .previousSourceQty(rows[0] == null ? null : applied ? previous[0] : rows[0].availableQty())
+                        .source(rows[0] == null ? null
+                                : toDomain(transfer.getProductId(), transfer.getFromStoreId(), rows[0], null, null))
+                        .destination(rows[1] == null ? null
+                                : toDomain(transfer.getProductId(), transfer.getToStoreId(), rows[1], null, null))
+                        .build());
+            }
+
+            // Un único force confirma todos los traspasos aplicados
+            return position > 0 ? awaitJournal(position).thenReturn(outcomes) : Mono.just(outcomes);
+        }));
+    }
+
+    /**
+     * Persiste todas las escrituras pendientes. Si ya hay un flush en curso se comparte su resultado.
+     */
+    public synchronized Mono<Void> flush() {
+        if (runningFlush == null) {
+            runningFlush = Mono.defer(() -> flushBatches(table.dirtyCount()))
+                    .then(Mono.<Void>fromRunnable(this::releaseJournal))
+                    .doFinally(signal -> clearRunningFlush())
+                    .cache();
+        }
+        return runningFlush;
+    }
+
+    private synchronized void clearRunningFlush() {
+        runningFlush = null;
+    }
+
+    private Mono<Void> flushBatches(int remaining) {
+        if (remaining <= 0) {
+            return Mono.empty();
+        }
+
+        List<DirtyRow> batch = table.drainDirty(Math.min(remaining, flushBatchSize));
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+
+        long start = System.nanoTime();
+        int[] expectedVersions = batch.stream().mapToInt(DirtyRow::persistedVersion).toArray();
+        List<Inventory> rows = batch.stream()
+                .map(row -> Inventory.builder()
+                        .id(row.rowId())
+                        .productId(LongStockTable.productId(row.key()))
+                        .storeId(LongStockTable.storeId(row.key()))
+                        .availableQty(row.availableQty())
+                        .version(row.version())
+                        .updatedAt(toLocalDateTime(row.updatedAt()))
+                        .build())
+                .toList();
+
+        return inventoryPersistenceAdapter.writeQuantities(rows, expectedVersions)
+                .doOnSuccess(conflicts -> {
+                    table.markPersisted(batch);
+                    // Otra escritura cambió la fila en la base: gana la base y la memoria se recarga
+                    conflicts.forEach(current -> {
+                        log.warn("Write-behind flush skipped inventory {} for product {} and store {}: " +
+                                        "version changed in the database, reloaded at version {}",
+                                current.getId(), current.getProductId(), current.getStoreId(), current.getVersion());
+                        table.reload(LongStockTable.key(current.getProductId(), current.getStoreId()),
+                                current.getId(),
+                                current.getAvailableQty(),
+                                reservedQty(current),
+                                current.getVersion(),
+                                toEpochMillis(current.getUpdatedAt()));
+                    });
+                    flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    flushedRows.increment(batch.size() - conflicts.size());
+                    flushConflicts.increment(conflicts.size());
+                    log.debug("Write-behind flushed {} inventory rows", batch.size() - conflicts.size());
+                })
+                .doOnError(error -> {
+                    table.restoreDirty(batch);
+                    flushFailures.increment();
+                    log.error("Write-behind flush of {} rows failed, rows kept pending: {}",
+                            batch.size(), error.getMessage(), error);
+                })
+                .then(Mono.defer(() -> flushBatches(remaining - batch.size())));
+    }
+
+    /**
+     * Libera los segmentos del journal cuyas escrituras ya están todas persistidas.
+     */
+    private void releaseJournal() {
+        if (journal == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long oldestDirty = table.oldestDirtySince();
+        journal.release(oldestDirty != 0 && oldestDirty - now < 0 ? oldestDirty : now);
+    }
+
+    /**
+     * Confirma la escritura en el journal antes de responder; el force se hace fuera del event loop.
+     */
+    private Mono<StockRow> durable(long key, StockRow row) {
+        if (row == null) {
+            return Mono.empty();
+        }
+        if (journal == null) {
+            return Mono.just(row);
+        }
+        return awaitJournal(journal.append(key, row)).thenReturn(row);
+    }
+
+    private Mono<Void> awaitJournal(long position) {
+        return Mono.<Void>fromRunnable(() -> journalSyncTimer.record(() -> journal.sync(position)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Void> ensureCapacity() {
+        return Mono.defer(() -> table.dirtyCount() >= maxDirtyEntries ? flush() : Mono.empty());
+    }
+
+    private void load(Inventory inventory) {
+        table.load(LongStockTable.key(inventory.getProductId(), inventory.getStoreId()),
+                inventory.getId(),
+                inventory.getAvailableQty(),
+                reservedQty(inventory),
+                inventory.getVersion(),
+                toEpochMillis(inventory.getUpdatedAt()));
+    }
+
+    private Mono<Inventory> withStore(Product product, Long storeId, StockRow row) {
+        if (row == null) {
+            return Mono.empty();
+        }
+        return storePort.findById(storeId)
+                .defaultIfEmpty(Store.builder().id(storeId).build())
+                .map(store -> toDomain(product.getId(), storeId, row, product, store));
+    }
+
+    private Inventory toDomain(Long productId, Long storeId, StockRow row, Product product, Store store) {
+        return Inventory.builder()
+                .id(row.rowId())
+                .productId(productId)
+                .storeId(storeId)
+                .availableQty(row.availableQty())
+                .reservedQty(row.reservedQty())
+                .version(row.version())
+                .updatedAt(toLocalDateTime(row.updatedAt()))
+                .product(product)
+                .store(store)
+                .build();
+    }
+
+    private Inventory toDomain(Inventory inventory) {
+        return Inventory.builder()
+                .id(inventory.getId())
+                .productId(inventory.getProductId())
+                .storeId(inventory.getStoreId())
+                .availableQty(inventory.getAvailableQty())
+                .reservedQty(inventory.getReservedQty())
+                .version(inventory.getVersion())
+                .updatedAt(inventory.getUpdatedAt())
+                .product(inventory.getProduct())
+                .store(inventory.getStore())
+                .build();
+    }
+
+    private static int reservedQty(Inventory inventory) {
+        return inventory.getReservedQty() != null ? inventory.getReservedQty() : 0;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime != null
+                ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+    }
+}
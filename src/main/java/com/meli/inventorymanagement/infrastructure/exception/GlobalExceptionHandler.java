@@ -219,20 +219,26 @@ public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
 
     private HttpStatus mapErrorCodeToHttpStatus(ErrorCode errorCode) {
         return switch (errorCode) {
-            case PRODUCT_NOT_FOUND, STORE_NOT_FOUND, INVENTORY_NOT_FOUND, USER_NOT_FOUND ->
+            case PRODUCT_NOT_FOUND, STORE_NOT_FOUND, INVENTORY_NOT_FOUND, RESERVATION_NOT_FOUND, USER_NOT_FOUND ->
                     HttpStatus.NOT_FOUND;
             case INVALID_SKU_FORMAT, INVALID_PARAMETER_FORMAT, NEGATIVE_QUANTITY_NOT_ALLOWED,
                  INVALID_ADJUSTMENT, VALIDATION_ERROR ->
                     HttpStatus.BAD_REQUEST;
-            case INSUFFICIENT_STOCK, INVENTORY_OPERATION_FAILED ->
+            case INSUFFICIENT_STOCK, INVENTORY_OPERATION_FAILED, RESERVATION_NOT_ACTIVE ->
                     HttpStatus.CONFLICT;
-            case INVALID_CREDENTIALS, AUTHENTICATION_FAILED, TOKEN_EXTRACTION_ERROR ->
+            case INVALID_CREDENTIALS, AUTHENTICATION_FAILED, TOKEN_EXTRACTION_ERROR, INVALID_TOKEN ->
                     HttpStatus.UNAUTHORIZED;
             case STORE_PERMISSION_DENIED, USER_NOT_AUTHENTICATED, ADMIN_ACCESS_REQUIRED,
                  ACCESS_DENIED_TO_STORE, USER_ACCOUNT_INACTIVE ->
                     HttpStatus.FORBIDDEN;
             case OPTIMISTIC_LOCK_FAILURE ->
                     HttpStatus.CONFLICT;
+            case IDEMPOTENCY_KEY_REUSED ->
+                    HttpStatus.UNPROCESSABLE_ENTITY;
+            case SYNC_CURSOR_EXPIRED ->
+                    HttpStatus.GONE;
+            case SERVICE_UNAVAILABLE ->
+                    HttpStatus.SERVICE_UNAVAILABLE;
             default ->
                     HttpStatus.INTERNAL_SERVER_ERROR;
         };
@@ -0,0 +1,74 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import com.meli.inventorymanagement.domain.port.GrantRevocationPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decide si los permisos firmados en un token todavía se pueden usar: el token debe haberse
+ * emitido dentro de {@code jwt.grants.max-age} y después de la última revocación de su usuario.
+ * Si no, la autorización vuelve a consultar la base, que refleja el estado actual del usuario.
+ * <p>
+ * Una revocación también descarta al usuario de {@link StorePermissionCache}.
+ * <p>
+ * Una revocación sólo importa mientras existan tokens emitidos antes y todavía dentro de la
+ * ventana, así que se olvida al pasar {@code max-age}. Las revocaciones son locales a la instancia:
+ * en otras instancias los permisos anteriores se usan como mucho hasta que vence la ventana.
+ */
+@Slf4j
+@Component
+public class GrantRevocationRegistry implements GrantRevocationPort {
+
+    private final long maxAgeMillis;
+    // Ausente si la caché de permisos está deshabilitada
+    private final Optional<StorePermissionCache> storePermissionCache;
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+    private volatile long allRevokedAt;
+
+    public GrantRevocationRegistry(@Value("${jwt.grants.max-age:5m}") Duration maxAge,
+                                   Optional<StorePermissionCache> storePermissionCache) {
+        this.maxAgeMillis = maxAge.toMillis();
+        this.storePermissionCache = storePermissionCache;
+        log.info("Token grants trusted for {}", maxAge);
+    }
+
+    @Override
+    public void revoke(String username) {
+        long now = System.currentTimeMillis();
+        revokedAt.put(username, now);
+        revokedAt.values().removeIf(at -> now - at > maxAgeMillis);
+        storePermissionCache.ifPresent(cache -> cache.invalidate(username));
+        log.info("Token grants revoked for user: {}", username);
+    }
+
+    @Override
+    public void revokeAll() {
+        allRevokedAt = System.currentTimeMillis();
+        revokedAt.clear();
+        storePermissionCache.ifPresent(StorePermissionCache::invalidateAll);
+        log.info("Token grants revoked for all users");
+    }
+
+    /**
+     * El iat del token tiene precisión de segundos: un token emitido en el mismo segundo que la
+     * revocación se considera anterior.
+     */
+    public boolean isCurrent(String username, Date issuedAt) {
+        if (maxAgeMillis <= 0 || issuedAt == null) {
+            return false;
+        }
+        long issued = issuedAt.getTime();
+        if (System.currentTimeMillis() - issued > maxAgeMillis) {
+            return false;
+        }
+        Long userRevokedAt = revokedAt.get(username);
+        return issued > allRevokedAt && (userRevokedAt == null || issued > userRevokedAt);
+    }
+}
@@ -7,6 +7,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
@@ -54,35 +56,47 @@ public class JwtAuthenticationFilter implements WebFilter {
                             "Invalid or malformed token"
                     );
                 })
-                .flatMap(username -> userDetailsService.findByUsername(username)
-                        .onErrorMap(e -> {
-                            log.error("Error loading user details: {}", e.getMessage());
-                            return new BusinessException(
-                                    ErrorCode.USER_NOT_FOUND,
-                                    "User not found: " + username
-                            );
-                        })
-                        .flatMap(userDetails -> {
-                            if (!jwtUtil.validateToken(jwt, username)) {
-                                log.warn("Invalid JWT token for user: {}", username);
-                                return Mono.error(new BusinessException(
-                                        ErrorCode.INVALID_TOKEN,
-                                        "Token validation failed"
-                                ));
-                            }
+                .flatMap(username -> {
+                    // Con permisos vigentes en el token no hace falta consultar al usuario en la base
+                    StoreAccess storeAccess = jwtUtil.extractStoreAccess(jwt);
+                    Mono<UserDetails> userDetailsMono = storeAccess != null
+                            ? Mono.just(User.withUsername(username)
+                                    .password("")
+                                    .authorities("ROLE_" + storeAccess.getRole())
+                                    .build())
+                            : userDetailsService.findByUsername(username)
+                                    .onErrorMap(e -> {
+                                        log.error("Error loading user details: {}", e.getMessage());
+                                        return new BusinessException(
+                                                ErrorCode.USER_NOT_FOUND,
+                                                "User not found: " + username
+                                        );
+                                    });
 
-                            UsernamePasswordAuthenticationToken authentication =
-                                    new UsernamePasswordAuthenticationToken(
-                                            userDetails,
-                                            null,
-                                            userDetails.getAuthorities()
-                                    );
+                    return userDetailsMono.flatMap(userDetails -> {
+                        if (!jwtUtil.validateToken(jwt, username)) {
+                            log.warn("Invalid JWT token for user: {}", username);
+                            return Mono.error(new BusinessException(
+                                    ErrorCode.INVALID_TOKEN,
+                                    "Token validation failed"
+                            ));
+                        }
 
-                            log.debug("JWT token validated successfully for user: {}", username);
+                        UsernamePasswordAuthenticationToken authentication =
+                                new UsernamePasswordAuthenticationToken(
+                                        userDetails,
+                                        null,
+                                        userDetails.getAuthorities()
+                                );
+                        // StorePermissionAspect autoriza con estos permisos en lugar de consultar la base
+                        authentication.setDetails(storeAccess);
 
-                            return chain.filter(exchange)
-                                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
-                        })
-                );
+                        log.debug("JWT token validated successfully for user: {} - Grants from token: {}",
+                                username, storeAccess != null);
+
+                        return chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+                    });
+                });
     }
 }
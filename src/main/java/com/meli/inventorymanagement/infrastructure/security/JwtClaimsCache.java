@@ -0,0 +1,306 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché de claims de tokens ya verificados, para que cada token se verifique y parsee una sola
+ * vez en su vida útil y no en cada request.
+ * <p>
+ * La clave es el SHA-256 del token: en memoria no quedan tokens utilizables. Cada entrada vence
+ * con el {@code exp} del token; una entrada vencida se descarta y el token se vuelve a verificar,
+ * que falla como siempre por expiración. Sólo se guardan tokens válidos, así que un token
+ * inválido nunca reemplaza a uno verificado. Acotada por tamaño (LRU por segmento).
+ */
+@Slf4j
+@Component
+public class JwtClaimsCache {
+
+    private static final int SEGMENTS = 16;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public JwtClaimsCache(MeterRegistry meterRegistry,
+                          @Value("${jwt.cache.max-size:100000}") int maxSize) {
+        this.segments = new Segment[SEGMENTS];
+        int segmentCapacity = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", "jwt-claims").tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", "jwt-claims").tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tag("cache", "jwt-claims")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, JwtClaimsCache::size)
+                .tag("cache", "jwt-claims")
+                .register(meterRegistry);
+
+        log.info("JWT claims cache enabled - Max size: {}", maxSize);
+    }
+
+    /**
+     * Devuelve los claims verificados del token, verificándolo con {@code verifier} si no están en
+     * caché o vencieron. Las excepciones del verificador se propagan sin cachear nada.
+     * Los claims devueltos se comparten entre requests, así que son de sólo lectura: cualquier
+     * intento de modificarlos, incluidas las listas y mapas anidados, lanza
+     * UnsupportedOperationException.
+     */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        TokenDigest digest = digest(token);
+        Segment segment = segmentFor(digest);
+
+        CachedClaims entry = segment.get(digest);
+        if (entry != null) {
+            if (System.currentTimeMillis() < entry.expiresAt()) {
+                hits.increment();
+                return entry.claims();
+            }
+            segment.remove(digest);
+        }
+
+        misses.increment();
+        Claims claims = new ReadOnlyClaims(verifier.apply(token));
+        // Sin exp no hay cuándo descartarlo: se verifica en cada uso
+        if (claims.getExpiration() != null) {
+            segment.put(digest, new CachedClaims(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        log.info("JWT claims cache invalidated");
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private static TokenDigest digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    private Segment segmentFor(TokenDigest digest) {
+        return segments[(int) digest.h0() & (SEGMENTS - 1)];
+    }
+
+    private record TokenDigest(long h0, long h1, long h2, long h3) {
+    }
+
+    private record CachedClaims(Claims claims, long expiresAt) {
+    }
+
+    /**
+     * Vista inmutable de los claims verificados. Los valores compuestos se copian una vez como
+     * colecciones no modificables; las fechas y los escalares se resuelven con los claims
+     * originales, que devuelven una instancia nueva de Date en cada llamada.
+     */
+    private static final class ReadOnlyClaims extends AbstractMap<String, Object> implements Claims {
+
+        private final Claims claims;
+        private final Map<String, Object> values;
+
+        private ReadOnlyClaims(Claims claims) {
+            this.claims = claims;
+            Map<String, Object> copy = new LinkedHashMap<>(claims.size() * 2);
+            claims.forEach((name, value) -> copy.put(name, freeze(value)));
+            this.values = Collections.unmodifiableMap(copy);
+        }
+
+        private static Object freeze(Object value) {
+            if (value instanceof Map<?, ?> map) {
+                Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 2);
+                map.forEach((key, nested) -> copy.put(key, freeze(nested)));
+                return Collections.unmodifiableMap(copy);
+            }
+            if (value instanceof Collection<?> collection) {
+                List<Object> copy = new ArrayList<>(collection.size());
+                collection.forEach(nested -> copy.add(freeze(nested)));
+                return Collections.unmodifiableList(copy);
+            }
+            return value;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return values.entrySet();
+        }
+
+        @Override
+        public Object get(Object name) {
+            return values.get(name);
+        }
+
+        @Override
+        public boolean containsKey(Object name) {
+            return values.containsKey(name);
+        }
+
+        @Override
+        public <T> T get(String name, Class<T> requiredType) {
+            Object value = values.get(name);
+            return value instanceof Map || value instanceof List
+                    ? requiredType.cast(value)
+                    : claims.get(name, requiredType);
+        }
+
+        @Override
+        public String getIssuer() {
+            return claims.getIssuer();
+        }
+
+        @Override
+        public String getSubject() {
+            return claims.getSubject();
+        }
+
+        @Override
+        public String getAudience() {
+            return claims.getAudience();
+        }
+
+        @Override
+        public Date getExpiration() {
+            return claims.getExpiration();
+        }
+
+        @Override
+        public Date getNotBefore() {
+            return claims.getNotBefore();
+        }
+
+        @Override
+        public Date getIssuedAt() {
+            return claims.getIssuedAt();
+        }
+
+        @Override
+        public String getId() {
+            return claims.getId();
+        }
+
+        @Override
+        public Claims setIssuer(String issuer) {
+            throw readOnly();
+        }
+
+        @Override
+        public Claims setSubject(String subject) {
+            throw readOnly();
+        }
+
+        @Override
+        public Claims setAudience(String audience) {
+            throw readOnly();
+        }
+
+        @Override
+        public Claims setExpiration(Date expiration) {
+            throw readOnly();
+        }
+
+        @Override
+        public Claims setNotBefore(Date notBefore) {
+            throw readOnly();
+        }
+
+        @Override
+        public Claims setIssuedAt(Date issuedAt) {
+            throw readOnly();
+        }
+
+        @Override
+        public Claims setId(String id) {
+            throw readOnly();
+        }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Cached JWT claims are read-only");
+        }
+    }
+
+    private final class Segment {
+
+        private final LinkedHashMap<TokenDigest, CachedClaims> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<TokenDigest, CachedClaims> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized CachedClaims get(TokenDigest digest) {
+            return entries.get(digest);
+        }
+
+        synchronized void put(TokenDigest digest, CachedClaims entry) {
+            entries.put(digest, entry);
+        }
+
+        synchronized void remove(TokenDigest digest) {
+            entries.remove(digest);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
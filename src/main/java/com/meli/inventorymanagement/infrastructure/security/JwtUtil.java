@@ -1,8 +1,10 @@
 package com.meli.inventorymanagement.infrastructure.security;
 
+import com.meli.inventorymanagement.domain.model.UserGrants;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -23,14 +25,28 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:mySecretKeyForInventoryManagementSystemThatIsLongEnough}")
-    private String secret;
-
-    @Value("${jwt.expiration:86400000}")
-    private Long expiration;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    static final String ROLE_CLAIM = "role";
+    static final String STORES_CLAIM = "stores";
+
+    private final Long expiration;
+    private final JwtClaimsCache claimsCache;
+    private final GrantRevocationRegistry grantRevocationRegistry;
+
+    // La clave y el parser son inmutables y thread-safe: se construyen una sola vez
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${jwt.secret:mySecretKeyForInventoryManagementSystemThatIsLongEnough}") String secret,
+                   @Value("${jwt.expiration:86400000}") Long expiration,
+                   JwtClaimsCache claimsCache,
+                   GrantRevocationRegistry grantRevocationRegistry) {
+        this.expiration = expiration;
+        this.claimsCache = claimsCache;
+        this.grantRevocationRegistry = grantRevocationRegistry;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(String username) {
@@ -50,6 +66,51 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * Token con el rol y las tiendas del usuario firmados como claims. Si alguna tienda no se
+     * puede representar, el token sale sin permisos y la autorización consulta la base.
+     */
+    public String generateToken(UserGrants grants) {
+        String username = grants.getUsername();
+        log.debug("Generating JWT token with grants for user: {}", username);
+
+        try {
+            Map<String, Object> claims = new HashMap<>();
+            StoreAccess access = StoreAccess.of(grants.getRole(), grants.getStoreIds());
+            if (access != null) {
+                claims.put(ROLE_CLAIM, access.getRole());
+                if (access.storeCount() > 0) {
+                    claims.put(STORES_CLAIM, access.toClaim());
+                }
+            } else {
+                log.warn("Store grants of user {} cannot be embedded in the token", username);
+            }
+            String token = createToken(claims, username);
+
+            log.info("JWT token generated successfully for user: {} - Role: {} - Stores: {} - Token expires in {} ms",
+                    username, grants.getRole(), access != null ? access.storeCount() : 0, expiration);
+
+            return token;
+        } catch (Exception e) {
+            log.error("Failed to generate JWT token for user: {} - Error: {}", username, e.getMessage(), e);
+            throw new RuntimeException("Token generation failed", e);
+        }
+    }
+
+    /**
+     * Permisos firmados en el token, si todavía se pueden usar (ver {@link GrantRevocationRegistry}).
+     * Devuelve null si el token no los trae, quedaron viejos o fueron revocados: en ese caso la
+     * autorización se resuelve con la base. El token debe estar validado.
+     */
+    public StoreAccess extractStoreAccess(String token) {
+        Claims claims = extractAllClaims(token);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (role == null || !grantRevocationRegistry.isCurrent(claims.getSubject(), claims.getIssuedAt())) {
+            return null;
+        }
+        return StoreAccess.fromClaim(role, claims.get(STORES_CLAIM));
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         Date now = new Date();
         Date expirationDate = new Date(now.getTime() + expiration);
@@ -62,7 +123,7 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expirationDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -70,8 +131,8 @@ public class JwtUtil {
         log.debug("Validating JWT token for user: {}", username);
 
         try {
-            final String extractedUsername = extractUsername(token);
-            boolean isValid = (extractedUsername.equals(username) && !isTokenExpired(token));
+            final Claims claims = extractAllClaims(token);
+            boolean isValid = (claims.getSubject().equals(username) && !isTokenExpired(claims.getExpiration()));
 
             if (isValid) {
                 log.debug("JWT token validation successful for user: {}", username);
@@ -129,22 +190,25 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Claims del token con la firma verificada. Un token ya verificado se resuelve desde la caché
+     * hasta su expiración, sin volver a verificar la firma ni parsear el JSON.
+     */
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return claimsCache.get(token, this::parseClaims);
         } catch (JwtException e) {
             log.debug("Failed to parse JWT claims - Error: {}", e.getMessage());
             throw e;
         }
     }
 
-    private Boolean isTokenExpired(String token) {
+    private Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private Boolean isTokenExpired(Date expiration) {
         try {
-            Date expiration = extractExpiration(token);
             boolean expired = expiration.before(new Date());
 
             if (expired) {
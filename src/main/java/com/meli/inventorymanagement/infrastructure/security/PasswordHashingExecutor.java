@@ -0,0 +1,111 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifica contraseñas BCrypt en un pool propio y acotado, fuera de los event loops de Netty y
+ * R2DBC: un pico de logins consume sólo estos hilos y el tráfico de inventario no espera detrás
+ * de los hashes. BCrypt es CPU puro, así que el pool se dimensiona por núcleos; con la cola
+ * llena el login se rechaza de inmediato con SERVICE_UNAVAILABLE en lugar de acumular esperas.
+ * <p>
+ * Por defecto usa un hilo por núcleo (al menos 2): el throughput de logins es hilos / duración
+ * del hash, y con menos hilos que núcleos una ráfaga de 500 logins/s en un pod de 2 núcleos se
+ * atendería con uno solo. La cola por defecto absorbe un segundo de esa ráfaga; lo que no entra
+ * se rechaza sin esperar.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final LongAdder rejections = new LongAdder();
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${auth.password-hashing.threads:0}") int threads,
+                                   @Value("${auth.password-hashing.queue-capacity:500}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : defaultPoolSize();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("Duración de cada verificación BCrypt")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.password.rejections", rejections, LongAdder::doubleValue)
+                .register(meterRegistry);
+
+        log.info("Password hashing pool enabled - Threads: {} - Queue capacity: {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Compara la contraseña con su hash en el pool de hashing. Si el pool está saturado emite
+     * SERVICE_UNAVAILABLE sin esperar.
+     */
+    public Mono<Boolean> matches(String rawPassword, String passwordHash) {
+        return Mono.defer(() -> {
+            CompletableFuture<Boolean> result;
+            try {
+                result = CompletableFuture.supplyAsync(
+                        () -> hashTimer.record(() -> passwordEncoder.matches(rawPassword, passwordHash)), executor);
+            } catch (RejectedExecutionException e) {
+                rejections.increment();
+                log.warn("Password hashing pool saturated, rejecting login - Queued: {}", executor.getQueue().size());
+                return Mono.error(new BusinessException(ErrorCode.SERVICE_UNAVAILABLE,
+                        "Too many concurrent logins, retry later"));
+            }
+            return Mono.fromFuture(result, true);
+        });
+    }
+
+    // 0 hilos configurados: uno por núcleo, al menos 2
+    static int defaultPoolSize() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    int poolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,109 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Rol y tiendas permitidas de un usuario, con las tiendas en un bitset: consultar una tienda es
+ * un acceso a memoria. Inmutable.
+ * <p>
+ * En el token las tiendas viajan como lista de ids o, si ocupa menos, como bitmap en base64url
+ * (usuarios con muchas tiendas). Sólo se representan ids entre 0 y {@link Integer#MAX_VALUE};
+ * para otros ids no se construye y la autorización consulta la base.
+ */
+public final class StoreAccess {
+
+    private final String role;
+    private final BitSet stores;
+
+    private StoreAccess(String role, BitSet stores) {
+        this.role = role;
+        this.stores = stores;
+    }
+
+    /**
+     * @return null si alguna tienda no se puede representar
+     */
+    public static StoreAccess of(String role, Collection<Long> storeIds) {
+        BitSet stores = new BitSet();
+        if (storeIds != null) {
+            for (Long storeId : storeIds) {
+                if (storeId == null || storeId < 0 || storeId > Integer.MAX_VALUE) {
+                    return null;
+                }
+                stores.set(storeId.intValue());
+            }
+        }
+        return new StoreAccess(role, stores);
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean allowsStore(Long storeId) {
+        return storeId != null && storeId >= 0 && storeId <= Integer.MAX_VALUE && stores.get(storeId.intValue());
+    }
+
+    /**
+     * Chequeo en bloque para pedidos que tocan varias tiendas.
+     *
+     * @return la primera tienda no permitida, o null si todas lo están
+     */
+    public Long firstDeniedStore(Collection<Long> storeIds) {
+        for (Long storeId : storeIds) {
+            if (!allowsStore(storeId)) {
+                return storeId;
+            }
+        }
+        return null;
+    }
+
+    public int storeCount() {
+        return stores.cardinality();
+    }
+
+    /**
+     * Valor del claim de tiendas: lista de ids o bitmap, el que resulte más corto.
+     */
+    Object toClaim() {
+        List<Integer> ids = new ArrayList<>(stores.cardinality());
+        int listLength = 2;
+        for (int id = stores.nextSetBit(0); id >= 0; id = stores.nextSetBit(id + 1)) {
+            ids.add(id);
+            listLength += String.valueOf(id).length() + 1;
+        }
+        String bitmap = Base64.getUrlEncoder().withoutPadding().encodeToString(stores.toByteArray());
+        return bitmap.length() + 2 < listLength ? bitmap : ids;
+    }
+
+    /**
+     * @return null si el claim no tiene un formato reconocible
+     */
+    static StoreAccess fromClaim(String role, Object claim) {
+        if (claim == null) {
+            return new StoreAccess(role, new BitSet());
+        }
+        if (claim instanceof String bitmap) {
+            try {
+                return new StoreAccess(role, BitSet.valueOf(Base64.getUrlDecoder().decode(bitmap)));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        if (claim instanceof Collection<?> ids) {
+            BitSet stores = new BitSet();
+            for (Object id : ids) {
+                if (!(id instanceof Number number) || number.longValue() < 0 || number.longValue() > Integer.MAX_VALUE) {
+                    return null;
+                }
+                stores.set(number.intValue());
+            }
+            return new StoreAccess(role, stores);
+        }
+        return null;
+    }
+}
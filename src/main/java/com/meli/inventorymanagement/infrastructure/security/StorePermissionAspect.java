@@ -10,14 +10,21 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 @Slf4j
 @Aspect
@@ -27,14 +34,42 @@ public class StorePermissionAspect {
 
     private final UserPort userPort;
     private final AuthenticationPort authenticationPort;
+    // Ausente si la caché de permisos está deshabilitada
+    private final Optional<StorePermissionCache> storePermissionCache;
+
+    // Descriptor por handler: se compilan al arrancar y la invocación no usa reflexión
+    private final Map<Method, StorePermissionDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void compileDescriptors(ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values().stream()
+                .flatMap(mapping -> mapping.getHandlerMethods().values().stream())
+                .map(HandlerMethod::getMethod)
+                .forEach(method -> {
+                    RequireStorePermission annotation = method.getAnnotation(RequireStorePermission.class);
+                    if (annotation != null) {
+                        descriptors.computeIfAbsent(method, m -> StorePermissionDescriptor.compile(m, annotation));
+                    }
+                });
+        log.info("Compiled store permission rules for {} handlers", descriptors.size());
+    }
+
+    // Descriptor compilado para el handler, null si todavía no se compiló
+    StorePermissionDescriptor descriptorOf(Method method) {
+        return descriptors.get(method);
+    }
 
     @Around("@annotation(requireStorePermission)")
     public Object checkStorePermission(ProceedingJoinPoint joinPoint, RequireStorePermission requireStorePermission) {
 
-        Long storeId = extractStoreId(joinPoint, requireStorePermission.storeIdParam());
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        StorePermissionDescriptor descriptor = descriptors.computeIfAbsent(method,
+                m -> StorePermissionDescriptor.compile(m, requireStorePermission));
+        RequireStorePermission policy = descriptor.policy();
+        Set<Long> storeIds = descriptor.storeIds(joinPoint.getArgs());
 
-        log.debug("Store permission check - storeId: {}, adminOnly: {}, webUserAllowed: {}",
-                storeId, requireStorePermission.adminOnly(), requireStorePermission.webUserAllowed());
+        log.debug("Store permission check - storeIds: {}, adminOnly: {}, webUserAllowed: {}",
+                storeIds, policy.adminOnly(), policy.webUserAllowed());
 
         // Verificación de permisos que se ejecutará primero
         Mono<Void> permissionCheck = ReactiveSecurityContextHolder.getContext()
@@ -47,130 +82,103 @@ public class StorePermissionAspect {
                     String username = securityContext.getAuthentication().getName();
                     log.debug("Checking permissions for user: {}", username);
 
-                    return userPort.findByUsername(username)
+                    // Permisos firmados en el token: se autoriza sin consultar la base
+                    if (securityContext.getAuthentication().getDetails() instanceof StoreAccess storeAccess) {
+                        return authorize(username, storeAccess, storeIds, policy);
+                    }
+
+                    Mono<Void> databaseCheck = Mono.defer(() -> userPort.findByUsername(username)
                             .switchIfEmpty(Mono.error(new BusinessException(ErrorCode.USER_NOT_FOUND, "User not found: " + username)))
-                            .flatMap(user -> {
-                                log.debug("User found: {} with role: {}", username, user.getRole());
-
-                                // Si es admin, puede acceder a todo
-                                if ("ADMIN".equals(user.getRole())) {
-                                    log.debug("Admin user {} granted access", username);
-                                    return Mono.empty();
-                                }
-
-                                // Si el endpoint permite WEB_USER y el usuario es WEB_USER, permitir acceso
-                                if (requireStorePermission.webUserAllowed() && "WEB_USER".equals(user.getRole())) {
-                                    log.debug("Web user {} granted access to web-allowed endpoint", username);
-                                    return Mono.empty();
-                                }
-
-                                // Si el endpoint es solo para admin y no es admin, denegar
-                                if (requireStorePermission.adminOnly()) {
-                                    if ("WEB_USER".equals(user.getRole())) {
-                                        log.warn("Web user {} attempted admin-only operation", username);
-                                        return Mono.error(new BusinessException(
-                                                ErrorCode.INSUFFICIENT_PERMISSIONS,
-                                                "Web users can only access product inventory queries"));
-                                    }
-                                    log.warn("User {} attempted admin-only operation without admin role", username);
-                                    return Mono.error(new BusinessException(
-                                            ErrorCode.ADMIN_ACCESS_REQUIRED,
-                                            "User " + username + " does not have admin privileges"));
-                                }
-
-                                // WEB_USER solo puede acceder a endpoints marcados como webUserAllowed
-                                if ("WEB_USER".equals(user.getRole())) {
-                                    log.warn("Web user {} attempted to access non-web endpoint", username);
-                                    return Mono.error(new BusinessException(
-                                            ErrorCode.INSUFFICIENT_PERMISSIONS,
-                                            "Web users can only access product inventory queries"));
-                                }
-
-                                // Para usuarios de tienda, verificar permisos específicos
-                                if (storeId != null) {
-                                    log.debug("Checking store permission for user {} and store {}", username, storeId);
-                                    return authenticationPort.hasStorePermission(username, storeId)
-                                            .flatMap(hasPermission -> {
-                                                log.debug("Store permission result for user {} and store {}: {}",
-                                                        username, storeId, hasPermission);
-                                                if (!hasPermission) {
-                                                    log.warn("User {} denied access to store {}", username, storeId);
-                                                    return Mono.error(new BusinessException(
-                                                            ErrorCode.ACCESS_DENIED_TO_STORE,
-                                                            "User " + username + " does not have permission for store " + storeId));
-                                                }
-                                                return Mono.empty();
-                                            });
-                                }
-
-                                log.warn("No storeId found in request for non-admin user: {}", username);
-                                return Mono.error(new BusinessException(ErrorCode.INVALID_REQUEST, "Store ID is required"));
-                            });
+                            .flatMap(user -> authorize(username, user.getRole(), storeIds, policy,
+                                    ids -> firstDeniedStoreInDatabase(username, ids))));
+
+                    return storePermissionCache
+                            .map(cache -> cache.get(username)
+                                    .map(access -> authorize(username, access, storeIds, policy))
+                                    .switchIfEmpty(Mono.fromSupplier(() -> databaseCheck))
+                                    .flatMap(check -> check))
+                            .orElse(databaseCheck);
                 })
                 .then();
 
-        // Determinar el tipo de retorno del método
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Class<?> returnType = signature.getReturnType();
-
         // Defer la ejecución del método hasta después de la verificación de permisos
-        if (Mono.class.isAssignableFrom(returnType)) {
-            return permissionCheck.then(Mono.defer(() -> {
-                try {
-                    log.debug("Executing controller method after permission check passed");
-                    return (Mono<?>) joinPoint.proceed();
-                } catch (Throwable e) {
-                    log.error("Error executing controller method: {}", e.getMessage(), e);
-                    return Mono.error(e);
-                }
-            }));
-        } else if (Flux.class.isAssignableFrom(returnType)) {
-            return permissionCheck.thenMany(Flux.defer(() -> {
-                try {
-                    log.debug("Executing controller method (Flux) after permission check passed");
-                    return (Flux<?>) joinPoint.proceed();
-                } catch (Throwable e) {
-                    log.error("Error executing controller method: {}", e.getMessage(), e);
-                    return Flux.error(e);
-                }
-            }));
-        } else {
-            // Para otros tipos de retorno
-            return permissionCheck.then(Mono.defer(() -> {
-                try {
-                    log.debug("Executing controller method (other) after permission check passed");
-                    return Mono.just(joinPoint.proceed());
-                } catch (Throwable e) {
-                    log.error("Error executing controller method: {}", e.getMessage(), e);
-                    return Mono.error(e);
-                }
-            }));
-        }
+        return descriptor.returnAdapter().guard(permissionCheck, joinPoint);
     }
 
-    private Long extractStoreId(ProceedingJoinPoint joinPoint, String paramName) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        Parameter[] parameters = method.getParameters();
-        Object[] args = joinPoint.getArgs();
-
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter parameter = parameters[i];
-            PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
-
-            if (pathVariable != null) {
-                String pathVarName = pathVariable.value().isEmpty() ? pathVariable.name() : pathVariable.value();
-                if (pathVarName.isEmpty()) {
-                    pathVarName = parameter.getName();
-                }
-
-                if (paramName.equals(pathVarName) && args[i] instanceof Long) {
-                    return (Long) args[i];
-                }
+    private Mono<Void> authorize(String username, StoreAccess access, Set<Long> storeIds,
+                                 RequireStorePermission requireStorePermission) {
+        return authorize(username, access.getRole(), storeIds, requireStorePermission,
+                ids -> Mono.justOrEmpty(access.firstDeniedStore(ids)));
+    }
+
+    private Mono<Long> firstDeniedStoreInDatabase(String username, Set<Long> storeIds) {
+        return Flux.fromIterable(storeIds)
+                .concatMap(storeId -> {
+                    log.debug("Checking store permission for user {} and store {}", username, storeId);
+                    return authenticationPort.hasStorePermission(username, storeId)
+                            .filter(hasPermission -> !hasPermission)
+                            .map(denied -> storeId);
+                })
+                .next();
+    }
+
+    /**
+     * Política de {@link RequireStorePermission} para un rol.
+     *
+     * @param firstDeniedStore primera de las tiendas pedidas sin permiso, vacío si tiene todas
+     */
+    private Mono<Void> authorize(String username, String role, Set<Long> storeIds,
+                                 RequireStorePermission requireStorePermission,
+                                 Function<Set<Long>, Mono<Long>> firstDeniedStore) {
+        log.debug("User found: {} with role: {}", username, role);
+
+        // Si es admin, puede acceder a todo
+        if ("ADMIN".equals(role)) {
+            log.debug("Admin user {} granted access", username);
+            return Mono.empty();
+        }
+
+        // Si el endpoint permite WEB_USER y el usuario es WEB_USER, permitir acceso
+        if (requireStorePermission.webUserAllowed() && "WEB_USER".equals(role)) {
+            log.debug("Web user {} granted access to web-allowed endpoint", username);
+            return Mono.empty();
+        }
+
+        // Si el endpoint es solo para admin y no es admin, denegar
+        if (requireStorePermission.adminOnly()) {
+            if ("WEB_USER".equals(role)) {
+                log.warn("Web user {} attempted admin-only operation", username);
+                return Mono.error(new BusinessException(
+                        ErrorCode.INSUFFICIENT_PERMISSIONS,
+                        "Web users can only access product inventory queries"));
             }
+            log.warn("User {} attempted admin-only operation without admin role", username);
+            return Mono.error(new BusinessException(
+                    ErrorCode.ADMIN_ACCESS_REQUIRED,
+                    "User " + username + " does not have admin privileges"));
+        }
+
+        // WEB_USER solo puede acceder a endpoints marcados como webUserAllowed
+        if ("WEB_USER".equals(role)) {
+            log.warn("Web user {} attempted to access non-web endpoint", username);
+            return Mono.error(new BusinessException(
+                    ErrorCode.INSUFFICIENT_PERMISSIONS,
+                    "Web users can only access product inventory queries"));
+        }
+
+        // Para usuarios de tienda, verificar permisos específicos (todas las tiendas distintas en un chequeo)
+        if (!storeIds.isEmpty()) {
+            return firstDeniedStore.apply(storeIds)
+                    .flatMap(storeId -> {
+                        log.warn("User {} denied access to store {}", username, storeId);
+                        return Mono.<Void>error(new BusinessException(
+                                ErrorCode.ACCESS_DENIED_TO_STORE,
+                                "User " + username + " does not have permission for store " + storeId));
+                    })
+                    .doOnSuccess(ignored -> log.debug("User {} granted access to stores {}", username, storeIds));
         }
 
-        log.warn("Could not extract storeId from method parameters");
-        return null;
+        log.warn("No storeId found in request for non-admin user: {}", username);
+        return Mono.error(new BusinessException(ErrorCode.INVALID_REQUEST, "Store ID is required"));
     }
 }
@@ -0,0 +1,172 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import com.meli.inventorymanagement.domain.port.AuthenticationPort;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de la matriz usuario-tienda: rol y tiendas permitidas de cada usuario como bitset, cargados
+ * de {@code users} y {@code user_store_permissions} con una sola consulta por usuario. Con la entrada
+ * en caché, autorizar una o varias tiendas no toca la base.
+ * <p>
+ * Las entradas se invalidan por {@link GrantRevocationRegistry} cuando cambian los permisos del
+ * usuario y vencen por TTL como resguardo. Una carga iniciada antes de una invalidación no se
+ * guarda, para no reinstalar permisos viejos. Acotada por tamaño (LRU por segmento).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.cache.permissions.enabled", havingValue = "true", matchIfMissing = true)
+public class StorePermissionCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final AuthenticationPort authenticationPort;
+    private final long ttlNanos;
+    private final Segment[] segments;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StorePermissionCache(AuthenticationPort authenticationPort,
+                                MeterRegistry meterRegistry,
+                                @Value("${inventory.cache.permissions.ttl:5m}") Duration ttl,
+                                @Value("${inventory.cache.permissions.max-size:100000}") int maxSize) {
+        this.authenticationPort = authenticationPort;
+        this.ttlNanos = ttl.toNanos();
+        this.segments = new Segment[SEGMENTS];
+        int segmentCapacity = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", "store-permissions").tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", "store-permissions").tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tag("cache", "store-permissions")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, StorePermissionCache::size)
+                .tag("cache", "store-permissions")
+                .register(meterRegistry);
+
+        log.info("Store permission cache enabled - TTL: {} - Max size: {}", ttl, maxSize);
+    }
+
+    /**
+     * Permisos del usuario. Vacío si el usuario no existe o si sus tiendas no se pueden representar
+     * en el bitset: en ambos casos el llamador resuelve con la base.
+     */
+    public Mono<StoreAccess> get(String username) {
+        Segment segment = segmentFor(username);
+        CachedAccess entry = segment.get(username);
+        if (entry != null) {
+            if (System.nanoTime() - entry.expiresAt() <= 0) {
+                hits.increment();
+                return Mono.just(entry.access());
+            }
+            segment.remove(username, entry);
+        }
+
+        misses.increment();
+        return Mono.defer(() -> {
+            long loadGeneration = generation.get();
+            return authenticationPort.findGrants(username)
+                    .mapNotNull(grants -> StoreAccess.of(grants.getRole(), grants.getStoreIds()))
+                    .doOnNext(access -> {
+                        // Si hubo una invalidación durante la carga, estos permisos pueden ser anteriores
+                        if (generation.get() == loadGeneration) {
+                            segment.put(username, new CachedAccess(access, System.nanoTime() + ttlNanos));
+                        }
+                    });
+        });
+    }
+
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        segmentFor(username).remove(username);
+        log.debug("Store permissions of user {} invalidated from cache", username);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        log.info("Store permission cache invalidated");
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(String username) {
+        int hash = username.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record CachedAccess(StoreAccess access, long expiresAt) {
+    }
+
+    private final class Segment {
+
+        private final LinkedHashMap<String, CachedAccess> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedAccess> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized CachedAccess get(String username) {
+            return entries.get(username);
+        }
+
+        synchronized void put(String username, CachedAccess entry) {
+            entries.put(username, entry);
+        }
+
+        synchronized void remove(String username) {
+            entries.remove(username);
+        }
+
+        synchronized void remove(String username, CachedAccess entry) {
+            entries.remove(username, entry);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import com.meli.inventorymanagement.application.dto.StoreScopedRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.web.bind.annotation.PathVariable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Reglas de {@link RequireStorePermission} de un handler resueltas una sola vez: qué argumentos
+ * aportan tiendas, la política y cómo diferir la ejecución según el tipo de retorno. En cada
+ * invocación sólo se leen posiciones del arreglo de argumentos, sin reflexión.
+ */
+@Slf4j
+public final class StorePermissionDescriptor {
+
+    private static final int[] NONE = new int[0];
+
+    private final RequireStorePermission policy;
+    // Argumentos @PathVariable con el nombre de storeIdParam
+    private final int[] storeIdArgs;
+    // Argumentos cuyo tipo declarado implementa StoreScopedRequest
+    private final int[] scopedRequestArgs;
+    private final ReturnAdapter returnAdapter;
+
+    private StorePermissionDescriptor(RequireStorePermission policy, int[] storeIdArgs, int[] scopedRequestArgs,
+                                      ReturnAdapter returnAdapter) {
+        this.policy = policy;
+        this.storeIdArgs = storeIdArgs;
+        this.scopedRequestArgs = scopedRequestArgs;
+        this.returnAdapter = returnAdapter;
+    }
+
+    public static StorePermissionDescriptor compile(Method method, RequireStorePermission policy) {
+        Parameter[] parameters = method.getParameters();
+        int[] storeIdArgs = new int[parameters.length];
+        int[] scopedRequestArgs = new int[parameters.length];
+        int storeIdCount = 0;
+        int scopedRequestCount = 0;
+
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
+
+            if (pathVariable != null) {
+                String pathVarName = pathVariable.value().isEmpty() ? pathVariable.name() : pathVariable.value();
+                if (pathVarName.isEmpty()) {
+                    pathVarName = parameter.getName();
+                }
+                if (policy.storeIdParam().equals(pathVarName)) {
+                    storeIdArgs[storeIdCount++] = i;
+                }
+            } else if (StoreScopedRequest.class.isAssignableFrom(parameter.getType())) {
+                scopedRequestArgs[scopedRequestCount++] = i;
+            }
+        }
+
+        StorePermissionDescriptor descriptor = new StorePermissionDescriptor(policy,
+                storeIdCount == 0 ? NONE : Arrays.copyOf(storeIdArgs, storeIdCount),
+                scopedRequestCount == 0 ? NONE : Arrays.copyOf(scopedRequestArgs, scopedRequestCount),
+                ReturnAdapter.of(method.getReturnType()));
+
+        if (!descriptor.hasStoreSource() && !policy.adminOnly()) {
+            log.warn("{}.{} requires store permission but declares no storeId or store-scoped body: " +
+                    "store users will be rejected", method.getDeclaringClass().getSimpleName(), method.getName());
+        }
+        return descriptor;
+    }
+
+    public RequireStorePermission policy() {
+        return policy;
+    }
+
+    public ReturnAdapter returnAdapter() {
+        return returnAdapter;
+    }
+
+    boolean hasStoreSource() {
+        return storeIdArgs.length > 0 || scopedRequestArgs.length > 0;
+    }
+
+    /**
+     * Tiendas afectadas por la invocación: la variable de path indicada y, si el cuerpo es un
+     * {@link StoreScopedRequest}, todas las tiendas que referencia (sin repetir).
+     */
+    public Set<Long> storeIds(Object[] args) {
+        if (!hasStoreSource()) {
+            return Collections.emptySet();
+        }
+
+        Set<Long> storeIds = new LinkedHashSet<>();
+        for (int index : storeIdArgs) {
+            if (args[index] instanceof Long storeId) {
+                storeIds.add(storeId);
+            }
+        }
+        for (int index : scopedRequestArgs) {
+            if (args[index] instanceof StoreScopedRequest scoped) {
+                for (Long storeId : scoped.storeIds()) {
+                    if (storeId != null) {
+                        storeIds.add(storeId);
+                    }
+                }
+            }
+        }
+        return storeIds;
+    }
+
+    /**
+     * Difiere la ejecución del handler hasta que el chequeo de permisos termina bien.
+     */
+    public enum ReturnAdapter {
+        MONO {
+            @Override
+            public Object guard(Mono<Void> permissionCheck, ProceedingJoinPoint joinPoint) {
+                return permissionCheck.then(Mono.defer(() -> {
+                    try {
+                        return (Mono<?>) joinPoint.proceed();
+                    } catch (Throwable e) {
+                        log.error("Error executing controller method: {}", e.getMessage(), e);
+                        return Mono.error(e);
+                    }
+                }));
+            }
+        },
+        FLUX {
+            @Override
+            public Object guard(Mono<Void> permissionCheck, ProceedingJoinPoint joinPoint) {
+                return permissionCheck.thenMany(Flux.defer(() -> {
+                    try {
+                        return (Flux<?>) joinPoint.proceed();
+                    } catch (Throwable e) {
+                        log.error("Error executing controller method: {}", e.getMessage(), e);
+                        return Flux.error(e);
+                    }
+                }));
+            }
+        },
+        // Para otros tipos de retorno
+        OTHER {
+            @Override
+            public Object guard(Mono<Void> permissionCheck, ProceedingJoinPoint joinPoint) {
+                return permissionCheck.then(Mono.defer(() -> {
+                    try {
+                        return Mono.justOrEmpty(joinPoint.proceed());
+                    } catch (Throwable e) {
+                        log.error("Error executing controller method: {}", e.getMessage(), e);
+                        return Mono.error(e);
+                    }
+                }));
+            }
+        };
+
+        public abstract Object guard(Mono<Void> permissionCheck, ProceedingJoinPoint joinPoint);
+
+        static ReturnAdapter of(Class<?> returnType) {
+            if (Mono.class.isAssignableFrom(returnType)) {
+                return MONO;
+            }
+            if (Flux.class.isAssignableFrom(returnType)) {
+                return FLUX;
+            }
+            return OTHER;
+        }
+    }
+}
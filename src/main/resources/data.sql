@@ -124,3 +124,7 @@ VALUES
     (49, 17, 1, 35, 0, CURRENT_TIMESTAMP),
     (50, 17, 2, 28, 0, CURRENT_TIMESTAMP),
     (51, 17, 3, 50, 0, CURRENT_TIMESTAMP);
+
+-- Estado inicial del ledger: un SET por cada fila de inventario
+INSERT INTO inventory_ledger (product_id, store_id, event_type, quantity, created_at)
+SELECT product_id, store_id, 'SET', available_qty, CURRENT_TIMESTAMP FROM inventory;
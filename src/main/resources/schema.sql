@@ -1,7 +1,12 @@
 -- Schema for H2 with R2DBC
 
 -- Drop tables if they exist
+DROP TABLE IF EXISTS adjustment_idempotency_keys;
+DROP TABLE IF EXISTS inventory_reservations;
+DROP TABLE IF EXISTS inventory_snapshots;
+DROP TABLE IF EXISTS inventory_ledger;
 DROP TABLE IF EXISTS inventory;
+DROP SEQUENCE IF EXISTS inventory_change_seq;
 DROP TABLE IF EXISTS user_store_permissions;
 DROP TABLE IF EXISTS products;
 DROP TABLE IF EXISTS stores;
@@ -38,19 +43,67 @@ CREATE TABLE IF NOT EXISTS users (
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Secuencia global de cambios de inventario: cada INSERT/UPDATE de una fila le asigna el valor siguiente
+CREATE SEQUENCE IF NOT EXISTS inventory_change_seq;
+
 -- Create inventory table
 CREATE TABLE IF NOT EXISTS inventory (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     product_id BIGINT NOT NULL,
     store_id BIGINT NOT NULL,
     available_qty INT NOT NULL DEFAULT 0,
+    reserved_qty INT NOT NULL DEFAULT 0,
     version INT NOT NULL DEFAULT 0,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    change_seq BIGINT DEFAULT NEXT VALUE FOR inventory_change_seq ON UPDATE NEXT VALUE FOR inventory_change_seq NOT NULL,
     FOREIGN KEY (product_id) REFERENCES products(id),
     FOREIGN KEY (store_id) REFERENCES stores(id),
     UNIQUE(product_id, store_id)
 );
 
+-- Create inventory_ledger table (append-only: DELTA = ajuste incremental, SET = valor absoluto)
+CREATE TABLE IF NOT EXISTS inventory_ledger (
+    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    store_id BIGINT NOT NULL,
+    event_type VARCHAR(5) NOT NULL,
+    quantity INT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create inventory_snapshots table (stock materializado hasta last_seq)
+CREATE TABLE IF NOT EXISTS inventory_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    store_id BIGINT NOT NULL,
+    available_qty INT NOT NULL,
+    last_seq BIGINT NOT NULL,
+    snapshot_at TIMESTAMP NOT NULL
+);
+
+-- Create inventory_reservations table (unidades retenidas durante el pago; HELD suma a inventory.reserved_qty)
+CREATE TABLE IF NOT EXISTS inventory_reservations (
+    id VARCHAR(36) PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    store_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (product_id) REFERENCES products(id),
+    FOREIGN KEY (store_id) REFERENCES stores(id)
+);
+
+-- Create adjustment_idempotency_keys table (response nulo mientras el ajuste original está en curso)
+CREATE TABLE IF NOT EXISTS adjustment_idempotency_keys (
+    owner VARCHAR(50) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint VARCHAR(400) NOT NULL,
+    response VARCHAR(4000),
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (owner, idempotency_key)
+);
+
 -- Create user_store_permissions table
 CREATE TABLE IF NOT EXISTS user_store_permissions (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -63,7 +116,16 @@ CREATE TABLE IF NOT EXISTS user_store_permissions (
 
 -- Create indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_inventory_product_id ON inventory(product_id);
-CREATE INDEX IF NOT EXISTS idx_inventory_store_id ON inventory(store_id);
+-- Soporta el listado por tienda con paginación keyset sobre (store_id, product_id)
+CREATE INDEX IF NOT EXISTS idx_inventory_store_product ON inventory(store_id, product_id);
+-- Sincronización incremental por tienda: cambios posteriores a un cursor como rango sobre (store_id, change_seq)
+CREATE INDEX IF NOT EXISTS idx_inventory_store_change_seq ON inventory(store_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_inventory_ledger_key_seq ON inventory_ledger(product_id, store_id, seq);
+CREATE INDEX IF NOT EXISTS idx_inventory_ledger_created_at ON inventory_ledger(created_at);
+CREATE INDEX IF NOT EXISTS idx_inventory_snapshots_key_seq ON inventory_snapshots(product_id, store_id, last_seq);
+CREATE INDEX IF NOT EXISTS idx_inventory_snapshots_key_time ON inventory_snapshots(product_id, store_id, snapshot_at);
+CREATE INDEX IF NOT EXISTS idx_inventory_reservations_status ON inventory_reservations(status);
+CREATE INDEX IF NOT EXISTS idx_adjustment_idempotency_keys_expires_at ON adjustment_idempotency_keys(expires_at);
 CREATE INDEX IF NOT EXISTS idx_user_store_permissions_user_id ON user_store_permissions(user_id);
 CREATE INDEX IF NOT EXISTS idx_user_store_permissions_store_id ON user_store_permissions(store_id);
 CREATE INDEX IF NOT EXISTS idx_products_sku ON products(sku);
@@ -0,0 +1,192 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.inventorymanagement.application.dto.InventoryResponse;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.IdempotencyRecord;
+import com.meli.inventorymanagement.domain.port.IdempotencyKeyPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdjustmentIdempotencyStoreTest {
+
+    private static final String FINGERPRINT = "REM-001-BL-M|1|5";
+
+    @Mock
+    private IdempotencyKeyPort idempotencyKeyPort;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void execute_KeyPersistedByAnotherInstance_ReplaysWithoutRunningTheOperation() {
+        // Given: la primera instancia aplica el ajuste y guarda la respuesta
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        when(idempotencyKeyPort.claim(anyString(), anyString(), anyString(), any()))
+                .thenReturn(Mono.just(true), Mono.just(false));
+        when(idempotencyKeyPort.complete(anyString(), anyString(), stored.capture())).thenReturn(Mono.empty());
+        StepVerifier.create(store().execute("user_dinosaurio", "sale-1", FINGERPRINT, this::adjust))
+                .expectNextMatches(response -> response.getAvailableQty() == 30)
+                .verifyComplete();
+
+        // When: otra instancia (o la misma tras reiniciar) recibe el reintento sin la clave en memoria
+        when(idempotencyKeyPort.find("user_dinosaurio", "sale-1"))
+                .thenReturn(Mono.just(record(FINGERPRINT, stored.getValue())));
+        Mono<InventoryResponse> retry = store().execute("user_dinosaurio", "sale-1", FINGERPRINT, this::adjust);
+
+        // Then
+        StepVerifier.create(retry)
+                .expectNextMatches(response ->
+                        response.getAvailableQty() == 30 &&
+                        response.getUpdatedAt().equals(LocalDateTime.of(2025, 10, 8, 12, 0))
+                )
+                .verifyComplete();
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_PersistedKeyStillInProgress_RejectsWithoutRunningTheOperation() {
+        // Given: el proceso cayó entre el ajuste y el registro de la respuesta
+        when(idempotencyKeyPort.claim(anyString(), anyString(), anyString(), any())).thenReturn(Mono.just(false));
+        when(idempotencyKeyPort.find("user_dinosaurio", "sale-1")).thenReturn(Mono.just(record(FINGERPRINT, null)));
+
+        // When
+        Mono<InventoryResponse> result = store().execute("user_dinosaurio", "sale-1", FINGERPRINT, this::adjust);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.OPTIMISTIC_LOCK_FAILURE
+                )
+                .verify();
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_PersistedKeyWithDifferentRequest_ShouldFail() {
+        // Given
+        when(idempotencyKeyPort.claim(anyString(), anyString(), anyString(), any())).thenReturn(Mono.just(false));
+        when(idempotencyKeyPort.find("user_dinosaurio", "sale-1"))
+                .thenReturn(Mono.just(record("REM-001-BL-M|1|-3", "{}")));
+
+        // When
+        Mono<InventoryResponse> result = store().execute("user_dinosaurio", "sale-1", FINGERPRINT, this::adjust);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.IDEMPOTENCY_KEY_REUSED
+                )
+                .verify();
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_FailedOperation_ReleasesTheKeySoTheRetryRunsAgain() {
+        // Given
+        AdjustmentIdempotencyStore store = store();
+        when(idempotencyKeyPort.claim(anyString(), anyString(), anyString(), any())).thenReturn(Mono.just(true));
+        when(idempotencyKeyPort.release("user_dinosaurio", "sale-1")).thenReturn(Mono.empty());
+        when(idempotencyKeyPort.complete(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+        StepVerifier.create(store.execute("user_dinosaurio", "sale-1", FINGERPRINT,
+                        () -> Mono.error(new IllegalStateException("database down"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        // When
+        Mono<InventoryResponse> retry = store.execute("user_dinosaurio", "sale-1", FINGERPRINT, this::adjust);
+
+        // Then
+        StepVerifier.create(retry)
+                .expectNextMatches(response -> response.getAvailableQty() == 30)
+                .verifyComplete();
+        verify(idempotencyKeyPort).release("user_dinosaurio", "sale-1");
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_ResponseNotStored_KeepsTheKeyClaimed() {
+        // Given: el ajuste se aplicó pero la respuesta no se pudo guardar
+        when(idempotencyKeyPort.claim(anyString(), anyString(), anyString(), any())).thenReturn(Mono.just(true));
+        when(idempotencyKeyPort.complete(anyString(), anyString(), anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("database down")));
+
+        // When
+        Mono<InventoryResponse> result = store().execute("user_dinosaurio", "sale-1", FINGERPRINT, this::adjust);
+
+        // Then: el cliente recibe el resultado y la clave no se libera
+        StepVerifier.create(result)
+                .expectNextMatches(response -> response.getAvailableQty() == 30)
+                .verifyComplete();
+        verify(idempotencyKeyPort, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void execute_ReplaysReturnIndependentCopies() {
+        // Given
+        AdjustmentIdempotencyStore store = store();
+        when(idempotencyKeyPort.claim(anyString(), anyString(), anyString(), any())).thenReturn(Mono.just(true));
+        when(idempotencyKeyPort.complete(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+        InventoryResponse first = store.execute("user_dinosaurio", "sale-1", FINGERPRINT, this::adjust).block();
+
+        // When
+        first.setAvailableQty(-1);
+        InventoryResponse replay = store.execute("user_dinosaurio", "sale-1", FINGERPRINT, this::adjust).block();
+
+        // Then
+        assertEquals(30, replay.getAvailableQty());
+        assertEquals(1, executions.get());
+    }
+
+    private AdjustmentIdempotencyStore store() {
+        return new AdjustmentIdempotencyStore(idempotencyKeyPort, objectMapper, new SimpleMeterRegistry(),
+                Duration.ofHours(24), 1000);
+    }
+
+    private Mono<InventoryResponse> adjust() {
+        return Mono.fromSupplier(() -> {
+            executions.incrementAndGet();
+            return InventoryResponse.builder()
+                    .id(1L)
+                    .productSku("REM-001-BL-M")
+                    .storeId(1L)
+                    .availableQty(30)
+                    .reservedQty(0)
+                    .sellableQty(30)
+                    .version(4)
+                    .updatedAt(LocalDateTime.of(2025, 10, 8, 12, 0))
+                    .build();
+        });
+    }
+
+    private IdempotencyRecord record(String fingerprint, String response) {
+        return IdempotencyRecord.builder()
+                .owner("user_dinosaurio")
+                .key("sale-1")
+                .fingerprint(fingerprint)
+                .response(response)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
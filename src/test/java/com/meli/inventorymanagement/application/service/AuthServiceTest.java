@@ -0,0 +1,108 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.meli.inventorymanagement.application.dto.AuthRequest;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.UserGrants;
+import com.meli.inventorymanagement.domain.port.AuthenticationPort;
+import com.meli.inventorymanagement.domain.port.TokenGeneratorPort;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private TokenGeneratorPort tokenGeneratorPort;
+
+    @Mock
+    private AuthenticationPort authenticationPort;
+
+    @InjectMocks
+    private AuthService authService;
+
+    @Test
+    void authenticate_SaturatedHashingPool_IsServiceUnavailable() {
+        // Given
+        when(authenticationPort.authenticate("admin", "12345")).thenReturn(Mono.error(
+                new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "Too many concurrent logins, retry later")));
+
+        // When / Then: el rechazo del pool llega tal cual, sin convertirse en AUTHENTICATION_FAILED
+        StepVerifier.create(authService.authenticate(new AuthRequest("admin", "12345")))
+                .expectErrorMatches(error -> error instanceof BusinessException businessException
+                        && businessException.getErrorCode() == ErrorCode.SERVICE_UNAVAILABLE)
+                .verify();
+        verify(authenticationPort, never()).findGrants(anyString());
+        verify(tokenGeneratorPort, never()).generateToken(any(UserGrants.class));
+    }
+
+    @Test
+    void authenticate_InvalidPassword_IsInvalidCredentials() {
+        // Given
+        when(authenticationPort.authenticate("admin", "wrong")).thenReturn(Mono.just(false));
+
+        // When / Then
+        StepVerifier.create(authService.authenticate(new AuthRequest("admin", "wrong")))
+                .expectErrorMatches(error -> error instanceof BusinessException businessException
+                        && businessException.getErrorCode() == ErrorCode.INVALID_CREDENTIALS)
+                .verify();
+    }
+
+    @Test
+    void refresh_ValidToken_IssuesATokenWithTheCurrentGrants() {
+        // Given
+        UserGrants grants = UserGrants.builder().username("user_maipu").role("STORE_USER").storeIds(Set.of(2L, 3L)).build();
+        when(tokenGeneratorPort.extractUsername("old-token")).thenReturn("user_maipu");
+        when(authenticationPort.findGrants("user_maipu")).thenReturn(Mono.just(grants));
+        when(tokenGeneratorPort.generateToken(grants)).thenReturn("new-token");
+
+        // When / Then
+        StepVerifier.create(authService.refresh("old-token"))
+                .expectNextMatches(response -> response.getToken().equals("new-token")
+                        && response.getType().equals("Bearer")
+                        && response.getUsername().equals("user_maipu"))
+                .verifyComplete();
+    }
+
+    @Test
+    void refresh_InactiveUser_IsRejected() {
+        // Given: findGrants no devuelve usuarios inactivos
+        when(tokenGeneratorPort.extractUsername("old-token")).thenReturn("user_maipu");
+        when(authenticationPort.findGrants("user_maipu")).thenReturn(Mono.empty());
+
+        // When / Then
+        StepVerifier.create(authService.refresh("old-token"))
+                .expectErrorMatches(error -> error instanceof BusinessException businessException
+                        && businessException.getErrorCode() == ErrorCode.USER_ACCOUNT_INACTIVE)
+                .verify();
+        verify(tokenGeneratorPort, never()).generateToken(any(UserGrants.class));
+    }
+
+    @Test
+    void refresh_ExpiredToken_IsRejected() {
+        // Given
+        when(tokenGeneratorPort.extractUsername("expired-token"))
+                .thenThrow(new ExpiredJwtException(null, null, "JWT expired"));
+
+        // When / Then
+        StepVerifier.create(authService.refresh("expired-token"))
+                .expectErrorMatches(error -> error instanceof BusinessException businessException
+                        && businessException.getErrorCode() == ErrorCode.INVALID_TOKEN)
+                .verify();
+        verify(authenticationPort, never()).findGrants(anyString());
+    }
+}
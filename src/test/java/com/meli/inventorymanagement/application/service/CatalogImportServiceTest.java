@@ -0,0 +1,230 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.meli.inventorymanagement.application.dto.InventoryImportRow;
+import com.meli.inventorymanagement.application.dto.ProductImportRow;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.model.Product;
+import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.domain.port.CatalogImportPort;
+import com.meli.inventorymanagement.domain.port.InventoryChangePort;
+import com.meli.inventorymanagement.domain.port.InventoryPort;
+import com.meli.inventorymanagement.domain.port.ProductPort;
+import com.meli.inventorymanagement.domain.port.StorePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImportServiceTest {
+
+    @Mock
+    private CatalogImportPort catalogImportPort;
+
+    @Mock
+    private ProductPort productPort;
+
+    @Mock
+    private StorePort storePort;
+
+    @Mock
+    private InventoryPort inventoryPort;
+
+    @Mock
+    private InventoryChangePort inventoryChangePort;
+
+    private CatalogImportService service;
+
+    // Lotes recibidos por el puerto, en el orden en que se escribieron
+    private final Queue<List<Inventory>> inventoryBatches = new ConcurrentLinkedQueue<>();
+    private final Queue<List<Product>> productBatches = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        // Lotes de 2 filas en 2 particiones
+        service = new CatalogImportService(catalogImportPort, productPort, storePort, inventoryPort, inventoryChangePort,
+                2, 2, Duration.ofHours(1), false);
+        lenient().when(storePort.findAll()).thenReturn(Flux.just(store(1L), store(2L), store(3L)));
+        lenient().when(productPort.findBySkus(any())).thenAnswer(invocation -> {
+            Collection<String> skus = invocation.getArgument(0);
+            return Flux.fromIterable(skus)
+                    .filter(sku -> sku.startsWith("SKU-"))
+                    .map(sku -> Product.builder().id(Long.parseLong(sku.substring(4))).sku(sku).build());
+        });
+        lenient().when(catalogImportPort.upsertInventory(anyList())).thenAnswer(invocation -> {
+            inventoryBatches.add(List.copyOf(invocation.<List<Inventory>>getArgument(0)));
+            // Escrituras asíncronas: las particiones se solapan como contra la base
+            return Mono.just(List.<Inventory>of()).delayElement(Duration.ofMillis(5), Schedulers.parallel());
+        });
+        lenient().when(catalogImportPort.upsertProducts(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            productBatches.add(List.copyOf(products));
+            return Mono.just(products.size());
+        });
+    }
+
+    @Test
+    void importInventory_PartitionsByStoreAndKeepsFileOrderPerKey() {
+        // Given: las tiendas 1 y 3 caen en la misma partición, la 2 en la otra
+        Flux<InventoryImportRow> rows = Flux.just(
+                row(2, "SKU-1", 1L, 1),
+                row(3, "SKU-1", 2L, 1),
+                row(4, "SKU-1", 1L, 2),
+                row(5, "SKU-2", 3L, 5),
+                row(6, "SKU-1", 1L, 3),
+                row(7, "SKU-2", 2L, 4));
+
+        // When / Then
+        StepVerifier.create(service.importInventory(rows))
+                .expectNextMatches(response -> response.getRead() == 6 && response.getApplied() == 6
+                        && response.getRejected() == 0)
+                .verifyComplete();
+
+        for (List<Inventory> batch : inventoryBatches) {
+            assertEquals(1, batch.stream().map(row -> row.getStoreId() % 2).distinct().count(),
+                    "a batch mixes partitions: " + batch);
+        }
+        // Dentro del lote gana la última línea de la clave; entre lotes se respeta el orden del archivo
+        List<Integer> product1Store1 = inventoryBatches.stream()
+                .flatMap(List::stream)
+                .filter(row -> row.getProductId() == 1L && row.getStoreId() == 1L)
+                .map(Inventory::getAvailableQty)
+                .toList();
+        assertEquals(List.of(2, 3), product1Store1);
+        // Sin suscriptores al feed no se releen las filas escritas
+        verify(inventoryPort, never()).findByProductSkus(any(), any());
+    }
+
+    @Test
+    void importInventory_UnknownSkuAndInvalidRows_AreRejectedWithoutStoppingTheImport() {
+        // Given
+        Flux<InventoryImportRow> rows = Flux.just(
+                row(2, "SKU-1", 1L, 5),
+                row(3, "XYZ-9", 1L, 5),
+                row(4, "SKU-2", 99L, 5),
+                row(5, "SKU-3", 1L, -1),
+                InventoryImportRow.builder().line(6).error("Malformed CSV line").build());
+
+        // When / Then
+        StepVerifier.create(service.importInventory(rows))
+                .expectNextMatches(response -> response.getRead() == 5
+                        && response.getApplied() == 1
+                        && response.getRejected() == 4
+                        && response.getErrors().containsAll(List.of(
+                                "Line 3: Product with SKU XYZ-9 not found",
+                                "Line 4: Store with ID 99 not found",
+                                "Line 5: Quantity cannot be negative: -1",
+                                "Line 6: Malformed CSV line")))
+                .verifyComplete();
+    }
+
+    @Test
+    void importInventory_QuantityBelowReservedUnits_IsReportedAndNotApplied() {
+        // Given: el puerto no aplicó la fila del producto 1 porque tiene 5 unidades reservadas
+        when(catalogImportPort.upsertInventory(anyList())).thenReturn(Mono.just(List.of(
+                Inventory.builder().productId(1L).storeId(1L).reservedQty(5).build())));
+        Flux<InventoryImportRow> rows = Flux.just(row(2, "SKU-1", 1L, 2), row(3, "SKU-3", 1L, 8));
+
+        // When / Then
+        StepVerifier.create(service.importInventory(rows))
+                .expectNextMatches(response -> response.getApplied() == 1
+                        && response.getRejected() == 1
+                        && response.getErrors().equals(List.of(
+                                "Line 2: Available quantity 2 is below the 5 reserved units of product SKU-1 in store 1")))
+                .verifyComplete();
+    }
+
+    @Test
+    void importInventory_WithFeedSubscribers_PublishesOnlyTheWrittenRows() {
+        // Given: la fila del producto 1 no se aplicó por sus unidades reservadas
+        when(inventoryChangePort.hasSubscribers()).thenReturn(true);
+        when(catalogImportPort.upsertInventory(anyList())).thenReturn(Mono.just(List.of(
+                Inventory.builder().productId(1L).storeId(1L).reservedQty(5).build())));
+        Inventory product1 = Inventory.builder().productId(1L).storeId(1L).availableQty(9).build();
+        Inventory product3 = Inventory.builder().productId(3L).storeId(1L).availableQty(8).build();
+        when(inventoryPort.findByProductSkus(any(), any())).thenReturn(Flux.just(product1, product3));
+        Flux<InventoryImportRow> rows = Flux.just(row(2, "SKU-1", 1L, 2), row(3, "SKU-3", 1L, 8));
+
+        // When
+        StepVerifier.create(service.importInventory(rows))
+                .expectNextMatches(response -> response.getApplied() == 1)
+                .verifyComplete();
+
+        // Then
+        verify(inventoryChangePort).publish(product3);
+        verify(inventoryChangePort, never()).publish(product1);
+    }
+
+    @Test
+    void importInventory_WriteBehindEnabled_IsUnavailable() {
+        // Given
+        service = new CatalogImportService(catalogImportPort, productPort, storePort, inventoryPort, inventoryChangePort,
+                2, 2, Duration.ofHours(1), true);
+
+        // When / Then
+        StepVerifier.create(service.importInventory(Flux.just(row(2, "SKU-1", 1L, 1))))
+                .expectErrorMatches(throwable -> throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.SERVICE_UNAVAILABLE)
+                .verify();
+        verify(catalogImportPort, never()).upsertInventory(anyList());
+    }
+
+    @Test
+    void importProducts_PartitionsBySkuAndCollapsesRepeatedSkus() {
+        // Given
+        Flux<ProductImportRow> rows = Flux.just(
+                product(2, "SKU-1", "Remera"),
+                product(3, "SKU-1", "Remera blanca"),
+                product(4, "SKU-2", "Buzo"),
+                product(5, "SKU-3", "Campera"),
+                product(6, "", "Sin SKU"));
+
+        // When / Then
+        StepVerifier.create(service.importProducts(rows))
+                .expectNextMatches(response -> response.getRead() == 5 && response.getApplied() == 4
+                        && response.getRejected() == 1)
+                .verifyComplete();
+
+        for (List<Product> batch : productBatches) {
+            assertEquals(1, batch.stream().map(product -> Math.floorMod(product.getSku().hashCode(), 2)).distinct().count(),
+                    "a batch mixes partitions: " + batch);
+            assertEquals(batch.size(), batch.stream().map(Product::getSku).distinct().count());
+        }
+        assertTrue(productBatches.stream().flatMap(List::stream)
+                .anyMatch(product -> product.getSku().equals("SKU-1") && product.getName().equals("Remera blanca")));
+    }
+
+    private static InventoryImportRow row(long line, String sku, Long storeId, int quantity) {
+        return InventoryImportRow.builder().line(line).productSku(sku).storeId(storeId).availableQty(quantity).build();
+    }
+
+    private static ProductImportRow product(long line, String sku, String name) {
+        return ProductImportRow.builder().line(line).sku(sku).name(name).build();
+    }
+
+    private static Store store(Long id) {
+        return Store.builder().id(id).name("Tienda " + id).build();
+    }
+}
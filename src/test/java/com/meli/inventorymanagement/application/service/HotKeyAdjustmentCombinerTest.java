@@ -0,0 +1,230 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.AdjustmentOutcome;
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.port.InventoryPort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotKeyAdjustmentCombinerTest {
+
+    @Mock
+    private InventoryPort inventoryPort;
+
+    @Test
+    void adjust_DisabledGoesStraightToConditionalUpdate() {
+        // Given
+        HotKeyAdjustmentCombiner combiner = combiner(false, 1, Duration.ofSeconds(10), 256);
+        when(inventoryPort.adjustAvailableQty("SKU-1", 1L, 5)).thenReturn(Mono.just(inventory(30)));
+
+        // When & Then
+        StepVerifier.create(combiner.adjust("SKU-1", 1L, 5)).expectNextCount(1).verifyComplete();
+        verify(inventoryPort, never()).adjustAvailableQtyInSequence(anyString(), anyLong(), anyList());
+    }
+
+    @Test
+    void adjust_CombiningModeResolvesEachCallerInArrivalOrder() {
+        // Given: con una muestra y umbral 0 la clave entra en modo combinación al primer ajuste
+        HotKeyAdjustmentCombiner combiner = combiner(true, 1, Duration.ofSeconds(10), 256);
+        when(inventoryPort.adjustAvailableQty("SKU-1", 1L, 1)).thenReturn(Mono.just(inventory(1)));
+        when(inventoryPort.adjustAvailableQtyInSequence(eq("SKU-1"), eq(1L), anyList()))
+                .thenAnswer(invocation -> Mono.just(sequence(1, invocation.getArgument(2))));
+        combiner.adjust("SKU-1", 1L, 1).block();
+
+        // When & Then
+        StepVerifier.create(combiner.adjust("SKU-1", 1L, 2))
+                .assertNext(updated -> assertEquals(3, updated.getAvailableQty()))
+                .verifyComplete();
+        StepVerifier.create(combiner.adjust("SKU-1", 1L, -10))
+                .expectErrorMatches(error -> error instanceof BusinessException
+                        && ((BusinessException) error).getErrorCode() == ErrorCode.INSUFFICIENT_STOCK)
+                .verify();
+    }
+
+    @Test
+    void adjust_CombinedRejectionReportsReservedUnits() {
+        // Given: 10 disponibles con 8 reservadas, una delta de -5 no entra
+        HotKeyAdjustmentCombiner combiner = combiner(true, 1, Duration.ofSeconds(10), 256);
+        when(inventoryPort.adjustAvailableQty("SKU-1", 1L, 1)).thenReturn(Mono.just(inventory(10)));
+        when(inventoryPort.adjustAvailableQtyInSequence(eq("SKU-1"), eq(1L), anyList()))
+                .thenReturn(Mono.just(List.of(AdjustmentOutcome.builder()
+                        .adjustment(-5)
+                        .applied(false)
+                        .previousQty(10)
+                        .inventory(Inventory.builder().productId(1L).storeId(1L).availableQty(10).reservedQty(8).build())
+                        .build())));
+        combiner.adjust("SKU-1", 1L, 1).block();
+
+        // When & Then
+        StepVerifier.create(combiner.adjust("SKU-1", 1L, -5))
+                .expectErrorMatches(error -> error instanceof BusinessException businessException
+                        && businessException.getErrorCode() == ErrorCode.INSUFFICIENT_STOCK
+                        && businessException.getDetails().contains("Reserved: 8")
+                        && businessException.getDetails().contains("Result would be: -3"))
+                .verify();
+    }
+
+    @Test
+    void drain_ManySynchronousBatchesDoNotGrowTheStack() {
+        // Given: el primer lote queda en vuelo mientras se encolan 20.000 ajustes, luego todo completa en el mismo hilo
+        HotKeyAdjustmentCombiner combiner = combiner(true, 1, Duration.ofSeconds(10), 1);
+        Sinks.One<List<AdjustmentOutcome>> firstBatch = Sinks.one();
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(inventoryPort.adjustAvailableQty("SKU-1", 1L, 1)).thenReturn(Mono.just(inventory(1)));
+        when(inventoryPort.adjustAvailableQtyInSequence(eq("SKU-1"), eq(1L), anyList()))
+                .thenAnswer(invocation -> first.getAndSet(false)
+                        ? firstBatch.asMono()
+                        : Mono.just(sequence(0, invocation.getArgument(2))));
+        combiner.adjust("SKU-1", 1L, 1).block();
+
+        AtomicInteger completed = new AtomicInteger();
+        List<Integer> firstAdjustment = List.of(1);
+        combiner.adjust("SKU-1", 1L, 1).subscribe(updated -> completed.incrementAndGet());
+        for (int i = 0; i < 20_000; i++) {
+            combiner.adjust("SKU-1", 1L, 1).subscribe(updated -> completed.incrementAndGet());
+        }
+
+        // When
+        firstBatch.tryEmitValue(sequence(0, firstAdjustment));
+
+        // Then
+        assertEquals(20_001, completed.get());
+    }
+
+    @Test
+    void evictIdleKeys_RacingWithArrivalsNeverRunsTwoDrainersForOneKey() throws Exception {
+        // Given: hold de 1 ms, así el barrido compite con las llegadas y la clave entra y sale del modo combinación
+        HotKeyAdjustmentCombiner combiner = combiner(true, 1, Duration.ofMillis(1), 8);
+        AtomicInteger concurrentFlushes = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        AtomicInteger applied = new AtomicInteger();
+        lenient().when(inventoryPort.adjustAvailableQty(anyString(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> Mono.fromCallable(() -> inventory(applied.addAndGet(invocation.getArgument(2))))
+                        .subscribeOn(Schedulers.parallel()));
+        lenient().when(inventoryPort.adjustAvailableQtyInSequence(anyString(), anyLong(), anyList()))
+                .thenAnswer(invocation -> Mono.fromCallable(() -> {
+                            if (concurrentFlushes.incrementAndGet() > 1) {
+                                overlapped.set(true);
+                            }
+                            List<Integer> adjustments = invocation.getArgument(2);
+                            int previous = applied.getAndAdd(adjustments.stream().mapToInt(Integer::intValue).sum());
+                            concurrentFlushes.decrementAndGet();
+                            return sequence(previous, adjustments);
+                        })
+                        .subscribeOn(Schedulers.parallel()));
+
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger resolved = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean();
+
+        // When
+        executor.submit(() -> {
+            while (!stop.get()) {
+                combiner.evictIdleKeys();
+            }
+        });
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    combiner.adjust("SKU-1", 1L, 1).block(Duration.ofSeconds(10));
+                    resolved.incrementAndGet();
+                }
+                done.countDown();
+            });
+        }
+
+        // Then
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        stop.set(true);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertFalse(overlapped.get());
+        assertEquals(threads * perThread, resolved.get());
+        assertEquals(threads * perThread, applied.get());
+    }
+
+    @Test
+    void evictIdleKeys_RemovesOnlyIdleKeys() throws InterruptedException {
+        // Given
+        HotKeyAdjustmentCombiner combiner = combiner(true, 1_000, Duration.ofMillis(1), 256);
+        Sinks.One<Inventory> pending = Sinks.one();
+        when(inventoryPort.adjustAvailableQty("SKU-1", 1L, 1)).thenReturn(Mono.just(inventory(1)));
+        when(inventoryPort.adjustAvailableQty("SKU-2", 1L, 1)).thenReturn(pending.asMono());
+        combiner.adjust("SKU-1", 1L, 1).block();
+        combiner.adjust("SKU-2", 1L, 1).subscribe();
+        Thread.sleep(5);
+
+        // When
+        combiner.evictIdleKeys();
+
+        // Then: SKU-2 sigue con un ajuste en curso
+        assertEquals(1, combiner.trackedKeys());
+        pending.tryEmitValue(inventory(1));
+        Thread.sleep(5);
+        combiner.evictIdleKeys();
+        assertEquals(0, combiner.trackedKeys());
+    }
+
+    private HotKeyAdjustmentCombiner combiner(boolean enabled, int minSamples, Duration hold, int maxBatchSize) {
+        return new HotKeyAdjustmentCombiner(inventoryPort, enabled, 0.0, minSamples, Duration.ofSeconds(1), hold, maxBatchSize);
+    }
+
+    private List<AdjustmentOutcome> sequence(int startQty, List<Integer> adjustments) {
+        List<AdjustmentOutcome> outcomes = new ArrayList<>();
+        int qty = startQty;
+        for (Integer adjustment : adjustments) {
+            boolean applied = qty + adjustment >= 0;
+            outcomes.add(AdjustmentOutcome.builder()
+                    .adjustment(adjustment)
+                    .applied(applied)
+                    .previousQty(qty)
+                    .inventory(inventory(applied ? qty + adjustment : qty))
+                    .build());
+            if (applied) {
+                qty += adjustment;
+            }
+        }
+        return outcomes;
+    }
+
+    private Inventory inventory(int availableQty) {
+        return Inventory.builder()
+                .productId(1L)
+                .storeId(1L)
+                .availableQty(availableQty)
+                .reservedQty(0)
+                .version(0)
+                .build();
+    }
+}
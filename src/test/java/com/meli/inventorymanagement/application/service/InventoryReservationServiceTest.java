@@ -0,0 +1,202 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.meli.inventorymanagement.application.dto.InventoryReservationResponse;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.model.Product;
+import com.meli.inventorymanagement.domain.model.Reservation;
+import com.meli.inventorymanagement.domain.port.InventoryChangePort;
+import com.meli.inventorymanagement.domain.port.InventoryPort;
+import com.meli.inventorymanagement.domain.port.InventoryReservationPort;
+import com.meli.inventorymanagement.domain.port.ProductPort;
+import com.meli.inventorymanagement.domain.port.StorePort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryReservationServiceTest {
+
+    @Mock
+    private InventoryReservationPort reservationPort;
+
+    @Mock
+    private InventoryPort inventoryPort;
+
+    @Mock
+    private ProductPort productPort;
+
+    @Mock
+    private StorePort storePort;
+
+    @Mock
+    private InventoryChangePort inventoryChangePort;
+
+    private final Inventory inventory = Inventory.builder().productId(1L).storeId(1L).availableQty(10).reservedQty(0).build();
+
+    private InventoryReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        // Rueda de 10ms para que los vencimientos ocurran dentro del test
+        service = new InventoryReservationService(reservationPort, inventoryPort, productPort, storePort, inventoryChangePort,
+                Duration.ofMinutes(15), Duration.ofHours(2), Duration.ofMillis(10), 64, 1000, false);
+        lenient().when(productPort.findById(1L)).thenReturn(Mono.just(Product.builder().id(1L).sku("REM-001-BL-M").build()));
+        lenient().when(inventoryPort.findByProductSkuAndStoreId("REM-001-BL-M", 1L)).thenReturn(Mono.just(inventory));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void scheduleHeldReservations_ExpiresOverdueReservationsAfterRestart() {
+        // Given: una reserva vencida durante la caída y otra todavía vigente
+        Reservation overdue = held("overdue", LocalDateTime.now().minusMinutes(1));
+        Reservation pending = held("pending", LocalDateTime.now().plusHours(1));
+        when(reservationPort.findHeld()).thenReturn(Flux.just(overdue, pending));
+        when(reservationPort.release("overdue", Reservation.Status.EXPIRED))
+                .thenReturn(Mono.just(closed(overdue, Reservation.Status.EXPIRED)));
+
+        // When
+        service.scheduleHeldReservations();
+
+        // Then
+        verify(reservationPort, timeout(2000)).release("overdue", Reservation.Status.EXPIRED);
+        verify(reservationPort, after(200).never()).release("pending", Reservation.Status.EXPIRED);
+    }
+
+    @Test
+    void scheduleHeldReservations_ExpiresAtTheDeadline() {
+        // Given
+        Reservation reservation = held("r-1", LocalDateTime.now().plus(Duration.ofMillis(300)));
+        when(reservationPort.findHeld()).thenReturn(Flux.just(reservation));
+        when(reservationPort.release("r-1", Reservation.Status.EXPIRED))
+                .thenReturn(Mono.just(closed(reservation, Reservation.Status.EXPIRED)));
+
+        // When
+        service.scheduleHeldReservations();
+
+        // Then: no antes del vencimiento, sí poco después, y la fila liberada se difunde
+        verify(reservationPort, after(100).never()).release("r-1", Reservation.Status.EXPIRED);
+        verify(reservationPort, timeout(2000)).release("r-1", Reservation.Status.EXPIRED);
+        verify(inventoryChangePort, timeout(2000)).publish(inventory);
+    }
+
+    @Test
+    void confirm_CancelsThePendingExpiry() {
+        // Given
+        Reservation reservation = held("r-1", LocalDateTime.now().plus(Duration.ofMillis(300)));
+        when(reservationPort.findHeld()).thenReturn(Flux.just(reservation));
+        when(reservationPort.findById("r-1")).thenReturn(Mono.just(reservation));
+        when(reservationPort.confirm("r-1")).thenReturn(Mono.just(closed(reservation, Reservation.Status.CONFIRMED)));
+        service.scheduleHeldReservations();
+
+        // When
+        Mono<InventoryReservationResponse> result = service.confirm(1L, "r-1");
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextMatches(response -> "CONFIRMED".equals(response.getStatus()))
+                .verifyComplete();
+        verify(inventoryChangePort).publish(inventory);
+        verify(reservationPort, after(600).never()).release("r-1", Reservation.Status.EXPIRED);
+    }
+
+    @Test
+    void confirm_AfterExpiryWonTheRace_ReportsReservationNotActive() {
+        // Given: el vencimiento cerró la reserva antes de la confirmación
+        Reservation reservation = held("r-1", LocalDateTime.now().minusSeconds(1));
+        when(reservationPort.findHeld()).thenReturn(Flux.just(reservation));
+        when(reservationPort.release("r-1", Reservation.Status.EXPIRED))
+                .thenReturn(Mono.just(closed(reservation, Reservation.Status.EXPIRED)));
+        service.scheduleHeldReservations();
+        verify(reservationPort, timeout(2000)).release("r-1", Reservation.Status.EXPIRED);
+
+        when(reservationPort.findById("r-1")).thenReturn(Mono.just(closed(reservation, Reservation.Status.EXPIRED)));
+        when(reservationPort.confirm("r-1")).thenReturn(Mono.empty());
+
+        // When
+        Mono<InventoryReservationResponse> result = service.confirm(1L, "r-1");
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.RESERVATION_NOT_ACTIVE &&
+                        ((BusinessException) throwable).getDetails().contains("EXPIRED")
+                )
+                .verify();
+    }
+
+    @Test
+    void expire_AfterConfirmWonTheRace_DoesNothing() {
+        // Given: la confirmación ya cerró la reserva y la liberación no encuentra una vigente
+        Reservation reservation = held("r-1", LocalDateTime.now().minusSeconds(1));
+        when(reservationPort.findHeld()).thenReturn(Flux.just(reservation));
+        when(reservationPort.release("r-1", Reservation.Status.EXPIRED)).thenReturn(Mono.empty());
+
+        // When
+        service.scheduleHeldReservations();
+
+        // Then: un único intento, sin reprogramar
+        verify(reservationPort, timeout(2000)).release("r-1", Reservation.Status.EXPIRED);
+        verify(reservationPort, after(300).times(1)).release("r-1", Reservation.Status.EXPIRED);
+    }
+
+    @Test
+    void scheduleHeldReservations_WriteBehindEnabled_SchedulesNothing() {
+        // Given
+        service.stop();
+        service = new InventoryReservationService(reservationPort, inventoryPort, productPort, storePort, inventoryChangePort,
+                Duration.ofMinutes(15), Duration.ofHours(2), Duration.ofMillis(10), 64, 1000, true);
+
+        // When
+        service.scheduleHeldReservations();
+
+        // Then
+        verify(reservationPort, never()).findHeld();
+    }
+
+    private Reservation held(String id, LocalDateTime expiresAt) {
+        return Reservation.builder()
+                .id(id)
+                .productId(1L)
+                .storeId(1L)
+                .quantity(3)
+                .status(Reservation.Status.HELD)
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private Reservation closed(Reservation reservation, Reservation.Status status) {
+        return Reservation.builder()
+                .id(reservation.getId())
+                .productId(reservation.getProductId())
+                .storeId(reservation.getStoreId())
+                .quantity(reservation.getQuantity())
+                .status(status)
+                .createdAt(reservation.getCreatedAt())
+                .expiresAt(reservation.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.meli.inventorymanagement.application.service;
+
+import com.meli.inventorymanagement.application.dto.UserGrantsUpdateRequest;
+import com.meli.inventorymanagement.application.dto.UserStatusUpdateRequest;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.domain.model.UserGrants;
+import com.meli.inventorymanagement.domain.port.GrantRevocationPort;
+import com.meli.inventorymanagement.domain.port.StorePort;
+import com.meli.inventorymanagement.domain.port.UserPort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserAdministrationServiceTest {
+
+    @Mock
+    private UserPort userPort;
+
+    @Mock
+    private StorePort storePort;
+
+    @Mock
+    private GrantRevocationPort grantRevocationPort;
+
+    @InjectMocks
+    private UserAdministrationService service;
+
+    @Test
+    void updateGrants_SavedChange_RevokesTheUserTokensAfterwards() {
+        // Given
+        when(storePort.findAll()).thenReturn(Flux.just(store(1L), store(2L)));
+        when(userPort.updateGrants(any())).thenReturn(Mono.just(true));
+
+        // When / Then
+        StepVerifier.create(service.updateGrants("user_maipu", request("STORE_USER", 1L, 2L)))
+                .verifyComplete();
+
+        InOrder order = inOrder(userPort, grantRevocationPort);
+        order.verify(userPort).updateGrants(UserGrants.builder()
+                .username("user_maipu").role("STORE_USER").storeIds(Set.of(1L, 2L)).build());
+        order.verify(grantRevocationPort).revoke("user_maipu");
+    }
+
+    @Test
+    void updateGrants_UnknownStore_IsRejectedWithoutChanges() {
+        // Given
+        when(storePort.findAll()).thenReturn(Flux.just(store(1L)));
+
+        // When / Then
+        StepVerifier.create(service.updateGrants("user_maipu", request("STORE_USER", 1L, 99L)))
+                .expectErrorMatches(error -> isBusinessError(error, ErrorCode.STORE_NOT_FOUND))
+                .verify();
+        verify(userPort, never()).updateGrants(any());
+        verify(grantRevocationPort, never()).revoke(anyString());
+    }
+
+    @Test
+    void updateGrants_UnknownRole_IsRejected() {
+        StepVerifier.create(service.updateGrants("user_maipu", request("ROOT")))
+                .expectErrorMatches(error -> isBusinessError(error, ErrorCode.VALIDATION_ERROR))
+                .verify();
+        verify(userPort, never()).updateGrants(any());
+    }
+
+    @Test
+    void updateGrants_UnknownUser_IsNotFoundAndRevokesNothing() {
+        // Given
+        when(userPort.updateGrants(any())).thenReturn(Mono.just(false));
+
+        // When / Then
+        StepVerifier.create(service.updateGrants("ghost", request("ADMIN")))
+                .expectErrorMatches(error -> isBusinessError(error, ErrorCode.USER_NOT_FOUND))
+                .verify();
+        verify(grantRevocationPort, never()).revoke(anyString());
+    }
+
+    @Test
+    void updateStatus_Deactivation_RevokesTheUserTokens() {
+        // Given
+        when(userPort.updateActive("user_maipu", false)).thenReturn(Mono.just(true));
+
+        // When / Then
+        StepVerifier.create(service.updateStatus("user_maipu", new UserStatusUpdateRequest(false)))
+                .verifyComplete();
+        verify(grantRevocationPort).revoke("user_maipu");
+    }
+
+    @Test
+    void updateStatus_FailedWrite_RevokesNothing() {
+        // Given
+        when(userPort.updateActive("user_maipu", false)).thenReturn(Mono.error(new IllegalStateException("db down")));
+
+        // When / Then
+        StepVerifier.create(service.updateStatus("user_maipu", new UserStatusUpdateRequest(false)))
+                .expectError(IllegalStateException.class)
+                .verify();
+        verify(grantRevocationPort, never()).revoke(anyString());
+    }
+
+    @Test
+    void revokeAllGrants_RevokesEveryToken() {
+        StepVerifier.create(service.revokeAllGrants()).verifyComplete();
+        verify(grantRevocationPort).revokeAll();
+    }
+
+    private static boolean isBusinessError(Throwable error, ErrorCode errorCode) {
+        return error instanceof BusinessException businessException && businessException.getErrorCode() == errorCode;
+    }
+
+    private static UserGrantsUpdateRequest request(String role, Long... storeIds) {
+        return UserGrantsUpdateRequest.builder().role(role).storeIds(Set.of(storeIds)).build();
+    }
+
+    private static Store store(Long id) {
+        return Store.builder().id(id).name("Tienda " + id).build();
+    }
+}
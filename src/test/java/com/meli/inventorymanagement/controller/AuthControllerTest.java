@@ -0,0 +1,112 @@
+package com.meli.inventorymanagement.controller;
+
+import com.meli.inventorymanagement.application.dto.AuthRequest;
+import com.meli.inventorymanagement.application.service.AuthService;
+import com.meli.inventorymanagement.domain.port.TokenGeneratorPort;
+import com.meli.inventorymanagement.infrastructure.adapter.input.rest.AuthController;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.AuthenticationAdapter;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.UserRepository;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.UserEntity;
+import com.meli.inventorymanagement.infrastructure.security.JwtAuthenticationFilter;
+import com.meli.inventorymanagement.infrastructure.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockUser;
+
+@WebFluxTest(
+    controllers = AuthController.class,
+    excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE,
+        classes = JwtAuthenticationFilter.class
+    )
+)
+@Import({TestSecurityConfig.class, AuthService.class, AuthenticationAdapter.class,
+        AuthControllerTest.SaturatedHashingPool.class})
+class AuthControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private TokenGeneratorPort tokenGeneratorPort;
+
+    @AfterEach
+    void tearDown() {
+        SaturatedHashingPool.RELEASE.countDown();
+    }
+
+    @Test
+    void login_SaturatedHashingPool_Returns503() throws InterruptedException {
+        // Given: el único hilo del pool y su cola de un lugar quedan ocupados
+        when(userRepository.findByUsername("admin")).thenReturn(Mono.just(UserEntity.builder()
+                .username("admin").passwordHash("12345").role("ADMIN").isActive(true).build()));
+        passwordHashingExecutor.matches("12345", "12345").subscribe();
+        assertTrue(SaturatedHashingPool.STARTED.await(5, TimeUnit.SECONDS));
+        passwordHashingExecutor.matches("12345", "12345").subscribe();
+
+        // When / Then
+        webTestClient.mutateWith(mockUser())
+                .post()
+                .uri("/api/auth/login")
+                .bodyValue(new AuthRequest("admin", "12345"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("SYS-003");
+    }
+
+    @TestConfiguration
+    static class SaturatedHashingPool {
+
+        static final CountDownLatch STARTED = new CountDownLatch(1);
+        static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+        @Bean
+        PasswordHashingExecutor passwordHashingExecutor() {
+            // Cada verificación queda retenida hasta el final del test
+            PasswordEncoder slowEncoder = new PasswordEncoder() {
+                @Override
+                public String encode(CharSequence rawPassword) {
+                    return rawPassword.toString();
+                }
+
+                @Override
+                public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                    STARTED.countDown();
+                    try {
+                        RELEASE.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return rawPassword.toString().equals(encodedPassword);
+                }
+            };
+            return new PasswordHashingExecutor(slowEncoder, new SimpleMeterRegistry(), 1, 1);
+        }
+    }
+}
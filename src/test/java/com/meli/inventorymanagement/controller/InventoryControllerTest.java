@@ -1,10 +1,32 @@
 package com.meli.inventorymanagement.controller;
 
+import com.meli.inventorymanagement.application.dto.CatalogImportResponse;
 import com.meli.inventorymanagement.application.dto.InventoryAdjustmentRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentItem;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentResponse;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentResult;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferRequest;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutLine;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutRequest;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutResponse;
+import com.meli.inventorymanagement.application.dto.InventoryImportRow;
+import com.meli.inventorymanagement.application.dto.InventoryLookupResponse;
+import com.meli.inventorymanagement.application.dto.InventoryPageResponse;
+import com.meli.inventorymanagement.application.dto.InventoryReservationRequest;
+import com.meli.inventorymanagement.application.dto.InventoryReservationResponse;
 import com.meli.inventorymanagement.application.dto.InventoryResponse;
+import com.meli.inventorymanagement.application.dto.InventorySyncItem;
+import com.meli.inventorymanagement.application.dto.InventorySyncResponse;
+import com.meli.inventorymanagement.application.dto.InventoryTransferRequest;
+import com.meli.inventorymanagement.application.dto.InventoryTransferResponse;
 import com.meli.inventorymanagement.application.dto.InventoryUpdateRequest;
+import com.meli.inventorymanagement.application.service.CatalogImportService;
+import com.meli.inventorymanagement.application.service.InventoryReservationService;
 import com.meli.inventorymanagement.application.service.InventoryService;
+import com.meli.inventorymanagement.infrastructure.adapter.input.csv.CatalogCsvReader;
 import com.meli.inventorymanagement.infrastructure.adapter.input.rest.InventoryController;
+import com.meli.inventorymanagement.infrastructure.adapter.input.rest.InventoryExportWriter;
 import com.meli.inventorymanagement.infrastructure.security.JwtAuthenticationFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,12 +40,18 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockUser;
 
@@ -34,7 +62,7 @@ import static org.springframework.security.test.web.reactive.server.SecurityMock
         classes = JwtAuthenticationFilter.class
     )
 )
-@Import(TestSecurityConfig.class)
+@Import({TestSecurityConfig.class, InventoryExportWriter.class, CatalogCsvReader.class})
 class InventoryControllerTest {
 
     @Autowired
@@ -43,6 +71,12 @@ class InventoryControllerTest {
     @MockitoBean
     private InventoryService inventoryService;
 
+    @MockitoBean
+    private InventoryReservationService inventoryReservationService;
+
+    @MockitoBean
+    private CatalogImportService catalogImportService;
+
     private InventoryResponse inventoryResponse;
 
     @BeforeEach
@@ -82,6 +116,164 @@ class InventoryControllerTest {
                 .contains(inventoryResponse);
     }
 
+    @Test
+    void lookupInventory_Success() {
+        // Given
+        InventoryLookupResponse lookupResponse = InventoryLookupResponse.builder()
+                .productSku("REM-001-BL-M")
+                .inventories(List.of(inventoryResponse))
+                .build();
+
+        when(inventoryService.lookupInventory(List.of("REM-001-BL-M", "JEA-002-AZ-32"), List.of(1L, 2L)))
+                .thenReturn(Flux.just(lookupResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("ADMIN"))
+                .get()
+                .uri("/api/inventory/lookup?skus=REM-001-BL-M,JEA-002-AZ-32&storeIds=1,2")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(InventoryLookupResponse.class)
+                .hasSize(1)
+                .contains(lookupResponse);
+    }
+
+    @Test
+    void getInventoryByStore_Success() {
+        // Given
+        InventoryPageResponse pageResponse = InventoryPageResponse.builder()
+                .storeId(1L)
+                .items(List.of(inventoryResponse))
+                .nextCursor("MTox")
+                .build();
+
+        when(inventoryService.getInventoryByStore(1L, "MTow", 1))
+                .thenReturn(Mono.just(pageResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .get()
+                .uri("/api/inventory/stores/1?cursor=MTow&limit=1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(InventoryPageResponse.class)
+                .isEqualTo(pageResponse);
+    }
+
+    @Test
+    void exportInventory_Csv_Success() {
+        // Given
+        when(inventoryService.exportInventory())
+                .thenReturn(Flux.just(inventoryResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("ADMIN"))
+                .get()
+                .uri("/api/inventory/export?format=csv")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv")
+                .expectBody(String.class)
+                .value(allOf(startsWith("id,productSku,"), containsString("REM-001-BL-M")));
+    }
+
+    @Test
+    void importInventory_ParsesCsvRows() {
+        // Given
+        when(catalogImportService.importInventory(any()))
+                .thenAnswer(invocation -> invocation.<Flux<InventoryImportRow>>getArgument(0)
+                        .collectList()
+                        .map(rows -> CatalogImportResponse.builder()
+                                .type("inventory")
+                                .read(rows.size())
+                                .applied(rows.stream().filter(row -> row.getError() == null).count())
+                                .rejected(rows.stream().filter(row -> row.getError() != null).count())
+                                .errors(rows.stream()
+                                        .filter(row -> row.getError() != null)
+                                        .map(row -> "Line " + row.getLine() + ": " + row.getError())
+                                        .toList())
+                                .build()));
+
+        String csv = "sku,storeId,availableQty\n" +
+                "REM-001-BL-M,1,25\n" +
+                "\"JEAN-002-AZ-32\",2,10\n" +
+                "REM-001-BL-M,uno,5\n";
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("ADMIN"))
+                .post()
+                .uri("/api/inventory/import/inventory")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(csv)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.read").isEqualTo(3)
+                .jsonPath("$.applied").isEqualTo(2)
+                .jsonPath("$.rejected").isEqualTo(1)
+                .jsonPath("$.errors[0]").isEqualTo("Line 4: storeId and availableQty must be integers");
+    }
+
+    @Test
+    void syncInventory_Success() {
+        // Given
+        InventorySyncResponse syncResponse = InventorySyncResponse.builder()
+                .storeId(1L)
+                .changes(List.of(InventorySyncItem.builder()
+                        .productSku("REM-001-BL-M")
+                        .availableQty(25)
+                        .reservedQty(0)
+                        .version(3)
+                        .build()))
+                .nextCursor("MToxMQ")
+                .hasMore(false)
+                .build();
+
+        when(inventoryService.getInventoryChanges(1L, "MToxMA", null))
+                .thenReturn(Mono.just(syncResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .get()
+                .uri("/api/inventory/stores/1/sync?cursor=MToxMA")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(InventorySyncResponse.class)
+                .isEqualTo(syncResponse);
+    }
+
+    @Test
+    void streamStoreChanges_Success() {
+        // Given
+        when(inventoryService.streamInventoryChanges(1L, "REM-001-BL-M"))
+                .thenReturn(Flux.just(inventoryResponse));
+
+        // When
+        Flux<InventoryResponse> events = webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .get()
+                .uri("/api/inventory/stores/1/changes?sku=REM-001-BL-M")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(InventoryResponse.class)
+                .getResponseBody();
+
+        // Then
+        StepVerifier.create(events)
+                .expectNext(inventoryResponse)
+                .thenCancel()
+                .verify();
+    }
+
     @Test
     void getInventoryByProductAndStore_Success() {
         // Given
@@ -100,6 +292,35 @@ class InventoryControllerTest {
                 .isEqualTo(inventoryResponse);
     }
 
+    @Test
+    void getInventoryByProductAndStore_AsOf_Success() {
+        // Given
+        LocalDateTime asOf = LocalDateTime.of(2025, 3, 10, 14, 0);
+        InventoryResponse historicResponse = InventoryResponse.builder()
+                .id(1L)
+                .productSku("REM-001-BL-M")
+                .productName("Remera Básica Blanca M")
+                .storeId(1L)
+                .storeName("Shopping Dinosaurio Mall")
+                .availableQty(18)
+                .asOf(asOf)
+                .build();
+
+        when(inventoryService.getInventoryByProductSkuAndStoreAsOf("REM-001-BL-M", 1L, asOf))
+                .thenReturn(Mono.just(historicResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .get()
+                .uri("/api/inventory/REM-001-BL-M/stores/1?asOf=2025-03-10T14:00:00")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(InventoryResponse.class)
+                .isEqualTo(historicResponse);
+    }
+
     @Test
     void updateInventory_Success() {
         // Given
@@ -168,6 +389,261 @@ class InventoryControllerTest {
                 .isEqualTo(adjustedResponse);
     }
 
+    @Test
+    void adjustInventory_WithIdempotencyKey_Success() {
+        // Given
+        InventoryAdjustmentRequest request = InventoryAdjustmentRequest.builder()
+                .adjustment(-2)
+                .build();
+
+        when(inventoryService.adjustInventoryIdempotent(anyString(), anyLong(), any(InventoryAdjustmentRequest.class),
+                anyString(), eq("pos-7-sale-123")))
+                .thenReturn(Mono.just(inventoryResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .post()
+                .uri("/api/inventory/REM-001-BL-M/stores/1/adjustments")
+                .header("Idempotency-Key", "pos-7-sale-123")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(InventoryResponse.class)
+                .isEqualTo(inventoryResponse);
+    }
+
+    @Test
+    void adjustInventoryBatch_Success() {
+        // Given
+        InventoryBatchAdjustmentRequest request = InventoryBatchAdjustmentRequest.builder()
+                .items(List.of(InventoryBatchAdjustmentItem.builder()
+                        .productSku("REM-001-BL-M")
+                        .storeId(1L)
+                        .adjustment(-3)
+                        .build()))
+                .build();
+
+        InventoryBatchAdjustmentResponse batchResponse = InventoryBatchAdjustmentResponse.builder()
+                .applied(1)
+                .rejected(0)
+                .results(List.of(InventoryBatchAdjustmentResult.builder()
+                        .index(0)
+                        .productSku("REM-001-BL-M")
+                        .storeId(1L)
+                        .adjustment(-3)
+                        .applied(true)
+                        .previousQty(25)
+                        .inventory(inventoryResponse)
+                        .build()))
+                .build();
+
+        when(inventoryService.adjustInventoryBatch(any(InventoryBatchAdjustmentRequest.class)))
+                .thenReturn(Mono.just(batchResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .post()
+                .uri("/api/inventory/adjustments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(InventoryBatchAdjustmentResponse.class)
+                .isEqualTo(batchResponse);
+    }
+
+    @Test
+    void adjustInventoryBatch_ValidationError_EmptyItems() {
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .post()
+                .uri("/api/inventory/adjustments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(InventoryBatchAdjustmentRequest.builder().items(List.of()).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void transferInventory_Success() {
+        // Given
+        InventoryTransferRequest request = InventoryTransferRequest.builder()
+                .fromStoreId(1L)
+                .toStoreId(2L)
+                .quantity(5)
+                .build();
+
+        InventoryTransferResponse transferResponse = InventoryTransferResponse.builder()
+                .productSku("REM-001-BL-M")
+                .quantity(5)
+                .source(inventoryResponse)
+                .destination(inventoryResponse)
+                .build();
+
+        when(inventoryService.transferInventory(anyString(), any(InventoryTransferRequest.class)))
+                .thenReturn(Mono.just(transferResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .post()
+                .uri("/api/inventory/REM-001-BL-M/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(InventoryTransferResponse.class)
+                .isEqualTo(transferResponse);
+    }
+
+    @Test
+    void transferInventoryBulk_ValidationError_EmptyItems() {
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("ADMIN"))
+                .post()
+                .uri("/api/inventory/transfers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(InventoryBulkTransferRequest.builder().items(List.of()).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void checkout_Success() {
+        // Given
+        InventoryCheckoutRequest request = InventoryCheckoutRequest.builder()
+                .lines(List.of(InventoryCheckoutLine.builder()
+                        .productSku("REM-001-BL-M")
+                        .quantity(2)
+                        .build()))
+                .build();
+
+        InventoryCheckoutResponse checkoutResponse = InventoryCheckoutResponse.builder()
+                .storeId(1L)
+                .lines(1)
+                .units(2)
+                .inventories(List.of(inventoryResponse))
+                .build();
+
+        when(inventoryService.checkout(anyLong(), any(InventoryCheckoutRequest.class)))
+                .thenReturn(Mono.just(checkoutResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .post()
+                .uri("/api/inventory/stores/1/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(InventoryCheckoutResponse.class)
+                .isEqualTo(checkoutResponse);
+    }
+
+    @Test
+    void checkout_ValidationError_NonPositiveQuantity() {
+        // Given
+        InventoryCheckoutRequest request = InventoryCheckoutRequest.builder()
+                .lines(List.of(InventoryCheckoutLine.builder()
+                        .productSku("REM-001-BL-M")
+                        .quantity(0)
+                        .build()))
+                .build();
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .post()
+                .uri("/api/inventory/stores/1/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void reserveInventory_Success() {
+        // Given
+        InventoryReservationRequest request = InventoryReservationRequest.builder()
+                .quantity(3)
+                .ttlSeconds(600L)
+                .build();
+
+        InventoryReservationResponse reservationResponse = InventoryReservationResponse.builder()
+                .reservationId("7f1c2a9e-1d0b-4c61-9a53-2f4d8e6b1a10")
+                .productSku("REM-001-BL-M")
+                .storeId(1L)
+                .quantity(3)
+                .status("HELD")
+                .expiresAt(LocalDateTime.now().plusMinutes(10).withNano(0))
+                .build();
+
+        when(inventoryReservationService.reserve(anyString(), anyLong(), any(InventoryReservationRequest.class)))
+                .thenReturn(Mono.just(reservationResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .post()
+                .uri("/api/inventory/REM-001-BL-M/stores/1/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(InventoryReservationResponse.class)
+                .isEqualTo(reservationResponse);
+    }
+
+    @Test
+    void confirmReservation_Success() {
+        // Given
+        InventoryReservationResponse reservationResponse = InventoryReservationResponse.builder()
+                .reservationId("7f1c2a9e-1d0b-4c61-9a53-2f4d8e6b1a10")
+                .productSku("REM-001-BL-M")
+                .storeId(1L)
+                .quantity(3)
+                .status("CONFIRMED")
+                .expiresAt(LocalDateTime.now().plusMinutes(10).withNano(0))
+                .build();
+
+        when(inventoryReservationService.confirm(1L, "7f1c2a9e-1d0b-4c61-9a53-2f4d8e6b1a10"))
+                .thenReturn(Mono.just(reservationResponse));
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .post()
+                .uri("/api/inventory/stores/1/reservations/7f1c2a9e-1d0b-4c61-9a53-2f4d8e6b1a10/confirm")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(InventoryReservationResponse.class)
+                .isEqualTo(reservationResponse);
+    }
+
+    @Test
+    void reserveInventory_ValidationError_NonPositiveQuantity() {
+        // Given
+        InventoryReservationRequest request = InventoryReservationRequest.builder()
+                .quantity(0)
+                .build();
+
+        // When & Then
+        webTestClient
+                .mutateWith(mockUser().roles("STORE_USER"))
+                .post()
+                .uri("/api/inventory/REM-001-BL-M/stores/1/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void updateInventory_ValidationError_NegativeQuantity() {
         // Given
@@ -0,0 +1,135 @@
+package com.meli.inventorymanagement.infrastructure.adapter.input.csv;
+
+import com.meli.inventorymanagement.application.dto.InventoryImportRow;
+import com.meli.inventorymanagement.application.dto.ProductImportRow;
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CatalogCsvReaderTest {
+
+    private final CatalogCsvReader catalogCsvReader = new CatalogCsvReader();
+
+    @Test
+    void parse_QuotedCommas_StayInsideTheField() {
+        assertEquals(Arrays.asList("SKU-1", "Remera, blanca", null),
+                CatalogCsvReader.parse("SKU-1,\"Remera, blanca\","));
+    }
+
+    @Test
+    void parse_EscapedQuotes_AreUnescaped() {
+        assertEquals(List.of("SKU-1", "Remera \"oversize\"", "\""),
+                CatalogCsvReader.parse("SKU-1,\"Remera \"\"oversize\"\"\",\"\"\"\""));
+    }
+
+    @Test
+    void parse_UnquotedFields_AreTrimmedAndEmptyIsNull() {
+        assertEquals(Arrays.asList("SKU-1", null, "10"), CatalogCsvReader.parse(" SKU-1 , ,10"));
+    }
+
+    @Test
+    void parse_TextAfterClosingQuote_IsMalformed() {
+        assertNull(CatalogCsvReader.parse("SKU-1,\"Remera\"x,10"));
+    }
+
+    @Test
+    void parse_UnclosedQuote_IsIncomplete() {
+        assertSame(CatalogCsvReader.INCOMPLETE, CatalogCsvReader.parse("SKU-1,\"Remera"));
+    }
+
+    @Test
+    void readProducts_CrlfLineEndings_AreStripped() {
+        // Given
+        Flux<DataBuffer> content = csv("sku,name,description\r\nSKU-1,Remera,Blanca\r\nSKU-2,Buzo,\r\n");
+
+        // When / Then
+        StepVerifier.create(catalogCsvReader.readProducts(content))
+                .expectNext(ProductImportRow.builder().line(2).sku("SKU-1").name("Remera").description("Blanca").build())
+                .expectNext(ProductImportRow.builder().line(3).sku("SKU-2").name("Buzo").build())
+                .verifyComplete();
+    }
+
+    @Test
+    void readProducts_EmbeddedNewline_JoinsTheRecordAndKeepsItsFirstLine() {
+        // Given: la descripción ocupa dos líneas del archivo
+        Flux<DataBuffer> content = csv("sku,name,description\r\n" +
+                "SKU-1,Remera,\"Algodón\r\npeinado\"\r\n" +
+                "SKU-2,Buzo,Frisa\r\n");
+
+        // When / Then
+        StepVerifier.create(catalogCsvReader.readProducts(content))
+                .expectNext(ProductImportRow.builder().line(2).sku("SKU-1").name("Remera").description("Algodón\npeinado").build())
+                .expectNext(ProductImportRow.builder().line(4).sku("SKU-2").name("Buzo").description("Frisa").build())
+                .verifyComplete();
+    }
+
+    @Test
+    void readProducts_QuoteNeverClosed_ReportsTheRecordAsMalformed() {
+        // Given
+        Flux<DataBuffer> content = csv("sku,name\nSKU-1,Remera\nSKU-2,\"Buzo\nSKU-3,Campera\n");
+
+        // When / Then
+        StepVerifier.create(catalogCsvReader.readProducts(content))
+                .expectNextMatches(row -> row.getLine() == 2 && row.getError() == null)
+                .expectNextMatches(row -> row.getLine() == 3 && "Malformed CSV line".equals(row.getError()))
+                .verifyComplete();
+    }
+
+    @Test
+    void readProducts_RecordLongerThanTheLimit_IsMalformedAndReadingContinues() {
+        // Given: una comilla sin cerrar no retiene el resto del archivo
+        String longLine = "x".repeat(CatalogCsvReader.MAX_RECORD_LENGTH);
+        Flux<DataBuffer> content = csv("sku,name\nSKU-1,\"Remera\n" + longLine + "\nSKU-2,Buzo\n");
+
+        // When / Then
+        StepVerifier.create(catalogCsvReader.readProducts(content))
+                .expectNextMatches(row -> row.getLine() == 2 && "Malformed CSV line".equals(row.getError()))
+                .expectNextMatches(row -> row.getLine() == 4 && "SKU-2".equals(row.getSku()))
+                .verifyComplete();
+    }
+
+    @Test
+    void readInventory_ColumnsInAnyOrderAndBadNumbers() {
+        // Given: encabezado con BOM y columnas en otro orden
+        Flux<DataBuffer> content = csv("\uFEFFavailableQty,SKU,storeId\n5,SKU-1,1\n\nabc,SKU-2,1\n");
+
+        // When / Then
+        StepVerifier.create(catalogCsvReader.readInventory(content))
+                .expectNext(InventoryImportRow.builder().line(2).productSku("SKU-1").storeId(1L).availableQty(5).build())
+                .expectNextMatches(row -> row.getLine() == 4 && "SKU-2".equals(row.getProductSku())
+                        && "storeId and availableQty must be integers".equals(row.getError()))
+                .verifyComplete();
+    }
+
+    @Test
+    void readInventory_HeaderWithoutRequiredColumns_Fails() {
+        // Given
+        Flux<DataBuffer> content = csv("sku,storeId\nSKU-1,1\n");
+
+        // When / Then
+        StepVerifier.create(catalogCsvReader.readInventory(content))
+                .expectErrorMatches(throwable -> throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.INVALID_PARAMETER_FORMAT)
+                .verify();
+    }
+
+    // Buffers chicos: las líneas y los caracteres multibyte quedan partidos entre buffers
+    private static Flux<DataBuffer> csv(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return Flux.range(0, (bytes.length + 6) / 7)
+                .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        Arrays.copyOfRange(bytes, chunk * 7, Math.min(bytes.length, chunk * 7 + 7))));
+    }
+}
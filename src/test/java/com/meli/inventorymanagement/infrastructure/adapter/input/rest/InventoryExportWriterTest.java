@@ -0,0 +1,164 @@
+package com.meli.inventorymanagement.infrastructure.adapter.input.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meli.inventorymanagement.application.dto.InventoryResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryExportWriterTest {
+
+    // Comillas, barra invertida, controles, DEL, texto fuera del BMP y coma
+    private static final String[] TRICKY_NAMES = {
+            "Remera \"Oversize\"",
+            "C:\\catalogo\\remeras",
+            "línea 1\nlínea 2\r\nlínea 3",
+            "tab\tbell\u0007nul\u0000esc\u001b",
+            "del\u007f",
+            "Ñandú 😀 𝄞",
+            "Jean, azul",
+            "\u2028separadores\u2029"
+    };
+
+    private final InventoryExportWriter writer = new InventoryExportWriter();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void encodeNdjson_RoundTripsEveryStringThroughAJsonParser() throws Exception {
+        // Given
+        List<InventoryResponse> rows = IntStream.range(0, TRICKY_NAMES.length)
+                .mapToObj(i -> row(i + 1L, "SKU-" + i, TRICKY_NAMES[i], TRICKY_NAMES[TRICKY_NAMES.length - 1 - i]))
+                .toList();
+
+        // When
+        String ndjson = new String(writer.encode(rows, InventoryExportWriter.Format.NDJSON), StandardCharsets.UTF_8);
+
+        // Then: una línea por fila y cada valor vuelve intacto
+        String[] lines = ndjson.split("\n", -1);
+        assertEquals(rows.size() + 1, lines.length);
+        assertEquals("", lines[rows.size()]);
+        for (int i = 0; i < rows.size(); i++) {
+            JsonNode node = objectMapper.readTree(lines[i]);
+            assertEquals(i + 1L, node.get("id").asLong());
+            assertEquals(TRICKY_NAMES[i], node.get("productName").asText());
+            assertEquals(TRICKY_NAMES[TRICKY_NAMES.length - 1 - i], node.get("storeName").asText());
+            assertEquals(7, node.get("availableQty").asInt());
+            assertEquals("2025-10-08T12:30:00", node.get("updatedAt").asText());
+        }
+    }
+
+    @Test
+    void encodeNdjson_EscapesControlCharactersAndKeepsNonBmpTextAsUtf8() {
+        // Given
+        List<InventoryResponse> rows = List.of(row(1L, "A", "a\u0001b\"c\\d", "Ñandú 😀"));
+
+        // When
+        byte[] encoded = writer.encode(rows, InventoryExportWriter.Format.NDJSON);
+        String ndjson = new String(encoded, StandardCharsets.UTF_8);
+
+        // Then
+        assertTrue(ndjson.contains("\"productName\":\"a\\u0001b\\\"c\\\\d\""));
+        assertTrue(ndjson.contains("\"storeName\":\"Ñandú 😀\""));
+        // El emoji ocupa 4 bytes en UTF-8, no dos secuencias de 3 bytes por surrogate
+        assertTrue(containsSequence(encoded, "😀".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void encodeNdjson_WritesNullsAsJsonNull() throws Exception {
+        // Given
+        InventoryResponse row = InventoryResponse.builder().id(1L).productSku("A").storeId(2L).build();
+
+        // When
+        String ndjson = new String(writer.encode(List.of(row), InventoryExportWriter.Format.NDJSON), StandardCharsets.UTF_8);
+
+        // Then
+        JsonNode node = objectMapper.readTree(ndjson);
+        assertTrue(node.get("productName").isNull());
+        assertTrue(node.get("availableQty").isNull());
+        assertTrue(node.get("updatedAt").isNull());
+    }
+
+    @Test
+    void encodeCsv_QuotesOnlyFieldsThatNeedIt() {
+        // Given
+        List<InventoryResponse> rows = List.of(
+                row(1L, "A", "Jean, azul", "Remera \"Oversize\""),
+                row(2L, "B", "línea 1\nlínea 2", "retorno\rde carro"),
+                row(3L, "C", "Ñandú 😀 𝄞", "tab\tsin comillas"),
+                InventoryResponse.builder().id(4L).productSku("D").storeId(5L).build());
+
+        // When
+        String csv = new String(writer.encode(rows, InventoryExportWriter.Format.CSV), StandardCharsets.UTF_8);
+
+        // Then
+        assertEquals(
+                "1,A,\"Jean, azul\",2,\"Remera \"\"Oversize\"\"\",7,0,7,3,2025-10-08T12:30:00\n" +
+                "2,B,\"línea 1\nlínea 2\",2,\"retorno\rde carro\",7,0,7,3,2025-10-08T12:30:00\n" +
+                "3,C,Ñandú 😀 𝄞,2,tab\tsin comillas,7,0,7,3,2025-10-08T12:30:00\n" +
+                "4,D,,5,,,,,,\n",
+                csv);
+    }
+
+    @Test
+    void write_EmitsTheCsvHeaderAndEveryRowAcrossBuffers() {
+        // Given: más de dos bloques de filas
+        int count = InventoryExportWriter.ROWS_PER_BUFFER * 2 + 1;
+        Flux<InventoryResponse> rows = Flux.range(1, count).map(i -> row(i.longValue(), "SKU-" + i, "P", "T"));
+
+        // When
+        List<String> chunks = writer.write(rows, InventoryExportWriter.Format.CSV, DefaultDataBufferFactory.sharedInstance)
+                .map(this::asString)
+                .collectList()
+                .block();
+
+        // Then
+        assertEquals(4, chunks.size());
+        assertTrue(chunks.get(0).startsWith("id,productSku,productName,storeId,storeName"));
+        String body = String.join("", chunks.subList(1, chunks.size()));
+        assertEquals(count, body.split("\n").length);
+        assertTrue(body.startsWith("1,SKU-1,"));
+        assertTrue(body.contains("\n" + count + ",SKU-" + count + ","));
+    }
+
+    private InventoryResponse row(Long id, String sku, String productName, String storeName) {
+        return InventoryResponse.builder()
+                .id(id)
+                .productSku(sku)
+                .productName(productName)
+                .storeId(2L)
+                .storeName(storeName)
+                .availableQty(7)
+                .reservedQty(0)
+                .sellableQty(7)
+                .version(3)
+                .updatedAt(LocalDateTime.of(2025, 10, 8, 12, 30))
+                .build();
+    }
+
+    private String asString(DataBuffer buffer) {
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static boolean containsSequence(byte[] bytes, byte[] sequence) {
+        outer:
+        for (int i = 0; i <= bytes.length - sequence.length; i++) {
+            for (int j = 0; j < sequence.length; j++) {
+                if (bytes[i + j] != sequence[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,166 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.cache;
+
+import com.meli.inventorymanagement.domain.model.Product;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.ProductPersistenceAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheAdapterTest {
+
+    @Mock
+    private ProductPersistenceAdapter productPersistenceAdapter;
+
+    private ProductCacheAdapter cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductCacheAdapter(productPersistenceAdapter, new SimpleMeterRegistry(), Duration.ofMinutes(10), 1000);
+    }
+
+    @Test
+    void findBySku_SecondLookupIsServedFromCache() {
+        // Given
+        when(productPersistenceAdapter.findBySku("SKU-1")).thenReturn(Mono.just(product(1L, "SKU-1")));
+
+        // When & Then
+        StepVerifier.create(cache.findBySku("SKU-1")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.findBySku("SKU-1"))
+                .assertNext(found -> assertEquals("SKU-1", found.getSku()))
+                .verifyComplete();
+        StepVerifier.create(cache.findById(1L)).expectNextCount(1).verifyComplete();
+
+        verify(productPersistenceAdapter, times(1)).findBySku("SKU-1");
+        verify(productPersistenceAdapter, never()).findById(any());
+    }
+
+    @Test
+    void findById_ReturnsCopiesOfTheCachedProduct() {
+        // Given
+        when(productPersistenceAdapter.findById(1L)).thenReturn(Mono.just(product(1L, "SKU-1")));
+        Product first = cache.findById(1L).block();
+        first.setName("modificado");
+
+        // When
+        Product second = cache.findById(1L).block();
+
+        // Then
+        assertNotSame(first, second);
+        assertEquals("Producto SKU-1", second.getName());
+    }
+
+    @Test
+    void findBySku_SkuChangeDropsTheOldSkuMapping() {
+        // Given
+        when(productPersistenceAdapter.findBySku("SKU-OLD")).thenReturn(Mono.just(product(1L, "SKU-OLD")), Mono.empty());
+        when(productPersistenceAdapter.findById(1L)).thenReturn(Mono.just(product(1L, "SKU-NEW")));
+        cache.findBySku("SKU-OLD").block();
+        cache.invalidateById(1L);
+
+        // When: el producto se vuelve a cargar con su SKU nuevo
+        cache.findById(1L).block();
+
+        // Then
+        StepVerifier.create(cache.findBySku("SKU-OLD")).verifyComplete();
+        verify(productPersistenceAdapter, times(2)).findBySku("SKU-OLD");
+    }
+
+    @Test
+    void findBySku_ReloadWithNewSkuReplacesStaleIndexEntry() {
+        // Given: el producto 1 estaba cacheado con SKU-OLD y vuelve a leerse ya renombrado
+        when(productPersistenceAdapter.findBySku("SKU-OLD")).thenReturn(Mono.just(product(1L, "SKU-OLD")), Mono.empty());
+        when(productPersistenceAdapter.findBySku("SKU-NEW")).thenReturn(Mono.just(product(1L, "SKU-NEW")));
+        cache.findBySku("SKU-OLD").block();
+
+        // When
+        cache.findBySku("SKU-NEW").block();
+
+        // Then
+        StepVerifier.create(cache.findBySku("SKU-OLD")).verifyComplete();
+        StepVerifier.create(cache.findBySku("SKU-NEW"))
+                .assertNext(found -> assertEquals(1L, found.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findBySkus_OnlyMissingSkusHitTheDatabase() {
+        // Given
+        when(productPersistenceAdapter.findBySku("SKU-1")).thenReturn(Mono.just(product(1L, "SKU-1")));
+        when(productPersistenceAdapter.findBySkus(List.of("SKU-2"))).thenReturn(Flux.just(product(2L, "SKU-2")));
+        cache.findBySku("SKU-1").block();
+
+        // When & Then
+        StepVerifier.create(cache.findBySkus(List.of("SKU-1", "SKU-2")))
+                .expectNextCount(2)
+                .verifyComplete();
+        verify(productPersistenceAdapter).findBySkus(List.of("SKU-2"));
+    }
+
+    @Test
+    void invalidateBySku_ForcesReload() {
+        // Given
+        when(productPersistenceAdapter.findBySku("SKU-1")).thenReturn(Mono.just(product(1L, "SKU-1")));
+        cache.findBySku("SKU-1").block();
+
+        // When
+        cache.invalidateBySku("SKU-1");
+        cache.findBySku("SKU-1").block();
+
+        // Then
+        verify(productPersistenceAdapter, times(2)).findBySku("SKU-1");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void lookup_ExpiredEntryIsReloaded() {
+        // Given
+        cache = new ProductCacheAdapter(productPersistenceAdapter, new SimpleMeterRegistry(), Duration.ZERO, 1000);
+        when(productPersistenceAdapter.findById(1L)).thenReturn(Mono.just(product(1L, "SKU-1")));
+
+        // When
+        cache.findById(1L).block();
+        cache.findById(1L).block();
+
+        // Then
+        verify(productPersistenceAdapter, times(2)).findById(1L);
+    }
+
+    @Test
+    void put_SizeIsBoundedPerSegment() {
+        // Given: 16 segmentos de una entrada cada uno
+        cache = new ProductCacheAdapter(productPersistenceAdapter, new SimpleMeterRegistry(), Duration.ofMinutes(10), 16);
+        when(productPersistenceAdapter.findById(anyLong()))
+                .thenAnswer(invocation -> Mono.just(product(invocation.getArgument(0), "SKU-" + invocation.getArgument(0))));
+
+        // When
+        for (long id = 1; id <= 100; id++) {
+            cache.findById(id).block();
+        }
+
+        // Then
+        assertEquals(16, cache.size());
+    }
+
+    private Product product(Long id, String sku) {
+        return Product.builder()
+                .id(id)
+                .sku(sku)
+                .name("Producto " + sku)
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.cache;
+
+import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.StorePersistenceAdapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoreDirectoryAdapterTest {
+
+    private static final LocalDateTime LOADED_AT = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Mock
+    private StorePersistenceAdapter storePersistenceAdapter;
+
+    private StoreDirectoryAdapter directory;
+
+    @BeforeEach
+    void setUp() {
+        directory = new StoreDirectoryAdapter(storePersistenceAdapter, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void findById_BeforeFirstLoadDelegatesToDatabase() {
+        // Given
+        when(storePersistenceAdapter.findById(1L)).thenReturn(Mono.just(store(1L, "Dinosaurio")));
+
+        // When & Then
+        StepVerifier.create(directory.findById(1L)).expectNextCount(1).verifyComplete();
+        verify(storePersistenceAdapter).findById(1L);
+    }
+
+    @Test
+    void findById_AfterLoadIsServedFromSnapshot() {
+        // Given
+        load(LOADED_AT, store(1L, "Dinosaurio"), store(2L, "Maipu"));
+
+        // When & Then
+        StepVerifier.create(directory.findById(2L))
+                .assertNext(store -> assertEquals("Maipu", store.getName()))
+                .verifyComplete();
+        StepVerifier.create(directory.findById(9L)).verifyComplete();
+        StepVerifier.create(directory.existsById(1L)).expectNext(true).verifyComplete();
+        StepVerifier.create(directory.existsById(9L)).expectNext(false).verifyComplete();
+        StepVerifier.create(directory.findAll()).expectNextCount(2).verifyComplete();
+        verify(storePersistenceAdapter, never()).findById(anyLong());
+        verify(storePersistenceAdapter, never()).existsById(anyLong());
+    }
+
+    @Test
+    void existsById_IdsOutsideIntRangeAreResolvedFromTheMap() {
+        // Given
+        long bigId = Integer.MAX_VALUE + 10L;
+        load(LOADED_AT, store(bigId, "Remota"));
+
+        // When & Then
+        StepVerifier.create(directory.existsById(bigId)).expectNext(true).verifyComplete();
+        StepVerifier.create(directory.existsById(-1L)).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void refreshIfChanged_UnchangedVersionDoesNotReload() {
+        // Given
+        load(LOADED_AT, store(1L, "Dinosaurio"));
+
+        // When
+        directory.refreshIfChanged().block();
+
+        // Then
+        verify(storePersistenceAdapter, times(1)).findAll();
+    }
+
+    @Test
+    void refreshIfChanged_NewUpdatedAtReplacesSnapshot() {
+        // Given
+        load(LOADED_AT, store(1L, "Dinosaurio"));
+
+        // When
+        load(LOADED_AT.plusMinutes(1), store(1L, "Dinosaurio Mall"));
+
+        // Then
+        StepVerifier.create(directory.findById(1L))
+                .assertNext(store -> assertEquals("Dinosaurio Mall", store.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void refreshIfChanged_DeletedStoreIsDetectedByCount() {
+        // Given: borrar una tienda no mueve el máximo de updated_at
+        load(LOADED_AT, store(1L, "Dinosaurio"), store(2L, "Maipu"));
+
+        // When
+        load(LOADED_AT, store(1L, "Dinosaurio"));
+
+        // Then
+        StepVerifier.create(directory.existsById(2L)).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void findById_ReturnsCopies() {
+        // Given
+        load(LOADED_AT, store(1L, "Dinosaurio"));
+        directory.findById(1L).block().setName("modificado");
+
+        // When & Then
+        StepVerifier.create(directory.findById(1L))
+                .assertNext(store -> assertEquals("Dinosaurio", store.getName()))
+                .verifyComplete();
+    }
+
+    private void load(LocalDateTime latestUpdate, Store... stores) {
+        when(storePersistenceAdapter.findLatestUpdatedAt()).thenReturn(Mono.just(latestUpdate));
+        when(storePersistenceAdapter.count()).thenReturn(Mono.just((long) stores.length));
+        lenient().when(storePersistenceAdapter.findAll()).thenReturn(Flux.just(stores));
+        directory.refreshIfChanged().block();
+    }
+
+    private Store store(Long id, String name) {
+        return Store.builder()
+                .id(id)
+                .name(name)
+                .isActive(true)
+                .updatedAt(LOADED_AT)
+                .build();
+    }
+}
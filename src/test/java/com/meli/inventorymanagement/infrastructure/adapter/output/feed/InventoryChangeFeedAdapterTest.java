@@ -0,0 +1,250 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.feed;
+
+import com.meli.inventorymanagement.domain.model.Inventory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryChangeFeedAdapterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InventoryChangeFeedAdapter feed;
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    void subscribe_SlowSubscriberReceivesOnlyTheLatestStateOfEachKey() {
+        // Given
+        feed = new InventoryChangeFeedAdapter(meterRegistry, 1024, 2);
+
+        // When & Then: sin demanda los cambios de la misma clave se conflan y mantienen el orden de llegada
+        StepVerifier.create(feed.subscribe(1L, null), 0)
+                .then(() -> {
+                    feed.publish(inventory(10L, 1L, 1));
+                    feed.publish(inventory(20L, 1L, 5));
+                    feed.publish(inventory(10L, 1L, 2));
+                    feed.publish(inventory(10L, 1L, 3));
+                })
+                .thenRequest(10)
+                .expectNextMatches(change -> change.getProductId() == 10L && change.getAvailableQty() == 3)
+                .expectNextMatches(change -> change.getProductId() == 20L && change.getAvailableQty() == 5)
+                .thenCancel()
+                .verify();
+
+        assertEquals(2.0, meterRegistry.get("inventory.feed.conflated").functionCounter().count());
+        assertEquals(4.0, meterRegistry.get("inventory.feed.published").functionCounter().count());
+    }
+
+    @Test
+    void subscribe_BeyondMaxPendingKeysDropsTheOldest() {
+        // Given
+        feed = new InventoryChangeFeedAdapter(meterRegistry, 2, 2);
+
+        // When & Then
+        StepVerifier.create(feed.subscribe(1L, null), 0)
+                .then(() -> {
+                    feed.publish(inventory(10L, 1L, 1));
+                    feed.publish(inventory(20L, 1L, 2));
+                    feed.publish(inventory(30L, 1L, 3));
+                })
+                .thenRequest(10)
+                .expectNextMatches(change -> change.getProductId() == 20L)
+                .expectNextMatches(change -> change.getProductId() == 30L)
+                .thenCancel()
+                .verify();
+
+        assertEquals(1.0, meterRegistry.get("inventory.feed.dropped").functionCounter().count());
+    }
+
+    @Test
+    void subscribe_NeverEmitsBeyondDemandSoTheErrorStrategyDoesNotTrigger() throws InterruptedException {
+        // Given: OverflowStrategy.ERROR falla si se emite sin demanda; un consumidor que pide de a uno no debe verlo
+        feed = new InventoryChangeFeedAdapter(meterRegistry, 16, 2);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Inventory> received = new CopyOnWriteArrayList<>();
+        BaseSubscriber<Inventory> slow = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(Inventory value) {
+                received.add(value);
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                error.set(throwable);
+            }
+        };
+        feed.subscribe(null, null).subscribe(slow);
+        feed.publish(inventory(0L, 1L, 0));
+        awaitUntil(() -> received.size() == 1);
+
+        // When: miles de cambios sobre 100 claves sin demanda pendiente
+        for (int i = 1; i < 10_000; i++) {
+            feed.publish(inventory((long) (i % 100), 1L + i % 3, i));
+        }
+
+        // Then: el resto quedó conflado y acotado a max-pending
+        slow.request(100);
+        awaitUntil(() -> received.size() == 17);
+        assertNull(error.get());
+        slow.dispose();
+    }
+
+    @Test
+    void subscribe_FiltersByStoreAndProduct() {
+        // Given
+        feed = new InventoryChangeFeedAdapter(meterRegistry, 1024, 2);
+
+        // When & Then
+        StepVerifier.create(feed.subscribe(1L, 10L))
+                .then(() -> {
+                    feed.publish(inventory(10L, 2L, 1));
+                    feed.publish(inventory(20L, 1L, 2));
+                    feed.publish(inventory(10L, 1L, 3));
+                })
+                .expectNextMatches(change -> change.getProductId() == 10L && change.getStoreId() == 1L)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void subscribe_CancellingRemovesTheSubscriber() {
+        // Given
+        feed = new InventoryChangeFeedAdapter(meterRegistry, 1024, 2);
+        Disposable byStore = feed.subscribe(1L, null).subscribe();
+        Disposable allStores = feed.subscribe(null, null).subscribe();
+        assertEquals(2, feed.subscribers());
+
+        // When
+        byStore.dispose();
+        allStores.dispose();
+
+        // Then
+        assertEquals(0, feed.subscribers());
+        feed.publish(inventory(10L, 1L, 1));
+    }
+
+    @Test
+    void publish_ConcurrentWritersLeaveEachSubscriberWithTheFinalState() throws InterruptedException {
+        // Given: un consumidor que pide de a poco mientras cuatro hilos publican
+        feed = new InventoryChangeFeedAdapter(meterRegistry, 1024, 2);
+        Map<Long, Integer> latest = new ConcurrentHashMap<>();
+        Disposable subscription = feed.subscribe(1L, null)
+                .limitRate(8)
+                .delayElements(Duration.ofMillis(1))
+                .subscribe(change -> latest.put(change.getProductId(), change.getAvailableQty()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch done = new CountDownLatch(4);
+        for (int writer = 0; writer < 4; writer++) {
+            long firstKey = writer * 25L;
+            executor.submit(() -> {
+                // Cada hilo es dueño de 25 claves: el último valor publicado de cada una es 999
+                for (int qty = 0; qty < 1000; qty++) {
+                    for (long key = firstKey; key < firstKey + 25; key++) {
+                        feed.publish(inventory(key, 1L, qty));
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // When: el consumidor termina de vaciar su buffer
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!allAt(latest, 999) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Then
+        assertEquals(100, latest.size());
+        assertTrue(allAt(latest, 999));
+        subscription.dispose();
+    }
+
+    @Test
+    void publish_DeliversOffTheWriterThreadAndNeverWaitsForTheConsumer() throws InterruptedException {
+        // Given: un consumidor que se queda bloqueado en el primer cambio
+        feed = new InventoryChangeFeedAdapter(meterRegistry, 1024, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> deliveryThread = new AtomicReference<>();
+        List<Inventory> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = feed.subscribe(1L, null)
+                .subscribe(change -> {
+                    deliveryThread.compareAndSet(null, Thread.currentThread().getName());
+                    received.add(change);
+                    awaitQuietly(release);
+                });
+
+        // When: el escritor sigue publicando mientras el consumidor no avanza
+        feed.publish(inventory(10L, 1L, 1));
+        awaitUntil(() -> received.size() == 1);
+        for (int qty = 2; qty <= 100; qty++) {
+            feed.publish(inventory(10L, 1L, qty));
+        }
+
+        // Then: publicar no esperó al consumidor, que recibe el último estado al liberarse
+        assertEquals(1, received.size());
+        assertTrue(deliveryThread.get().startsWith("inventory-feed"));
+        release.countDown();
+        awaitUntil(() -> received.size() == 2);
+        assertEquals(100, received.get(1).getAvailableQty());
+        subscription.dispose();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean allAt(Map<Long, Integer> latest, int qty) {
+        return latest.size() == 100 && latest.values().stream().allMatch(value -> value == qty);
+    }
+
+    private static Inventory inventory(Long productId, Long storeId, int availableQty) {
+        return Inventory.builder()
+                .productId(productId)
+                .storeId(storeId)
+                .availableQty(availableQty)
+                .build();
+    }
+}
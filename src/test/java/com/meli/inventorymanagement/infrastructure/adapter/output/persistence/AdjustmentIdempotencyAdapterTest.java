@@ -0,0 +1,84 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.infrastructure.config.R2dbcConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///idempotency;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@Import({R2dbcConfig.class, AdjustmentIdempotencyAdapter.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class AdjustmentIdempotencyAdapterTest {
+
+    @Autowired
+    private AdjustmentIdempotencyAdapter adapter;
+
+    @Test
+    void claim_OnlyTheFirstClaimWins() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(24);
+
+        StepVerifier.create(adapter.claim("user_dinosaurio", "sale-1", "A|1|5", expiresAt))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(adapter.claim("user_dinosaurio", "sale-1", "A|1|5", expiresAt))
+                .expectNext(false)
+                .verifyComplete();
+        // La misma clave de otro usuario es independiente
+        StepVerifier.create(adapter.claim("user_maipu", "sale-1", "A|1|5", expiresAt))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void complete_StoresTheResponseAndReleaseNoLongerDeletesIt() {
+        // Given
+        adapter.claim("user_dinosaurio", "sale-1", "A|1|5", LocalDateTime.now().plusHours(24)).block();
+
+        // When
+        adapter.complete("user_dinosaurio", "sale-1", "{\"availableQty\":30}").block();
+        adapter.release("user_dinosaurio", "sale-1").block();
+
+        // Then
+        StepVerifier.create(adapter.find("user_dinosaurio", "sale-1"))
+                .expectNextMatches(record ->
+                        "A|1|5".equals(record.getFingerprint()) &&
+                        "{\"availableQty\":30}".equals(record.getResponse())
+                )
+                .verifyComplete();
+    }
+
+    @Test
+    void release_DeletesAPendingClaim() {
+        // Given
+        adapter.claim("user_dinosaurio", "sale-1", "A|1|5", LocalDateTime.now().plusHours(24)).block();
+
+        // When
+        adapter.release("user_dinosaurio", "sale-1").block();
+
+        // Then
+        StepVerifier.create(adapter.find("user_dinosaurio", "sale-1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void expiredKeys_AreIgnoredReclaimedAndPurged() {
+        // Given
+        adapter.claim("user_dinosaurio", "sale-1", "A|1|5", LocalDateTime.now().minusSeconds(1)).block();
+        adapter.claim("user_dinosaurio", "sale-2", "A|1|5", LocalDateTime.now().minusSeconds(1)).block();
+
+        // When & Then
+        StepVerifier.create(adapter.find("user_dinosaurio", "sale-1"))
+                .verifyComplete();
+        StepVerifier.create(adapter.claim("user_dinosaurio", "sale-1", "B|1|2", LocalDateTime.now().plusHours(24)))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(adapter.deleteExpired(LocalDateTime.now()))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,104 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.UserEntity;
+import com.meli.inventorymanagement.infrastructure.security.PasswordHashingExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationAdapterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @InjectMocks
+    private AuthenticationAdapter authenticationAdapter;
+
+    @Test
+    void authenticate_SaturatedHashingPool_PropagatesServiceUnavailable() {
+        // Given
+        when(userRepository.findByUsername("admin")).thenReturn(Mono.just(user("admin", true)));
+        when(passwordHashingExecutor.matches("12345", "hash")).thenReturn(Mono.error(
+                new BusinessException(ErrorCode.SERVICE_UNAVAILABLE, "Too many concurrent logins, retry later")));
+
+        // When / Then: no se confunde con credenciales inválidas
+        StepVerifier.create(authenticationAdapter.authenticate("admin", "12345"))
+                .expectErrorMatches(error -> error instanceof BusinessException businessException
+                        && businessException.getErrorCode() == ErrorCode.SERVICE_UNAVAILABLE)
+                .verify();
+    }
+
+    @Test
+    void authenticate_UnexpectedError_IsAFailedLogin() {
+        // Given
+        when(userRepository.findByUsername("admin")).thenReturn(Mono.just(user("admin", true)));
+        when(passwordHashingExecutor.matches("12345", "hash")).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        // When / Then
+        StepVerifier.create(authenticationAdapter.authenticate("admin", "12345"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void authenticate_InactiveUser_FailsWithoutHashing() {
+        // Given
+        when(userRepository.findByUsername("admin")).thenReturn(Mono.just(user("admin", false)));
+
+        // When / Then
+        StepVerifier.create(authenticationAdapter.authenticate("admin", "12345"))
+                .expectNext(false)
+                .verifyComplete();
+        verify(passwordHashingExecutor, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    void findGrants_InactiveUser_IsEmpty() {
+        // Given
+        when(userRepository.findByUsername("user_maipu")).thenReturn(Mono.just(user("user_maipu", false)));
+
+        // When / Then
+        StepVerifier.create(authenticationAdapter.findGrants("user_maipu")).verifyComplete();
+        verify(userRepository, never()).findStoreIdsByUsername(anyString());
+    }
+
+    @Test
+    void findGrants_ActiveUser_ReturnsRoleAndSortedStores() {
+        // Given
+        when(userRepository.findByUsername("user_maipu")).thenReturn(Mono.just(user("user_maipu", true)));
+        when(userRepository.findStoreIdsByUsername("user_maipu")).thenReturn(Flux.just(3L, 2L));
+
+        // When / Then
+        StepVerifier.create(authenticationAdapter.findGrants("user_maipu"))
+                .expectNextMatches(grants -> grants.getRole().equals("STORE_USER")
+                        && List.copyOf(grants.getStoreIds()).equals(List.of(2L, 3L)))
+                .verifyComplete();
+    }
+
+    private static UserEntity user(String username, boolean active) {
+        return UserEntity.builder()
+                .username(username)
+                .passwordHash("hash")
+                .role("STORE_USER")
+                .isActive(active)
+                .build();
+    }
+}
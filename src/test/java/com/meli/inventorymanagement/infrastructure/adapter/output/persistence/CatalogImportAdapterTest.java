@@ -0,0 +1,86 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.infrastructure.config.R2dbcConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.annotation.DirtiesContext;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///catalog-import;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@Import({R2dbcConfig.class, CatalogImportAdapter.class, InventoryLedgerAdapter.class, InventoryChangeWatermark.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class CatalogImportAdapterTest {
+
+    @Autowired
+    private CatalogImportAdapter catalogImportAdapter;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void upsertInventory_QuantityBelowReservedUnits_SkipsTheRowAndReportsIt() {
+        // Given: el producto 1 tiene 5 unidades reservadas en la tienda 1
+        databaseClient.sql("UPDATE inventory SET reserved_qty = 5 WHERE product_id = 1 AND store_id = 1")
+                .fetch().rowsUpdated().block();
+        long ledgerBefore = ledgerEvents();
+        List<Inventory> rows = List.of(
+                row(1L, 1L, 3),
+                row(2L, 1L, 40),
+                row(17L, 2L, 9));
+
+        // When / Then
+        StepVerifier.create(catalogImportAdapter.upsertInventory(rows))
+                .expectNextMatches(skipped -> skipped.size() == 1
+                        && skipped.get(0).getProductId() == 1L
+                        && skipped.get(0).getStoreId() == 1L
+                        && skipped.get(0).getReservedQty() == 5)
+                .verifyComplete();
+
+        assertEquals(25, availableQty(1L, 1L));
+        assertEquals(40, availableQty(2L, 1L));
+        assertEquals(9, availableQty(17L, 2L));
+        // Sólo las filas aplicadas registran un SET en el ledger
+        assertEquals(ledgerBefore + 2, ledgerEvents());
+    }
+
+    @Test
+    void upsertInventory_QuantityCoveringReservedUnits_IsApplied() {
+        // Given
+        databaseClient.sql("UPDATE inventory SET reserved_qty = 5 WHERE product_id = 1 AND store_id = 1")
+                .fetch().rowsUpdated().block();
+
+        // When / Then
+        StepVerifier.create(catalogImportAdapter.upsertInventory(List.of(row(1L, 1L, 5))))
+                .expectNext(List.of())
+                .verifyComplete();
+        assertEquals(5, availableQty(1L, 1L));
+    }
+
+    private int availableQty(Long productId, Long storeId) {
+        return databaseClient.sql("SELECT available_qty FROM inventory WHERE product_id = :productId AND store_id = :storeId")
+                .bind("productId", productId)
+                .bind("storeId", storeId)
+                .map(row -> row.get(0, Integer.class))
+                .one()
+                .block();
+    }
+
+    private long ledgerEvents() {
+        return databaseClient.sql("SELECT COUNT(*) FROM inventory_ledger")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block();
+    }
+
+    private static Inventory row(Long productId, Long storeId, int availableQty) {
+        return Inventory.builder().productId(productId).storeId(storeId).availableQty(availableQty).build();
+    }
+}
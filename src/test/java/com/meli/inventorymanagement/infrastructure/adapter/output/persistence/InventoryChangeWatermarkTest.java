@@ -0,0 +1,112 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.infrastructure.config.R2dbcConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///change-watermark;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@Import({R2dbcConfig.class, InventoryPersistenceAdapter.class, InventoryLedgerAdapter.class, InventoryChangeWatermark.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class InventoryChangeWatermarkTest {
+
+    private static final long STORE_ID = 1L;
+
+    @Autowired
+    private InventoryPersistenceAdapter inventoryPersistenceAdapter;
+
+    @Autowired
+    private InventoryChangeWatermark inventoryChangeWatermark;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void findChangedSince_WithoutWritesInFlight_ReturnsEveryCommittedChange() {
+        // Given
+        long cursor = lastSeq(changesAfter(0L));
+        inventoryPersistenceAdapter.adjustAvailableQty("REM-001-BL-M", STORE_ID, 1).block();
+        inventoryPersistenceAdapter.adjustAvailableQty("REM-002-NG-L", STORE_ID, 1).block();
+
+        // When
+        List<Inventory> changes = changesAfter(cursor);
+
+        // Then
+        assertEquals(List.of(1L, 2L), changes.stream().map(Inventory::getProductId).toList());
+    }
+
+    @Test
+    void findChangedSince_SlowTransactionCommitsBehindTheCursor_IsNotSkipped() throws Exception {
+        // Given: la transacción lenta toma su secuencia antes que la rápida pero confirma después
+        long cursor = lastSeq(changesAfter(0L));
+        CountDownLatch written = new CountDownLatch(1);
+        Sinks.Empty<Void> release = Sinks.empty();
+        CompletableFuture<Long> slow = databaseClient
+                .sql("UPDATE inventory SET available_qty = available_qty + 1 WHERE product_id = 1 AND store_id = 1")
+                .fetch().rowsUpdated()
+                .doOnNext(updated -> written.countDown())
+                .flatMap(updated -> release.asMono().thenReturn(updated))
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track)
+                .toFuture();
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        inventoryPersistenceAdapter.adjustAvailableQty("REM-002-NG-L", STORE_ID, 1).block();
+
+        // When: la escritura rápida ya es visible pero queda por encima del watermark
+        List<Inventory> whileInFlight = changesAfter(cursor);
+        release.tryEmitEmpty();
+        slow.get(5, TimeUnit.SECONDS);
+        List<Inventory> afterCommit = changesAfter(cursor);
+
+        // Then
+        assertTrue(whileInFlight.isEmpty());
+        assertEquals(List.of(1L, 2L), afterCommit.stream().map(Inventory::getProductId).toList());
+    }
+
+    @Test
+    void findChangedSince_RolledBackTransaction_ReleasesTheWatermark() {
+        // Given
+        long cursor = lastSeq(changesAfter(0L));
+        Mono<Long> failing = databaseClient
+                .sql("UPDATE inventory SET available_qty = available_qty + 1 WHERE product_id = 1 AND store_id = 1")
+                .fetch().rowsUpdated()
+                .then(Mono.<Long>error(new IllegalStateException("rollback")))
+                .as(transactionalOperator::transactional)
+                .as(inventoryChangeWatermark::track);
+        failing.onErrorResume(IllegalStateException.class, error -> Mono.empty()).block(Duration.ofSeconds(5));
+        inventoryPersistenceAdapter.adjustAvailableQty("REM-002-NG-L", STORE_ID, 1).block();
+
+        // When
+        List<Inventory> changes = changesAfter(cursor);
+
+        // Then
+        assertEquals(List.of(2L), changes.stream().map(Inventory::getProductId).toList());
+    }
+
+    private List<Inventory> changesAfter(long cursor) {
+        return inventoryPersistenceAdapter.findChangedSince(STORE_ID, cursor, 100).collectList().block();
+    }
+
+    private static long lastSeq(List<Inventory> changes) {
+        return changes.get(changes.size() - 1).getChangeSeq();
+    }
+}
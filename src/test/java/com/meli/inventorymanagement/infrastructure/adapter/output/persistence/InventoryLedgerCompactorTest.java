@@ -0,0 +1,188 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.domain.model.LedgerEvent;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventoryLedgerEntity;
+import com.meli.inventorymanagement.infrastructure.config.R2dbcConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica contra H2 que el stock materializado desde snapshots coincide con el replay completo del ledger.
+ */
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///ledger-compaction;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@Import({R2dbcConfig.class, InventoryLedgerAdapter.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class InventoryLedgerCompactorTest {
+
+    private static final long PRODUCTS = 6;
+    private static final long STORES = 3;
+
+    @Autowired
+    private InventoryLedgerAdapter inventoryLedgerAdapter;
+
+    @Autowired
+    private InventoryLedgerRepository inventoryLedgerRepository;
+
+    @Autowired
+    private InventorySnapshotRepository inventorySnapshotRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private final Random random = new Random(42);
+    private Map<List<Long>, Integer> expected;
+
+    @BeforeEach
+    void setUp() {
+        // El ledger arranca con los SET de data.sql
+        expected = new HashMap<>();
+        for (InventoryLedgerEntity entity : inventoryLedgerRepository.findAll()
+                .sort(Comparator.comparing(InventoryLedgerEntity::getSeq)).collectList().block()) {
+            expected.merge(List.of(entity.getProductId(), entity.getStoreId()), entity.getQuantity(),
+                    (previous, quantity) -> "SET".equals(entity.getEventType()) ? quantity : previous + quantity);
+        }
+    }
+
+    @Test
+    void compact_SnapshotsMatchAFullReplayAfterEveryRound() {
+        // Given
+        InventoryLedgerCompactor compactor = compactor(Duration.ofSeconds(-1), Duration.ofDays(400));
+
+        for (int round = 0; round < 4; round++) {
+            appendRandomEvents(150);
+
+            // When
+            long created = compactor.compact().block();
+
+            // Then
+            assertTrue(created > 0);
+            assertMaterializedEqualsReplay();
+        }
+    }
+
+    @Test
+    void compact_LeavesUnsettledEventsInTheTail() {
+        // Given: una compactación previa y eventos nuevos que todavía no asentaron
+        compactor(Duration.ofSeconds(-1), Duration.ofDays(400)).compact().block();
+        appendRandomEvents(100);
+        InventoryLedgerCompactor compactor = compactor(Duration.ofHours(1), Duration.ofDays(400));
+
+        // When
+        long created = compactor.compact().block();
+
+        // Then: no se generan snapshots y la cola sigue aplicándose sobre el snapshot anterior
+        assertEquals(0L, created);
+        assertMaterializedEqualsReplay();
+    }
+
+    @Test
+    void applyRetention_KeepsTheMaterializedStockAfterDeletingCompactedEvents() {
+        // Given
+        InventoryLedgerCompactor compactor = compactor(Duration.ofSeconds(-1), Duration.ofSeconds(-5));
+        appendRandomEvents(150);
+        compactor.compact().block();
+        appendRandomEvents(150);
+        compactor.compact().block();
+        appendRandomEvents(50);
+        long eventsBefore = inventoryLedgerRepository.count().block();
+        long snapshotsBefore = inventorySnapshotRepository.count().block();
+
+        // When
+        compactor.applyRetention().block();
+
+        // Then: se borraron eventos y snapshots cubiertos, el stock sigue igual al del modelo
+        assertTrue(inventoryLedgerRepository.count().block() < eventsBefore);
+        assertTrue(inventorySnapshotRepository.count().block() < snapshotsBefore);
+        expected.forEach((key, availableQty) -> assertEquals(availableQty,
+                inventoryLedgerAdapter.materialize(key.get(0), key.get(1)).block(), "stock of " + key));
+    }
+
+    @Test
+    void materializeAsOfByStore_MatchesThePerStoreMaterialization() throws InterruptedException {
+        // Given: historia con snapshots antes y después del instante consultado
+        InventoryLedgerCompactor compactor = compactor(Duration.ZERO, Duration.ofDays(400));
+        appendRandomEvents(150);
+        Thread.sleep(20);
+        compactor.compact().block();
+        appendRandomEvents(150);
+        Thread.sleep(20);
+        LocalDateTime asOf = LocalDateTime.now();
+        Map<List<Long>, Integer> expectedAsOf = new HashMap<>(expected);
+        Thread.sleep(20);
+        appendRandomEvents(150);
+        Thread.sleep(20);
+        compactor.compact().block();
+        appendRandomEvents(50);
+
+        for (long productId = 1; productId <= PRODUCTS; productId++) {
+            // When
+            Map<Long, Integer> stockByStore = inventoryLedgerAdapter.materializeAsOfByStore(productId, asOf).block();
+
+            // Then
+            for (long storeId = 1; storeId <= STORES; storeId++) {
+                List<Long> key = List.of(productId, storeId);
+                assertEquals(expectedAsOf.get(key), stockByStore.get(storeId), "stock of " + key + " as of " + asOf);
+                assertEquals(expectedAsOf.get(key), inventoryLedgerAdapter.materializeAsOf(productId, storeId, asOf).block(),
+                        "stock of " + key + " as of " + asOf + " for a single store");
+            }
+        }
+    }
+
+    private InventoryLedgerCompactor compactor(Duration settleTime, Duration retention) {
+        return new InventoryLedgerCompactor(inventoryLedgerAdapter, inventoryLedgerRepository,
+                inventorySnapshotRepository, databaseClient, Duration.ofMinutes(1), settleTime, retention);
+    }
+
+    private void appendRandomEvents(int count) {
+        List<LedgerEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long productId = 1 + random.nextInt((int) PRODUCTS);
+            long storeId = 1 + random.nextInt((int) STORES);
+            List<Long> key = List.of(productId, storeId);
+            if (random.nextInt(10) == 0) {
+                int availableQty = random.nextInt(200);
+                events.add(InventoryLedgerAdapter.event(productId, storeId, LedgerEvent.Type.SET, availableQty));
+                expected.put(key, availableQty);
+            } else {
+                int delta = random.nextInt(21) - 10;
+                events.add(InventoryLedgerAdapter.event(productId, storeId, LedgerEvent.Type.DELTA, delta));
+                expected.merge(key, delta, Integer::sum);
+            }
+        }
+        inventoryLedgerAdapter.append(events).block();
+    }
+
+    private void assertMaterializedEqualsReplay() {
+        LocalDateTime now = LocalDateTime.now().plusSeconds(5);
+        expected.forEach((key, availableQty) -> {
+            Integer replayed = inventoryLedgerRepository.findTail(key.get(0), key.get(1), 0L, Long.MAX_VALUE)
+                    .reduce(0, (qty, entity) -> "SET".equals(entity.getEventType())
+                            ? entity.getQuantity() : qty + entity.getQuantity())
+                    .block();
+            assertEquals(availableQty, replayed, "replay of " + key);
+            assertEquals(replayed, inventoryLedgerAdapter.materialize(key.get(0), key.get(1)).block(),
+                    "materialized stock of " + key);
+            assertEquals(replayed, inventoryLedgerAdapter.materializeAsOf(key.get(0), key.get(1), now).block(),
+                    "stock as of now of " + key);
+            assertEquals(replayed, inventoryLedgerAdapter.materializeAsOfByStore(key.get(0), now).block().get(key.get(1)),
+                    "stock as of now of " + key + " across stores");
+        });
+    }
+}
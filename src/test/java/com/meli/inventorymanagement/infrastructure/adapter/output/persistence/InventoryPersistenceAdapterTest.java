@@ -0,0 +1,88 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.infrastructure.config.R2dbcConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///inventory-persistence;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@Import({R2dbcConfig.class, InventoryPersistenceAdapter.class, InventoryLedgerAdapter.class, InventoryChangeWatermark.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class InventoryPersistenceAdapterTest {
+
+    @Autowired
+    private InventoryPersistenceAdapter inventoryPersistenceAdapter;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void writeQuantities_RowChangedSinceTheExpectedVersion_IsReloadedInsteadOfOverwritten() {
+        // Given: otra escritura llevó la fila a una versión posterior
+        Inventory first = current(1L, 1L);
+        Inventory second = current(2L, 1L);
+        inventoryPersistenceAdapter.adjustAvailableQty("REM-001-BL-M", 1L, 5).block();
+
+        // When
+        List<Inventory> conflicts = inventoryPersistenceAdapter.writeQuantities(
+                List.of(withQuantity(first, 1), withQuantity(second, 2)),
+                new int[]{first.getVersion(), second.getVersion()}).block();
+
+        // Then
+        assertEquals(1, conflicts.size());
+        assertEquals(first.getId(), conflicts.get(0).getId());
+        assertEquals(first.getAvailableQty() + 5, conflicts.get(0).getAvailableQty());
+        assertEquals(first.getAvailableQty() + 5, current(1L, 1L).getAvailableQty());
+        assertEquals(2, current(2L, 1L).getAvailableQty());
+        assertEquals(second.getVersion() + 1, current(2L, 1L).getVersion());
+    }
+
+    @Test
+    void writeQuantities_RecordsTheSetWhenTheWriteWasAccepted() {
+        // Given
+        Inventory row = current(1L, 1L);
+        LocalDateTime acceptedAt = LocalDateTime.now().minusMinutes(10).truncatedTo(ChronoUnit.SECONDS);
+        Inventory accepted = withQuantity(row, 7);
+        accepted.setUpdatedAt(acceptedAt);
+
+        // When
+        List<Inventory> conflicts = inventoryPersistenceAdapter.writeQuantities(
+                List.of(accepted), new int[]{row.getVersion()}).block();
+
+        // Then
+        assertTrue(conflicts.isEmpty());
+        LocalDateTime recordedAt = databaseClient.sql(
+                        "SELECT created_at FROM inventory_ledger WHERE product_id = 1 AND store_id = 1 " +
+                        "AND event_type = 'SET' ORDER BY seq DESC LIMIT 1")
+                .map((result, metadata) -> result.get("created_at", LocalDateTime.class))
+                .one()
+                .block();
+        assertEquals(acceptedAt, recordedAt);
+    }
+
+    private Inventory current(Long productId, Long storeId) {
+        return inventoryPersistenceAdapter.findByProductIdAndStoreId(productId, storeId).block();
+    }
+
+    private Inventory withQuantity(Inventory row, int availableQty) {
+        return Inventory.builder()
+                .id(row.getId())
+                .productId(row.getProductId())
+                .storeId(row.getStoreId())
+                .availableQty(availableQty)
+                .version(row.getVersion() + 1)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
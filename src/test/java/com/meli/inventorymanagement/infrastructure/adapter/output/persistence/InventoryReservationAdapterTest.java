@@ -0,0 +1,76 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.Reservation;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.entity.InventoryEntity;
+import com.meli.inventorymanagement.infrastructure.config.R2dbcConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.annotation.DirtiesContext;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///reservations;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@Import({R2dbcConfig.class, InventoryReservationAdapter.class, InventoryLedgerAdapter.class, InventoryChangeWatermark.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class InventoryReservationAdapterTest {
+
+    @Autowired
+    private InventoryReservationAdapter inventoryReservationAdapter;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void confirm_DecrementsAvailableAndReserved() {
+        // Given
+        InventoryEntity before = inventory();
+        Reservation reservation = inventoryReservationAdapter.reserve(1L, 1L, 5, LocalDateTime.now().plusMinutes(5)).block();
+
+        // When
+        StepVerifier.create(inventoryReservationAdapter.confirm(reservation.getId()))
+                .expectNextMatches(confirmed -> confirmed.getStatus() == Reservation.Status.CONFIRMED)
+                .verifyComplete();
+
+        // Then
+        InventoryEntity after = inventory();
+        assertEquals(before.getAvailableQty() - 5, after.getAvailableQty());
+        assertEquals(before.getReservedQty(), after.getReservedQty());
+    }
+
+    @Test
+    void confirm_InventoryNoLongerCoversTheReservation_RollsBackAndKeepsItHeld() {
+        // Given: una escritura que no respeta las reservas dejó el disponible por debajo
+        Reservation reservation = inventoryReservationAdapter.reserve(1L, 1L, 5, LocalDateTime.now().plusMinutes(5)).block();
+        databaseClient.sql("UPDATE inventory SET available_qty = 2 WHERE product_id = 1 AND store_id = 1")
+                .fetch().rowsUpdated().block();
+
+        // When
+        StepVerifier.create(inventoryReservationAdapter.confirm(reservation.getId()))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.RESERVATION_NOT_ACTIVE
+                )
+                .verify();
+
+        // Then: ni el inventario ni la reserva cambiaron
+        InventoryEntity after = inventory();
+        assertEquals(2, after.getAvailableQty());
+        assertEquals(5, after.getReservedQty());
+        assertEquals(Reservation.Status.HELD, inventoryReservationAdapter.findById(reservation.getId()).block().getStatus());
+    }
+
+    private InventoryEntity inventory() {
+        return inventoryRepository.findByProductIdAndStoreId(1L, 1L).block();
+    }
+}
@@ -0,0 +1,76 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.persistence;
+
+import com.meli.inventorymanagement.domain.model.UserGrants;
+import com.meli.inventorymanagement.infrastructure.config.R2dbcConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///user-persistence;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@Import({R2dbcConfig.class, UserPersistenceAdapter.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class UserPersistenceAdapterTest {
+
+    @Autowired
+    private UserPersistenceAdapter userPersistenceAdapter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void updateGrants_ReplacesRoleAndStores() {
+        // Given: user_maipu tiene la tienda 2
+        UserGrants grants = UserGrants.builder().username("user_maipu").role("STORE_USER").storeIds(Set.of(1L, 3L)).build();
+
+        // When / Then
+        StepVerifier.create(userPersistenceAdapter.updateGrants(grants))
+                .expectNext(true)
+                .verifyComplete();
+        assertEquals(List.of(1L, 3L), userRepository.findStoreIdsByUsername("user_maipu").sort().collectList().block());
+        // Los permisos de los demás usuarios no cambian
+        assertEquals(List.of(1L), userRepository.findStoreIdsByUsername("user_dinosaurio").collectList().block());
+    }
+
+    @Test
+    void updateGrants_UnknownStore_RollsBackTheRoleChange() {
+        // Given
+        UserGrants grants = UserGrants.builder().username("user_maipu").role("ADMIN").storeIds(Set.of(99L)).build();
+
+        // When / Then
+        StepVerifier.create(userPersistenceAdapter.updateGrants(grants))
+                .expectError()
+                .verify();
+        assertEquals("STORE_USER", userRepository.findByUsername("user_maipu").block().getRole());
+        assertEquals(List.of(2L), userRepository.findStoreIdsByUsername("user_maipu").collectList().block());
+    }
+
+    @Test
+    void updateGrants_UnknownUser_ReturnsFalse() {
+        UserGrants grants = UserGrants.builder().username("ghost").role("ADMIN").storeIds(Set.of()).build();
+
+        StepVerifier.create(userPersistenceAdapter.updateGrants(grants))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateActive_DeactivatesTheUser() {
+        StepVerifier.create(userPersistenceAdapter.updateActive("user_maipu", false))
+                .expectNext(true)
+                .verifyComplete();
+        assertFalse(userRepository.findByUsername("user_maipu").block().getIsActive());
+
+        StepVerifier.create(userPersistenceAdapter.updateActive("ghost", false))
+                .expectNext(false)
+                .verifyComplete();
+    }
+}
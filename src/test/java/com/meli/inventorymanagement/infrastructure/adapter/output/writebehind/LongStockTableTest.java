@@ -0,0 +1,294 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.writebehind;
+
+import com.meli.inventorymanagement.infrastructure.adapter.output.writebehind.LongStockTable.DirtyRow;
+import com.meli.inventorymanagement.infrastructure.adapter.output.writebehind.LongStockTable.StockRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongStockTableTest {
+
+    private final LongStockTable table = new LongStockTable();
+
+    @Test
+    void key_RejectsIdsThatDoNotFitIn32Bits() {
+        assertEquals(-1L, LongStockTable.key(1L << 32, 1L));
+        assertEquals(-1L, LongStockTable.key(1L, -1L));
+        assertEquals(-1L, LongStockTable.key(null, 1L));
+
+        long key = LongStockTable.key(0xFFFFFFFFL, 7L);
+        assertEquals(0xFFFFFFFFL, LongStockTable.productId(key));
+        assertEquals(7L, LongStockTable.storeId(key));
+    }
+
+    @Test
+    void load_ResizeKeepsEveryRowReachable() {
+        // Given: 64 segmentos de 16 slots iniciales, 50.000 filas fuerzan varios resize por segmento
+        for (long productId = 1; productId <= 10_000; productId++) {
+            for (long storeId = 1; storeId <= 5; storeId++) {
+                table.load(LongStockTable.key(productId, storeId), productId * 10 + storeId, (int) productId, 0, 0, 0L);
+            }
+        }
+
+        // Then
+        assertEquals(50_000, table.size());
+        for (long productId = 1; productId <= 10_000; productId++) {
+            for (long storeId = 1; storeId <= 5; storeId++) {
+                StockRow row = table.get(LongStockTable.key(productId, storeId));
+                assertNotNull(row);
+                assertEquals(productId * 10 + storeId, row.rowId());
+                assertEquals((int) productId, row.availableQty());
+            }
+        }
+        assertNull(table.get(LongStockTable.key(10_001L, 1L)));
+    }
+
+    @Test
+    void drainDirty_PendingRowsSurviveResizeInFifoOrder() {
+        // Given: filas modificadas antes de que la tabla crezca
+        for (long productId = 1; productId <= 10; productId++) {
+            table.load(LongStockTable.key(productId, 1L), productId, 100, 0, 0, 0L);
+        }
+        for (long productId = 1; productId <= 10; productId++) {
+            table.adjust(LongStockTable.key(productId, 1L), -1, 1L);
+        }
+
+        // When
+        for (long productId = 11; productId <= 20_000; productId++) {
+            table.load(LongStockTable.key(productId, 1L), productId, 100, 0, 0, 0L);
+        }
+
+        // Then
+        assertEquals(10, table.dirtyCount());
+        List<DirtyRow> drained = table.drainDirty(100);
+        Set<Long> products = new HashSet<>();
+        for (DirtyRow row : drained) {
+            products.add(LongStockTable.productId(row.key()));
+            assertEquals(99, row.availableQty());
+            assertEquals(1, row.version());
+        }
+        assertEquals(10, products.size());
+        assertEquals(0, table.dirtyCount());
+        assertEquals(0, table.oldestDirtySince());
+    }
+
+    @Test
+    void drainDirty_RespectsMaxAndKeepsTheRestPending() {
+        // Given
+        for (long productId = 1; productId <= 100; productId++) {
+            long key = LongStockTable.key(productId, 1L);
+            table.load(key, productId, 10, 0, 0, 0L);
+            table.adjust(key, 1, 1L);
+        }
+
+        // When
+        List<DirtyRow> first = table.drainDirty(30);
+
+        // Then
+        assertEquals(30, first.size());
+        assertEquals(70, table.dirtyCount());
+        assertEquals(70, table.drainDirty(1_000).size());
+        assertTrue(table.drainDirty(1_000).isEmpty());
+    }
+
+    @Test
+    void adjust_RowStaysDirtyOnceUntilDrained() {
+        // Given
+        long key = LongStockTable.key(1L, 1L);
+        table.load(key, 1L, 10, 0, 0, 0L);
+
+        // When
+        table.adjust(key, 1, 1L);
+        table.adjust(key, 1, 2L);
+        table.adjust(key, -20, 3L);
+
+        // Then: una sola entrada con el último estado; el ajuste que dejaba stock negativo no se aplicó
+        List<DirtyRow> drained = table.drainDirty(10);
+        assertEquals(1, drained.size());
+        assertEquals(12, drained.get(0).availableQty());
+        assertEquals(2, drained.get(0).version());
+    }
+
+    @Test
+    void restoreDirty_FailedFlushRowsReturnAsOldest() throws InterruptedException {
+        // Given
+        long first = LongStockTable.key(1L, 1L);
+        long second = LongStockTable.key(2L, 1L);
+        table.load(first, 1L, 10, 0, 0, 0L);
+        table.load(second, 2L, 10, 0, 0, 0L);
+        table.adjust(first, 1, 1L);
+        long firstDirtySince = table.oldestDirtySince();
+        List<DirtyRow> failed = table.drainDirty(10);
+        Thread.sleep(1);
+        table.adjust(second, 1, 2L);
+
+        // When
+        table.restoreDirty(failed);
+
+        // Then
+        assertEquals(2, table.dirtyCount());
+        assertEquals(firstDirtySince, table.oldestDirtySince());
+    }
+
+    @Test
+    void restoreDirty_SkipsRowsChangedSinceTheDrain() {
+        // Given
+        long key = LongStockTable.key(1L, 1L);
+        table.load(key, 1L, 10, 0, 0, 0L);
+        table.adjust(key, 1, 1L);
+        List<DirtyRow> failed = table.drainDirty(10);
+        table.adjust(key, 1, 2L);
+
+        // When
+        table.restoreDirty(failed);
+
+        // Then: la fila sigue pendiente una sola vez, con su valor nuevo
+        List<DirtyRow> drained = table.drainDirty(10);
+        assertEquals(1, drained.size());
+        assertEquals(12, drained.get(0).availableQty());
+    }
+
+    @Test
+    void markPersisted_NextDrainExpectsTheWrittenVersion() {
+        // Given
+        long key = LongStockTable.key(1L, 1L);
+        table.load(key, 1L, 10, 0, 3, 0L);
+        table.adjust(key, 1, 1L);
+        List<DirtyRow> flushed = table.drainDirty(10);
+        assertEquals(3, flushed.get(0).persistedVersion());
+
+        // When
+        table.markPersisted(flushed);
+        table.adjust(key, 1, 2L);
+
+        // Then
+        DirtyRow next = table.drainDirty(10).get(0);
+        assertEquals(4, next.persistedVersion());
+        assertEquals(5, next.version());
+    }
+
+    @Test
+    void reload_ReplacesTheRowWithTheDatabaseState() {
+        // Given
+        long key = LongStockTable.key(1L, 1L);
+        table.load(key, 1L, 10, 0, 0, 0L);
+        table.adjust(key, 1, 1L);
+        table.drainDirty(10);
+
+        // When: el flush encontró la fila en otra versión
+        table.reload(key, 1L, 40, 0, 6, 5L);
+        table.adjust(key, 1, 6L);
+
+        // Then
+        DirtyRow next = table.drainDirty(10).get(0);
+        assertEquals(41, next.availableQty());
+        assertEquals(6, next.persistedVersion());
+        assertEquals(7, next.version());
+    }
+
+    @Test
+    void load_DoesNotOverwritePendingWrites() {
+        // Given
+        long key = LongStockTable.key(1L, 1L);
+        table.load(key, 1L, 10, 0, 0, 0L);
+        table.adjust(key, 5, 1L);
+
+        // When
+        table.load(key, 1L, 10, 0, 0, 0L);
+
+        // Then
+        assertEquals(15, table.get(key).availableQty());
+    }
+
+    @Test
+    void adjustAll_AppliesEverythingOrNothing() {
+        // Given
+        long a = LongStockTable.key(1L, 1L);
+        long b = LongStockTable.key(1L, 2L);
+        table.load(a, 1L, 5, 0, 0, 0L);
+        table.load(b, 2L, 5, 0, 0, 0L);
+        int[] previous = new int[3];
+        StockRow[] rows = new StockRow[3];
+
+        // When: la segunda delta sobre la misma fila acumula la primera y deja stock negativo
+        boolean applied = table.adjustAll(new long[]{a, b, a}, new int[]{-3, 2, -3}, previous, rows, 1L);
+
+        // Then
+        assertFalse(applied);
+        assertArrayEquals(new int[]{5, 5, 2}, previous);
+        assertEquals(5, table.get(a).availableQty());
+        assertEquals(5, table.get(b).availableQty());
+        assertEquals(0, table.dirtyCount());
+
+        assertTrue(table.adjustAll(new long[]{a, b}, new int[]{-3, 2}, new int[2], new StockRow[2], 1L));
+        assertEquals(2, table.get(a).availableQty());
+        assertEquals(7, table.get(b).availableQty());
+        assertEquals(2, table.dirtyCount());
+    }
+
+    @Test
+    void adjust_DoesNotConsumeReservedUnits() {
+        // Given: 10 unidades, 4 reservadas
+        long key = LongStockTable.key(1L, 1L);
+        table.load(key, 1L, 10, 4, 0, 0L);
+        int[] previous = new int[3];
+        boolean[] applied = new boolean[3];
+
+        // When
+        StockRow rejected = table.adjust(key, -7, 1L);
+        table.adjustInSequence(key, new int[]{-5, -6, 2}, previous, applied, 2L);
+
+        // Then: sólo se venden las 6 no reservadas y los aumentos siempre entran
+        assertNull(rejected);
+        assertArrayEquals(new boolean[]{true, false, true}, applied);
+        assertEquals(7, table.get(key).availableQty());
+        assertEquals(4, table.get(key).reservedQty());
+    }
+
+    @Test
+    void adjustAll_RejectsBatchesThatConsumeReservedUnits() {
+        // Given
+        long a = LongStockTable.key(1L, 1L);
+        long b = LongStockTable.key(1L, 2L);
+        table.load(a, 1L, 5, 3, 0, 0L);
+        table.load(b, 2L, 5, 0, 0, 0L);
+
+        // When & Then
+        assertFalse(table.adjustAll(new long[]{a, b}, new int[]{-3, -1}, new int[2], new StockRow[2], 1L));
+        assertEquals(5, table.get(a).availableQty());
+        assertTrue(table.adjustAll(new long[]{a, b}, new int[]{-2, -1}, new int[2], new StockRow[2], 1L));
+        assertEquals(3, table.get(a).availableQty());
+    }
+
+    @Test
+    void replay_KeepsTheHighestVersion() {
+        // Given
+        long key = LongStockTable.key(1L, 1L);
+        table.load(key, 1L, 10, 0, 3, 0L);
+
+        // When & Then
+        assertFalse(table.replay(key, 50, 3, 1L));
+        assertTrue(table.replay(key, 50, 5, 1L));
+        assertEquals(50, table.get(key).availableQty());
+        assertEquals(5, table.get(key).version());
+        assertEquals(1, table.dirtyCount());
+        assertFalse(table.replay(LongStockTable.key(9L, 9L), 1, 1, 1L));
+    }
+
+    @Test
+    void set_ChecksExpectedVersion() {
+        // Given
+        long key = LongStockTable.key(1L, 1L);
+        table.load(key, 1L, 10, 0, 2, 0L);
+
+        // When & Then
+        assertThrows(OptimisticLockingFailureException.class, () -> table.set(key, 1, 20, 1L));
+        assertEquals(20, table.set(key, 2, 20, 1L).availableQty());
+        assertNull(table.set(LongStockTable.key(9L, 9L), null, 1, 1L));
+    }
+}
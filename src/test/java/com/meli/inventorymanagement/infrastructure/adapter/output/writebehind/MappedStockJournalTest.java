@@ -0,0 +1,164 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.writebehind;
+
+import com.meli.inventorymanagement.infrastructure.adapter.output.writebehind.LongStockTable.StockRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedStockJournalTest {
+
+    // 10 registros por segmento
+    private static final int SEGMENT_SIZE = MappedStockJournal.RECORD_SIZE * 10;
+
+    @TempDir
+    Path directory;
+
+    // Se cierran al final para que la pre-asignación en segundo plano no compita con el borrado del directorio
+    private final List<MappedStockJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() {
+        journals.forEach(MappedStockJournal::close);
+    }
+
+    @Test
+    void open_ReplaysEveryRecordAcrossSegmentsInOrder() {
+        // Given: 35 registros rotan tres veces
+        MappedStockJournal journal = journal();
+        journal.open(recorder(new ArrayList<>()));
+        long position = 0;
+        for (int i = 1; i <= 35; i++) {
+            position = journal.append(i, new StockRow(i, i * 10, 0, i, 1_000L + i));
+        }
+        journal.sync(position);
+        assertEquals(3, journal.sealedSegments());
+
+        // When: reapertura sin close, como tras una caída
+        List<long[]> replayed = new ArrayList<>();
+        int count = journal().open(recorder(replayed));
+
+        // Then
+        assertEquals(35, count);
+        for (int i = 0; i < 35; i++) {
+            long[] record = replayed.get(i);
+            assertEquals(i + 1, record[0]);
+            assertEquals((i + 1) * 10, record[2]);
+            assertEquals(i + 1, record[3]);
+            assertEquals(1_001L + i, record[4]);
+        }
+    }
+
+    @Test
+    void open_StopsAtATornRecord() throws IOException {
+        // Given
+        MappedStockJournal journal = journal();
+        journal.open(recorder(new ArrayList<>()));
+        long position = 0;
+        for (int i = 1; i <= 5; i++) {
+            position = journal.append(i, new StockRow(i, i, 0, i, i));
+        }
+        journal.sync(position);
+        journal.close();
+
+        // When: el cuarto registro quedó escrito a medias (cambia un byte del cuerpo, no el checksum)
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(3L * MappedStockJournal.RECORD_SIZE + 20);
+            file.write(0x7F);
+        }
+        List<long[]> replayed = new ArrayList<>();
+        int count = journal().open(recorder(replayed));
+
+        // Then: el replay se detiene en el registro roto; los posteriores no se aplican
+        assertEquals(3, count);
+        assertEquals(3, replayed.get(2)[0]);
+    }
+
+    @Test
+    void open_StopsAtAMissingMarker() throws IOException {
+        // Given: el marcador se escribe último, un registro sin marcador nunca terminó
+        MappedStockJournal journal = journal();
+        journal.open(recorder(new ArrayList<>()));
+        journal.append(1, new StockRow(1, 1, 0, 1, 1));
+        long position = journal.append(2, new StockRow(2, 2, 0, 2, 2));
+        journal.sync(position);
+        journal.close();
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            file.seek(MappedStockJournal.RECORD_SIZE);
+            file.writeInt(0);
+        }
+
+        // When & Then
+        assertEquals(1, journal().open(recorder(new ArrayList<>())));
+    }
+
+    @Test
+    void open_PreallocatesTheNextSegment() throws Exception {
+        // Given
+        MappedStockJournal journal = journal();
+        journal.open(recorder(new ArrayList<>()));
+
+        // When: el segmento siguiente se crea en segundo plano
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (segments().size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertEquals(2, segments().size());
+        journal.close();
+        assertEquals(1, segments().size());
+    }
+
+    @Test
+    void release_DeletesOnlySegmentsSealedBeforeTheInstant() throws IOException {
+        // Given
+        MappedStockJournal journal = journal();
+        journal.open(recorder(new ArrayList<>()));
+        // el segmento se sella en el primer append que no cabe
+        for (int i = 1; i <= 11; i++) {
+            journal.append(i, new StockRow(i, i, 0, i, i));
+        }
+        long firstSealed = System.nanoTime();
+        for (int i = 12; i <= 21; i++) {
+            journal.append(i, new StockRow(i, i, 0, i, i));
+        }
+        assertEquals(2, journal.sealedSegments());
+
+        // When
+        journal.release(firstSealed);
+
+        // Then
+        assertEquals(1, journal.sealedSegments());
+        journal.discard();
+        assertTrue(segments().isEmpty());
+    }
+
+    private MappedStockJournal journal() {
+        MappedStockJournal journal = new MappedStockJournal(directory, SEGMENT_SIZE);
+        journals.add(journal);
+        return journal;
+    }
+
+    private MappedStockJournal.RecordConsumer recorder(List<long[]> records) {
+        return (key, rowId, availableQty, version, updatedAt) ->
+                records.add(new long[]{key, rowId, availableQty, version, updatedAt});
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.meli.inventorymanagement.infrastructure.adapter.output.writebehind;
+
+import com.meli.inventorymanagement.domain.model.Inventory;
+import com.meli.inventorymanagement.domain.model.Product;
+import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.domain.port.ProductPort;
+import com.meli.inventorymanagement.domain.port.StorePort;
+import com.meli.inventorymanagement.infrastructure.adapter.output.persistence.InventoryPersistenceAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindInventoryAdapterTest {
+
+    @Mock
+    private InventoryPersistenceAdapter inventoryPersistenceAdapter;
+
+    @Mock
+    private ProductPort productPort;
+
+    @Mock
+    private StorePort storePort;
+
+    @TempDir
+    Path journalDir;
+
+    private final List<WriteBehindInventoryAdapter> adapters = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // La base siempre devuelve el estado inicial: lo escrito después sólo vive en memoria y en el journal
+        lenient().when(inventoryPersistenceAdapter.findAll()).thenAnswer(invocation -> Flux.just(
+                persisted(1L, 1L, 1L, 10), persisted(2L, 1L, 2L, 20)));
+        lenient().when(inventoryPersistenceAdapter.writeQuantities(anyList(), any(int[].class)))
+                .thenReturn(Mono.just(List.of()));
+        lenient().when(productPort.findBySku("SKU-1")).thenReturn(Mono.just(Product.builder().id(1L).sku("SKU-1").build()));
+        lenient().when(storePort.findById(anyLong())).thenAnswer(invocation ->
+                Mono.just(Store.builder().id(invocation.getArgument(0)).build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapters.forEach(WriteBehindInventoryAdapter::stop);
+    }
+
+    @Test
+    void adjustAvailableQty_IsServedFromMemoryUntilFlushed() {
+        // Given
+        WriteBehindInventoryAdapter adapter = start(true);
+
+        // When
+        StepVerifier.create(adapter.adjustAvailableQty("SKU-1", 1L, -4))
+                .assertNext(updated -> assertEquals(6, updated.getAvailableQty()))
+                .verifyComplete();
+        StepVerifier.create(adapter.adjustAvailableQty("SKU-1", 1L, -7)).verifyComplete();
+
+        // Then
+        verify(inventoryPersistenceAdapter, never()).writeQuantities(anyList(), any(int[].class));
+        adapter.flush().block();
+        List<Inventory> written = lastFlush();
+        assertEquals(1, written.size());
+        assertEquals(6, written.get(0).getAvailableQty());
+    }
+
+    @Test
+    void adjustAvailableQty_DoesNotConsumeReservedUnits() {
+        // Given: 10 unidades, 4 retenidas por reservas
+        Inventory reserved = persisted(1L, 1L, 1L, 10);
+        reserved.setReservedQty(4);
+        when(inventoryPersistenceAdapter.findAll()).thenReturn(Flux.just(reserved));
+        WriteBehindInventoryAdapter adapter = start(false);
+
+        // When & Then
+        StepVerifier.create(adapter.adjustAvailableQty("SKU-1", 1L, -7)).verifyComplete();
+        StepVerifier.create(adapter.adjustAvailableQty("SKU-1", 1L, -6))
+                .assertNext(updated -> {
+                    assertEquals(4, updated.getAvailableQty());
+                    assertEquals(4, updated.getReservedQty());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void afterSingletonsInstantiated_ReplaysJournalAfterACrash() {
+        // Given: escrituras confirmadas en el journal y nunca persistidas (sin stop: el proceso muere)
+        WriteBehindInventoryAdapter crashed = start(true);
+        crashed.adjustAvailableQty("SKU-1", 1L, -4).block();
+        crashed.adjustAvailableQty("SKU-1", 2L, 5).block();
+        crashed.adjustAvailableQty("SKU-1", 1L, -1).block();
+        adapters.remove(crashed);
+
+        // When
+        clearInvocations(inventoryPersistenceAdapter);
+        WriteBehindInventoryAdapter restarted = start(true);
+
+        // Then: el arranque persiste el último estado de cada fila antes de atender tráfico
+        List<Inventory> written = lastFlush();
+        assertEquals(2, written.size());
+        assertEquals(5, quantityOf(written, 1L));
+        assertEquals(25, quantityOf(written, 2L));
+        StepVerifier.create(restarted.findByProductIdAndStoreId(1L, 1L))
+                .assertNext(current -> assertEquals(5, current.getAvailableQty()))
+                .verifyComplete();
+    }
+
+    @Test
+    void flush_FailedFlushKeepsRowsPending() {
+        // Given
+        WriteBehindInventoryAdapter adapter = start(false);
+        adapter.adjustAvailableQty("SKU-1", 1L, 1).block();
+        when(inventoryPersistenceAdapter.writeQuantities(anyList(), any(int[].class)))
+                .thenReturn(Mono.error(new IllegalStateException("database down")))
+                .thenReturn(Mono.just(List.of()));
+
+        // When
+        StepVerifier.create(adapter.flush()).verifyError(IllegalStateException.class);
+        adapter.flush().block();
+
+        // Then
+        List<Inventory> written = lastFlush();
+        assertEquals(11, quantityOf(written, 1L));
+    }
+
+    @Test
+    void flush_ExpectsTheVersionWrittenByThePreviousFlush() {
+        // Given
+        WriteBehindInventoryAdapter adapter = start(false);
+        adapter.adjustAvailableQty("SKU-1", 1L, 1).block();
+        adapter.flush().block();
+
+        // When
+        adapter.adjustAvailableQty("SKU-1", 1L, 1).block();
+        adapter.adjustAvailableQty("SKU-1", 1L, 1).block();
+        adapter.flush().block();
+
+        // Then: la segunda escritura exige que la base siga en la versión 1 y la lleva a la 3
+        ArgumentCaptor<int[]> expected = ArgumentCaptor.forClass(int[].class);
+        verify(inventoryPersistenceAdapter, times(2)).writeQuantities(anyList(), expected.capture());
+        assertArrayEquals(new int[]{0}, expected.getAllValues().get(0));
+        assertArrayEquals(new int[]{1}, expected.getAllValues().get(1));
+        assertEquals(3, lastFlush().get(0).getVersion());
+    }
+
+    @Test
+    void flush_ReloadsRowsChangedInTheDatabase() {
+        // Given
+        WriteBehindInventoryAdapter adapter = start(false);
+        adapter.adjustAvailableQty("SKU-1", 1L, -4).block();
+        Inventory current = persisted(1L, 1L, 1L, 30);
+        current.setVersion(7);
+        when(inventoryPersistenceAdapter.writeQuantities(anyList(), any(int[].class)))
+                .thenReturn(Mono.just(List.of(current)))
+                .thenReturn(Mono.just(List.of()));
+
+        // When
+        adapter.flush().block();
+
+        // Then: gana la base y la escritura siguiente parte de su versión
+        StepVerifier.create(adapter.findByProductIdAndStoreId(1L, 1L))
+                .assertNext(reloaded -> {
+                    assertEquals(30, reloaded.getAvailableQty());
+                    assertEquals(7, reloaded.getVersion());
+                })
+                .verifyComplete();
+        adapter.adjustAvailableQty("SKU-1", 1L, 1).block();
+        adapter.flush().block();
+        ArgumentCaptor<int[]> expected = ArgumentCaptor.forClass(int[].class);
+        verify(inventoryPersistenceAdapter, times(2)).writeQuantities(anyList(), expected.capture());
+        assertArrayEquals(new int[]{7}, expected.getValue());
+        assertEquals(31, quantityOf(lastFlush(), 1L));
+    }
+
+    @Test
+    void stop_DiscardsTheJournalOnceEverythingIsPersisted() {
+        // Given
+        WriteBehindInventoryAdapter adapter = start(true);
+        adapter.adjustAvailableQty("SKU-1", 1L, 1).block();
+
+        // When
+        adapter.stop();
+        adapters.remove(adapter);
+
+        // Then
+        assertEquals(0, journalDir.toFile().list().length);
+    }
+
+    private WriteBehindInventoryAdapter start(boolean journalEnabled) {
+        WriteBehindInventoryAdapter adapter = new WriteBehindInventoryAdapter(inventoryPersistenceAdapter, productPort,
+                storePort, new SimpleMeterRegistry(), Duration.ofHours(1), 100_000, 1000,
+                journalEnabled, journalDir.toString(), DataSize.ofKilobytes(4));
+        adapter.afterSingletonsInstantiated();
+        adapters.add(adapter);
+        return adapter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Inventory> lastFlush() {
+        ArgumentCaptor<List<Inventory>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryPersistenceAdapter, atLeastOnce()).writeQuantities(captor.capture(), any(int[].class));
+        return captor.getValue();
+    }
+
+    private int quantityOf(List<Inventory> rows, Long id) {
+        return rows.stream().filter(row -> row.getId().equals(id)).findFirst().orElseThrow().getAvailableQty();
+    }
+
+    private Inventory persisted(Long id, Long productId, Long storeId, int availableQty) {
+        return Inventory.builder()
+                .id(id)
+                .productId(productId)
+                .storeId(storeId)
+                .availableQty(availableQty)
+                .version(0)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
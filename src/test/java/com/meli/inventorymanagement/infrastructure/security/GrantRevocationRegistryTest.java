@@ -0,0 +1,111 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class GrantRevocationRegistryTest {
+
+    @Mock
+    private StorePermissionCache storePermissionCache;
+
+    private final GrantRevocationRegistry registry =
+            new GrantRevocationRegistry(Duration.ofMinutes(5), Optional.empty());
+
+    @Test
+    void isCurrent_TokenInsideTheWindow_IsTrusted() {
+        assertTrue(registry.isCurrent("operator", issuedSecondsAgo(60)));
+    }
+
+    @Test
+    void isCurrent_StaleToken_IsNotTrusted() {
+        assertFalse(registry.isCurrent("operator", issuedSecondsAgo(5 * 60 + 1)));
+    }
+
+    @Test
+    void isCurrent_TokenWithoutIat_IsNotTrusted() {
+        assertFalse(registry.isCurrent("operator", null));
+    }
+
+    @Test
+    void isCurrent_TokenIssuedBeforeARevocation_IsNotTrusted() {
+        // Given
+        Date issuedAt = issuedSecondsAgo(2);
+
+        // When
+        registry.revoke("operator");
+
+        // Then: sólo afecta al usuario revocado
+        assertFalse(registry.isCurrent("operator", issuedAt));
+        assertTrue(registry.isCurrent("other", issuedAt));
+    }
+
+    @Test
+    void isCurrent_TokenIssuedInTheSameSecondAsTheRevocation_IsNotTrusted() {
+        // Given: el iat del JWT se trunca al segundo, aunque el token se firme después de revocar
+        registry.revoke("operator");
+        Date issuedAt = new Date(System.currentTimeMillis() / 1000 * 1000);
+
+        // When / Then
+        assertFalse(registry.isCurrent("operator", issuedAt));
+    }
+
+    @Test
+    void isCurrent_TokenIssuedAfterTheRevocation_IsTrusted() throws InterruptedException {
+        // Given
+        registry.revoke("operator");
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000 + 10);
+
+        // When / Then
+        assertTrue(registry.isCurrent("operator", new Date(System.currentTimeMillis() / 1000 * 1000)));
+    }
+
+    @Test
+    void revokeAll_AffectsEveryUser() {
+        // Given
+        Date issuedAt = issuedSecondsAgo(2);
+
+        // When
+        registry.revokeAll();
+
+        // Then
+        assertFalse(registry.isCurrent("operator", issuedAt));
+        assertFalse(registry.isCurrent("other", issuedAt));
+    }
+
+    @Test
+    void isCurrent_ZeroMaxAge_NeverTrustsTokenGrants() {
+        GrantRevocationRegistry disabled = new GrantRevocationRegistry(Duration.ZERO, Optional.empty());
+
+        assertFalse(disabled.isCurrent("operator", new Date()));
+    }
+
+    @Test
+    void revoke_InvalidatesThePermissionCache() {
+        // Given
+        GrantRevocationRegistry withCache =
+                new GrantRevocationRegistry(Duration.ofMinutes(5), Optional.of(storePermissionCache));
+
+        // When
+        withCache.revoke("operator");
+        withCache.revokeAll();
+
+        // Then
+        verify(storePermissionCache).invalidate("operator");
+        verify(storePermissionCache).invalidateAll();
+    }
+
+    private static Date issuedSecondsAgo(long seconds) {
+        return new Date((System.currentTimeMillis() / 1000 - seconds) * 1000);
+    }
+}
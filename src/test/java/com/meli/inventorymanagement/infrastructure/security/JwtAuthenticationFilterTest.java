@@ -0,0 +1,196 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.UserGrants;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "mySecretKeyForInventoryManagementSystemThatIsLongEnoughForHS256Algorithm";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private GrantRevocationRegistry grantRevocationRegistry;
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+
+    // Autenticación con la que el filtro dejó pasar el request
+    private final AtomicReference<Authentication> authenticated = new AtomicReference<>();
+    private final WebFilterChain chain = exchange -> ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .doOnNext(authenticated::set)
+            .then();
+
+    @BeforeEach
+    void setUp() {
+        grantRevocationRegistry = new GrantRevocationRegistry(Duration.ofMinutes(5), Optional.empty());
+        jwtUtil = new JwtUtil(SECRET, 60_000L, new JwtClaimsCache(new SimpleMeterRegistry(), 100), grantRevocationRegistry);
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+    }
+
+    @Test
+    void filter_TokenWithCurrentGrants_AuthenticatesWithoutLoadingTheUser() {
+        // Given
+        String token = jwtUtil.generateToken(grants("user_dinosaurio", "STORE_USER", 1L, 3L));
+
+        // When
+        StepVerifier.create(filter.filter(exchange(token), chain)).verifyComplete();
+
+        // Then
+        verify(userDetailsService, never()).findByUsername(anyString());
+        Authentication authentication = authenticated.get();
+        assertEquals("user_dinosaurio", authentication.getName());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_STORE_USER")));
+        StoreAccess access = assertInstanceOf(StoreAccess.class, authentication.getDetails());
+        assertTrue(access.allowsStore(3L));
+        assertEquals(2, access.storeCount());
+    }
+
+    @Test
+    void filter_GarbledStoresClaim_FallsBackToTheDatabase() {
+        // Given: token bien firmado pero con un claim de tiendas que no se puede interpretar
+        String token = signedToken("user_dinosaurio",
+                Map.of(JwtUtil.ROLE_CLAIM, "ADMIN", JwtUtil.STORES_CLAIM, "%%%"), new Date());
+        userExists("user_dinosaurio");
+
+        // When
+        StepVerifier.create(filter.filter(exchange(token), chain)).verifyComplete();
+
+        // Then: no se toma el rol del token, la autorización consulta la base
+        verify(userDetailsService).findByUsername("user_dinosaurio");
+        assertNull(authenticated.get().getDetails());
+    }
+
+    @Test
+    void filter_ForgedSignature_IsRejected() {
+        // Given: mismos claims firmados con otra clave
+        String forged = Jwts.builder()
+                .setClaims(Map.of(JwtUtil.ROLE_CLAIM, "ADMIN"))
+                .setSubject("user_dinosaurio")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("anotherSecretKeyThatIsAlsoLongEnoughForTheHS256Algorithm".getBytes()),
+                        SignatureAlgorithm.HS256)
+                .compact();
+
+        // When / Then
+        StepVerifier.create(filter.filter(exchange(forged), chain))
+                .expectErrorMatches(error -> isBusinessError(error, ErrorCode.INVALID_TOKEN))
+                .verify();
+        verify(userDetailsService, never()).findByUsername(anyString());
+        assertNull(authenticated.get());
+    }
+
+    @Test
+    void filter_TokenIssuedBeforeARevocation_FallsBackToTheDatabase() {
+        // Given
+        String token = jwtUtil.generateToken(grants("user_dinosaurio", "STORE_USER", 1L));
+        grantRevocationRegistry.revoke("user_dinosaurio");
+        userExists("user_dinosaurio");
+
+        // When
+        StepVerifier.create(filter.filter(exchange(token), chain)).verifyComplete();
+
+        // Then
+        verify(userDetailsService).findByUsername("user_dinosaurio");
+        assertNull(authenticated.get().getDetails());
+    }
+
+    @Test
+    void filter_StaleToken_FallsBackToTheDatabase() {
+        // Given: emitido hace más de jwt.grants.max-age pero sin expirar
+        String token = signedToken("user_dinosaurio",
+                Map.of(JwtUtil.ROLE_CLAIM, "STORE_USER", JwtUtil.STORES_CLAIM, List.of(1)),
+                new Date(System.currentTimeMillis() - Duration.ofMinutes(6).toMillis()));
+        userExists("user_dinosaurio");
+
+        // When
+        StepVerifier.create(filter.filter(exchange(token), chain)).verifyComplete();
+
+        // Then
+        verify(userDetailsService).findByUsername("user_dinosaurio");
+        assertNull(authenticated.get().getDetails());
+    }
+
+    @Test
+    void filter_UserDeactivatedInsideTheWindow_IsRejected() {
+        // Given: token recién emitido; al desactivar al usuario se revocan sus permisos
+        String token = jwtUtil.generateToken(grants("user_dinosaurio", "STORE_USER", 1L));
+        grantRevocationRegistry.revoke("user_dinosaurio");
+        when(userDetailsService.findByUsername("user_dinosaurio")).thenReturn(Mono.error(
+                new BusinessException(ErrorCode.USER_ACCOUNT_INACTIVE, "User account is inactive: user_dinosaurio")));
+
+        // When / Then
+        StepVerifier.create(filter.filter(exchange(token), chain))
+                .expectError(BusinessException.class)
+                .verify();
+        assertNull(authenticated.get());
+    }
+
+    private static boolean isBusinessError(Throwable error, ErrorCode errorCode) {
+        return error instanceof BusinessException businessException && businessException.getErrorCode() == errorCode;
+    }
+
+    private void userExists(String username) {
+        when(userDetailsService.findByUsername(username)).thenReturn(Mono.just(
+                User.withUsername(username).password("").authorities("ROLE_STORE_USER").build()));
+    }
+
+    private static String signedToken(String subject, Map<String, Object> claims, Date issuedAt) {
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(subject)
+                .setIssuedAt(issuedAt)
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static UserGrants grants(String username, String role, Long... storeIds) {
+        return UserGrants.builder().username(username).role(role).storeIds(Set.of(storeIds)).build();
+    }
+
+    private static MockServerWebExchange exchange(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/inventory/stores/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
@@ -0,0 +1,186 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtClaimsCacheTest {
+
+    private static final String SECRET = "mySecretKeyForInventoryManagementSystemThatIsLongEnoughForHS256Algorithm";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void get_VerifiedToken_IsServedFromCacheUntilItsExp() throws InterruptedException {
+        // Given: exp de JWT en segundos enteros, al menos un segundo adelante
+        Date expiration = new Date((System.currentTimeMillis() / 1000 + 2) * 1000);
+        JwtClaimsCache cache = new JwtClaimsCache(meterRegistry, 100);
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, Claims> verifier = token -> {
+            verifications.incrementAndGet();
+            Claims claims = Jwts.claims().setSubject("admin").setExpiration(expiration);
+            if (!expiration.after(new Date())) {
+                throw new ExpiredJwtException(null, claims, "JWT expired");
+            }
+            return claims;
+        };
+
+        // When
+        Claims first = cache.get("token", verifier);
+        Claims second = cache.get("token", verifier);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+
+        // When: al llegar a exp la entrada se descarta y el token se vuelve a verificar
+        Thread.sleep(expiration.getTime() - System.currentTimeMillis() + 50);
+
+        // Then
+        assertThrows(ExpiredJwtException.class, () -> cache.get("token", verifier));
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_TokenWithoutExp_IsVerifiedOnEveryUse() {
+        // Given
+        JwtClaimsCache cache = new JwtClaimsCache(meterRegistry, 100);
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, Claims> verifier = token -> {
+            verifications.incrementAndGet();
+            return Jwts.claims().setSubject("admin");
+        };
+
+        // When
+        cache.get("token", verifier);
+        cache.get("token", verifier);
+
+        // Then
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_ReturnedClaims_AreReadOnly() {
+        // Given
+        JwtClaimsCache cache = new JwtClaimsCache(meterRegistry, 100);
+        Claims verified = Jwts.claims().setSubject("operator").setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        verified.put("stores", new ArrayList<>(List.of(1, 2)));
+
+        // When
+        Claims claims = cache.get("token", token -> verified);
+
+        // Then
+        assertThrows(UnsupportedOperationException.class, () -> claims.setSubject("admin"));
+        assertThrows(UnsupportedOperationException.class, () -> claims.put("role", "ADMIN"));
+        assertThrows(UnsupportedOperationException.class, () -> claims.remove("sub"));
+        assertThrows(UnsupportedOperationException.class, () -> claims.get("stores", List.class).add(3));
+        // Cada llamada devuelve una fecha nueva: modificarla no cambia la entrada cacheada
+        claims.getExpiration().setTime(0);
+        assertTrue(claims.getExpiration().after(new Date()));
+        assertEquals("operator", cache.get("token", token -> verified).getSubject());
+        assertEquals(List.of(1, 2), claims.get("stores"));
+    }
+
+    @Test
+    void get_MoreTokensThanMaxSize_EvictsAndStaysBounded() {
+        // Given: 16 segmentos de una entrada cada uno
+        JwtClaimsCache cache = new JwtClaimsCache(meterRegistry, 16);
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            String subject = "user" + i;
+            cache.get("token-" + i, token -> Jwts.claims().setSubject(subject).setExpiration(expiration));
+        }
+
+        // Then
+        assertTrue(cache.size() <= 16);
+        assertEquals(200 - cache.size(), meterRegistry.get("cache.evictions").functionCounter().count());
+    }
+
+    @Test
+    void get_LeastRecentlyUsedTokenOfASegment_IsEvictedFirst() throws NoSuchAlgorithmException {
+        // Given: un solo segmento lleno; el token usado recién sobrevive a la próxima inserción
+        JwtClaimsCache cache = new JwtClaimsCache(meterRegistry, 32);
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        List<String> sameSegment = tokensInOneSegment(3);
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, Claims> verifier = token -> {
+            verifications.incrementAndGet();
+            return Jwts.claims().setSubject(token).setExpiration(expiration);
+        };
+        cache.get(sameSegment.get(0), verifier);
+        cache.get(sameSegment.get(1), verifier);
+        cache.get(sameSegment.get(0), verifier);
+
+        // When: la tercera entrada desborda el segmento de capacidad 2
+        cache.get(sameSegment.get(2), verifier);
+        verifications.set(0);
+        cache.get(sameSegment.get(0), verifier);
+        cache.get(sameSegment.get(1), verifier);
+
+        // Then: sólo el token menos usado se volvió a verificar
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void validateToken_TamperedSignature_NeverReachesTheCache() {
+        // Given
+        JwtClaimsCache cache = new JwtClaimsCache(meterRegistry, 100);
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000L, cache,
+                new GrantRevocationRegistry(Duration.ofMinutes(5), Optional.empty()));
+        String token = jwtUtil.generateToken("operator");
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                        .replace("operator", "admin").getBytes(StandardCharsets.UTF_8));
+        String tampered = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        // When / Then
+        assertFalse(jwtUtil.validateToken(tampered, "admin"));
+        assertThrows(SignatureException.class, () -> jwtUtil.extractUsername(tampered));
+        assertEquals(0, cache.size());
+
+        // Un token válido en caché no habilita a su versión alterada
+        assertTrue(jwtUtil.validateToken(token, "operator"));
+        assertEquals(1, cache.size());
+        assertFalse(jwtUtil.validateToken(tampered, "admin"));
+        assertEquals(1, cache.size());
+    }
+
+    // Tokens del mismo segmento: el caché lo elige con los 4 bits bajos del primer long del SHA-256
+    private static List<String> tokensInOneSegment(int count) throws NoSuchAlgorithmException {
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; tokens.size() < count; i++) {
+            String token = "token-" + i;
+            if ((sha256.digest(token.getBytes(StandardCharsets.US_ASCII))[7] & 15) == 0) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
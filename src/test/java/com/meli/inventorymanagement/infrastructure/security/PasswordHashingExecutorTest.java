@@ -0,0 +1,100 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicReference<String> hashingThread = new AtomicReference<>();
+    private PasswordHashingExecutor executor;
+
+    // Encoder que retiene cada verificación hasta liberar el latch, como un BCrypt lento
+    private final PasswordEncoder slowEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            hashingThread.set(Thread.currentThread().getName());
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.stop();
+    }
+
+    @Test
+    void matches_RunsOnTheHashingPool() {
+        // Given
+        executor = new PasswordHashingExecutor(slowEncoder, meterRegistry, 1, 1);
+        release.countDown();
+
+        // When / Then
+        StepVerifier.create(executor.matches("12345", "12345"))
+                .expectNext(true)
+                .verifyComplete();
+        assertTrue(hashingThread.get().startsWith("password-hashing-"));
+        StepVerifier.create(executor.matches("12345", "other")).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void matches_SaturatedPool_IsRejectedImmediately() throws Exception {
+        // Given: un hilo ocupado y la cola de un lugar llena
+        executor = new PasswordHashingExecutor(slowEncoder, meterRegistry, 1, 1);
+        CompletableFuture<Boolean> running = executor.matches("12345", "12345").toFuture();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = executor.matches("12345", "12345").toFuture();
+        assertEquals(1, executor.queueDepth());
+
+        // When / Then: el rechazo no espera a que se libere el pool
+        StepVerifier.create(executor.matches("12345", "12345"))
+                .expectErrorMatches(error -> error instanceof BusinessException businessException
+                        && businessException.getErrorCode() == ErrorCode.SERVICE_UNAVAILABLE)
+                .verify(Duration.ofMillis(500));
+        assertEquals(1.0, meterRegistry.get("auth.password.rejections").functionCounter().count());
+
+        // Al liberarse el pool los logins retenidos terminan y se vuelve a aceptar
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        StepVerifier.create(executor.matches("12345", "12345"))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void defaultPoolSize_IsOneThreadPerCoreAndAtLeastTwo() {
+        executor = new PasswordHashingExecutor(slowEncoder, meterRegistry, 0, 500);
+
+        assertEquals(Math.max(2, Runtime.getRuntime().availableProcessors()), executor.poolSize());
+        assertTrue(executor.poolSize() >= 2);
+    }
+}
@@ -0,0 +1,96 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoreAccessTest {
+
+    @Test
+    void toClaim_FewSparseStores_IsAListOfIds() {
+        // Given: el bitmap hasta la tienda 500 ocupa más que la lista
+        StoreAccess access = StoreAccess.of("STORE_USER", List.of(500L, 1L));
+
+        // When
+        Object claim = access.toClaim();
+
+        // Then
+        assertEquals(List.of(1, 500), claim);
+        StoreAccess decoded = StoreAccess.fromClaim("STORE_USER", claim);
+        assertTrue(decoded.allowsStore(1L));
+        assertTrue(decoded.allowsStore(500L));
+        assertFalse(decoded.allowsStore(2L));
+    }
+
+    @Test
+    void toClaim_SmallStoreIds_IsTheShorterBitmap() {
+        // Given: {1, 3} entra en un byte ("Cg") y la lista ocupa "[1,3]"
+        StoreAccess access = StoreAccess.of("STORE_USER", List.of(1L, 3L));
+
+        // When
+        Object claim = access.toClaim();
+
+        // Then
+        assertEquals("Cg", claim);
+        assertNull(StoreAccess.fromClaim("STORE_USER", claim).firstDeniedStore(List.of(1L, 3L)));
+        assertFalse(StoreAccess.fromClaim("STORE_USER", claim).allowsStore(2L));
+    }
+
+    @Test
+    void toClaim_ManyDenseStores_IsABitmapThatDecodesToTheSameStores() {
+        // Given
+        Set<Long> storeIds = LongStream.rangeClosed(100, 400).boxed().collect(Collectors.toSet());
+        StoreAccess access = StoreAccess.of("STORE_USER", storeIds);
+
+        // When
+        Object claim = access.toClaim();
+
+        // Then
+        assertInstanceOf(String.class, claim);
+        StoreAccess decoded = StoreAccess.fromClaim("STORE_USER", claim);
+        assertEquals(storeIds.size(), decoded.storeCount());
+        assertNull(decoded.firstDeniedStore(storeIds));
+        assertEquals(99L, decoded.firstDeniedStore(List.of(100L, 99L)));
+    }
+
+    @Test
+    void fromClaim_NumbersAsTheJsonParserReadsThem_AreAccepted() {
+        // El parser JSON entrega Integer o Long según el tamaño del número
+        StoreAccess access = StoreAccess.fromClaim("STORE_USER", List.of(1, 2L, Integer.MAX_VALUE));
+
+        assertEquals(3, access.storeCount());
+        assertTrue(access.allowsStore((long) Integer.MAX_VALUE));
+    }
+
+    @Test
+    void fromClaim_MissingClaim_AllowsNoStore() {
+        StoreAccess access = StoreAccess.fromClaim("STORE_USER", null);
+
+        assertEquals(0, access.storeCount());
+        assertFalse(access.allowsStore(1L));
+    }
+
+    @Test
+    void fromClaim_GarbledClaims_AreRejected() {
+        assertNull(StoreAccess.fromClaim("STORE_USER", "not*base64!"));
+        assertNull(StoreAccess.fromClaim("STORE_USER", List.of(1, "2")));
+        assertNull(StoreAccess.fromClaim("STORE_USER", List.of(-1)));
+        assertNull(StoreAccess.fromClaim("STORE_USER", List.of(Integer.MAX_VALUE + 1L)));
+        assertNull(StoreAccess.fromClaim("STORE_USER", 7));
+    }
+
+    @Test
+    void of_StoreIdThatCannotBeEmbedded_ReturnsNull() {
+        assertNull(StoreAccess.of("STORE_USER", List.of(1L, Integer.MAX_VALUE + 1L)));
+        assertNull(StoreAccess.of("STORE_USER", List.of(-5L)));
+    }
+}
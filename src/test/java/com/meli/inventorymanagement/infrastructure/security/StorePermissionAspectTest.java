@@ -0,0 +1,165 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import com.meli.inventorymanagement.common.constant.ErrorCode;
+import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.User;
+import com.meli.inventorymanagement.domain.model.UserGrants;
+import com.meli.inventorymanagement.domain.port.AuthenticationPort;
+import com.meli.inventorymanagement.domain.port.UserPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.bind.annotation.PathVariable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StorePermissionAspectTest {
+
+    @Mock
+    private UserPort userPort;
+
+    @Mock
+    private AuthenticationPort authenticationPort;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private MethodSignature signature;
+
+    private Method handler;
+    private RequireStorePermission policy;
+
+    @BeforeEach
+    void setUp() throws Throwable {
+        handler = Handlers.class.getMethod("inventoryOfStore", Long.class);
+        policy = handler.getAnnotation(RequireStorePermission.class);
+        lenient().when(joinPoint.getSignature()).thenReturn(signature);
+        lenient().when(signature.getMethod()).thenReturn(handler);
+        lenient().when(signature.getReturnType()).thenReturn(handler.getReturnType());
+        lenient().when(joinPoint.getArgs()).thenReturn(new Object[]{2L});
+        lenient().when(joinPoint.proceed()).thenReturn(Mono.just("inventory"));
+    }
+
+    @Test
+    void checkStorePermission_GrantsInTheToken_AuthorizeWithoutCacheOrDatabase() {
+        // Given
+        StorePermissionAspect aspect = new StorePermissionAspect(userPort, authenticationPort, Optional.of(cache()));
+
+        // When / Then
+        StepVerifier.create(invoke(aspect, StoreAccess.of("STORE_USER", List.of(2L))))
+                .expectNext("inventory")
+                .verifyComplete();
+        verify(authenticationPort, never()).findGrants(anyString());
+        verify(userPort, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void checkStorePermission_CachedGrants_AuthorizeWithoutQueryingTheDatabaseAgain() {
+        // Given
+        when(authenticationPort.findGrants("user_maipu")).thenReturn(Mono.just(grants(2L)));
+        StorePermissionAspect aspect = new StorePermissionAspect(userPort, authenticationPort, Optional.of(cache()));
+
+        // When / Then
+        StepVerifier.create(invoke(aspect, null)).expectNext("inventory").verifyComplete();
+        StepVerifier.create(invoke(aspect, null)).expectNext("inventory").verifyComplete();
+        verify(authenticationPort).findGrants("user_maipu");
+        verify(authenticationPort, never()).hasStorePermission(anyString(), anyLong());
+        verify(userPort, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void checkStorePermission_CachedGrantsWithoutTheStore_AreDenied() {
+        // Given
+        when(authenticationPort.findGrants("user_maipu")).thenReturn(Mono.just(grants(3L)));
+        StorePermissionAspect aspect = new StorePermissionAspect(userPort, authenticationPort, Optional.of(cache()));
+
+        // When / Then
+        StepVerifier.create(invoke(aspect, null))
+                .expectErrorMatches(error -> isBusinessError(error, ErrorCode.ACCESS_DENIED_TO_STORE))
+                .verify();
+    }
+
+    @Test
+    void checkStorePermission_CacheWithoutEntry_FallsBackToTheDatabase() {
+        // Given: las tiendas del usuario no se pueden representar en el bitset
+        when(authenticationPort.findGrants("user_maipu")).thenReturn(Mono.just(grants(Integer.MAX_VALUE + 1L)));
+        userInDatabase();
+        when(authenticationPort.hasStorePermission("user_maipu", 2L)).thenReturn(Mono.just(true));
+        StorePermissionAspect aspect = new StorePermissionAspect(userPort, authenticationPort, Optional.of(cache()));
+
+        // When / Then
+        StepVerifier.create(invoke(aspect, null)).expectNext("inventory").verifyComplete();
+        verify(userPort).findByUsername("user_maipu");
+        verify(authenticationPort).hasStorePermission("user_maipu", 2L);
+    }
+
+    @Test
+    void checkStorePermission_CacheDisabled_ChecksEveryStoreInTheDatabase() {
+        // Given
+        userInDatabase();
+        when(authenticationPort.hasStorePermission("user_maipu", 2L)).thenReturn(Mono.just(false));
+        StorePermissionAspect aspect = new StorePermissionAspect(userPort, authenticationPort, Optional.empty());
+
+        // When / Then
+        StepVerifier.create(invoke(aspect, null))
+                .expectErrorMatches(error -> isBusinessError(error, ErrorCode.ACCESS_DENIED_TO_STORE))
+                .verify();
+        verify(authenticationPort, never()).findGrants(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Object> invoke(StorePermissionAspect aspect, StoreAccess tokenGrants) {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken("user_maipu", null, List.of());
+        authentication.setDetails(tokenGrants);
+        return ((Mono<Object>) aspect.checkStorePermission(joinPoint, policy))
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    private StorePermissionCache cache() {
+        return new StorePermissionCache(authenticationPort, new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+    }
+
+    private void userInDatabase() {
+        when(userPort.findByUsername("user_maipu")).thenReturn(Mono.just(
+                User.builder().username("user_maipu").role("STORE_USER").build()));
+    }
+
+    private static UserGrants grants(Long... storeIds) {
+        return UserGrants.builder().username("user_maipu").role("STORE_USER").storeIds(Set.of(storeIds)).build();
+    }
+
+    private static boolean isBusinessError(Throwable error, ErrorCode errorCode) {
+        return error instanceof BusinessException businessException && businessException.getErrorCode() == errorCode;
+    }
+
+    static class Handlers {
+
+        @RequireStorePermission
+        public Mono<String> inventoryOfStore(@PathVariable("storeId") Long storeId) {
+            return Mono.just("inventory");
+        }
+    }
+}
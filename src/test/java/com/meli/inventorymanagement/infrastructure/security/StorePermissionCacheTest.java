@@ -0,0 +1,176 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import com.meli.inventorymanagement.domain.model.UserGrants;
+import com.meli.inventorymanagement.domain.port.AuthenticationPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StorePermissionCacheTest {
+
+    @Mock
+    private AuthenticationPort authenticationPort;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void get_LoadedUser_IsServedFromMemory() {
+        // Given
+        StorePermissionCache cache = cache(Duration.ofMinutes(5), 100);
+        grantsOf("user_maipu", 2L);
+
+        // When
+        StepVerifier.create(cache.get("user_maipu")).expectNextMatches(access -> access.allowsStore(2L)).verifyComplete();
+        StepVerifier.create(cache.get("user_maipu")).expectNextMatches(access -> access.allowsStore(2L)).verifyComplete();
+
+        // Then
+        verify(authenticationPort, times(1)).findGrants("user_maipu");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void get_LoadThatStartedBeforeAnInvalidation_IsNotCached() {
+        // Given: la carga queda pendiente mientras se revocan los permisos del usuario
+        StorePermissionCache cache = cache(Duration.ofMinutes(5), 100);
+        Sinks.One<UserGrants> pendingLoad = Sinks.one();
+        when(authenticationPort.findGrants("user_maipu")).thenReturn(pendingLoad.asMono());
+        List<StoreAccess> loaded = new ArrayList<>();
+        cache.get("user_maipu").subscribe(loaded::add);
+
+        // When
+        cache.invalidate("user_maipu");
+        pendingLoad.tryEmitValue(grants("user_maipu", 2L));
+
+        // Then: el llamador recibe lo que leyó, pero la entrada vieja no queda instalada
+        assertEquals(1, loaded.size());
+        assertEquals(0, cache.size());
+        grantsOf("user_maipu", 3L);
+        StepVerifier.create(cache.get("user_maipu")).expectNextMatches(access -> access.allowsStore(3L)).verifyComplete();
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void invalidate_DropsTheEntry() {
+        // Given
+        StorePermissionCache cache = cache(Duration.ofMinutes(5), 100);
+        grantsOf("user_maipu", 2L);
+        cache.get("user_maipu").block();
+
+        // When
+        cache.invalidate("user_maipu");
+        cache.get("user_maipu").block();
+
+        // Then
+        verify(authenticationPort, times(2)).findGrants("user_maipu");
+    }
+
+    @Test
+    void get_ExpiredEntry_IsReloaded() throws InterruptedException {
+        // Given
+        StorePermissionCache cache = cache(Duration.ofMillis(20), 100);
+        grantsOf("user_maipu", 2L);
+        cache.get("user_maipu").block();
+
+        // When
+        Thread.sleep(40);
+        cache.get("user_maipu").block();
+
+        // Then
+        verify(authenticationPort, times(2)).findGrants("user_maipu");
+    }
+
+    @Test
+    void get_MoreUsersThanMaxSize_EvictsAndStaysBounded() {
+        // Given: 16 segmentos de una entrada cada uno
+        StorePermissionCache cache = cache(Duration.ofMinutes(5), 16);
+        when(authenticationPort.findGrants(anyString())).thenAnswer(invocation ->
+                Mono.just(grants(invocation.getArgument(0), 1L)));
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            cache.get("user" + i).block();
+        }
+
+        // Then
+        assertTrue(cache.size() <= 16);
+        assertEquals(200 - cache.size(), meterRegistry.get("cache.evictions").functionCounter().count());
+    }
+
+    @Test
+    void get_LeastRecentlyUsedUserOfASegment_IsEvictedFirst() {
+        // Given: un segmento de capacidad 2 lleno; el usuario leído recién sobrevive a la próxima carga
+        StorePermissionCache cache = cache(Duration.ofMinutes(5), 32);
+        List<String> sameSegment = usersInOneSegment(3);
+        when(authenticationPort.findGrants(anyString())).thenAnswer(invocation ->
+                Mono.just(grants(invocation.getArgument(0), 1L)));
+        cache.get(sameSegment.get(0)).block();
+        cache.get(sameSegment.get(1)).block();
+        cache.get(sameSegment.get(0)).block();
+
+        // When
+        cache.get(sameSegment.get(2)).block();
+        clearInvocations(authenticationPort);
+        cache.get(sameSegment.get(0)).block();
+        cache.get(sameSegment.get(1)).block();
+
+        // Then
+        verify(authenticationPort, never()).findGrants(sameSegment.get(0));
+        verify(authenticationPort).findGrants(sameSegment.get(1));
+    }
+
+    @Test
+    void get_StoresThatCannotBeRepresented_AreNotCached() {
+        // Given
+        StorePermissionCache cache = cache(Duration.ofMinutes(5), 100);
+        grantsOf("user_maipu", Integer.MAX_VALUE + 1L);
+
+        // When / Then: vacío, el llamador resuelve con la base
+        StepVerifier.create(cache.get("user_maipu")).verifyComplete();
+        assertEquals(0, cache.size());
+    }
+
+    private StorePermissionCache cache(Duration ttl, int maxSize) {
+        return new StorePermissionCache(authenticationPort, meterRegistry, ttl, maxSize);
+    }
+
+    private void grantsOf(String username, Long... storeIds) {
+        when(authenticationPort.findGrants(username)).thenReturn(Mono.just(grants(username, storeIds)));
+    }
+
+    private static UserGrants grants(String username, Long... storeIds) {
+        return UserGrants.builder().username(username).role("STORE_USER").storeIds(Set.of(storeIds)).build();
+    }
+
+    // Usuarios del mismo segmento: el caché lo elige con los 4 bits bajos del hash mezclado
+    private static List<String> usersInOneSegment(int count) {
+        List<String> users = new ArrayList<>();
+        for (int i = 0; users.size() < count; i++) {
+            String username = "user" + i;
+            int hash = username.hashCode();
+            if (((hash ^ (hash >>> 16)) & 15) == 0) {
+                users.add(username);
+            }
+        }
+        return users;
+    }
+}
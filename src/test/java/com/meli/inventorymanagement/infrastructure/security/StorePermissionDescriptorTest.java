@@ -0,0 +1,277 @@
+package com.meli.inventorymanagement.infrastructure.security;
+
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentItem;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferItem;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferRequest;
+import com.meli.inventorymanagement.application.dto.InventoryTransferRequest;
+import com.meli.inventorymanagement.application.dto.StoreScopedRequest;
+import com.meli.inventorymanagement.domain.port.AuthenticationPort;
+import com.meli.inventorymanagement.domain.port.UserPort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StorePermissionDescriptorTest {
+
+    private static final String BASE_PACKAGE = "com.meli.inventorymanagement";
+
+    // Cuerpos con tiendas repetidas y nulas, por tipo de request
+    private static final Map<Class<?>, Object> SCOPED_BODIES = Map.of(
+            InventoryTransferRequest.class, InventoryTransferRequest.builder()
+                    .fromStoreId(7L).toStoreId(7L).quantity(1).build(),
+            InventoryBatchAdjustmentRequest.class, InventoryBatchAdjustmentRequest.builder()
+                    .items(List.of(batchItem(4L), batchItem(5L), batchItem(4L), batchItem(null))).build(),
+            InventoryBulkTransferRequest.class, InventoryBulkTransferRequest.builder()
+                    .items(List.of(bulkItem(4L, 5L), bulkItem(5L, 6L), bulkItem(null, 4L))).build());
+
+    @Test
+    void storeIds_EveryControllerHandler_MatchesTheReflectiveExtraction() {
+        // Given
+        List<Method> handlers = protectedHandlers();
+        assertFalse(handlers.isEmpty());
+
+        for (Method handler : handlers) {
+            RequireStorePermission policy = handler.getAnnotation(RequireStorePermission.class);
+            Object[] args = sampleArgs(handler);
+
+            // When
+            StorePermissionDescriptor descriptor = StorePermissionDescriptor.compile(handler, policy);
+
+            // Then
+            assertEquals(new ArrayList<>(reflectiveStoreIds(handler, args, policy.storeIdParam())),
+                    new ArrayList<>(descriptor.storeIds(args)),
+                    handler.getDeclaringClass().getSimpleName() + "." + handler.getName());
+            assertSame(policy, descriptor.policy());
+        }
+    }
+
+    @Test
+    void storeIds_StoreScopedBodies_AreDistinctAndSkipNulls() throws NoSuchMethodException {
+        // Given
+        Method handler = Handlers.class.getMethod("bulkTransfer", Long.class, InventoryBulkTransferRequest.class);
+        StorePermissionDescriptor descriptor =
+                StorePermissionDescriptor.compile(handler, handler.getAnnotation(RequireStorePermission.class));
+
+        // When
+        Set<Long> storeIds = descriptor.storeIds(
+                new Object[]{5L, SCOPED_BODIES.get(InventoryBulkTransferRequest.class)});
+
+        // Then: primero la variable de path, después las del cuerpo en orden
+        assertEquals(List.of(5L, 4L, 6L), new ArrayList<>(storeIds));
+    }
+
+    @Test
+    void storeIds_PathVariableNamedByParameterOrAttribute_AreBothFound() throws NoSuchMethodException {
+        // Given
+        Method byName = Handlers.class.getMethod("byParameterName", Long.class, Long.class);
+        Method custom = Handlers.class.getMethod("customParam", Long.class, Long.class);
+
+        // When / Then
+        assertEquals(Set.of(1L), StorePermissionDescriptor.compile(byName,
+                byName.getAnnotation(RequireStorePermission.class)).storeIds(new Object[]{1L, 2L}));
+        assertEquals(Set.of(2L), StorePermissionDescriptor.compile(custom,
+                custom.getAnnotation(RequireStorePermission.class)).storeIds(new Object[]{1L, 2L}));
+    }
+
+    @Test
+    void storeIds_NullArguments_AreIgnored() throws NoSuchMethodException {
+        // Given
+        Method handler = Handlers.class.getMethod("bulkTransfer", Long.class, InventoryBulkTransferRequest.class);
+        StorePermissionDescriptor descriptor =
+                StorePermissionDescriptor.compile(handler, handler.getAnnotation(RequireStorePermission.class));
+
+        // When / Then
+        assertTrue(descriptor.storeIds(new Object[]{null, null}).isEmpty());
+    }
+
+    @Test
+    void compile_HandlerWithoutStoreSource_ResolvesNoStores() throws NoSuchMethodException {
+        Method handler = Handlers.class.getMethod("adminOnly", String.class);
+        StorePermissionDescriptor descriptor =
+                StorePermissionDescriptor.compile(handler, handler.getAnnotation(RequireStorePermission.class));
+
+        assertFalse(descriptor.hasStoreSource());
+        assertTrue(descriptor.storeIds(new Object[]{"x"}).isEmpty());
+    }
+
+    @Test
+    void compile_ReturnType_SelectsTheReturnAdapter() throws NoSuchMethodException {
+        assertSame(StorePermissionDescriptor.ReturnAdapter.MONO,
+                compile("byParameterName", Long.class, Long.class).returnAdapter());
+        assertSame(StorePermissionDescriptor.ReturnAdapter.FLUX, compile("adminOnly", String.class).returnAdapter());
+        assertSame(StorePermissionDescriptor.ReturnAdapter.OTHER, compile("plain", Long.class).returnAdapter());
+    }
+
+    @Test
+    void compileDescriptors_CompilesEveryAnnotatedHandlerMethod() throws NoSuchMethodException {
+        // Given: un mapping con todos los handlers de los controllers y uno sin anotación
+        StorePermissionAspect aspect = new StorePermissionAspect(mock(UserPort.class), mock(AuthenticationPort.class),
+                Optional.empty());
+        Method unprotected = Handlers.class.getMethod("unprotected");
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = new LinkedHashMap<>();
+        for (Method handler : protectedHandlers()) {
+            handlerMethods.put(RequestMappingInfo.paths("/" + handler.getName()).build(),
+                    new HandlerMethod(new Object(), handler));
+        }
+        handlerMethods.put(RequestMappingInfo.paths("/unprotected").build(), new HandlerMethod(new Object(), unprotected));
+        RequestMappingHandlerMapping mapping = mock(RequestMappingHandlerMapping.class);
+        when(mapping.getHandlerMethods()).thenReturn(handlerMethods);
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBeansOfType(RequestMappingHandlerMapping.class)).thenReturn(Map.of("mapping", mapping));
+
+        // When
+        aspect.compileDescriptors(new ContextRefreshedEvent(context));
+
+        // Then
+        for (Method handler : protectedHandlers()) {
+            StorePermissionDescriptor descriptor = aspect.descriptorOf(handler);
+            assertNotNull(descriptor, handler.getName());
+            assertEquals(reflectiveStoreIds(handler, sampleArgs(handler),
+                    handler.getAnnotation(RequireStorePermission.class).storeIdParam()),
+                    descriptor.storeIds(sampleArgs(handler)));
+        }
+        assertNull(aspect.descriptorOf(unprotected));
+    }
+
+    /**
+     * Extracción por reflexión que el aspecto hacía en cada invocación antes de compilar descriptores.
+     */
+    private static Set<Long> reflectiveStoreIds(Method method, Object[] args, String paramName) {
+        Parameter[] parameters = method.getParameters();
+        Set<Long> storeIds = new LinkedHashSet<>();
+
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
+
+            if (pathVariable != null) {
+                String pathVarName = pathVariable.value().isEmpty() ? pathVariable.name() : pathVariable.value();
+                if (pathVarName.isEmpty()) {
+                    pathVarName = parameter.getName();
+                }
+
+                if (paramName.equals(pathVarName) && args[i] instanceof Long) {
+                    storeIds.add((Long) args[i]);
+                }
+            } else if (args[i] instanceof StoreScopedRequest scoped) {
+                scoped.storeIds().stream()
+                        .filter(storeId -> storeId != null)
+                        .forEach(storeIds::add);
+            }
+        }
+        return storeIds;
+    }
+
+    private static List<Method> protectedHandlers() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+        List<Method> handlers = new ArrayList<>();
+        for (BeanDefinition controller : scanner.findCandidateComponents(BASE_PACKAGE)) {
+            Class<?> type = ClassUtils.resolveClassName(controller.getBeanClassName(), null);
+            Arrays.stream(type.getDeclaredMethods())
+                    .filter(method -> method.isAnnotationPresent(RequireStorePermission.class))
+                    .forEach(handlers::add);
+        }
+        return handlers;
+    }
+
+    // Un valor distinto por argumento Long; los cuerpos con tiendas se toman de SCOPED_BODIES
+    private static Object[] sampleArgs(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == Long.class || types[i] == long.class) {
+                args[i] = 100L + i;
+            } else if (StoreScopedRequest.class.isAssignableFrom(types[i])) {
+                args[i] = SCOPED_BODIES.get(types[i]);
+                if (args[i] == null) {
+                    fail("No sample body for " + types[i].getSimpleName() + " used by " + method.getName());
+                }
+            } else if (types[i] == int.class) {
+                args[i] = 0;
+            } else if (types[i] == boolean.class) {
+                args[i] = false;
+            }
+        }
+        return args;
+    }
+
+    private static StorePermissionDescriptor compile(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method handler = Handlers.class.getMethod(name, parameterTypes);
+        return StorePermissionDescriptor.compile(handler, handler.getAnnotation(RequireStorePermission.class));
+    }
+
+    private static InventoryBatchAdjustmentItem batchItem(Long storeId) {
+        return InventoryBatchAdjustmentItem.builder().productSku("SKU-1").storeId(storeId).adjustment(1).build();
+    }
+
+    private static InventoryBulkTransferItem bulkItem(Long fromStoreId, Long toStoreId) {
+        return InventoryBulkTransferItem.builder().productSku("SKU-1").fromStoreId(fromStoreId).toStoreId(toStoreId)
+                .quantity(1).build();
+    }
+
+    static class Handlers {
+
+        @RequireStorePermission
+        public Mono<Void> bulkTransfer(@PathVariable("storeId") Long storeId, InventoryBulkTransferRequest request) {
+            return Mono.empty();
+        }
+
+        @RequireStorePermission
+        public Mono<Void> byParameterName(@PathVariable Long storeId, @PathVariable Long otherId) {
+            return Mono.empty();
+        }
+
+        @RequireStorePermission(storeIdParam = "fromStoreId")
+        public Mono<Void> customParam(@PathVariable Long storeId, @PathVariable(name = "fromStoreId") Long from) {
+            return Mono.empty();
+        }
+
+        @RequireStorePermission(adminOnly = true)
+        public Flux<Void> adminOnly(String sku) {
+            return Flux.empty();
+        }
+
+        @RequireStorePermission
+        public String plain(@PathVariable Long storeId) {
+            return "plain";
+        }
+
+        public Mono<Void> unprotected() {
+            return Mono.empty();
+        }
+    }
+}
@@ -1,29 +1,59 @@
 package com.meli.inventorymanagement.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.meli.inventorymanagement.application.dto.InventoryAdjustmentRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentItem;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBatchAdjustmentResponse;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferItem;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferRequest;
+import com.meli.inventorymanagement.application.dto.InventoryBulkTransferResponse;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutLine;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutRequest;
+import com.meli.inventorymanagement.application.dto.InventoryCheckoutResponse;
+import com.meli.inventorymanagement.application.dto.InventoryLookupResponse;
+import com.meli.inventorymanagement.application.dto.InventoryPageResponse;
 import com.meli.inventorymanagement.application.dto.InventoryResponse;
+import com.meli.inventorymanagement.application.dto.InventorySyncItem;
+import com.meli.inventorymanagement.application.dto.InventorySyncResponse;
+import com.meli.inventorymanagement.application.dto.InventoryTransferRequest;
+import com.meli.inventorymanagement.application.dto.InventoryTransferResponse;
 import com.meli.inventorymanagement.application.dto.InventoryUpdateRequest;
 import com.meli.inventorymanagement.application.mapper.InventoryMapper;
+import com.meli.inventorymanagement.application.service.AdjustmentIdempotencyStore;
+import com.meli.inventorymanagement.application.service.HotKeyAdjustmentCombiner;
 import com.meli.inventorymanagement.application.service.InventoryService;
 import com.meli.inventorymanagement.common.constant.ErrorCode;
 import com.meli.inventorymanagement.domain.exception.BusinessException;
+import com.meli.inventorymanagement.domain.model.AdjustmentOutcome;
 import com.meli.inventorymanagement.domain.model.Inventory;
 import com.meli.inventorymanagement.domain.model.Product;
 import com.meli.inventorymanagement.domain.model.Store;
+import com.meli.inventorymanagement.domain.model.TransferOutcome;
+import com.meli.inventorymanagement.domain.port.InventoryChangePort;
+import com.meli.inventorymanagement.domain.port.IdempotencyKeyPort;
+import com.meli.inventorymanagement.domain.port.InventoryLedgerPort;
 import com.meli.inventorymanagement.domain.port.InventoryPort;
 import com.meli.inventorymanagement.domain.port.ProductPort;
 import com.meli.inventorymanagement.domain.port.StorePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -44,6 +74,21 @@ class InventoryServiceTest {
     @Mock
     private InventoryMapper inventoryMapper;
 
+    @Mock
+    private HotKeyAdjustmentCombiner adjustmentCombiner;
+
+    @Mock
+    private InventoryLedgerPort inventoryLedgerPort;
+
+    @Mock
+    private InventoryChangePort inventoryChangePort;
+
+    private final IdempotencyKeyPort idempotencyKeyPort = mock(IdempotencyKeyPort.class);
+
+    @Spy
+    private AdjustmentIdempotencyStore idempotencyStore = new AdjustmentIdempotencyStore(idempotencyKeyPort,
+            new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), Duration.ofHours(24), 1000);
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -100,8 +145,6 @@ class InventoryServiceTest {
         // Given
         when(productPort.findBySku("REM-001-BL-M")).thenReturn(Mono.just(product));
         when(inventoryPort.findByProductSku("REM-001-BL-M")).thenReturn(Flux.just(inventory));
-        when(productPort.findById(1L)).thenReturn(Mono.just(product));
-        when(storePort.findById(1L)).thenReturn(Mono.just(store));
         when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(inventoryResponse);
 
         // When
@@ -139,14 +182,207 @@ class InventoryServiceTest {
         verify(inventoryPort, never()).findByProductSku(anyString());
     }
 
+    @Test
+    void lookupInventory_GroupsBySkuWithSingleQuery() {
+        // Given
+        Inventory otherStore = Inventory.builder()
+                .id(2L)
+                .productId(1L)
+                .storeId(2L)
+                .product(product)
+                .store(Store.builder().id(2L).name("Centro Maipu 712").build())
+                .availableQty(8)
+                .version(0)
+                .build();
+
+        when(inventoryPort.findByProductSkus(any(), any())).thenReturn(Flux.just(inventory, otherStore));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(inventoryResponse);
+
+        // When
+        Flux<InventoryLookupResponse> result = inventoryService.lookupInventory(
+                List.of("REM-001-BL-M", "JEA-002-AZ-32", "REM-001-BL-M"), null);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextMatches(response ->
+                        response.getProductSku().equals("REM-001-BL-M") &&
+                        response.getInventories().size() == 2
+                )
+                .expectNextMatches(response ->
+                        response.getProductSku().equals("JEA-002-AZ-32") &&
+                        response.getInventories().isEmpty()
+                )
+                .verifyComplete();
+
+        verify(inventoryPort, times(1)).findByProductSkus(any(), any());
+        verify(inventoryPort, never()).findByProductSku(any());
+    }
+
+    @Test
+    void lookupInventory_EmptySkus_ShouldFail() {
+        // When
+        Flux<InventoryLookupResponse> result = inventoryService.lookupInventory(List.of(), List.of(1L));
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.VALIDATION_ERROR
+                )
+                .verify();
+
+        verify(inventoryPort, never()).findByProductSkus(any(), any());
+    }
+
+    @Test
+    void getInventoryByStore_FollowsCursorWithKeysetSeek() {
+        // Given
+        Inventory second = Inventory.builder()
+                .id(2L)
+                .productId(7L)
+                .storeId(1L)
+                .availableQty(3)
+                .version(0)
+                .build();
+        Inventory third = Inventory.builder()
+                .id(3L)
+                .productId(9L)
+                .storeId(1L)
+                .availableQty(4)
+                .version(0)
+                .build();
+
+        when(storePort.existsById(1L)).thenReturn(Mono.just(true));
+        when(inventoryPort.findByStoreId(1L, null, 3)).thenReturn(Flux.just(inventory, second, third));
+        when(inventoryPort.findByStoreId(1L, 7L, 3)).thenReturn(Flux.just(third));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(inventoryResponse);
+
+        String expectedCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1:7".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        Mono<InventoryPageResponse> firstPage = inventoryService.getInventoryByStore(1L, null, 2);
+        Mono<InventoryPageResponse> nextPage = inventoryService.getInventoryByStore(1L, expectedCursor, 2);
+
+        // Then
+        StepVerifier.create(firstPage)
+                .expectNextMatches(page ->
+                        page.getItems().size() == 2 &&
+                        expectedCursor.equals(page.getNextCursor())
+                )
+                .verifyComplete();
+        StepVerifier.create(nextPage)
+                .expectNextMatches(page ->
+                        page.getItems().size() == 1 &&
+                        page.getNextCursor() == null
+                )
+                .verifyComplete();
+
+        verify(inventoryPort).findByStoreId(1L, 7L, 3);
+    }
+
+    @Test
+    void getInventoryByStore_CursorFromOtherStore_ShouldFail() {
+        // Given
+        String otherStoreCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2:7".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        Mono<InventoryPageResponse> result = inventoryService.getInventoryByStore(1L, otherStoreCursor, 50);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.INVALID_PARAMETER_FORMAT
+                )
+                .verify();
+
+        verify(inventoryPort, never()).findByStoreId(any(), any(), anyInt());
+    }
+
+    @Test
+    void getInventoryChanges_ReturnsChangesAfterCursor() {
+        // Given: el puerto devuelve un lote más del pedido para saber si hay más cambios
+        Inventory first = Inventory.builder()
+                .id(2L)
+                .productId(7L)
+                .storeId(1L)
+                .availableQty(3)
+                .version(2)
+                .changeSeq(11L)
+                .build();
+        Inventory second = Inventory.builder()
+                .id(3L)
+                .productId(9L)
+                .storeId(1L)
+                .availableQty(4)
+                .version(1)
+                .changeSeq(12L)
+                .build();
+        Inventory beyondLimit = Inventory.builder()
+                .id(4L)
+                .productId(10L)
+                .storeId(1L)
+                .availableQty(5)
+                .version(1)
+                .changeSeq(14L)
+                .build();
+
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1:10".getBytes(StandardCharsets.UTF_8));
+        String expectedCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1:12".getBytes(StandardCharsets.UTF_8));
+
+        when(storePort.existsById(1L)).thenReturn(Mono.just(true));
+        when(inventoryPort.findChangedSince(1L, 10L, 3)).thenReturn(Flux.just(first, second, beyondLimit));
+        when(inventoryMapper.toSyncItem(any(Inventory.class))).thenReturn(InventorySyncItem.builder()
+                .productSku("REM-001-BL-M")
+                .availableQty(3)
+                .version(2)
+                .build());
+
+        // When
+        Mono<InventorySyncResponse> result = inventoryService.getInventoryChanges(1L, cursor, 2);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextMatches(response ->
+                        response.getChanges().size() == 2 &&
+                        expectedCursor.equals(response.getNextCursor()) &&
+                        response.isHasMore()
+                )
+                .verifyComplete();
+    }
+
+    @Test
+    void getInventoryChanges_CursorAheadOfStore_RequiresResync() {
+        // Given
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1:500".getBytes(StandardCharsets.UTF_8));
+
+        when(storePort.existsById(1L)).thenReturn(Mono.just(true));
+        when(inventoryPort.findChangedSince(1L, 500L, 101)).thenReturn(Flux.empty());
+        when(inventoryPort.findLastChangeSeq(1L)).thenReturn(Mono.just(42L));
+
+        // When
+        Mono<InventorySyncResponse> result = inventoryService.getInventoryChanges(1L, cursor, null);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.SYNC_CURSOR_EXPIRED
+                )
+                .verify();
+    }
+
     @Test
     void getInventoryByProductSkuAndStore_Success() {
         // Given
         when(storePort.existsById(1L)).thenReturn(Mono.just(true));
         when(inventoryPort.findByProductSkuAndStoreId("REM-001-BL-M", 1L))
                 .thenReturn(Mono.just(inventory));
-        when(productPort.findById(1L)).thenReturn(Mono.just(product));
-        when(storePort.findById(1L)).thenReturn(Mono.just(store));
         when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(inventoryResponse);
 
         // When
@@ -184,6 +420,92 @@ class InventoryServiceTest {
         verify(inventoryPort, never()).findByProductSkuAndStoreId(anyString(), anyLong());
     }
 
+    @Test
+    void getInventoryByProductSkuAsOf_MaterializesAllStoresInOneQuery() {
+        // Given: la tienda 2 no tenía historia en ese instante
+        LocalDateTime asOf = LocalDateTime.now().minusDays(1);
+        Inventory otherStore = Inventory.builder().id(2L).productId(1L).storeId(2L).availableQty(40).version(3).build();
+        when(productPort.findBySku("REM-001-BL-M")).thenReturn(Mono.just(product));
+        when(inventoryPort.findByProductSku("REM-001-BL-M")).thenReturn(Flux.just(inventory, otherStore));
+        when(inventoryLedgerPort.materializeAsOfByStore(1L, asOf)).thenReturn(Mono.just(Map.of(1L, 18)));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenAnswer(invocation -> {
+            Inventory historic = invocation.getArgument(0);
+            return InventoryResponse.builder()
+                    .storeId(historic.getStoreId())
+                    .availableQty(historic.getAvailableQty())
+                    .version(historic.getVersion())
+                    .build();
+        });
+
+        // When
+        Flux<InventoryResponse> result = inventoryService.getInventoryByProductSkuAsOf("REM-001-BL-M", asOf);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextMatches(response ->
+                        response.getStoreId() == 1L &&
+                        response.getAvailableQty() == 18 &&
+                        response.getVersion() == null &&
+                        asOf.equals(response.getAsOf())
+                )
+                .verifyComplete();
+
+        verify(inventoryLedgerPort, never()).materializeAsOf(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getInventoryByProductSkuAndStoreAsOf_Success() {
+        // Given
+        LocalDateTime asOf = LocalDateTime.now().minusDays(1);
+        InventoryResponse historicResponse = InventoryResponse.builder()
+                .id(1L)
+                .productSku("REM-001-BL-M")
+                .storeId(1L)
+                .availableQty(18)
+                .build();
+
+        when(storePort.existsById(1L)).thenReturn(Mono.just(true));
+        when(inventoryPort.findByProductSkuAndStoreId("REM-001-BL-M", 1L))
+                .thenReturn(Mono.just(inventory));
+        when(inventoryLedgerPort.materializeAsOf(1L, 1L, asOf)).thenReturn(Mono.just(18));
+        when(inventoryMapper.toResponse(argThat(historic -> historic.getAvailableQty() == 18)))
+                .thenReturn(historicResponse);
+
+        // When
+        Mono<InventoryResponse> result = inventoryService.getInventoryByProductSkuAndStoreAsOf("REM-001-BL-M", 1L, asOf);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextMatches(response ->
+                        response.getAvailableQty() == 18 &&
+                        asOf.equals(response.getAsOf())
+                )
+                .verifyComplete();
+
+        verify(inventoryLedgerPort).materializeAsOf(1L, 1L, asOf);
+    }
+
+    @Test
+    void getInventoryByProductSkuAndStoreAsOf_NoHistory() {
+        // Given
+        LocalDateTime asOf = LocalDateTime.now().minusYears(2);
+        when(storePort.existsById(1L)).thenReturn(Mono.just(true));
+        when(inventoryPort.findByProductSkuAndStoreId("REM-001-BL-M", 1L))
+                .thenReturn(Mono.just(inventory));
+        when(inventoryLedgerPort.materializeAsOf(1L, 1L, asOf)).thenReturn(Mono.empty());
+
+        // When
+        Mono<InventoryResponse> result = inventoryService.getInventoryByProductSkuAndStoreAsOf("REM-001-BL-M", 1L, asOf);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.INVENTORY_NOT_FOUND
+                )
+                .verify();
+    }
+
     @Test
     void updateInventory_CreateNew_Success() {
         // Given
@@ -203,7 +525,6 @@ class InventoryServiceTest {
         when(storePort.findById(1L)).thenReturn(Mono.just(store));
         when(inventoryPort.findByProductIdAndStoreId(1L, 1L)).thenReturn(Mono.empty());
         when(inventoryPort.save(any(Inventory.class))).thenReturn(Mono.just(newInventory));
-        when(productPort.findById(1L)).thenReturn(Mono.just(product));
         when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(inventoryResponse);
 
         // When
@@ -217,6 +538,41 @@ class InventoryServiceTest {
         verify(inventoryPort).save(any(Inventory.class));
     }
 
+    @Test
+    void updateInventory_BelowReservedUnits_ShouldFail() {
+        // Given: 10 unidades reservadas
+        InventoryUpdateRequest request = InventoryUpdateRequest.builder()
+                .availableQty(6)
+                .build();
+
+        Inventory existingInventory = Inventory.builder()
+                .id(1L)
+                .productId(1L)
+                .storeId(1L)
+                .availableQty(25)
+                .reservedQty(10)
+                .version(0)
+                .build();
+
+        when(productPort.findBySku("REM-001-BL-M")).thenReturn(Mono.just(product));
+        when(storePort.findById(1L)).thenReturn(Mono.just(store));
+        when(inventoryPort.findByProductIdAndStoreId(1L, 1L)).thenReturn(Mono.just(existingInventory));
+
+        // When
+        Mono<InventoryResponse> result = inventoryService.updateInventory("REM-001-BL-M", 1L, request);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.INVALID_ADJUSTMENT &&
+                        ((BusinessException) throwable).getDetails().contains("10 reserved")
+                )
+                .verify();
+
+        verify(inventoryPort, never()).save(any());
+    }
+
     @Test
     void updateInventory_UpdateExisting_Success() {
         // Given
@@ -246,7 +602,6 @@ class InventoryServiceTest {
         when(storePort.findById(1L)).thenReturn(Mono.just(store));
         when(inventoryPort.findByProductIdAndStoreId(1L, 1L)).thenReturn(Mono.just(existingInventory));
         when(inventoryPort.save(any(Inventory.class))).thenReturn(Mono.just(updatedInventory));
-        when(productPort.findById(1L)).thenReturn(Mono.just(product));
         when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(inventoryResponse);
 
         // When
@@ -276,11 +631,8 @@ class InventoryServiceTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(inventoryPort.findByProductSkuAndStoreId("REM-001-BL-M", 1L))
-                .thenReturn(Mono.just(inventory));
-        when(inventoryPort.save(any(Inventory.class))).thenReturn(Mono.just(updatedInventory));
-        when(productPort.findById(1L)).thenReturn(Mono.just(product));
-        when(storePort.findById(1L)).thenReturn(Mono.just(store));
+        when(adjustmentCombiner.adjust("REM-001-BL-M", 1L, 5))
+                .thenReturn(Mono.just(updatedInventory));
         when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(inventoryResponse);
 
         // When
@@ -291,7 +643,43 @@ class InventoryServiceTest {
                 .expectNextMatches(response -> response.getProductSku().equals("REM-001-BL-M"))
                 .verifyComplete();
 
-        verify(inventoryPort).save(any(Inventory.class));
+        verify(adjustmentCombiner).adjust("REM-001-BL-M", 1L, 5);
+        verify(inventoryPort, never()).save(any());
+        verify(inventoryChangePort).publish(updatedInventory);
+    }
+
+    @Test
+    void streamInventoryChanges_FiltersByStoreAndProduct() {
+        // Given
+        when(storePort.findById(1L)).thenReturn(Mono.just(store));
+        when(productPort.findBySku("REM-001-BL-M")).thenReturn(Mono.just(product));
+        when(inventoryChangePort.subscribe(1L, 1L)).thenReturn(Flux.just(inventory));
+        when(inventoryMapper.toResponse(inventory)).thenReturn(inventoryResponse);
+
+        // When
+        Flux<InventoryResponse> result = inventoryService.streamInventoryChanges(1L, "REM-001-BL-M");
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext(inventoryResponse)
+                .verifyComplete();
+
+        verify(inventoryChangePort).subscribe(1L, 1L);
+    }
+
+    @Test
+    void streamInventoryChanges_StoreNotFound() {
+        // Given
+        when(storePort.findById(99L)).thenReturn(Mono.empty());
+
+        // When
+        Flux<InventoryResponse> result = inventoryService.streamInventoryChanges(99L, null);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable -> throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.STORE_NOT_FOUND)
+                .verify();
     }
 
     @Test
@@ -301,6 +689,8 @@ class InventoryServiceTest {
                 .adjustment(-30)
                 .build();
 
+        when(adjustmentCombiner.adjust("REM-001-BL-M", 1L, -30))
+                .thenReturn(Mono.empty());
         when(inventoryPort.findByProductSkuAndStoreId("REM-001-BL-M", 1L))
                 .thenReturn(Mono.just(inventory));
 
@@ -318,6 +708,57 @@ class InventoryServiceTest {
         verify(inventoryPort, never()).save(any());
     }
 
+    @Test
+    void adjustInventory_RejectedButStockRefilledConcurrently_AsksToRetry() {
+        // Given: el UPDATE condicional rechazó, pero antes de releer otra escritura repuso stock
+        InventoryAdjustmentRequest request = InventoryAdjustmentRequest.builder()
+                .adjustment(-10)
+                .build();
+
+        when(adjustmentCombiner.adjust("REM-001-BL-M", 1L, -10))
+                .thenReturn(Mono.empty());
+        when(inventoryPort.findByProductSkuAndStoreId("REM-001-BL-M", 1L))
+                .thenReturn(Mono.just(inventory));
+
+        // When
+        Mono<InventoryResponse> result = inventoryService.adjustInventory("REM-001-BL-M", 1L, request);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.OPTIMISTIC_LOCK_FAILURE
+                )
+                .verify();
+    }
+
+    @Test
+    void adjustInventory_ReservedUnitsAreNotSellable() {
+        // Given
+        inventory.setReservedQty(20);
+        InventoryAdjustmentRequest request = InventoryAdjustmentRequest.builder()
+                .adjustment(-10)
+                .build();
+
+        when(adjustmentCombiner.adjust("REM-001-BL-M", 1L, -10))
+                .thenReturn(Mono.empty());
+        when(inventoryPort.findByProductSkuAndStoreId("REM-001-BL-M", 1L))
+                .thenReturn(Mono.just(inventory));
+
+        // When
+        Mono<InventoryResponse> result = inventoryService.adjustInventory("REM-001-BL-M", 1L, request);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.INSUFFICIENT_STOCK &&
+                        ((BusinessException) throwable).getDetails().contains("Reserved: 20") &&
+                        ((BusinessException) throwable).getDetails().contains("Result would be: -5")
+                )
+                .verify();
+    }
+
     @Test
     void adjustInventory_InventoryNotFound() {
         // Given
@@ -325,6 +766,8 @@ class InventoryServiceTest {
                 .adjustment(5)
                 .build();
 
+        when(adjustmentCombiner.adjust("INVALID-SKU", 1L, 5))
+                .thenReturn(Mono.empty());
         when(inventoryPort.findByProductSkuAndStoreId("INVALID-SKU", 1L))
                 .thenReturn(Mono.empty());
 
@@ -342,6 +785,342 @@ class InventoryServiceTest {
         verify(inventoryPort, never()).save(any());
     }
 
+    @Test
+    void adjustInventoryIdempotent_ReplayReturnsOriginalResponse() {
+        // Given
+        InventoryAdjustmentRequest request = InventoryAdjustmentRequest.builder()
+                .adjustment(5)
+                .build();
+
+        when(idempotencyKeyPort.claim(anyString(), anyString(), anyString(), any())).thenReturn(Mono.just(true));
+        when(idempotencyKeyPort.complete(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+        when(adjustmentCombiner.adjust("REM-001-BL-M", 1L, 5))
+                .thenReturn(Mono.just(inventory));
+        when(inventoryMapper.toResponse(inventory)).thenReturn(inventoryResponse);
+
+        // When
+        Mono<InventoryResponse> first = inventoryService.adjustInventoryIdempotent(
+                "REM-001-BL-M", 1L, request, "user_dinosaurio", "pos-7-sale-123");
+        Mono<InventoryResponse> retry = inventoryService.adjustInventoryIdempotent(
+                "REM-001-BL-M", 1L, request, "user_dinosaurio", "pos-7-sale-123");
+
+        // Then
+        StepVerifier.create(first)
+                .expectNext(inventoryResponse)
+                .verifyComplete();
+        StepVerifier.create(retry)
+                .expectNext(inventoryResponse)
+                .verifyComplete();
+
+        verify(adjustmentCombiner, times(1)).adjust("REM-001-BL-M", 1L, 5);
+        verify(inventoryPort, never()).findByProductSkuAndStoreId(any(), any());
+    }
+
+    @Test
+    void adjustInventoryIdempotent_SameKeyDifferentRequest_ShouldFail() {
+        // Given
+        when(idempotencyKeyPort.claim(anyString(), anyString(), anyString(), any())).thenReturn(Mono.just(true));
+        when(idempotencyKeyPort.complete(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+        when(adjustmentCombiner.adjust("REM-001-BL-M", 1L, 5))
+                .thenReturn(Mono.just(inventory));
+        when(inventoryMapper.toResponse(inventory)).thenReturn(inventoryResponse);
+
+        inventoryService.adjustInventoryIdempotent("REM-001-BL-M", 1L,
+                InventoryAdjustmentRequest.builder().adjustment(5).build(), "user_dinosaurio", "pos-7-sale-124").block();
+
+        // When
+        Mono<InventoryResponse> result = inventoryService.adjustInventoryIdempotent("REM-001-BL-M", 1L,
+                InventoryAdjustmentRequest.builder().adjustment(-3).build(), "user_dinosaurio", "pos-7-sale-124");
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.IDEMPOTENCY_KEY_REUSED
+                )
+                .verify();
+
+        verify(adjustmentCombiner, never()).adjust("REM-001-BL-M", 1L, -3);
+    }
+
+    @Test
+    void adjustInventoryBatch_ReportsResultPerItem() {
+        // Given
+        InventoryBatchAdjustmentRequest request = InventoryBatchAdjustmentRequest.builder()
+                .items(List.of(
+                        InventoryBatchAdjustmentItem.builder().productSku("REM-001-BL-M").storeId(1L).adjustment(-5).build(),
+                        InventoryBatchAdjustmentItem.builder().productSku("INVALID-SKU").storeId(1L).adjustment(2).build(),
+                        InventoryBatchAdjustmentItem.builder().productSku("REM-001-BL-M").storeId(1L).adjustment(-50).build(),
+                        InventoryBatchAdjustmentItem.builder().productSku("REM-001-BL-M").storeId(1L).adjustment(0).build()))
+                .build();
+
+        Inventory afterSale = Inventory.builder()
+                .id(1L)
+                .productId(1L)
+                .storeId(1L)
+                .availableQty(20)
+                .version(1)
+                .build();
+
+        when(productPort.findBySkus(any())).thenReturn(Flux.just(product));
+        when(storePort.findById(1L)).thenReturn(Mono.just(store));
+        when(inventoryPort.adjustAvailableQtyBatch(any())).thenReturn(Mono.just(List.of(
+                AdjustmentOutcome.builder().adjustment(-5).applied(true).previousQty(25).inventory(afterSale).build(),
+                AdjustmentOutcome.builder().adjustment(-50).applied(false).previousQty(20).inventory(afterSale).build())));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(inventoryResponse);
+
+        // When
+        Mono<InventoryBatchAdjustmentResponse> result = inventoryService.adjustInventoryBatch(request);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextMatches(response ->
+                        response.getApplied() == 1 &&
+                        response.getRejected() == 3 &&
+                        response.getResults().get(0).isApplied() &&
+                        response.getResults().get(0).getPreviousQty() == 25 &&
+                        ErrorCode.PRODUCT_NOT_FOUND.getCode().equals(response.getResults().get(1).getErrorCode()) &&
+                        ErrorCode.INSUFFICIENT_STOCK.getCode().equals(response.getResults().get(2).getErrorCode()) &&
+                        ErrorCode.INVALID_ADJUSTMENT.getCode().equals(response.getResults().get(3).getErrorCode())
+                )
+                .verifyComplete();
+
+        verify(productPort).findBySkus(any());
+        verify(storePort).findById(1L);
+        verify(inventoryPort).adjustAvailableQtyBatch(argThat(adjustments -> adjustments.size() == 2));
+        // Sólo la delta aplicada se difunde, con el producto y la tienda resueltos
+        verify(inventoryChangePort, times(1)).publish(argThat(published ->
+                published == afterSale && published.getProduct() == product && published.getStore() == store));
+    }
+
+    @Test
+    void checkout_AllLinesAvailable_AppliesInOneCall() {
+        // Given
+        InventoryCheckoutRequest request = InventoryCheckoutRequest.builder()
+                .lines(List.of(
+                        InventoryCheckoutLine.builder().productSku("REM-001-BL-M").quantity(2).build(),
+                        InventoryCheckoutLine.builder().productSku("REM-001-BL-M").quantity(3).build()))
+                .build();
+
+        Inventory afterCheckout = Inventory.builder()
+                .id(1L)
+                .productId(1L)
+                .storeId(1L)
+                .availableQty(20)
+                .version(1)
+                .build();
+
+        when(storePort.findById(1L)).thenReturn(Mono.just(store));
+        when(productPort.findBySkus(any())).thenReturn(Flux.just(product));
+        when(inventoryPort.adjustAvailableQtyAllOrNothing(any())).thenReturn(Mono.just(List.of(
+                AdjustmentOutcome.builder().adjustment(-5).applied(true).previousQty(25).inventory(afterCheckout).build())));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(inventoryResponse);
+
+        // When
+        Mono<InventoryCheckoutResponse> result = inventoryService.checkout(1L, request);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextMatches(response ->
+                        response.getLines() == 2 &&
+                        response.getUnits() == 5 &&
+                        response.getInventories().size() == 1
+                )
+                .verifyComplete();
+
+        verify(inventoryPort).adjustAvailableQtyAllOrNothing(argThat(adjustments ->
+                adjustments.size() == 1 && adjustments.get(0).getDelta() == -5));
+        verify(inventoryChangePort).publish(argThat(published ->
+                published == afterCheckout && published.getProduct() == product && published.getStore() == store));
+    }
+
+    @Test
+    void checkout_InsufficientStock_ReportsShortLines() {
+        // Given
+        Product otherProduct = Product.builder()
+                .id(2L)
+                .sku("JEA-002-AZ-32")
+                .name("Jean Azul 32")
+                .build();
+
+        InventoryCheckoutRequest request = InventoryCheckoutRequest.builder()
+                .lines(List.of(
+                        InventoryCheckoutLine.builder().productSku("REM-001-BL-M").quantity(5).build(),
+                        InventoryCheckoutLine.builder().productSku("JEA-002-AZ-32").quantity(4).build()))
+                .build();
+
+        when(storePort.findById(1L)).thenReturn(Mono.just(store));
+        when(productPort.findBySkus(any())).thenReturn(Flux.just(product, otherProduct));
+        when(inventoryPort.adjustAvailableQtyAllOrNothing(any())).thenReturn(Mono.just(List.of(
+                AdjustmentOutcome.builder().adjustment(-5).applied(false).previousQty(25).inventory(inventory).build(),
+                AdjustmentOutcome.builder().adjustment(-4).applied(false).previousQty(1).inventory(inventory).build())));
+
+        // When
+        Mono<InventoryCheckoutResponse> result = inventoryService.checkout(1L, request);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.INSUFFICIENT_STOCK &&
+                        ((BusinessException) throwable).getDetails().contains("JEA-002-AZ-32") &&
+                        !((BusinessException) throwable).getDetails().contains("REM-001-BL-M")
+                )
+                .verify();
+
+        verify(inventoryChangePort, never()).publish(any());
+    }
+
+    @Test
+    void checkout_MissingInventoryRow_ReportsInventoryNotFound() {
+        // Given: el producto existe pero no tiene fila de inventario en la tienda
+        Product otherProduct = Product.builder()
+                .id(2L)
+                .sku("JEA-002-AZ-32")
+                .name("Jean Azul 32")
+                .build();
+
+        InventoryCheckoutRequest request = InventoryCheckoutRequest.builder()
+                .lines(List.of(
+                        InventoryCheckoutLine.builder().productSku("REM-001-BL-M").quantity(50).build(),
+                        InventoryCheckoutLine.builder().productSku("JEA-002-AZ-32").quantity(4).build()))
+                .build();
+
+        when(storePort.findById(1L)).thenReturn(Mono.just(store));
+        when(productPort.findBySkus(any())).thenReturn(Flux.just(product, otherProduct));
+        when(inventoryPort.adjustAvailableQtyAllOrNothing(any())).thenReturn(Mono.just(List.of(
+                AdjustmentOutcome.builder().adjustment(-50).applied(false).previousQty(25).inventory(inventory).build(),
+                AdjustmentOutcome.builder().adjustment(-4).applied(false).build())));
+
+        // When
+        Mono<InventoryCheckoutResponse> result = inventoryService.checkout(1L, request);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.INVENTORY_NOT_FOUND &&
+                        ((BusinessException) throwable).getDetails().contains("JEA-002-AZ-32") &&
+                        !((BusinessException) throwable).getDetails().contains("REM-001-BL-M")
+                )
+                .verify();
+    }
+
+    @Test
+    void transferInventory_UpdatesBothStores() {
+        // Given
+        Store destinationStore = Store.builder()
+                .id(2L)
+                .name("Tienda Centro")
+                .build();
+
+        InventoryTransferRequest request = InventoryTransferRequest.builder()
+                .fromStoreId(1L)
+                .toStoreId(2L)
+                .quantity(5)
+                .build();
+
+        Inventory source = Inventory.builder().id(1L).productId(1L).storeId(1L).availableQty(20).version(1).build();
+        Inventory destination = Inventory.builder().id(2L).productId(1L).storeId(2L).availableQty(15).version(4).build();
+
+        when(productPort.findBySku("REM-001-BL-M")).thenReturn(Mono.just(product));
+        when(storePort.findById(1L)).thenReturn(Mono.just(store));
+        when(storePort.findById(2L)).thenReturn(Mono.just(destinationStore));
+        when(inventoryPort.transfer(any())).thenReturn(Mono.just(List.of(TransferOutcome.builder()
+                .applied(true)
+                .previousSourceQty(25)
+                .source(source)
+                .destination(destination)
+                .build())));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(inventoryResponse);
+
+        // When
+        Mono<InventoryTransferResponse> result = inventoryService.transferInventory("REM-001-BL-M", request);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextMatches(response ->
+                        response.getQuantity() == 5 &&
+                        response.getSource() != null &&
+                        response.getDestination() != null
+                )
+                .verifyComplete();
+
+        verify(inventoryPort).transfer(argThat(transfers ->
+                transfers.size() == 1 &&
+                transfers.get(0).getFromStoreId() == 1L &&
+                transfers.get(0).getToStoreId() == 2L &&
+                transfers.get(0).getQuantity() == 5));
+        verify(inventoryChangePort).publish(argThat(published -> published == source && published.getStore() == store));
+        verify(inventoryChangePort).publish(argThat(published ->
+                published == destination && published.getStore() == destinationStore));
+    }
+
+    @Test
+    void transferInventory_SameStore_ShouldFail() {
+        // Given
+        InventoryTransferRequest request = InventoryTransferRequest.builder()
+                .fromStoreId(1L)
+                .toStoreId(1L)
+                .quantity(5)
+                .build();
+
+        // When
+        Mono<InventoryTransferResponse> result = inventoryService.transferInventory("REM-001-BL-M", request);
+
+        // Then
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable ->
+                        throwable instanceof BusinessException &&
+                        ((BusinessException) throwable).getErrorCode() == ErrorCode.INVALID_PARAMETER_FORMAT
+                )
+                .verify();
+
+        verify(inventoryPort, never()).transfer(any());
+    }
+
+    @Test
+    void transferInventoryBulk_ReportsResultPerItem() {
+        // Given
+        Store destinationStore = Store.builder()
+                .id(2L)
+                .name("Tienda Centro")
+                .build();
+
+        InventoryBulkTransferRequest request = InventoryBulkTransferRequest.builder()
+                .items(List.of(
+                        InventoryBulkTransferItem.builder().productSku("REM-001-BL-M").fromStoreId(1L).toStoreId(2L).quantity(5).build(),
+                        InventoryBulkTransferItem.builder().productSku("REM-001-BL-M").fromStoreId(1L).toStoreId(2L).quantity(500).build(),
+                        InventoryBulkTransferItem.builder().productSku("INVALID-SKU").fromStoreId(1L).toStoreId(2L).quantity(1).build()))
+                .build();
+
+        when(productPort.findBySkus(any())).thenReturn(Flux.just(product));
+        when(storePort.findById(1L)).thenReturn(Mono.just(store));
+        when(storePort.findById(2L)).thenReturn(Mono.just(destinationStore));
+        when(inventoryPort.transfer(any())).thenReturn(Mono.just(List.of(
+                TransferOutcome.builder().applied(true).previousSourceQty(25).source(inventory).destination(inventory).build(),
+                TransferOutcome.builder().applied(false).previousSourceQty(20).source(inventory).destination(inventory).build())));
+
+        // When
+        Mono<InventoryBulkTransferResponse> result = inventoryService.transferInventoryBulk(request);
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextMatches(response ->
+                        response.getApplied() == 1 &&
+                        response.getRejected() == 2 &&
+                        response.getTransactions() == 1 &&
+                        response.getResults().get(0).isApplied() &&
+                        ErrorCode.INSUFFICIENT_STOCK.getCode().equals(response.getResults().get(1).getErrorCode()) &&
+                        ErrorCode.PRODUCT_NOT_FOUND.getCode().equals(response.getResults().get(2).getErrorCode())
+                )
+                .verifyComplete();
+
+        verify(inventoryPort, times(1)).transfer(argThat(transfers -> transfers.size() == 2));
+        // Origen y destino del único traspaso aplicado
+        verify(inventoryChangePort, times(2)).publish(inventory);
+    }
+
     @Test
     void updateInventory_NegativeQuantity_ShouldFail() {
         // Given